@@ -0,0 +1,141 @@
+package br.com.fiap.dao;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeamento de 100 mil linhas: busca por nome + java.sql.Date/Timestamp (legado)
+ * contra índices resolvidos uma vez + getObject(LocalDate/OffsetDateTime).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeadorLinhaBenchmark {
+
+    private static final int LINHAS = 100_000;
+    private static final String CADASTRO = "2025-03-10T14:30:00-03:00";
+    private static final String VERSAO = "3";
+
+    private ResultSet clientes;
+    private ResultSet empresas;
+    private ResultSet projetos;
+    private ResultSet subAtividades;
+
+    @Setup
+    public void preparar() {
+        List<String[]> linhasClientes = new ArrayList<>(LINHAS);
+        List<String[]> linhasEmpresas = new ArrayList<>(LINHAS);
+        List<String[]> linhasProjetos = new ArrayList<>(LINHAS);
+        List<String[]> linhasSubs = new ArrayList<>(LINHAS);
+        for (int i = 1; i <= LINHAS; i++) {
+            String id = Integer.toString(i);
+            linhasClientes.add(new String[]{id, "7", "Cliente " + i, "cliente" + i + "@inova.com", "11999990000",
+                    "12345678901", "Analista", "TI", "COLABORADOR", "t", i % 3 == 0 ? null : "1990-05-20", CADASTRO, VERSAO});
+            linhasEmpresas.add(new String[]{id, "12345678000199", "Empresa " + i, "Fantasia " + i, "contato@empresa.com",
+                    "1133330000", "São Paulo", "SP", "Metalurgia", "t", "123", "456", "Rua A", "100", null,
+                    "Centro", "01000000", "250", "2001-01-15", CADASTRO, VERSAO});
+            linhasProjetos.add(new String[]{id, "7", i % 2 == 0 ? "42" : null, "Projeto " + i, "Descrição",
+                    "2025-01-01", "2025-12-31", null, "150000.00", "EM_ANDAMENTO", "ALTA", CADASTRO, "Gerente", VERSAO});
+            linhasSubs.add(new String[]{id, Integer.toString(i / 4 + 1), "Sub " + i, "Descrição",
+                    "2025-02-01", "2025-02-15", null, "PENDENTE", "MEDIA", CADASTRO, VERSAO});
+        }
+        clientes = new ResultSetMemoria(new String[]{"id_cliente", "id_empresa", "nome", "email", "telefone", "cpf",
+                "cargo", "departamento", "role", "ativo", "data_nascimento", "data_cadastro", "versao"}, linhasClientes);
+        empresas = new ResultSetMemoria(new String[]{"id_empresa", "cnpj", "razao_social", "nome_fantasia", "email",
+                "telefone", "cidade", "estado", "setor_atuacao", "ativo", "inscricao_estadual", "inscricao_municipal",
+                "endereco", "numero", "complemento", "bairro", "cep", "quantidade_funcionarios", "data_fundacao",
+                "data_cadastro", "versao"}, linhasEmpresas);
+        projetos = new ResultSetMemoria(new String[]{"id_projeto", "id_empresa", "id_gerente", "titulo", "descricao",
+                "data_inicio", "data_termino_prevista", "data_termino_real", "orcamento", "status", "prioridade",
+                "data_cadastro", "cliente_nome", "versao"}, linhasProjetos);
+        subAtividades = new ResultSetMemoria(new String[]{"id_subatividade", "id_atividade", "titulo", "descricao",
+                "data_inicio_prevista", "data_termino_prevista", "data_termino_real", "status", "prioridade",
+                "data_cadastro", "versao"}, linhasSubs);
+    }
+
+    @Benchmark
+    public void clienteLegado(Blackhole bh) throws SQLException {
+        clientes.beforeFirst();
+        while (clientes.next()) {
+            bh.consume(MapeadoresLegados.cliente(clientes));
+        }
+    }
+
+    @Benchmark
+    public void clienteIndice(Blackhole bh) throws SQLException {
+        clientes.beforeFirst();
+        var mapeador = ClienteDAO.mapeadorDetalhe(IndiceColunas.de(clientes));
+        while (clientes.next()) {
+            bh.consume(mapeador.mapear(clientes));
+        }
+    }
+
+    @Benchmark
+    public void empresaLegado(Blackhole bh) throws SQLException {
+        empresas.beforeFirst();
+        while (empresas.next()) {
+            bh.consume(MapeadoresLegados.empresa(empresas));
+        }
+    }
+
+    @Benchmark
+    public void empresaIndice(Blackhole bh) throws SQLException {
+        empresas.beforeFirst();
+        var mapeador = EmpresaDAO.mapeadorDetalhe(IndiceColunas.de(empresas));
+        while (empresas.next()) {
+            bh.consume(mapeador.mapear(empresas));
+        }
+    }
+
+    @Benchmark
+    public void projetoLegado(Blackhole bh) throws SQLException {
+        projetos.beforeFirst();
+        while (projetos.next()) {
+            bh.consume(MapeadoresLegados.projeto(projetos));
+        }
+    }
+
+    @Benchmark
+    public void projetoIndice(Blackhole bh) throws SQLException {
+        projetos.beforeFirst();
+        var mapeador = ProjetoDAO.mapeador(IndiceColunas.de(projetos));
+        while (projetos.next()) {
+            bh.consume(mapeador.mapear(projetos));
+        }
+    }
+
+    @Benchmark
+    public void subAtividadeLegado(Blackhole bh) throws SQLException {
+        subAtividades.beforeFirst();
+        while (subAtividades.next()) {
+            bh.consume(MapeadoresLegados.subAtividade(subAtividades));
+        }
+    }
+
+    @Benchmark
+    public void subAtividadeIndice(Blackhole bh) throws SQLException {
+        subAtividades.beforeFirst();
+        var mapeador = SubAtividadeDAO.mapeador(IndiceColunas.de(subAtividades));
+        while (subAtividades.next()) {
+            bh.consume(mapeador.mapear(subAtividades));
+        }
+    }
+}
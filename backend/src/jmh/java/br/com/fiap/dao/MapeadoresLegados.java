@@ -0,0 +1,140 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.model.Cliente;
+import br.com.fiap.model.Empresa;
+import br.com.fiap.model.Projeto;
+import br.com.fiap.model.Projeto.PrioridadeProjeto;
+import br.com.fiap.model.Projeto.StatusProjeto;
+import br.com.fiap.model.SubAtividade;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+
+/**
+ * Mapeadores como eram antes do MapeadorLinha: busca por nome a cada linha
+ * e conversão via java.sql.Date/Timestamp. Mantidos só como referência de benchmark.
+ */
+final class MapeadoresLegados {
+
+    private MapeadoresLegados() {
+    }
+
+    static Cliente cliente(ResultSet rs) throws SQLException {
+        var cliente = new Cliente();
+        cliente.setIdCliente(rs.getLong("id_cliente"));
+        cliente.setIdEmpresa(rs.getLong("id_empresa"));
+        cliente.setNome(rs.getString("nome"));
+        cliente.setEmail(rs.getString("email"));
+        cliente.setTelefone(rs.getString("telefone"));
+        cliente.setCpf(rs.getString("cpf"));
+        cliente.setCargo(rs.getString("cargo"));
+        cliente.setDepartamento(rs.getString("departamento"));
+        cliente.setRole(rs.getString("role"));
+        cliente.setAtivo(rs.getBoolean("ativo"));
+
+        Date dataNascimento = rs.getDate("data_nascimento");
+        if (dataNascimento != null) {
+            cliente.setDataNascimento(dataNascimento.toLocalDate());
+        } else {
+            cliente.setDataNascimento(null);
+        }
+
+        Timestamp dataCadastro = rs.getTimestamp("data_cadastro");
+        cliente.setDataCadastro(dataCadastro.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
+        return cliente;
+    }
+
+    static Empresa empresa(ResultSet rs) throws SQLException {
+        var empresa = new Empresa(
+                rs.getString("cnpj"),
+                rs.getString("razao_social"),
+                rs.getString("nome_fantasia"),
+                rs.getString("inscricao_estadual"),
+                rs.getString("inscricao_municipal"),
+                rs.getString("email"),
+                rs.getString("telefone"),
+                rs.getString("endereco"),
+                rs.getString("numero"),
+                rs.getString("complemento"),
+                rs.getString("bairro"),
+                rs.getString("cidade"),
+                rs.getString("estado"),
+                rs.getString("cep"),
+                rs.getObject("quantidade_funcionarios", Integer.class),
+                rs.getString("setor_atuacao"),
+                rs.getDate("data_fundacao") != null ?
+                        rs.getDate("data_fundacao").toLocalDate() : null
+        );
+
+        empresa.setIdEmpresa(rs.getLong("id_empresa"));
+        empresa.setDataCadastro(rs.getTimestamp("data_cadastro").toLocalDateTime());
+        empresa.setAtivo(rs.getBoolean("ativo"));
+        return empresa;
+    }
+
+    static Projeto projeto(ResultSet rs) throws SQLException {
+        Projeto projeto = new Projeto();
+        projeto.setIdProjeto(rs.getLong("id_projeto"));
+        projeto.setIdEmpresa(rs.getLong("id_empresa"));
+        Object idGerenteObj = rs.getObject("id_gerente");
+        if (idGerenteObj != null) {
+            // O texto do protocolo faz as vezes do int8 do driver
+            projeto.setIdGerente(Long.valueOf(idGerenteObj.toString()));
+        }
+        projeto.setTitulo(rs.getString("titulo"));
+        projeto.setDescricao(rs.getString("descricao"));
+
+        Date dataInicio = rs.getDate("data_inicio");
+        if (dataInicio != null) {
+            projeto.setDataInicio(dataInicio.toLocalDate());
+        }
+        Date dataTerminoPrevista = rs.getDate("data_termino_prevista");
+        if (dataTerminoPrevista != null) {
+            projeto.setDataTerminoPrevista(dataTerminoPrevista.toLocalDate());
+        }
+        Date dataTerminoReal = rs.getDate("data_termino_real");
+        if (dataTerminoReal != null) {
+            projeto.setDataTerminoReal(dataTerminoReal.toLocalDate());
+        }
+
+        java.math.BigDecimal orcamento = rs.getBigDecimal("orcamento");
+        if (orcamento != null) {
+            projeto.setOrcamento(orcamento.doubleValue());
+        }
+        projeto.setStatus(StatusProjeto.valueOf(rs.getString("status")));
+        projeto.setPrioridade(PrioridadeProjeto.valueOf(rs.getString("prioridade")));
+
+        Timestamp dataCadastro = rs.getTimestamp("data_cadastro");
+        if (dataCadastro != null) {
+            projeto.setDataCadastro(dataCadastro.toLocalDateTime());
+        }
+
+        String clienteNome = rs.getString("cliente_nome");
+        if (clienteNome != null) {
+            projeto.setClienteNome(clienteNome);
+        }
+        return projeto;
+    }
+
+    static SubAtividade subAtividade(ResultSet rs) throws SQLException {
+        SubAtividade sub = new SubAtividade();
+        sub.setIdSubAtividade(rs.getLong("id_subatividade"));
+        sub.setIdAtividade(rs.getLong("id_atividade"));
+        sub.setTitulo(rs.getString("titulo"));
+        sub.setDescricao(rs.getString("descricao"));
+        Date inicio = rs.getDate("data_inicio_prevista");
+        if (inicio != null) sub.setDataInicioPrevista(inicio.toLocalDate());
+        Date termino = rs.getDate("data_termino_prevista");
+        if (termino != null) sub.setDataTerminoPrevista(termino.toLocalDate());
+        Date terminoReal = rs.getDate("data_termino_real");
+        if (terminoReal != null) sub.setDataTerminoReal(terminoReal.toLocalDate());
+        sub.setStatus(rs.getString("status"));
+        sub.setPrioridade(rs.getString("prioridade"));
+        Timestamp ts = rs.getTimestamp("data_cadastro");
+        if (ts != null) sub.setDataCadastro(ts.toLocalDateTime());
+        return sub;
+    }
+}
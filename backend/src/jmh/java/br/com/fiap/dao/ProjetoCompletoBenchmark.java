@@ -0,0 +1,109 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.config.JacksonConfig;
+import br.com.fiap.factory.ConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /projetos/{id}/completo: árvore montada em Java (duas consultas, junção achatada,
+ * Jackson) contra o JSON montado pelo PostgreSQL. Precisa de um banco com o schema
+ * aplicado, configurado por DB_URL/DB_USER/DB_PASSWORD; os dados são criados e removidos aqui.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjetoCompletoBenchmark {
+
+    private static final int ATIVIDADES = 40;
+
+    // 40 atividades x 25/50 subatividades = 1.000/2.000 subatividades por projeto
+    @Param({"25", "50"})
+    public int subatividadesPorAtividade;
+
+    private long idEmpresa;
+    private long idProjeto;
+
+    @Setup(Level.Trial)
+    public void popular() throws SQLException {
+        try (Connection conexao = ConnectionFactory.getConnection()) {
+            idEmpresa = inserir(conexao, "INSERT INTO TB_EMPRESA (cnpj, razao_social) VALUES (?, 'Benchmark') "
+                    + "RETURNING id_empresa", Long.toString(System.nanoTime() % 100_000_000_000_000L));
+            idProjeto = inserir(conexao, "INSERT INTO TB_PROJETO (id_empresa, titulo, descricao, data_inicio, orcamento) "
+                    + "VALUES (?, 'Projeto benchmark', 'Árvore grande', CURRENT_DATE, 250000) RETURNING id_projeto", idEmpresa);
+            try (PreparedStatement stmt = conexao.prepareStatement(
+                    "INSERT INTO TB_ATIVIDADE (id_projeto, titulo, descricao, data_inicio_prevista, data_termino_prevista) "
+                            + "SELECT ?, 'Atividade ' || g, 'Descrição da atividade ' || g, CURRENT_DATE + g, CURRENT_DATE + g + 7 "
+                            + "FROM generate_series(1, ?) g")) {
+                stmt.setLong(1, idProjeto);
+                stmt.setInt(2, ATIVIDADES);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = conexao.prepareStatement(
+                    "INSERT INTO TB_SUBATIVIDADE (id_atividade, titulo, descricao, data_inicio_prevista, data_termino_prevista) "
+                            + "SELECT a.id_atividade, 'Subatividade ' || g, 'Descrição da subatividade ' || g, "
+                            + "a.data_inicio_prevista, a.data_inicio_prevista + 2 "
+                            + "FROM TB_ATIVIDADE a CROSS JOIN generate_series(1, ?) g WHERE a.id_projeto = ?")) {
+                stmt.setInt(1, subatividadesPorAtividade);
+                stmt.setLong(2, idProjeto);
+                stmt.executeUpdate();
+            }
+            conexao.createStatement().execute("ANALYZE TB_ATIVIDADE; ANALYZE TB_SUBATIVIDADE");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpar() throws SQLException {
+        // ON DELETE CASCADE leva projeto, atividades e subatividades
+        try (Connection conexao = ConnectionFactory.getConnection();
+             PreparedStatement stmt = conexao.prepareStatement("DELETE FROM TB_EMPRESA WHERE id_empresa = ?")) {
+            stmt.setLong(1, idEmpresa);
+            stmt.executeUpdate();
+        }
+        ConnectionFactory.fecharPool();
+    }
+
+    @Benchmark
+    public byte[] montagemJava() throws Exception {
+        try (ProjetoDAO dao = new ProjetoDAO()) {
+            return JacksonConfig.getObjectMapper().writeValueAsBytes(dao.pesquisarPorIdComAtividades(idProjeto).get());
+        }
+    }
+
+    @Benchmark
+    public byte[] montagemBanco() throws SQLException {
+        try (ProjetoDAO dao = new ProjetoDAO()) {
+            return dao.pesquisarArvoreJson(idProjeto).get();
+        }
+    }
+
+    private static long inserir(Connection conexao, String sql, Object parametro) throws SQLException {
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setObject(1, parametro);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
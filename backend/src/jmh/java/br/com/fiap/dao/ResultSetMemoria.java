@@ -0,0 +1,1055 @@
+package br.com.fiap.dao;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * ResultSet em memória para os benchmarks. Os valores ficam em texto, como chegam pelo
+ * protocolo do PostgreSQL, e a busca por nome passa por um mapa, como o findColumn do driver.
+ * Classe concreta que lê a linha atual direto do array: um Proxy custaria mais por chamada
+ * que o próprio mapeamento e esconderia a diferença entre os mapeadores.
+ */
+final class ResultSetMemoria implements ResultSet {
+    private final String[] colunas;
+    private final String[][] linhas;
+    private final Map<String, Integer> porNome = new HashMap<>();
+    private int cursor = -1;
+    private String[] linha;
+    private boolean nulo;
+
+    ResultSetMemoria(String[] colunas, List<String[]> linhas) {
+        this.colunas = colunas;
+        this.linhas = linhas.toArray(new String[0][]);
+        for (int i = 0; i < colunas.length; i++) {
+            porNome.put(colunas[i], i + 1);
+        }
+    }
+
+    private String texto(int indice) {
+        String valor = linha[indice - 1];
+        nulo = valor == null;
+        return valor;
+    }
+
+    private static SQLException naoSuportado() {
+        return new SQLFeatureNotSupportedException("Não usado nos benchmarks");
+    }
+
+    @Override
+    public boolean next() {
+        if (++cursor < linhas.length) {
+            linha = linhas[cursor];
+            return true;
+        }
+        linha = null;
+        return false;
+    }
+
+    @Override
+    public void beforeFirst() {
+        cursor = -1;
+        linha = null;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean isClosed() {
+        return false;
+    }
+
+    @Override
+    public boolean wasNull() {
+        return nulo;
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() {
+        return (ResultSetMetaData) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ResultSetMetaData.class}, (p, m, args) -> switch (m.getName()) {
+                    case "getColumnCount" -> colunas.length;
+                    case "getColumnLabel", "getColumnName" -> colunas[(int) args[0] - 1];
+                    default -> throw new UnsupportedOperationException("ResultSetMetaData." + m.getName());
+                });
+    }
+
+    @Override
+    public int findColumn(String rotulo) throws SQLException {
+        Integer indice = porNome.get(rotulo);
+        if (indice == null) {
+            indice = porNome.get(rotulo.toLowerCase(Locale.ROOT));
+        }
+        if (indice == null) {
+            throw new SQLException("Coluna inexistente: " + rotulo);
+        }
+        return indice;
+    }
+
+    @Override
+    public String getString(int indice) {
+        return texto(indice);
+    }
+
+    @Override
+    public boolean getBoolean(int indice) {
+        return "t".equals(texto(indice));
+    }
+
+    @Override
+    public int getInt(int indice) {
+        String valor = texto(indice);
+        return valor == null ? 0 : Integer.parseInt(valor);
+    }
+
+    @Override
+    public long getLong(int indice) {
+        String valor = texto(indice);
+        return valor == null ? 0L : Long.parseLong(valor);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int indice) {
+        String valor = texto(indice);
+        return valor == null ? null : new BigDecimal(valor);
+    }
+
+    @Override
+    public Date getDate(int indice) {
+        String valor = texto(indice);
+        return valor == null ? null : Date.valueOf(LocalDate.parse(valor));
+    }
+
+    @Override
+    public Timestamp getTimestamp(int indice) {
+        String valor = texto(indice);
+        return valor == null ? null : Timestamp.from(OffsetDateTime.parse(valor).toInstant());
+    }
+
+    @Override
+    public Object getObject(int indice) {
+        return texto(indice);
+    }
+
+    @Override
+    public <T> T getObject(int indice, Class<T> tipo) throws SQLException {
+        String valor = texto(indice);
+        if (valor == null) {
+            return null;
+        }
+        if (tipo == LocalDate.class) {
+            return tipo.cast(LocalDate.parse(valor));
+        }
+        if (tipo == OffsetDateTime.class) {
+            return tipo.cast(OffsetDateTime.parse(valor));
+        }
+        if (tipo == Integer.class) {
+            return tipo.cast(Integer.valueOf(valor));
+        }
+        throw naoSuportado();
+    }
+
+    @Override
+    public String getString(String rotulo) throws SQLException {
+        return getString(findColumn(rotulo));
+    }
+
+    @Override
+    public boolean getBoolean(String rotulo) throws SQLException {
+        return getBoolean(findColumn(rotulo));
+    }
+
+    @Override
+    public int getInt(String rotulo) throws SQLException {
+        return getInt(findColumn(rotulo));
+    }
+
+    @Override
+    public long getLong(String rotulo) throws SQLException {
+        return getLong(findColumn(rotulo));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String rotulo) throws SQLException {
+        return getBigDecimal(findColumn(rotulo));
+    }
+
+    @Override
+    public Date getDate(String rotulo) throws SQLException {
+        return getDate(findColumn(rotulo));
+    }
+
+    @Override
+    public Timestamp getTimestamp(String rotulo) throws SQLException {
+        return getTimestamp(findColumn(rotulo));
+    }
+
+    @Override
+    public Object getObject(String rotulo) throws SQLException {
+        return getObject(findColumn(rotulo));
+    }
+
+    @Override
+    public <T> T getObject(String rotulo, Class<T> tipo) throws SQLException {
+        return getObject(findColumn(rotulo), tipo);
+    }
+
+    // Demais operações não são usadas pelos mapeadores
+
+    @Override
+    public byte getByte(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public short getShort(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public float getFloat(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public double getDouble(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int p0, int p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public byte[] getBytes(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Time getTime(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public InputStream getAsciiStream(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public InputStream getUnicodeStream(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public InputStream getBinaryStream(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public byte getByte(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public short getShort(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public float getFloat(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public double getDouble(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String p0, int p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public byte[] getBytes(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Time getTime(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public InputStream getAsciiStream(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public InputStream getUnicodeStream(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public InputStream getBinaryStream(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public String getCursorName() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Reader getCharacterStream(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Reader getCharacterStream(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean isBeforeFirst() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean isAfterLast() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean isFirst() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean isLast() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void afterLast() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean first() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean last() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public int getRow() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean absolute(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean relative(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean previous() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void setFetchDirection(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void setFetchSize(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public int getType() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public int getConcurrency() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean rowUpdated() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean rowInserted() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean rowDeleted() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNull(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBoolean(int p0, boolean p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateByte(int p0, byte p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateShort(int p0, short p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateInt(int p0, int p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateLong(int p0, long p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateFloat(int p0, float p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateDouble(int p0, double p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBigDecimal(int p0, BigDecimal p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateString(int p0, String p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBytes(int p0, byte[] p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateDate(int p0, Date p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateTime(int p0, Time p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateTimestamp(int p0, Timestamp p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateAsciiStream(int p0, InputStream p1, int p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBinaryStream(int p0, InputStream p1, int p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateCharacterStream(int p0, Reader p1, int p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateObject(int p0, Object p1, int p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateObject(int p0, Object p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNull(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBoolean(String p0, boolean p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateByte(String p0, byte p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateShort(String p0, short p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateInt(String p0, int p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateLong(String p0, long p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateFloat(String p0, float p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateDouble(String p0, double p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBigDecimal(String p0, BigDecimal p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateString(String p0, String p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBytes(String p0, byte[] p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateDate(String p0, Date p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateTime(String p0, Time p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateTimestamp(String p0, Timestamp p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateAsciiStream(String p0, InputStream p1, int p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBinaryStream(String p0, InputStream p1, int p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateCharacterStream(String p0, Reader p1, int p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateObject(String p0, Object p1, int p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateObject(String p0, Object p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void insertRow() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateRow() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void deleteRow() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void refreshRow() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void cancelRowUpdates() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void moveToInsertRow() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void moveToCurrentRow() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Statement getStatement() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Object getObject(int p0, Map<String, Class<?>> p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Ref getRef(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Blob getBlob(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Clob getClob(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Array getArray(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Object getObject(String p0, Map<String, Class<?>> p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Ref getRef(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Blob getBlob(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Clob getClob(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Array getArray(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Date getDate(int p0, Calendar p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Date getDate(String p0, Calendar p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Time getTime(int p0, Calendar p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Time getTime(String p0, Calendar p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Timestamp getTimestamp(int p0, Calendar p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Timestamp getTimestamp(String p0, Calendar p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public URL getURL(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public URL getURL(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateRef(int p0, Ref p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateRef(String p0, Ref p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBlob(int p0, Blob p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBlob(String p0, Blob p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateClob(int p0, Clob p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateClob(String p0, Clob p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateArray(int p0, Array p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateArray(String p0, Array p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public RowId getRowId(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public RowId getRowId(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateRowId(int p0, RowId p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateRowId(String p0, RowId p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNString(int p0, String p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNString(String p0, String p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNClob(int p0, NClob p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNClob(String p0, NClob p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public NClob getNClob(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public NClob getNClob(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public SQLXML getSQLXML(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public SQLXML getSQLXML(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateSQLXML(int p0, SQLXML p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateSQLXML(String p0, SQLXML p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public String getNString(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public String getNString(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Reader getNCharacterStream(int p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public Reader getNCharacterStream(String p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNCharacterStream(int p0, Reader p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNCharacterStream(String p0, Reader p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateAsciiStream(int p0, InputStream p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBinaryStream(int p0, InputStream p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateCharacterStream(int p0, Reader p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateAsciiStream(String p0, InputStream p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBinaryStream(String p0, InputStream p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateCharacterStream(String p0, Reader p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBlob(int p0, InputStream p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBlob(String p0, InputStream p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateClob(int p0, Reader p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateClob(String p0, Reader p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNClob(int p0, Reader p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNClob(String p0, Reader p1, long p2) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNCharacterStream(int p0, Reader p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNCharacterStream(String p0, Reader p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateAsciiStream(int p0, InputStream p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBinaryStream(int p0, InputStream p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateCharacterStream(int p0, Reader p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateAsciiStream(String p0, InputStream p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBinaryStream(String p0, InputStream p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateCharacterStream(String p0, Reader p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBlob(int p0, InputStream p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateBlob(String p0, InputStream p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateClob(int p0, Reader p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateClob(String p0, Reader p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNClob(int p0, Reader p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public void updateNClob(String p0, Reader p1) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> p0) throws SQLException {
+        throw naoSuportado();
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> p0) throws SQLException {
+        throw naoSuportado();
+    }
+}
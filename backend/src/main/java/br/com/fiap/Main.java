@@ -2,13 +2,16 @@ package br.com.fiap;
 
 import br.com.fiap.config.CORSFilter;
 import br.com.fiap.config.EnvConfig;
+import br.com.fiap.config.JacksonConfig;
+import br.com.fiap.dao.OuvinteInvalidacao;
+import br.com.fiap.factory.ConnectionFactory;
 import br.com.fiap.filter.AuthenticationFilter;
+import br.com.fiap.filter.EncerramentoTransacao;
+import br.com.fiap.filter.TransactionalFeature;
 import br.com.fiap.resource.AuthResource;
 import br.com.fiap.resource.ClienteResource;
 import br.com.fiap.resource.EmpresaResource;
 import br.com.fiap.resource.ProjetoResource;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 import org.flywaydb.core.Flyway;
 import org.glassfish.grizzly.http.server.HttpServer;
@@ -71,13 +74,8 @@ public class Main {
 
     public static HttpServer startServer() {
         try {
-            // Configura Jackson ObjectMapper com suporte a datas Java 8+
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.registerModule(new JavaTimeModule());
-            objectMapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
             JacksonJsonProvider jacksonProvider = new JacksonJsonProvider();
-            jacksonProvider.setMapper(objectMapper);
+            jacksonProvider.setMapper(JacksonConfig.getObjectMapper());
 
             // Configuração de recursos e filtros
             final ResourceConfig rc = new ResourceConfig()
@@ -88,15 +86,22 @@ public class Main {
                     .register(ClienteResource.class)
                     .register(EmpresaResource.class)
                     .register(ProjetoResource.class)
-                    .register(AuthenticationFilter.class);
+                    .register(AuthenticationFilter.class)
+                    .register(TransactionalFeature.class)
+                    .register(EncerramentoTransacao.class);
 
             LOGGER.info("Registered resources: " + rc.getClasses());
 
             HttpServer server = GrizzlyHttpServerFactory.createHttpServer(URI.create(BASE_URI), rc);
 
+            // Mantém os caches deste nó coerentes com as escritas das outras instâncias
+            OuvinteInvalidacao.iniciar();
+
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 LOGGER.info("Shutting down server...");
                 server.shutdownNow();
+                OuvinteInvalidacao.parar();
+                ConnectionFactory.fecharPool();
             }));
 
             return server;
@@ -73,6 +73,80 @@ public class EnvConfig {
         return get("DB_PASSWORD", "");
     }
 
+    // Métodos para o pool de conexões
+    public static int getPoolMinIdle() {
+        return getInt("DB_POOL_MIN_IDLE", 2);
+    }
+
+    public static int getPoolMaxSize() {
+        return getInt("DB_POOL_MAX_SIZE", 10);
+    }
+
+    public static long getPoolAcquireTimeoutMs() {
+        return getLong("DB_POOL_ACQUIRE_TIMEOUT_MS", 5_000);
+    }
+
+    public static long getPoolIdleTimeoutMs() {
+        return getLong("DB_POOL_IDLE_TIMEOUT_MS", 600_000);
+    }
+
+    public static long getPoolMaxLifetimeMs() {
+        return getLong("DB_POOL_MAX_LIFETIME_MS", 1_800_000);
+    }
+
+    // 0 desativa a detecção de vazamento
+    public static long getPoolLeakDetectionMs() {
+        return getLong("DB_POOL_LEAK_DETECTION_MS", 20_000);
+    }
+
+    // Cache de empresas: quantas ficam em memória e por quanto tempo; 0 desativa
+    public static int getCacheEmpresasMaximo() {
+        return getInt("CACHE_EMPRESAS_MAX", 1_000);
+    }
+
+    public static long getCacheEmpresasTtlMs() {
+        return getLong("CACHE_EMPRESAS_TTL_MS", 60_000);
+    }
+
+    // Cache de /projetos/{id}/completo: total de bytes de JSON em memória; 0 desativa
+    public static long getCacheArvoresMaximoBytes() {
+        return getLong("CACHE_ARVORES_MAX_BYTES", 16 * 1024 * 1024);
+    }
+
+    public static long getCacheArvoresTtlMs() {
+        return getLong("CACHE_ARVORES_TTL_MS", 300_000);
+    }
+
+    // Cache de respostas GET já serializadas (JSON e variante gzip): total de bytes; 0 desativa
+    public static long getCacheRespostasMaximoBytes() {
+        return getLong("CACHE_RESPOSTAS_MAX_BYTES", 32 * 1024 * 1024);
+    }
+
+    public static long getCacheRespostasTtlMs() {
+        return getLong("CACHE_RESPOSTAS_TTL_MS", 300_000);
+    }
+
+    // Avisos de invalidação entre as instâncias da API (LISTEN/NOTIFY); false numa instância única
+    public static boolean isCacheInvalidacaoEntreNos() {
+        return Boolean.parseBoolean(get("CACHE_INVALIDACAO_ENTRE_NOS", "true").trim());
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(get(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(get(key, String.valueOf(defaultValue)).trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     // Métodos para JWT
     public static String getJwtSecret() {
         return get("JWT_SECRET", "default-secret-key-change-in-production");
@@ -96,5 +170,6 @@ public class EnvConfig {
         System.out.println("  DB_PASSWORD: " + (getDatabasePassword().isEmpty() ? "❌ NÃO DEFINIDA" : "✅ DEFINIDA"));
         System.out.println("  JWT_SECRET: " + (getJwtSecret().equals("default-secret-key-change-in-production") ? "⚠️ USANDO PADRÃO" : "✅ PERSONALIZADA"));
         System.out.println("  JWT_EXPIRATION: " + getJwtExpirationHours() + "h");
+        System.out.println("  DB_POOL: " + getPoolMinIdle() + "-" + getPoolMaxSize() + " conexões");
     }
 }
@@ -0,0 +1,51 @@
+package br.com.fiap.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * ObjectMapper único da aplicação: o mesmo usado pelo provider JAX-RS
+ * e pelos endpoints que escrevem JSON diretamente na resposta.
+ */
+public final class JacksonConfig {
+
+    private static final ObjectMapper MAPPER = criarMapper();
+
+    // Para escrita linha a linha num JsonGenerator: sem flush a cada objeto
+    private static final ObjectWriter WRITER_STREAM = MAPPER.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+    private JacksonConfig() {
+    }
+
+    public static ObjectMapper getObjectMapper() {
+        return MAPPER;
+    }
+
+    public static ObjectWriter getWriterStream() {
+        return WRITER_STREAM;
+    }
+
+    /**
+     * Gerador para respostas escritas aos poucos. O close() não fecha arrays e objetos abertos:
+     * se a leitura falhar no meio, o JSON chega incompleto e o cliente percebe o erro, em vez de
+     * receber uma lista válida e truncada.
+     */
+    public static JsonGenerator criarGeradorStream(OutputStream saida) throws IOException {
+        return MAPPER.getFactory().createGenerator(saida).disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    }
+
+    private static ObjectMapper criarMapper() {
+        // Configura Jackson ObjectMapper com suporte a datas Java 8+
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return objectMapper;
+    }
+}
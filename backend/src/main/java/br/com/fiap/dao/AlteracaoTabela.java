@@ -0,0 +1,162 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.config.EnvConfig;
+import br.com.fiap.factory.UnitOfWork;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Ponto único chamado pelos DAOs depois de gravar numa tabela, para os caches de leitura
+ * que dependem dela não servirem dados defasados até o TTL expirar.
+ * <p>
+ * Os caches deste processo são limpos depois do commit: na hora, se a conexão está em autocommit,
+ * ou ao fim da {@link UnitOfWork} da requisição. Limpar antes do commit deixaria uma leitura
+ * concorrente guardar a linha antiga já com a geração nova, e o cache ficaria defasado até o TTL.
+ * Para as outras instâncias da API, a mesma alteração é publicada com NOTIFY na conexão da escrita:
+ * o PostgreSQL só entrega o aviso quando a transação confirma, e descarta se ela for desfeita.
+ * Quem recebe é o {@link OuvinteInvalidacao} de cada nó.
+ */
+final class AlteracaoTabela {
+    static final String CANAL = "inova_cache";
+    // Identifica este processo no aviso; o que ele mesmo publicou já foi aplicado depois do commit
+    static final String NO = UUID.randomUUID().toString().substring(0, 8);
+
+    // Tipo usado no aviso para a árvore de um projeto (escrita no projeto, atividade ou subatividade)
+    private static final String PROJETO = "TB_PROJETO";
+    // O NOTIFY aceita até 8000 bytes; lista de ids maior vira limpeza do tipo inteiro
+    private static final int MAX_AVISO = 7_900;
+
+    private AlteracaoTabela() {
+    }
+
+    static void notificar(Connection conexao, String tabela) throws SQLException {
+        depoisDoCommit(conexao, () -> aplicar(tabela));
+        publicar(conexao, tabela, List.of());
+    }
+
+    // Escrita numa linha conhecida: além do que depende da tabela inteira, só essa linha sai dos caches por id
+    static void notificar(Connection conexao, String tabela, long id) throws SQLException {
+        depoisDoCommit(conexao, () -> aplicar(tabela, id));
+        publicar(conexao, tabela, List.of(id));
+    }
+
+    // Escrita no projeto ou em qualquer atividade ou subatividade dele
+    static void notificarProjeto(Connection conexao, long idProjeto) throws SQLException {
+        notificarProjetos(conexao, List.of(idProjeto));
+    }
+
+    static void notificarProjetos(Connection conexao, Collection<Long> idsProjeto) throws SQLException {
+        if (idsProjeto.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(idsProjeto);
+        depoisDoCommit(conexao, () -> ids.forEach(AlteracaoTabela::aplicarProjeto));
+        publicar(conexao, PROJETO, ids);
+    }
+
+    /**
+     * Aplica um aviso publicado por outro nó ({@code no|tipo|id,id,...}).
+     * Devolve false se o aviso veio deste mesmo processo e foi ignorado.
+     */
+    static boolean receber(String aviso) {
+        String[] partes = aviso.split("\\|", -1);
+        if (partes.length != 3) {
+            throw new IllegalArgumentException("Aviso de invalidação mal formado: " + aviso);
+        }
+        if (partes[0].equals(NO)) {
+            return false;
+        }
+        String tipo = partes[1];
+        if (partes[2].isEmpty()) {
+            if (tipo.equals(PROJETO)) {
+                ProjetoDAO.ARVORES.limpar();
+                RespostasEmCache.limpar();
+            } else {
+                aplicar(tipo);
+            }
+            return true;
+        }
+        for (String id : partes[2].split(",")) {
+            if (tipo.equals(PROJETO)) {
+                aplicarProjeto(Long.parseLong(id));
+            } else {
+                aplicar(tipo, Long.parseLong(id));
+            }
+        }
+        return true;
+    }
+
+    // Sem garantia de ter visto todos os avisos (escuta caiu ou acabou de subir): nada em cache é confiável
+    static void descartarTudo() {
+        CacheLimitado.limparTodos();
+        ContagemCache.limpar();
+        Sugestoes.limpar();
+    }
+
+    private static void depoisDoCommit(Connection conexao, Runnable limpeza) {
+        Optional<UnitOfWork> uow = UnitOfWork.current().filter(atual -> atual.getConnection() == conexao);
+        if (uow.isPresent()) {
+            uow.get().depoisDoCommit(limpeza);
+        } else {
+            // Autocommit: a escrita já foi confirmada quando o comando voltou
+            limpeza.run();
+        }
+    }
+
+    private static void aplicar(String tabela) {
+        RespostasEmCache.invalidar(tabela);
+        aplicarTabela(tabela);
+    }
+
+    private static void aplicarTabela(String tabela) {
+        ContagemCache.invalidar(tabela);
+        Sugestoes.invalidar(tabela);
+        if (tabela.equals("TB_EMPRESA")) {
+            EmpresaDAO.CACHE_LISTA.limpar();
+        }
+    }
+
+    private static void aplicar(String tabela, long id) {
+        // Uma só passada pelas respostas: as que dependem da tabela inteira e as que dependem dessa linha
+        RespostasEmCache.invalidar(tabela, RespostasEmCache.linha(tabela, id));
+        aplicarTabela(tabela);
+        switch (tabela) {
+            case "TB_EMPRESA" -> {
+                EmpresaDAO.CACHE.remover(id);
+                // Projetos da empresa removida vão junto, em cascata
+                ProjetoDAO.ARVORES.removerSe(arvore -> arvore.idEmpresa() == id);
+            }
+            // A árvore do projeto traz o nome do gerente
+            case "TB_CLIENTE" -> ProjetoDAO.ARVORES.removerSe(arvore -> arvore.idGerente() != null && arvore.idGerente() == id);
+            default -> {
+            }
+        }
+    }
+
+    private static void aplicarProjeto(long idProjeto) {
+        ProjetoDAO.ARVORES.remover(idProjeto);
+        RespostasEmCache.invalidar(RespostasEmCache.linha(PROJETO, idProjeto));
+    }
+
+    private static void publicar(Connection conexao, String tipo, Collection<Long> ids) throws SQLException {
+        if (!EnvConfig.isCacheInvalidacaoEntreNos()) {
+            return;
+        }
+        String aviso = NO + "|" + tipo + "|" + ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        if (aviso.length() > MAX_AVISO) {
+            aviso = NO + "|" + tipo + "|";
+        }
+        try (PreparedStatement stmt = conexao.prepareStatement("SELECT pg_notify(?, ?)")) {
+            stmt.setString(1, CANAL);
+            stmt.setString(2, aviso);
+            stmt.execute();
+        }
+    }
+}
@@ -4,22 +4,57 @@ import br.com.fiap.factory.ConnectionFactory;
 import br.com.fiap.model.Atividade;
 import br.com.fiap.model.SubAtividade;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class AtividadeDAO implements AutoCloseable {
+    // Exportação por empresa: mesmas chaves da API, com o projeto/atividade de cada linha
+    private static final String SQL_EXPORTACAO_ATIVIDADES = """
+            SELECT a.id_atividade AS "idAtividade", a.id_projeto AS "idProjeto", a.id_responsavel AS "idResponsavel",
+                   a.titulo, a.descricao, a.data_inicio_prevista AS "dataInicioPrevista",
+                   a.data_termino_prevista AS "dataTerminoPrevista", a.data_termino_real AS "dataTerminoReal",
+                   a.status, a.prioridade, date_trunc('second', a.data_cadastro::timestamp)::text AS "dataCadastro"
+            FROM TB_ATIVIDADE a
+            JOIN TB_PROJETO p ON p.id_projeto = a.id_projeto
+            WHERE p.id_empresa = %d
+            ORDER BY a.id_projeto, a.id_atividade
+            """;
+    private static final String SQL_EXPORTACAO_SUBATIVIDADES = """
+            SELECT sa.id_subatividade AS "idSubAtividade", sa.id_atividade AS "idAtividade", a.id_projeto AS "idProjeto",
+                   sa.titulo, sa.descricao, sa.data_inicio_prevista AS "dataInicioPrevista",
+                   sa.data_termino_prevista AS "dataTerminoPrevista", sa.data_termino_real AS "dataTerminoReal",
+                   sa.status, sa.prioridade, date_trunc('second', sa.data_cadastro::timestamp)::text AS "dataCadastro"
+            FROM TB_SUBATIVIDADE sa
+            JOIN TB_ATIVIDADE a ON a.id_atividade = sa.id_atividade
+            JOIN TB_PROJETO p ON p.id_projeto = a.id_projeto
+            WHERE p.id_empresa = %d
+            ORDER BY a.id_projeto, sa.id_atividade, sa.id_subatividade
+            """;
+
     private final Connection conexao;
+    private final boolean conexaoPropria;
 
     public AtividadeDAO() throws SQLException {
         this.conexao = ConnectionFactory.getConnection();
+        this.conexaoPropria = true;
+    }
+
+    // Reaproveita uma conexão já aberta; quem a forneceu continua responsável por fechá-la
+    public AtividadeDAO(Connection conexao) {
+        this.conexao = conexao;
+        this.conexaoPropria = false;
     }
 
     @Override
     public void close() throws SQLException {
-        if (conexao != null && !conexao.isClosed()) {
+        if (conexaoPropria && conexao != null && !conexao.isClosed()) {
             conexao.close();
         }
     }
@@ -39,45 +74,140 @@ public class AtividadeDAO implements AutoCloseable {
 
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
+                AlteracaoTabela.notificarProjeto(conexao, atividade.getIdProjeto());
                 return rs.getLong(1);
             }
         }
         return null;
     }
 
+    /**
+     * Insere as atividades num único lote JDBC, reescrito pelo driver em INSERTs multi-linha.
+     * Os ids são reservados antes e atribuídos na ordem da lista, que também é a ordem devolvida.
+     * Deve rodar numa transação para que o lote seja tudo ou nada.
+     */
+    public List<Long> cadastrarEmLote(List<Atividade> atividades) throws SQLException {
+        if (atividades.isEmpty()) {
+            return List.of();
+        }
+        long[] ids = SequenciaIds.reservar(conexao, "TB_ATIVIDADE", "id_atividade", atividades.size());
+
+        String sql = "INSERT INTO TB_ATIVIDADE (id_atividade, id_projeto, id_responsavel, titulo, descricao, "
+                + "data_inicio_prevista, data_termino_prevista, status, prioridade) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < ids.length; i++) {
+                Atividade atividade = atividades.get(i);
+                stmt.setLong(1, ids[i]);
+                stmt.setLong(2, atividade.getIdProjeto());
+                stmt.setObject(3, atividade.getIdResponsavel(), Types.BIGINT);
+                stmt.setString(4, atividade.getTitulo());
+                stmt.setString(5, atividade.getDescricao());
+                stmt.setDate(6, atividade.getDataInicioPrevista() != null ? Date.valueOf(atividade.getDataInicioPrevista()) : null);
+                stmt.setDate(7, atividade.getDataTerminoPrevista() != null ? Date.valueOf(atividade.getDataTerminoPrevista()) : null);
+                stmt.setObject(8, atividade.getStatus().name(), Types.OTHER);
+                stmt.setObject(9, atividade.getPrioridade().name(), Types.OTHER);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+
+        List<Long> gerados = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            atividades.get(i).setIdAtividade(ids[i]);
+            gerados.add(ids[i]);
+        }
+        AlteracaoTabela.notificarProjetos(conexao, atividades.stream().map(Atividade::getIdProjeto).distinct().toList());
+        return gerados;
+    }
+
+    // Quantas das atividades informadas pertencem ao projeto
+    public int contarDoProjeto(Long idProjeto, Collection<Long> idsAtividade) throws SQLException {
+        String sql = "SELECT COUNT(*) AS total FROM TB_ATIVIDADE WHERE id_projeto = ? AND id_atividade = ANY(?)";
+        Array ids = conexao.createArrayOf("bigint", idsAtividade.toArray());
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setLong(1, idProjeto);
+            stmt.setArray(2, ids);
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        } finally {
+            ids.free();
+        }
+    }
+
     public List<Atividade> listarPorProjeto(Long idProjeto) throws SQLException {
-        String sql = "SELECT * FROM TB_ATIVIDADE WHERE id_projeto = ? ORDER BY data_inicio_prevista";
+        String sql = "SELECT id_atividade, id_projeto, id_responsavel, titulo, descricao, data_inicio_prevista, "
+                + "data_termino_prevista, status, prioridade, data_cadastro "
+                + "FROM TB_ATIVIDADE WHERE id_projeto = ? ORDER BY data_inicio_prevista";
         List<Atividade> atividades = new ArrayList<>();
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, idProjeto);
             ResultSet rs = stmt.executeQuery();
+            MapeadorLinha<Atividade> mapeador = mapeador(IndiceColunas.de(rs));
             while (rs.next()) {
-                Atividade a = mapearAtividade(rs);
-                // Carregar subatividades
-                SubAtividadeDAO subDAO = new SubAtividadeDAO();
-                a.setSubatividades(subDAO.listarPorAtividade(a.getIdAtividade()));
-                atividades.add(a);
+                atividades.add(mapeador.mapear(rs));
+            }
+        }
+        if (atividades.isEmpty()) {
+            return atividades;
+        }
+
+        // Carregar subatividades de todas as atividades numa única consulta, na mesma conexão
+        List<Long> ids = atividades.stream().map(Atividade::getIdAtividade).toList();
+        try (SubAtividadeDAO subDAO = new SubAtividadeDAO(conexao)) {
+            Map<Long, List<SubAtividade>> subPorAtividade = subDAO.listarPorAtividades(ids);
+            for (Atividade a : atividades) {
+                a.setSubatividades(subPorAtividade.getOrDefault(a.getIdAtividade(), new ArrayList<>()));
             }
         }
         return atividades;
     }
 
-    private Atividade mapearAtividade(ResultSet rs) throws SQLException {
-        Atividade a = new Atividade();
-        a.setIdAtividade(rs.getLong("id_atividade"));
-        a.setIdProjeto(rs.getLong("id_projeto"));
-        a.setIdResponsavel(rs.getObject("id_responsavel") != null ? rs.getLong("id_responsavel") : null);
-        a.setTitulo(rs.getString("titulo"));
-        a.setDescricao(rs.getString("descricao"));
-        Date inicio = rs.getDate("data_inicio_prevista");
-        Date termino = rs.getDate("data_termino_prevista");
-        if (inicio != null) a.setDataInicioPrevista(inicio.toLocalDate());
-        if (termino != null) a.setDataTerminoPrevista(termino.toLocalDate());
-        a.setStatus(Atividade.StatusAtividade.valueOf(rs.getString("status")));
-        a.setPrioridade(Atividade.PrioridadeAtividade.valueOf(rs.getString("prioridade")));
-        Timestamp cadastro = rs.getTimestamp("data_cadastro");
-        if (cadastro != null) a.setDataCadastro(cadastro.toLocalDateTime());
-        return a;
+    /**
+     * Escreve as atividades de todos os projetos da empresa em {@code saida} via COPY TO STDOUT.
+     * Devolve quantas linhas foram exportadas.
+     */
+    public long exportarPorEmpresa(long idEmpresa, FormatoArquivo formato, OutputStream saida)
+            throws SQLException, IOException {
+        return CopiaSaida.copiar(conexao, SQL_EXPORTACAO_ATIVIDADES.formatted(idEmpresa), formato, saida);
+    }
+
+    /**
+     * Escreve as subatividades de todas as atividades da empresa em {@code saida} via COPY TO STDOUT.
+     * Devolve quantas linhas foram exportadas.
+     */
+    public long exportarSubatividadesPorEmpresa(long idEmpresa, FormatoArquivo formato, OutputStream saida)
+            throws SQLException, IOException {
+        return CopiaSaida.copiar(conexao, SQL_EXPORTACAO_SUBATIVIDADES.formatted(idEmpresa), formato, saida);
+    }
+
+    static MapeadorLinha<Atividade> mapeador(IndiceColunas colunas) throws SQLException {
+        int idAtividade = colunas.de("id_atividade");
+        int idProjeto = colunas.de("id_projeto");
+        int idResponsavel = colunas.de("id_responsavel");
+        int titulo = colunas.de("titulo");
+        int descricao = colunas.de("descricao");
+        int dataInicioPrevista = colunas.de("data_inicio_prevista");
+        int dataTerminoPrevista = colunas.de("data_termino_prevista");
+        int status = colunas.de("status");
+        int prioridade = colunas.de("prioridade");
+        int dataCadastro = colunas.de("data_cadastro");
+        return rs -> {
+            Atividade a = new Atividade();
+            a.setIdAtividade(rs.getLong(idAtividade));
+            a.setIdProjeto(rs.getLong(idProjeto));
+            a.setIdResponsavel(IndiceColunas.longOuNulo(rs, idResponsavel));
+            a.setTitulo(rs.getString(titulo));
+            a.setDescricao(rs.getString(descricao));
+            a.setDataInicioPrevista(IndiceColunas.data(rs, dataInicioPrevista));
+            a.setDataTerminoPrevista(IndiceColunas.data(rs, dataTerminoPrevista));
+            a.setStatus(Atividade.StatusAtividade.valueOf(rs.getString(status)));
+            a.setPrioridade(Atividade.PrioridadeAtividade.valueOf(rs.getString(prioridade)));
+            LocalDateTime cadastro = IndiceColunas.dataHora(rs, dataCadastro);
+            if (cadastro != null) a.setDataCadastro(cadastro);
+            return a;
+        };
     }
 }
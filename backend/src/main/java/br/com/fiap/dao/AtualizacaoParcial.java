@@ -0,0 +1,119 @@
+package br.com.fiap.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * UPDATE só das colunas presentes num JSON merge patch (RFC 7396), sem ler a linha antes.
+ * Campo ausente não entra no comando; campo com null grava NULL. Os valores vão como texto
+ * com cast para o tipo da coluna, então data, número ou enum inválido volta como SQLState 22xxx.
+ * O WHERE ... IS DISTINCT FROM faz um patch que não muda nada deixar a linha intocada
+ * (nenhuma versão nova da tupla, nenhum WAL, versão da linha mantida).
+ */
+final class AtualizacaoParcial {
+
+    private record Coluna(String nome, String tipo, boolean obrigatoria) {
+    }
+
+    private final String tabela;
+    private final String chave;
+    private final Map<String, Coluna> campos = new LinkedHashMap<>();
+
+    AtualizacaoParcial(String tabela, String chave) {
+        this.tabela = tabela;
+        this.chave = chave;
+    }
+
+    /** Campo do JSON que pode receber null. */
+    AtualizacaoParcial campo(String campo, String coluna, String tipo) {
+        campos.put(campo, new Coluna(coluna, tipo, false));
+        return this;
+    }
+
+    /** Campo do JSON ligado a uma coluna NOT NULL; null no patch é recusado antes de ir ao banco. */
+    AtualizacaoParcial obrigatorio(String campo, String coluna, String tipo) {
+        campos.put(campo, new Coluna(coluna, tipo, true));
+        return this;
+    }
+
+    /**
+     * Aplica o patch à linha {@code id}, se ela estiver na {@code versaoEsperada} (null aceita qualquer uma).
+     * Campo desconhecido, objeto/array como valor ou null em campo obrigatório geram IllegalArgumentException.
+     */
+    ResultadoEscrita aplicar(Connection conexao, long id, Map<String, ?> patch, Long versaoEsperada)
+            throws SQLException {
+        List<Coluna> colunas = new ArrayList<>(patch.size());
+        List<String> valores = new ArrayList<>(patch.size());
+        for (Map.Entry<String, ?> entrada : patch.entrySet()) {
+            Coluna coluna = campos.get(entrada.getKey());
+            if (coluna == null) {
+                throw new IllegalArgumentException("Campo não pode ser alterado: " + entrada.getKey());
+            }
+            Object valor = entrada.getValue();
+            if (valor == null && coluna.obrigatoria()) {
+                throw new IllegalArgumentException("Campo não pode ser nulo: " + entrada.getKey());
+            }
+            if (valor instanceof Map || valor instanceof List) {
+                throw new IllegalArgumentException("Campo deve ter um valor simples: " + entrada.getKey());
+            }
+            colunas.add(coluna);
+            valores.add(valor == null ? null : valor.toString());
+        }
+        if (colunas.isEmpty()) {
+            return ResultadoEscrita.semLinhaAfetada(conexao, tabela, chave, id, versaoEsperada);
+        }
+
+        StringBuilder set = new StringBuilder();
+        StringBuilder atuais = new StringBuilder();
+        StringBuilder novos = new StringBuilder();
+        for (Coluna coluna : colunas) {
+            if (!set.isEmpty()) {
+                set.append(", ");
+                atuais.append(", ");
+                novos.append(", ");
+            }
+            set.append(coluna.nome()).append(" = ?::").append(coluna.tipo());
+            atuais.append(coluna.nome());
+            novos.append("?::").append(coluna.tipo());
+        }
+        // ROW(...) explícito para a comparação valer também quando o patch tem uma coluna só
+        String sql = "UPDATE " + tabela + " SET " + set + " WHERE " + chave + " = ?"
+                + ResultadoEscrita.condicao(versaoEsperada)
+                + " AND ROW(" + atuais + ") IS DISTINCT FROM ROW(" + novos + ") RETURNING versao";
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            int indice = 1;
+            for (String valor : valores) {
+                definir(stmt, indice++, valor);
+            }
+            stmt.setLong(indice++, id);
+            if (versaoEsperada != null) {
+                stmt.setLong(indice++, versaoEsperada);
+            }
+            for (String valor : valores) {
+                definir(stmt, indice++, valor);
+            }
+            return ResultadoEscrita.executar(conexao, stmt, tabela, chave, id, versaoEsperada);
+        }
+    }
+
+    /** Valor inválido para a coluna, NOT NULL ou FK violada: erro de quem mandou o patch. */
+    static boolean dadoInvalido(SQLException e) {
+        String estado = e.getSQLState() != null ? e.getSQLState() : "";
+        return estado.startsWith("22") || estado.equals("23502") || estado.equals("23503") || estado.equals("23514");
+    }
+
+    private static void definir(PreparedStatement stmt, int indice, String valor) throws SQLException {
+        if (valor == null) {
+            stmt.setNull(indice, Types.VARCHAR);
+        } else {
+            stmt.setString(indice, valor);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.dto.ResultadoBuscaDTO;
+import br.com.fiap.factory.ConnectionFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Busca textual em projetos, atividades e subatividades pelas colunas {@code busca} (tsvector
+ * gerado de título e descrição, configuração portuguese, índice GIN).
+ * Cada tabela devolve só os seus melhores resultados; o trecho com destaque (ts_headline, que
+ * relê o texto) é montado apenas para os que entram na resposta.
+ */
+public class BuscaDAO implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(BuscaDAO.class.getName());
+    // Sintaxe de buscador: palavras, "frase exata", OR e -exclusão; nunca gera erro de sintaxe
+    private static final String CONSULTA = "websearch_to_tsquery('portuguese', ?)";
+    // O ts_headline marca os termos com caracteres de uso privado, tirados antes do texto do usuário;
+    // o HTML do texto é escapado aqui e só então as marcas viram <mark>
+    private static final char INICIO_DESTAQUE = '\uE000';
+    private static final char FIM_DESTAQUE = '\uE001';
+    private static final String OPCOES_DESTAQUE = "StartSel=" + INICIO_DESTAQUE + ", StopSel=" + FIM_DESTAQUE
+            + ", MaxWords=25, MinWords=8, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    public enum Tipo { PROJETO, ATIVIDADE, SUBATIVIDADE }
+
+    private final Connection conexao;
+    private final boolean conexaoPropria;
+
+    public BuscaDAO() {
+        try {
+            this.conexao = ConnectionFactory.getConnection();
+            this.conexaoPropria = true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao conectar ao banco de dados para BuscaDAO", e);
+            throw new RuntimeException("Falha ao conectar ao banco de dados", e);
+        }
+    }
+
+    // Reaproveita uma conexão já aberta; quem a forneceu continua responsável por fechá-la
+    public BuscaDAO(Connection conexao) {
+        this.conexao = conexao;
+        this.conexaoPropria = false;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (conexaoPropria && conexao != null && !conexao.isClosed()) {
+                conexao.close();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Erro ao fechar conexão", e);
+        }
+    }
+
+    /**
+     * Até {@code limite} resultados, do mais para o menos relevante. Com {@code idEmpresa}, só
+     * os da empresa; null busca em todas (SUPER_ADMIN).
+     */
+    public List<ResultadoBuscaDTO> buscar(String termos, Long idEmpresa, Set<Tipo> tipos, int limite)
+            throws SQLException {
+        List<String> ramos = new ArrayList<>();
+        String filtroEmpresa = idEmpresa != null ? " AND p.id_empresa = ?" : "";
+        for (Tipo tipo : EnumSet.copyOf(tipos)) {
+            ramos.add(switch (tipo) {
+                case PROJETO -> """
+                        (SELECT 'projeto' AS tipo, p.id_projeto AS id, p.id_projeto, NULL::bigint AS id_atividade,
+                                p.titulo, p.descricao, ts_rank(p.busca, %1$s) AS relevancia
+                         FROM TB_PROJETO p
+                         WHERE p.busca @@ %1$s%2$s
+                         ORDER BY relevancia DESC LIMIT ?)
+                        """.formatted(CONSULTA, filtroEmpresa);
+                case ATIVIDADE -> """
+                        (SELECT 'atividade' AS tipo, a.id_atividade AS id, a.id_projeto, NULL::bigint AS id_atividade,
+                                a.titulo, a.descricao, ts_rank(a.busca, %1$s) AS relevancia
+                         FROM TB_ATIVIDADE a
+                         JOIN TB_PROJETO p ON p.id_projeto = a.id_projeto
+                         WHERE a.busca @@ %1$s%2$s
+                         ORDER BY relevancia DESC LIMIT ?)
+                        """.formatted(CONSULTA, filtroEmpresa);
+                case SUBATIVIDADE -> """
+                        (SELECT 'subatividade' AS tipo, s.id_subatividade AS id, a.id_projeto, s.id_atividade,
+                                s.titulo, s.descricao, ts_rank(s.busca, %1$s) AS relevancia
+                         FROM TB_SUBATIVIDADE s
+                         JOIN TB_ATIVIDADE a ON a.id_atividade = s.id_atividade
+                         JOIN TB_PROJETO p ON p.id_projeto = a.id_projeto
+                         WHERE s.busca @@ %1$s%2$s
+                         ORDER BY relevancia DESC LIMIT ?)
+                        """.formatted(CONSULTA, filtroEmpresa);
+            });
+        }
+        String sql = """
+                SELECT r.tipo, r.id, r.id_projeto, r.id_atividade, r.titulo, r.relevancia,
+                       ts_headline('portuguese', translate(concat_ws(' — ', r.titulo, r.descricao), ?, ''),
+                                   %s, ?) AS trecho
+                FROM (
+                    SELECT * FROM (
+                %s
+                    ) ramos
+                    ORDER BY relevancia DESC, tipo, id
+                    LIMIT ?
+                ) r
+                ORDER BY r.relevancia DESC, r.tipo, r.id
+                """.formatted(CONSULTA, String.join("UNION ALL\n", ramos));
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            int indice = 1;
+            stmt.setString(indice++, "" + INICIO_DESTAQUE + FIM_DESTAQUE);
+            stmt.setString(indice++, termos);
+            stmt.setString(indice++, OPCOES_DESTAQUE);
+            for (int i = 0; i < ramos.size(); i++) {
+                // ts_rank e @@ de cada ramo
+                stmt.setString(indice++, termos);
+                stmt.setString(indice++, termos);
+                if (idEmpresa != null) {
+                    stmt.setLong(indice++, idEmpresa);
+                }
+                stmt.setInt(indice++, limite);
+            }
+            stmt.setInt(indice, limite);
+
+            List<ResultadoBuscaDTO> resultados = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ResultadoBuscaDTO resultado = new ResultadoBuscaDTO();
+                    resultado.setTipo(rs.getString("tipo"));
+                    resultado.setId(rs.getLong("id"));
+                    resultado.setIdProjeto(rs.getLong("id_projeto"));
+                    resultado.setIdAtividade(IndiceColunas.longOuNulo(rs, rs.findColumn("id_atividade")));
+                    resultado.setTitulo(rs.getString("titulo"));
+                    resultado.setRelevancia(rs.getDouble("relevancia"));
+                    resultado.setTrecho(destacar(rs.getString("trecho")));
+                    resultados.add(resultado);
+                }
+            }
+            return resultados;
+        }
+    }
+
+    /** Escapa o HTML do texto e troca as marcas do ts_headline por {@code <mark>} e {@code </mark>}. */
+    static String destacar(String trecho) {
+        if (trecho == null) {
+            return null;
+        }
+        StringBuilder html = new StringBuilder(trecho.length() + 32);
+        for (int i = 0; i < trecho.length(); i++) {
+            char c = trecho.charAt(i);
+            switch (c) {
+                case INICIO_DESTAQUE -> html.append("<mark>");
+                case FIM_DESTAQUE -> html.append("</mark>");
+                case '&' -> html.append("&amp;");
+                case '<' -> html.append("&lt;");
+                case '>' -> html.append("&gt;");
+                case '"' -> html.append("&quot;");
+                case '\'' -> html.append("&#39;");
+                default -> html.append(c);
+            }
+        }
+        return html.toString();
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.fiap.dao;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Cache em memória com validade (TTL) e tamanho máximo: passando do limite, sai quem está há mais
+ * tempo sem ser lido. O tamanho é a soma dos pesos das entradas (1 por entrada, ou o que a função
+ * de peso disser). Cada instância se registra pelo nome para aparecer em {@code GET /metricas/cache}.
+ * <p>
+ * Leitura que começou antes de uma invalidação não grava no cache o que leu ({@link #geracao()}):
+ * o valor pode ser anterior à escrita que acabou de invalidar.
+ */
+public final class CacheLimitado<K, V> {
+    private static final Map<String, CacheLimitado<?, ?>> REGISTRADOS = new ConcurrentSkipListMap<>();
+
+    private final long pesoMaximo;
+    private final long ttlNanos;
+    private final ToIntFunction<V> peso;
+    private final LongSupplier relogio;
+
+    // Ordem de acesso: a primeira entrada é a usada há mais tempo
+    private final LinkedHashMap<K, Entrada<V>> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private long pesoAtual;
+    private long geracao;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+    private final LongAdder remocoes = new LongAdder();
+    private final LongAdder invalidacoes = new LongAdder();
+
+    private record Entrada<V>(V valor, int peso, long expiraEm) {
+    }
+
+    public CacheLimitado(String nome, long pesoMaximo, long ttlMs, ToIntFunction<V> peso) {
+        this(nome, pesoMaximo, ttlMs, peso, System::nanoTime);
+    }
+
+    CacheLimitado(String nome, long pesoMaximo, long ttlMs, ToIntFunction<V> peso, LongSupplier relogio) {
+        this.pesoMaximo = pesoMaximo;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.peso = peso;
+        this.relogio = relogio;
+        REGISTRADOS.put(nome, this);
+    }
+
+    /** Valor em cache e ainda válido, ou null. */
+    public synchronized V buscar(K chave) {
+        Entrada<V> entrada = entradas.get(chave);
+        if (entrada == null) {
+            faltas.increment();
+            return null;
+        }
+        if (entrada.expiraEm() - relogio.getAsLong() <= 0) {
+            retirar(chave, entrada);
+            expiradas.increment();
+            faltas.increment();
+            return null;
+        }
+        acertos.increment();
+        return entrada.valor();
+    }
+
+    /** Marca lida antes de consultar o banco; passada depois para {@link #guardar}. */
+    public synchronized long geracao() {
+        return geracao;
+    }
+
+    /**
+     * Guarda o valor lido, a menos que alguma invalidação tenha acontecido desde {@code geracaoLida}.
+     * Valor mais pesado que o cache inteiro não é guardado.
+     */
+    public synchronized void guardar(K chave, V valor, long geracaoLida) {
+        if (geracaoLida != geracao) {
+            return;
+        }
+        int pesoValor = peso.applyAsInt(valor);
+        if (pesoValor > pesoMaximo) {
+            return;
+        }
+        Entrada<V> anterior = entradas.put(chave, new Entrada<>(valor, pesoValor, relogio.getAsLong() + ttlNanos));
+        if (anterior != null) {
+            pesoAtual -= anterior.peso();
+        }
+        pesoAtual += pesoValor;
+        Iterator<Map.Entry<K, Entrada<V>>> maisAntigas = entradas.entrySet().iterator();
+        while (pesoAtual > pesoMaximo && maisAntigas.hasNext()) {
+            pesoAtual -= maisAntigas.next().getValue().peso();
+            maisAntigas.remove();
+            remocoes.increment();
+        }
+    }
+
+    public synchronized void remover(K chave) {
+        geracao++;
+        Entrada<V> entrada = entradas.get(chave);
+        if (entrada != null) {
+            retirar(chave, entrada);
+            invalidacoes.increment();
+        }
+    }
+
+    /** Remove as entradas cujo valor atende à condição, para invalidações que não conhecem a chave. */
+    public synchronized void removerSe(Predicate<V> condicao) {
+        geracao++;
+        Iterator<Map.Entry<K, Entrada<V>>> todas = entradas.entrySet().iterator();
+        while (todas.hasNext()) {
+            Entrada<V> entrada = todas.next().getValue();
+            if (condicao.test(entrada.valor())) {
+                pesoAtual -= entrada.peso();
+                todas.remove();
+                invalidacoes.increment();
+            }
+        }
+    }
+
+    public synchronized void limpar() {
+        geracao++;
+        invalidacoes.add(entradas.size());
+        entradas.clear();
+        pesoAtual = 0;
+    }
+
+    public synchronized Map<String, Object> estatisticas() {
+        long totalAcertos = acertos.sum();
+        long consultas = totalAcertos + faltas.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entradas", entradas.size());
+        stats.put("peso", pesoAtual);
+        stats.put("pesoMaximo", pesoMaximo);
+        stats.put("ttlMs", TimeUnit.NANOSECONDS.toMillis(ttlNanos));
+        stats.put("acertos", totalAcertos);
+        stats.put("faltas", faltas.sum());
+        stats.put("taxaAcerto", consultas == 0 ? 0.0 : Math.round(totalAcertos * 1000.0 / consultas) / 1000.0);
+        stats.put("expiradas", expiradas.sum());
+        // Removidas para abrir espaço
+        stats.put("remocoes", remocoes.sum());
+        // Removidas por escrita no banco
+        stats.put("invalidacoes", invalidacoes.sum());
+        return stats;
+    }
+
+    /** Estatísticas de todos os caches criados, pelo nome de cada um. */
+    public static Map<String, Object> estatisticasDeTodos() {
+        Map<String, Object> todos = new LinkedHashMap<>();
+        REGISTRADOS.forEach((nome, cache) -> todos.put(nome, cache.estatisticas()));
+        return todos;
+    }
+
+    // Para testes que precisam ir ao banco
+    static void limparTodos() {
+        REGISTRADOS.values().forEach(CacheLimitado::limpar);
+    }
+
+    private void retirar(K chave, Entrada<V> entrada) {
+        entradas.remove(chave);
+        pesoAtual -= entrada.peso();
+    }
+}
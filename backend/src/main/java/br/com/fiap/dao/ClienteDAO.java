@@ -1,23 +1,60 @@
 package br.com.fiap.dao;
 
+import br.com.fiap.dto.SugestaoDTO;
+import br.com.fiap.exception.ConflictException;
 import br.com.fiap.model.Cliente;
 import br.com.fiap.factory.ConnectionFactory;
 
+import java.io.IOException;
 import java.sql.*;
-import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ClienteDAO implements AutoCloseable {
     private static final Logger LOGGER = Logger.getLogger(ClienteDAO.class.getName());
+    // Linhas buscadas por ida ao banco ao percorrer a tabela com cursor
+    private static final int TAMANHO_LOTE_CURSOR = 500;
+    // SQLSTATE unique_violation
+    private static final String VIOLACAO_UNICA = "23505";
+
+    // Projeções por caso de uso: cada consulta traz apenas as colunas que quem a chama mapeia
+    private static final String COLUNAS_LISTA =
+            "id_cliente, id_empresa, nome, email, telefone, cpf, cargo, departamento, role, ativo, data_cadastro";
+    private static final String COLUNAS_DETALHE = COLUNAS_LISTA + ", data_nascimento, versao";
+    // Único caso que lê o hash da senha
+    private static final String COLUNAS_AUTH = "id_cliente, id_empresa, nome, email, role, senha, ativo";
+    // Projetos com atividades sob responsabilidade do cliente, devolvidos no RETURNING da remoção:
+    // o DELETE zera id_responsavel nelas (ON DELETE SET NULL) e a árvore desses projetos muda
+    private static final String PROJETOS_RESPONSAVEL = "ARRAY(SELECT DISTINCT a.id_projeto::bigint FROM TB_ATIVIDADE a"
+            + " WHERE a.id_responsavel = TB_CLIENTE.id_cliente) AS projetos";
+
+    // Campos aceitos no PATCH; a senha chega aqui já com hash e o CPF só com dígitos
+    private static final AtualizacaoParcial PATCH = new AtualizacaoParcial("TB_CLIENTE", "id_cliente")
+            .obrigatorio("idEmpresa", "id_empresa", "integer")
+            .obrigatorio("nome", "nome", "text")
+            .obrigatorio("email", "email", "text")
+            .campo("telefone", "telefone", "text")
+            .obrigatorio("cpf", "cpf", "text")
+            .campo("dataNascimento", "data_nascimento", "date")
+            .campo("cargo", "cargo", "text")
+            .campo("departamento", "departamento", "text")
+            .obrigatorio("role", "role", "tipo_role")
+            .obrigatorio("senha", "senha", "text");
+    // Autocompletar pelo nome, opcionalmente só entre os clientes de uma empresa
+    private static final Sugestoes SUGESTOES = new Sugestoes("TB_CLIENTE", "id_cliente", "nome",
+            "email", List.of("nome"), "id_empresa");
     private final Connection conexao;
+    private final boolean conexaoPropria;
 
     public ClienteDAO() {
         try {
             this.conexao = ConnectionFactory.getConnection();
+            this.conexaoPropria = true;
             LOGGER.info("Conexão com o banco de dados estabelecida para ClienteDAO");
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao conectar ao banco de dados para ClienteDAO", e);
@@ -25,25 +62,31 @@ public class ClienteDAO implements AutoCloseable {
         }
     }
 
-    public long cadastrar(Cliente cliente) {
+    // Reaproveita uma conexão já aberta; quem a forneceu continua responsável por fechá-la
+    public ClienteDAO(Connection conexao) {
+        this.conexao = conexao;
+        this.conexaoPropria = false;
+    }
+
+    /**
+     * Insere e devolve o cliente gravado numa única instrução, apoiada nos índices únicos:
+     * CPF repetido não gera linha (ON CONFLICT) e e-mail repetido viola idx_cliente_email.
+     * Nos dois casos lança ConflictException.
+     */
+    public Cliente cadastrar(Cliente cliente) {
         String sql = """
             INSERT INTO TB_CLIENTE (
                 id_empresa, nome, email, telefone, cpf,
                 data_nascimento, cargo, departamento, role, senha
             ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?::tipo_role ,?)
-            RETURNING id_cliente
-            """;
+            ON CONFLICT (cpf) DO NOTHING
+            RETURNING %s
+            """.formatted(COLUNAS_DETALHE);
 
+        String cpfLimpo = cliente.getCpf().replaceAll("[^0-9]", "");
         try (var stmt = conexao.prepareStatement(sql)) {
             LOGGER.info("Tentando cadastrar cliente: " + cliente.getNome());
 
-            String cpfLimpo = cliente.getCpf().replaceAll("[^0-9]", "");
-
-            if (existeCpf(cpfLimpo)) {
-                LOGGER.warning("CPF já cadastrado: " + cpfLimpo);
-                throw new SQLException("CPF já cadastrado", "23505");
-            }
-
             stmt.setLong(1, cliente.getIdEmpresa());
             stmt.setString(2, cliente.getNome());
             stmt.setString(3, cliente.getEmail());
@@ -60,25 +103,31 @@ public class ClienteDAO implements AutoCloseable {
             stmt.setString(10, cliente.getSenha());
 
             try (var rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    long id = rs.getLong(1);
-                    LOGGER.info("Cliente cadastrado com sucesso. ID: " + id);
-                    return id;
+                if (!rs.next()) {
+                    LOGGER.warning("CPF já cadastrado: " + cpfLimpo);
+                    throw new ConflictException("Já existe um cliente cadastrado com este CPF");
                 }
-                throw new SQLException("Falha ao obter ID do cliente");
+                Cliente criado = mapeadorDetalhe(IndiceColunas.de(rs)).mapear(rs);
+                AlteracaoTabela.notificar(conexao, "TB_CLIENTE");
+                LOGGER.info("Cliente cadastrado com sucesso. ID: " + criado.getIdCliente());
+                return criado;
             }
         } catch (SQLException e) {
+            if (VIOLACAO_UNICA.equals(e.getSQLState())) {
+                LOGGER.warning("E-mail já cadastrado: " + cliente.getEmail());
+                throw new ConflictException("Já existe um cliente cadastrado com este e-mail", e);
+            }
             LOGGER.log(Level.SEVERE, "Erro ao cadastrar cliente", e);
             throw new RuntimeException("Erro ao cadastrar cliente: " + e.getMessage(), e);
         }
     }
 
     public Optional<Cliente> pesquisarPorId(long id) {
-        String sql = "SELECT * FROM TB_CLIENTE WHERE id_cliente = ?";
+        String sql = "SELECT " + COLUNAS_DETALHE + " FROM TB_CLIENTE WHERE id_cliente = ?";
         try (var stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, id);
             try (var rs = stmt.executeQuery()) {
-                return rs.next() ? Optional.of(parseCliente(rs)) : Optional.empty();
+                return rs.next() ? Optional.of(mapeadorDetalhe(IndiceColunas.de(rs)).mapear(rs)) : Optional.empty();
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao buscar cliente por ID: " + id, e);
@@ -88,11 +137,11 @@ public class ClienteDAO implements AutoCloseable {
 
     public Optional<Cliente> pesquisarPorCpf(String cpf) {
         String cpfLimpo = cpf.replaceAll("[^0-9]", "");
-        String sql = "SELECT * FROM TB_CLIENTE WHERE cpf = ?";
+        String sql = "SELECT " + COLUNAS_DETALHE + " FROM TB_CLIENTE WHERE cpf = ?";
         try (var stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, cpfLimpo);
             try (var rs = stmt.executeQuery()) {
-                return rs.next() ? Optional.of(parseCliente(rs)) : Optional.empty();
+                return rs.next() ? Optional.of(mapeadorDetalhe(IndiceColunas.de(rs)).mapear(rs)) : Optional.empty();
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao buscar cliente por CPF: " + cpf, e);
@@ -101,11 +150,11 @@ public class ClienteDAO implements AutoCloseable {
     }
 
     public Optional<Cliente> buscarPorEmail(String email) {
-        String sql = "SELECT * FROM TB_CLIENTE WHERE LOWER(email) = LOWER(?)";
+        String sql = "SELECT " + COLUNAS_AUTH + " FROM TB_CLIENTE WHERE LOWER(email) = LOWER(?)";
         try (var stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, email);
             try (var rs = stmt.executeQuery()) {
-                return rs.next() ? Optional.of(parseCliente(rs)) : Optional.empty();
+                return rs.next() ? Optional.of(mapeadorAuth(IndiceColunas.de(rs)).mapear(rs)) : Optional.empty();
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao buscar cliente por email: " + email, e);
@@ -114,14 +163,15 @@ public class ClienteDAO implements AutoCloseable {
     }
 
     public List<Cliente> listarTodos() {
-        String sql = "SELECT * FROM TB_CLIENTE ORDER BY nome";
+        String sql = "SELECT " + COLUNAS_LISTA + " FROM TB_CLIENTE ORDER BY nome";
         var clientes = new ArrayList<Cliente>();
 
         try (var stmt = conexao.createStatement();
              var rs = stmt.executeQuery(sql)) {
 
+            var mapeador = mapeadorLista(IndiceColunas.de(rs));
             while (rs.next()) {
-                clientes.add(parseCliente(rs));
+                clientes.add(mapeador.mapear(rs));
             }
             return clientes;
         } catch (SQLException e) {
@@ -130,7 +180,105 @@ public class ClienteDAO implements AutoCloseable {
         }
     }
 
-    public void atualizar(Cliente cliente) {
+    /**
+     * Percorre todos os clientes com um cursor do servidor (fetch size + autocommit desligado),
+     * entregando um por vez ao consumidor. A memória usada não depende do tamanho da tabela.
+     */
+    public void percorrerTodos(ConsumidorLinha<Cliente> consumidor) throws IOException {
+        String sql = "SELECT " + COLUNAS_DETALHE + " FROM TB_CLIENTE ORDER BY nome, id_cliente";
+
+        try {
+            // O driver do PostgreSQL só usa cursor dentro de uma transação
+            boolean autoCommit = conexao.getAutoCommit();
+            conexao.setAutoCommit(false);
+            try (var stmt = conexao.prepareStatement(sql)) {
+                stmt.setFetchSize(TAMANHO_LOTE_CURSOR);
+                try (var rs = stmt.executeQuery()) {
+                    var mapeador = mapeadorDetalhe(IndiceColunas.de(rs));
+                    while (rs.next()) {
+                        consumidor.aceitar(mapeador.mapear(rs));
+                    }
+                }
+                conexao.commit();
+            } finally {
+                conexao.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao percorrer clientes", e);
+            throw new RuntimeException("Erro ao percorrer clientes", e);
+        }
+    }
+
+    public List<Cliente> listarPagina(Long idEmpresa, String role, Boolean ativo, int pagina, int limite) {
+        var params = new ArrayList<Object>();
+        String where = filtroClientes(idEmpresa, role, ativo, params);
+        String sql = "SELECT " + COLUNAS_LISTA + " FROM TB_CLIENTE" + where + " ORDER BY nome, id_cliente LIMIT ? OFFSET ?";
+        var clientes = new ArrayList<Cliente>();
+
+        try (var stmt = conexao.prepareStatement(sql)) {
+            int paramIndex = 1;
+            for (Object param : params) {
+                stmt.setObject(paramIndex++, param);
+            }
+            stmt.setInt(paramIndex++, limite);
+            stmt.setLong(paramIndex, (long) (pagina - 1) * limite);
+
+            try (var rs = stmt.executeQuery()) {
+                var mapeador = mapeadorLista(IndiceColunas.de(rs));
+                while (rs.next()) {
+                    clientes.add(mapeador.mapear(rs));
+                }
+            }
+            return clientes;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao listar página de clientes", e);
+            throw new RuntimeException("Erro ao listar clientes", e);
+        }
+    }
+
+    /** Clientes cujo nome contém ou lembra o termo, para campos de autocompletar. */
+    public List<SugestaoDTO> sugerir(String termo, Long idEmpresa, int limite) {
+        try {
+            return SUGESTOES.buscar(conexao, termo, idEmpresa, limite);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao sugerir clientes para: " + termo, e);
+            throw new RuntimeException("Erro ao sugerir clientes", e);
+        }
+    }
+
+    public long contar(Long idEmpresa, String role, Boolean ativo) {
+        var params = new ArrayList<Object>();
+        String where = filtroClientes(idEmpresa, role, ativo, params);
+        try {
+            return ContagemCache.contar(conexao, "TB_CLIENTE", where, params);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao contar clientes", e);
+            throw new RuntimeException("Erro ao contar clientes", e);
+        }
+    }
+
+    private String filtroClientes(Long idEmpresa, String role, Boolean ativo, List<Object> params) {
+        var where = new StringBuilder();
+        if (idEmpresa != null) {
+            where.append(where.isEmpty() ? " WHERE " : " AND ").append("id_empresa = ?");
+            params.add(idEmpresa);
+        }
+        if (role != null) {
+            where.append(where.isEmpty() ? " WHERE " : " AND ").append("role = ?::tipo_role");
+            params.add(role);
+        }
+        if (ativo != null) {
+            where.append(where.isEmpty() ? " WHERE " : " AND ").append("ativo = ?");
+            params.add(ativo);
+        }
+        return where.toString();
+    }
+
+    /**
+     * Regrava todas as colunas editáveis do cliente. Com {@code versaoEsperada} (If-Match), só
+     * grava se a linha ainda estiver nessa versão.
+     */
+    public ResultadoEscrita atualizar(Cliente cliente, Long versaoEsperada) {
         String sql = """
             UPDATE TB_CLIENTE SET
                 id_empresa = ?,
@@ -142,9 +290,10 @@ public class ClienteDAO implements AutoCloseable {
                 cargo = ?,
                 departamento = ?,
                 role = ?::tipo_role,
-                senha = ?
-            WHERE id_cliente = ?
-            """;
+                senha = COALESCE(?, senha)
+            WHERE id_cliente = ?%s
+            RETURNING versao
+            """.formatted(ResultadoEscrita.condicao(versaoEsperada));
 
         try (var stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, cliente.getIdEmpresa());
@@ -167,34 +316,86 @@ public class ClienteDAO implements AutoCloseable {
             stmt.setString(9, cliente.getRole());
             stmt.setString(10, cliente.getSenha());
             stmt.setLong(11, cliente.getIdCliente());
+            if (versaoEsperada != null) {
+                stmt.setLong(12, versaoEsperada);
+            }
 
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Falha ao atualizar cliente, nenhuma linha afetada");
+            ResultadoEscrita resultado = ResultadoEscrita.executar(conexao, stmt, "TB_CLIENTE", "id_cliente",
+                    cliente.getIdCliente(), versaoEsperada);
+            if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                AlteracaoTabela.notificar(conexao, "TB_CLIENTE", cliente.getIdCliente());
             }
+            return resultado;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao atualizar cliente ID: " + cliente.getIdCliente(), e);
             throw new RuntimeException("Erro ao atualizar cliente", e);
         }
     }
 
-    public void remover(long id) {
-        String sql = "DELETE FROM TB_CLIENTE WHERE id_cliente = ?";
+    /**
+     * Altera só os campos presentes no merge patch, sem ler o cliente antes.
+     * CPF ou e-mail de outro cliente gera ConflictException e campo ou valor inválido,
+     * IllegalArgumentException.
+     */
+    public ResultadoEscrita atualizarParcial(long id, Map<String, Object> patch, Long versaoEsperada) {
+        try {
+            ResultadoEscrita resultado = PATCH.aplicar(conexao, id, patch, versaoEsperada);
+            if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                AlteracaoTabela.notificar(conexao, "TB_CLIENTE", id);
+            }
+            return resultado;
+        } catch (SQLException e) {
+            if (VIOLACAO_UNICA.equals(e.getSQLState())) {
+                boolean cpf = e.getMessage() != null && e.getMessage().contains("cpf");
+                throw new ConflictException(cpf ? "Já existe um cliente cadastrado com este CPF"
+                        : "Já existe um cliente cadastrado com este e-mail", e);
+            }
+            if (AtualizacaoParcial.dadoInvalido(e)) {
+                throw new IllegalArgumentException("Dados inválidos para o cliente", e);
+            }
+            LOGGER.log(Level.SEVERE, "Erro ao atualizar parcialmente cliente ID: " + id, e);
+            throw new RuntimeException("Erro ao atualizar cliente", e);
+        }
+    }
+
+    public ResultadoEscrita remover(long id, Long versaoEsperada) {
+        String sql = "DELETE FROM TB_CLIENTE WHERE id_cliente = ?" + ResultadoEscrita.condicao(versaoEsperada)
+                + " RETURNING versao, " + PROJETOS_RESPONSAVEL;
 
         try (var stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            int affectedRows = stmt.executeUpdate();
-
-            if (affectedRows == 0) {
-                throw new SQLException("Cliente não encontrado com ID: " + id);
+            if (versaoEsperada != null) {
+                stmt.setLong(2, versaoEsperada);
             }
+            long versao;
+            Long[] projetos;
+            try (var rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return ResultadoEscrita.semLinhaAfetada(conexao, "TB_CLIENTE", "id_cliente", id, versaoEsperada);
+                }
+                versao = rs.getLong(1);
+                projetos = (Long[]) rs.getArray(2).getArray();
+            }
+            AlteracaoTabela.notificar(conexao, "TB_CLIENTE", id);
+            AlteracaoTabela.notificarProjetos(conexao, List.of(projetos));
             LOGGER.info("Cliente removido permanentemente. ID: " + id);
+            return ResultadoEscrita.gravado(versao);
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao remover cliente permanentemente ID: " + id, e);
             throw new RuntimeException("Erro ao remover cliente permanentemente", e);
         }
     }
 
+    /** Versão atual do cliente, sem ler o resto da linha (If-None-Match). */
+    public OptionalLong versao(long id) {
+        try {
+            return ResultadoEscrita.versaoAtual(conexao, "TB_CLIENTE", "id_cliente", id);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao consultar versão do cliente ID: " + id, e);
+            throw new RuntimeException("Erro ao consultar cliente", e);
+        }
+    }
+
     public boolean existePorId(long id) {
         String sql = "SELECT 1 FROM TB_CLIENTE WHERE id_cliente = ?";
 
@@ -209,53 +410,72 @@ public class ClienteDAO implements AutoCloseable {
         }
     }
 
-    private boolean existeCpf(String cpf) {
-        String sql = "SELECT 1 FROM TB_CLIENTE WHERE cpf = ?";
-        try (var stmt = conexao.prepareStatement(sql)) {
-            stmt.setString(1, cpf);
-            try (var rs = stmt.executeQuery()) {
-                return rs.next();
-            }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erro ao verificar CPF existente", e);
-            return false;
-        }
+    static MapeadorLinha<Cliente> mapeadorLista(IndiceColunas colunas) throws SQLException {
+        int idCliente = colunas.de("id_cliente");
+        int idEmpresa = colunas.de("id_empresa");
+        int nome = colunas.de("nome");
+        int email = colunas.de("email");
+        int telefone = colunas.de("telefone");
+        int cpf = colunas.de("cpf");
+        int cargo = colunas.de("cargo");
+        int departamento = colunas.de("departamento");
+        int role = colunas.de("role");
+        int ativo = colunas.de("ativo");
+        int dataCadastro = colunas.de("data_cadastro");
+        return rs -> {
+            var cliente = new Cliente();
+            cliente.setIdCliente(rs.getLong(idCliente));
+            cliente.setIdEmpresa(rs.getLong(idEmpresa));
+            cliente.setNome(rs.getString(nome));
+            cliente.setEmail(rs.getString(email));
+            cliente.setTelefone(rs.getString(telefone));
+            cliente.setCpf(rs.getString(cpf));
+            cliente.setCargo(rs.getString(cargo));
+            cliente.setDepartamento(rs.getString(departamento));
+            cliente.setRole(rs.getString(role));
+            cliente.setAtivo(rs.getBoolean(ativo));
+            cliente.setDataCadastro(IndiceColunas.dataHora(rs, dataCadastro));
+            return cliente;
+        };
     }
 
-    private Cliente parseCliente(ResultSet rs) throws SQLException {
-        var cliente = new Cliente();
-        cliente.setIdCliente(rs.getLong("id_cliente"));
-        cliente.setIdEmpresa(rs.getLong("id_empresa"));
-        cliente.setNome(rs.getString("nome"));
-        cliente.setEmail(rs.getString("email"));
-        cliente.setTelefone(rs.getString("telefone"));
-        cliente.setCpf(rs.getString("cpf"));
-
-        // Safely handle nullable date
-        Date dataNascimento = rs.getDate("data_nascimento");
-        if (dataNascimento != null) {
-            cliente.setDataNascimento(dataNascimento.toLocalDate());
-        } else {
-            cliente.setDataNascimento(null);
-        }
-
-        cliente.setCargo(rs.getString("cargo"));
-        cliente.setDepartamento(rs.getString("departamento"));
-        cliente.setRole(rs.getString("role"));
-        cliente.setSenha(rs.getString("senha"));
-
-        // Converte o TIMESTAMP WITH TIME ZONE
-        Timestamp dataCadastro = rs.getTimestamp("data_cadastro");
-        cliente.setDataCadastro(dataCadastro.toInstant().atZone(ZoneId.systemDefault()).toLocalDateTime());
+    static MapeadorLinha<Cliente> mapeadorDetalhe(IndiceColunas colunas) throws SQLException {
+        MapeadorLinha<Cliente> lista = mapeadorLista(colunas);
+        int dataNascimento = colunas.de("data_nascimento");
+        int versao = colunas.de("versao");
+        return rs -> {
+            var cliente = lista.mapear(rs);
+            cliente.setVersao(rs.getLong(versao));
+            cliente.setDataNascimento(IndiceColunas.data(rs, dataNascimento));
+            return cliente;
+        };
+    }
 
-        cliente.setAtivo(rs.getBoolean("ativo"));
-        return cliente;
+    static MapeadorLinha<Cliente> mapeadorAuth(IndiceColunas colunas) throws SQLException {
+        int idCliente = colunas.de("id_cliente");
+        int idEmpresa = colunas.de("id_empresa");
+        int nome = colunas.de("nome");
+        int email = colunas.de("email");
+        int role = colunas.de("role");
+        int senha = colunas.de("senha");
+        int ativo = colunas.de("ativo");
+        return rs -> {
+            var cliente = new Cliente();
+            cliente.setIdCliente(rs.getLong(idCliente));
+            cliente.setIdEmpresa(rs.getLong(idEmpresa));
+            cliente.setNome(rs.getString(nome));
+            cliente.setEmail(rs.getString(email));
+            cliente.setRole(rs.getString(role));
+            cliente.setSenha(rs.getString(senha));
+            cliente.setAtivo(rs.getBoolean(ativo));
+            return cliente;
+        };
     }
 
     @Override
     public void close() {
         try {
-            if (conexao != null && !conexao.isClosed()) {
+            if (conexaoPropria && conexao != null && !conexao.isClosed()) {
                 conexao.close();
                 LOGGER.info("Conexão com o banco de dados fechada para ClienteDAO");
             }
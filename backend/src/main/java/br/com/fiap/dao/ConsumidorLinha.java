@@ -0,0 +1,11 @@
+package br.com.fiap.dao;
+
+import java.io.IOException;
+
+/**
+ * Recebe cada linha mapeada de uma consulta percorrida por cursor, sem materializar a lista.
+ */
+@FunctionalInterface
+public interface ConsumidorLinha<T> {
+    void aceitar(T item) throws IOException;
+}
@@ -0,0 +1,83 @@
+package br.com.fiap.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Totais usados no cabeçalho X-Total-Count das listagens paginadas.
+ * Sem filtro, tabelas grandes usam a estimativa do planejador (pg_class.reltuples);
+ * nos demais casos o COUNT(*) exato fica em cache por alguns segundos.
+ */
+final class ContagemCache {
+    private static final long TTL_MS = 30_000;
+    private static final int MAX_ENTRADAS = 500;
+    // Abaixo disso o COUNT(*) é barato e a estimativa pode estar desatualizada
+    private static final long LIMIAR_ESTIMATIVA = 10_000;
+
+    private static final Map<String, Entrada> CACHE = new ConcurrentHashMap<>();
+
+    private record Entrada(long total, long expiraEm) {
+    }
+
+    private ContagemCache() {
+    }
+
+    static long contar(Connection conexao, String tabela, String where, List<Object> params) throws SQLException {
+        String chave = tabela + where + params;
+        long agora = System.currentTimeMillis();
+        Entrada entrada = CACHE.get(chave);
+        if (entrada != null && entrada.expiraEm() > agora) {
+            return entrada.total();
+        }
+
+        long total = -1;
+        if (where.isEmpty()) {
+            total = estimar(conexao, tabela);
+        }
+        if (total < LIMIAR_ESTIMATIVA) {
+            total = contarExato(conexao, tabela, where, params);
+        }
+
+        if (CACHE.size() >= MAX_ENTRADAS) {
+            CACHE.clear();
+        }
+        CACHE.put(chave, new Entrada(total, agora + TTL_MS));
+        return total;
+    }
+
+    // Chamado pelas escritas do DAO para que o total não fique defasado até o TTL expirar
+    static void invalidar(String tabela) {
+        CACHE.keySet().removeIf(chave -> chave.startsWith(tabela));
+    }
+
+    static void limpar() {
+        CACHE.clear();
+    }
+
+    private static long estimar(Connection conexao, String tabela) throws SQLException {
+        String sql = "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setString(1, tabela.toLowerCase());
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : -1;
+            }
+        }
+    }
+
+    private static long contarExato(Connection conexao, String tabela, String where, List<Object> params) throws SQLException {
+        try (PreparedStatement stmt = conexao.prepareStatement("SELECT COUNT(*) FROM " + tabela + where)) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
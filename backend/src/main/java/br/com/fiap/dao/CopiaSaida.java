@@ -0,0 +1,31 @@
+package br.com.fiap.dao;
+
+import org.postgresql.PGConnection;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Exporta o resultado de um SELECT com COPY ... TO STDOUT, escrevendo no OutputStream à medida
+ * que o servidor envia: as linhas não passam por ResultSet nem ficam acumuladas na JVM.
+ * COPY não aceita parâmetros; quem monta o SELECT só pode embutir valores numéricos já validados.
+ */
+final class CopiaSaida {
+
+    private CopiaSaida() {
+    }
+
+    static long copiar(Connection conexao, String select, FormatoArquivo formato, OutputStream saida)
+            throws SQLException, IOException {
+        String sql = switch (formato) {
+            case CSV -> "COPY (" + select + ") TO STDOUT (FORMAT csv, HEADER)";
+            // row_to_json já escapa aspas, quebras de linha e caracteres de controle; com QUOTE e
+            // DELIMITER que nunca aparecem no JSON, o COPY csv devolve cada objeto cru, um por linha
+            case NDJSON -> "COPY (SELECT row_to_json(t) FROM (" + select + ") t) "
+                    + "TO STDOUT (FORMAT csv, QUOTE E'\\x01', DELIMITER E'\\x02')";
+        };
+        return conexao.unwrap(PGConnection.class).getCopyAPI().copyOut(sql, saida);
+    }
+}
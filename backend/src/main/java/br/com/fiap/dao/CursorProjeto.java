@@ -0,0 +1,30 @@
+package br.com.fiap.dao;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição na listagem de projetos ordenada por (data_inicio DESC, id_projeto DESC).
+ * Trafega para o cliente como um token opaco em Base64 URL-safe.
+ */
+public record CursorProjeto(LocalDate dataInicio, long idProjeto) {
+
+    public String codificar() {
+        String bruto = dataInicio + "|" + idProjeto;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorProjeto decodificar(String token) {
+        try {
+            String bruto = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = bruto.indexOf('|');
+            return new CursorProjeto(
+                    LocalDate.parse(bruto.substring(0, separador)),
+                    Long.parseLong(bruto.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+}
@@ -1,22 +1,67 @@
 package br.com.fiap.dao;
 
+import br.com.fiap.config.EnvConfig;
+import br.com.fiap.dto.SugestaoDTO;
+import br.com.fiap.exception.ConflictException;
 import br.com.fiap.model.Empresa;
 import br.com.fiap.factory.ConnectionFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.Collectors;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class EmpresaDAO implements AutoCloseable {
     private static final Logger LOGGER = Logger.getLogger(EmpresaDAO.class.getName());
+
+    // Listagens só trazem o que as telas de lista exibem; o detalhe lista todas as colunas explicitamente
+    private static final String COLUNAS_LISTA =
+            "id_empresa, cnpj, razao_social, nome_fantasia, email, telefone, cidade, estado, setor_atuacao, ativo";
+    private static final String COLUNAS_DETALHE = COLUNAS_LISTA
+            + ", inscricao_estadual, inscricao_municipal, endereco, numero, complemento, bairro, cep,"
+            + " quantidade_funcionarios, data_fundacao, data_cadastro, versao";
+    // Campos aceitos no PATCH, com a coluna e o tipo de cada um; CNPJ não muda depois do cadastro
+    private static final AtualizacaoParcial PATCH = new AtualizacaoParcial("TB_EMPRESA", "id_empresa")
+            .obrigatorio("razaoSocial", "razao_social", "text")
+            .campo("nomeFantasia", "nome_fantasia", "text")
+            .campo("inscricaoEstadual", "inscricao_estadual", "text")
+            .campo("inscricaoMunicipal", "inscricao_municipal", "text")
+            .campo("email", "email", "text")
+            .campo("telefone", "telefone", "text")
+            .campo("endereco", "endereco", "text")
+            .campo("numero", "numero", "text")
+            .campo("complemento", "complemento", "text")
+            .campo("bairro", "bairro", "text")
+            .campo("cidade", "cidade", "text")
+            .campo("estado", "estado", "text")
+            .campo("cep", "cep", "text")
+            .campo("quantidadeFuncionarios", "quantidade_funcionarios", "integer")
+            .campo("setorAtuacao", "setor_atuacao", "text")
+            .campo("dataFundacao", "data_fundacao", "date");
+    // Autocompletar por razão social ou nome fantasia
+    private static final Sugestoes SUGESTOES = new Sugestoes("TB_EMPRESA", "id_empresa", "razao_social",
+            "nome_fantasia", List.of("razao_social", "nome_fantasia"), null);
+    // Quase toda tela resolve as mesmas poucas empresas pelo id; as escritas tiram a empresa do cache
+    // (ver AlteracaoTabela). Quem lê recebe uma cópia, que pode alterar à vontade
+    static final CacheLimitado<Long, Empresa> CACHE = new CacheLimitado<>("empresas",
+            EnvConfig.getCacheEmpresasMaximo(), EnvConfig.getCacheEmpresasTtlMs(), empresa -> 1);
+    // listarTodosDetalhados inteira, pesando uma unidade por empresa; tabela maior que o limite não entra
+    static final CacheLimitado<String, List<Empresa>> CACHE_LISTA = new CacheLimitado<>("empresasDetalhadas",
+            EnvConfig.getCacheEmpresasMaximo(), EnvConfig.getCacheEmpresasTtlMs(), List::size);
+    // Falso quando a transação já gravou algo ainda não confirmado: o que ela lê não pode ir para o cache
+    private static final String CONFIRMADA = "txid_current_if_assigned() IS NULL AS confirmada";
     private final Connection conexao;
+    private final boolean conexaoPropria;
 
     public EmpresaDAO() {
         try {
             this.conexao = ConnectionFactory.getConnection();
+            this.conexaoPropria = true;
             LOGGER.info("Conexão com o banco de dados estabelecida");
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao conectar ao banco de dados", e);
@@ -24,7 +69,17 @@ public class EmpresaDAO implements AutoCloseable {
         }
     }
 
-    public long cadastrar(Empresa empresa) {
+    // Reaproveita uma conexão já aberta; quem a forneceu continua responsável por fechá-la
+    public EmpresaDAO(Connection conexao) {
+        this.conexao = conexao;
+        this.conexaoPropria = false;
+    }
+
+    /**
+     * Insere e devolve a empresa gravada numa única instrução; CNPJ repetido
+     * não gera linha (ON CONFLICT) e vira ConflictException.
+     */
+    public Empresa cadastrar(Empresa empresa) {
         String sql = """
             INSERT INTO TB_EMPRESA (
                 cnpj, razao_social, nome_fantasia, inscricao_estadual,
@@ -32,8 +87,9 @@ public class EmpresaDAO implements AutoCloseable {
                 complemento, bairro, cidade, estado, cep,
                 quantidade_funcionarios, setor_atuacao, data_fundacao
             ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-            RETURNING id_empresa
-            """;
+            ON CONFLICT (cnpj) DO NOTHING
+            RETURNING %s
+            """.formatted(COLUNAS_DETALHE);
 
         try (var stmt = conexao.prepareStatement(sql)) {
             LOGGER.info("Tentando cadastrar empresa: " + empresa.getRazaoSocial());
@@ -41,12 +97,6 @@ public class EmpresaDAO implements AutoCloseable {
             // Normaliza CNPJ
             String cnpjLimpo = empresa.getCnpj().replaceAll("[^0-9]", "");
 
-            // Verifica duplicado
-            if (existeCnpj(cnpjLimpo)) {
-                LOGGER.warning("CNPJ já cadastrado: " + cnpjLimpo);
-                throw new SQLException("CNPJ já cadastrado", "23505");
-            }
-
             // Seta parâmetros
             int paramIndex = 1;
             stmt.setString(paramIndex++, cnpjLimpo);
@@ -69,12 +119,14 @@ public class EmpresaDAO implements AutoCloseable {
                     Date.valueOf(empresa.getDataFundacao()) : null);
 
             try (var rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    long id = rs.getLong(1);
-                    LOGGER.info("Empresa cadastrada com sucesso. ID: " + id);
-                    return id;
+                if (!rs.next()) {
+                    LOGGER.warning("CNPJ já cadastrado: " + cnpjLimpo);
+                    throw new ConflictException("Já existe uma empresa cadastrada com este CNPJ");
                 }
-                throw new SQLException("Falha ao obter ID da empresa");
+                Empresa criada = mapeadorDetalhe(IndiceColunas.de(rs)).mapear(rs);
+                AlteracaoTabela.notificar(conexao, "TB_EMPRESA");
+                LOGGER.info("Empresa cadastrada com sucesso. ID: " + criada.getIdEmpresa());
+                return criada;
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao cadastrar empresa", e);
@@ -83,11 +135,23 @@ public class EmpresaDAO implements AutoCloseable {
     }
 
     public Optional<Empresa> pesquisarPorId(long id) {
-        String sql = "SELECT * FROM TB_EMPRESA WHERE id_empresa = ?";
+        Empresa emCache = CACHE.buscar(id);
+        if (emCache != null) {
+            return Optional.of(copiar(emCache));
+        }
+        long geracao = CACHE.geracao();
+        String sql = "SELECT " + COLUNAS_DETALHE + ", " + CONFIRMADA + " FROM TB_EMPRESA WHERE id_empresa = ?";
         try (var stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, id);
             try (var rs = stmt.executeQuery()) {
-                return rs.next() ? Optional.of(parseEmpresa(rs)) : Optional.empty();
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                Empresa empresa = mapeadorDetalhe(IndiceColunas.de(rs)).mapear(rs);
+                if (rs.getBoolean("confirmada")) {
+                    CACHE.guardar(id, copiar(empresa), geracao);
+                }
+                return Optional.of(empresa);
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao buscar empresa por ID: " + id, e);
@@ -97,11 +161,11 @@ public class EmpresaDAO implements AutoCloseable {
 
     public Optional<Empresa> pesquisarPorCnpj(String cnpj) {
         String cnpjLimpo = cnpj.replaceAll("[^0-9]", "");
-        String sql = "SELECT * FROM TB_EMPRESA WHERE cnpj = ?";
+        String sql = "SELECT " + COLUNAS_DETALHE + " FROM TB_EMPRESA WHERE cnpj = ?";
         try (var stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, cnpjLimpo);
             try (var rs = stmt.executeQuery()) {
-                return rs.next() ? Optional.of(parseEmpresa(rs)) : Optional.empty();
+                return rs.next() ? Optional.of(mapeadorDetalhe(IndiceColunas.de(rs)).mapear(rs)) : Optional.empty();
             }
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao buscar empresa por CNPJ: " + cnpj, e);
@@ -110,14 +174,44 @@ public class EmpresaDAO implements AutoCloseable {
     }
 
     public List<Empresa> listarTodos() {
-        String sql = "SELECT * FROM TB_EMPRESA ORDER BY razao_social";
+        String sql = "SELECT " + COLUNAS_LISTA + " FROM TB_EMPRESA ORDER BY razao_social";
+        var empresas = new ArrayList<Empresa>();
+
+        try (var stmt = conexao.createStatement();
+             var rs = stmt.executeQuery(sql)) {
+
+            var mapeador = mapeadorLista(IndiceColunas.de(rs));
+            while (rs.next()) {
+                empresas.add(mapeador.mapear(rs));
+            }
+            return empresas;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao listar empresas", e);
+            throw new RuntimeException("Erro ao listar empresas", e);
+        }
+    }
+
+    // Para quem precisa do cadastro completo (endereço, inscrições) de todas as empresas
+    public List<Empresa> listarTodosDetalhados() {
+        List<Empresa> emCache = CACHE_LISTA.buscar("todas");
+        if (emCache != null) {
+            return emCache.stream().map(EmpresaDAO::copiar).collect(Collectors.toCollection(ArrayList::new));
+        }
+        long geracao = CACHE_LISTA.geracao();
+        String sql = "SELECT " + COLUNAS_DETALHE + ", " + CONFIRMADA + " FROM TB_EMPRESA ORDER BY razao_social";
         var empresas = new ArrayList<Empresa>();
+        boolean confirmada = true;
 
         try (var stmt = conexao.createStatement();
              var rs = stmt.executeQuery(sql)) {
 
+            var mapeador = mapeadorDetalhe(IndiceColunas.de(rs));
             while (rs.next()) {
-                empresas.add(parseEmpresa(rs));
+                empresas.add(mapeador.mapear(rs));
+                confirmada = rs.getBoolean("confirmada");
+            }
+            if (confirmada) {
+                CACHE_LISTA.guardar("todas", empresas.stream().map(EmpresaDAO::copiar).toList(), geracao);
             }
             return empresas;
         } catch (SQLException e) {
@@ -126,7 +220,81 @@ public class EmpresaDAO implements AutoCloseable {
         }
     }
 
-    public void atualizar(Empresa empresa) {
+    public List<Empresa> listarPagina(String estado, String cidade, String setorAtuacao, Boolean ativo,
+                                      int pagina, int limite) {
+        var params = new ArrayList<Object>();
+        String where = filtroEmpresas(estado, cidade, setorAtuacao, ativo, params);
+        String sql = "SELECT " + COLUNAS_LISTA + " FROM TB_EMPRESA" + where + " ORDER BY razao_social, id_empresa LIMIT ? OFFSET ?";
+        var empresas = new ArrayList<Empresa>();
+
+        try (var stmt = conexao.prepareStatement(sql)) {
+            int paramIndex = 1;
+            for (Object param : params) {
+                stmt.setObject(paramIndex++, param);
+            }
+            stmt.setInt(paramIndex++, limite);
+            stmt.setLong(paramIndex, (long) (pagina - 1) * limite);
+
+            try (var rs = stmt.executeQuery()) {
+                var mapeador = mapeadorLista(IndiceColunas.de(rs));
+                while (rs.next()) {
+                    empresas.add(mapeador.mapear(rs));
+                }
+            }
+            return empresas;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao listar página de empresas", e);
+            throw new RuntimeException("Erro ao listar empresas", e);
+        }
+    }
+
+    /** Empresas cujo nome contém ou lembra o termo, para campos de autocompletar. */
+    public List<SugestaoDTO> sugerir(String termo, int limite) {
+        try {
+            return SUGESTOES.buscar(conexao, termo, null, limite);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao sugerir empresas para: " + termo, e);
+            throw new RuntimeException("Erro ao sugerir empresas", e);
+        }
+    }
+
+    public long contar(String estado, String cidade, String setorAtuacao, Boolean ativo) {
+        var params = new ArrayList<Object>();
+        String where = filtroEmpresas(estado, cidade, setorAtuacao, ativo, params);
+        try {
+            return ContagemCache.contar(conexao, "TB_EMPRESA", where, params);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao contar empresas", e);
+            throw new RuntimeException("Erro ao contar empresas", e);
+        }
+    }
+
+    private String filtroEmpresas(String estado, String cidade, String setorAtuacao, Boolean ativo, List<Object> params) {
+        var where = new StringBuilder();
+        if (estado != null) {
+            where.append(where.isEmpty() ? " WHERE " : " AND ").append("estado = ?");
+            params.add(estado.toUpperCase());
+        }
+        if (cidade != null) {
+            where.append(where.isEmpty() ? " WHERE " : " AND ").append("cidade = ?");
+            params.add(cidade);
+        }
+        if (setorAtuacao != null) {
+            where.append(where.isEmpty() ? " WHERE " : " AND ").append("setor_atuacao = ?");
+            params.add(setorAtuacao);
+        }
+        if (ativo != null) {
+            where.append(where.isEmpty() ? " WHERE " : " AND ").append("ativo = ?");
+            params.add(ativo);
+        }
+        return where.toString();
+    }
+
+    /**
+     * Regrava todas as colunas editáveis da empresa. Com {@code versaoEsperada} (If-Match), só
+     * grava se a linha ainda estiver nessa versão.
+     */
+    public ResultadoEscrita atualizar(Empresa empresa, Long versaoEsperada) {
         String sql = """
             UPDATE TB_EMPRESA SET
                 razao_social = ?,
@@ -145,8 +313,9 @@ public class EmpresaDAO implements AutoCloseable {
                 quantidade_funcionarios = ?,
                 setor_atuacao = ?,
                 data_fundacao = ?
-            WHERE id_empresa = ?
-            """;
+            WHERE id_empresa = ?%s
+            RETURNING versao
+            """.formatted(ResultadoEscrita.condicao(versaoEsperada));
 
         try (var stmt = conexao.prepareStatement(sql)) {
             int paramIndex = 1;
@@ -167,35 +336,77 @@ public class EmpresaDAO implements AutoCloseable {
             stmt.setString(paramIndex++, empresa.getSetorAtuacao());
             stmt.setDate(paramIndex++, empresa.getDataFundacao() != null ?
                     Date.valueOf(empresa.getDataFundacao()) : null);
-            stmt.setLong(paramIndex, empresa.getIdEmpresa());
+            stmt.setLong(paramIndex++, empresa.getIdEmpresa());
+            if (versaoEsperada != null) {
+                stmt.setLong(paramIndex, versaoEsperada);
+            }
 
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows == 0) {
-                throw new SQLException("Falha ao atualizar empresa, nenhuma linha afetada");
+            ResultadoEscrita resultado = ResultadoEscrita.executar(conexao, stmt, "TB_EMPRESA", "id_empresa",
+                    empresa.getIdEmpresa(), versaoEsperada);
+            if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                AlteracaoTabela.notificar(conexao, "TB_EMPRESA", empresa.getIdEmpresa());
             }
+            return resultado;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao atualizar empresa ID: " + empresa.getIdEmpresa(), e);
             throw new RuntimeException("Erro ao atualizar empresa", e);
         }
     }
 
-    public void remover(long id) {
-        String sql = "DELETE FROM TB_EMPRESA WHERE id_empresa = ?";
+    /**
+     * Altera só os campos presentes no merge patch, sem ler a empresa antes.
+     * Campo ou valor inválido gera IllegalArgumentException.
+     */
+    public ResultadoEscrita atualizarParcial(long id, Map<String, Object> patch, Long versaoEsperada) {
+        try {
+            ResultadoEscrita resultado = PATCH.aplicar(conexao, id, patch, versaoEsperada);
+            if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                AlteracaoTabela.notificar(conexao, "TB_EMPRESA", id);
+            }
+            return resultado;
+        } catch (SQLException e) {
+            if (AtualizacaoParcial.dadoInvalido(e)) {
+                throw new IllegalArgumentException("Dados inválidos para a empresa", e);
+            }
+            LOGGER.log(Level.SEVERE, "Erro ao atualizar parcialmente empresa ID: " + id, e);
+            throw new RuntimeException("Erro ao atualizar empresa", e);
+        }
+    }
+
+    public ResultadoEscrita remover(long id, Long versaoEsperada) {
+        String sql = "DELETE FROM TB_EMPRESA WHERE id_empresa = ?" + ResultadoEscrita.condicao(versaoEsperada)
+                + " RETURNING versao";
 
         try (var stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            int affectedRows = stmt.executeUpdate();
-
-            if (affectedRows == 0) {
-                throw new SQLException("Empresa não encontrada com ID: " + id);
+            if (versaoEsperada != null) {
+                stmt.setLong(2, versaoEsperada);
             }
-            LOGGER.info("Empresa removida permanentemente. ID: " + id);
+            ResultadoEscrita resultado = ResultadoEscrita.executar(conexao, stmt, "TB_EMPRESA", "id_empresa",
+                    id, versaoEsperada);
+            if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                AlteracaoTabela.notificar(conexao, "TB_EMPRESA", id);
+                // Clientes da empresa são removidos em cascata
+                AlteracaoTabela.notificar(conexao, "TB_CLIENTE");
+                LOGGER.info("Empresa removida permanentemente. ID: " + id);
+            }
+            return resultado;
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao remover empresa permanentemente ID: " + id, e);
             throw new RuntimeException("Erro ao remover empresa permanentemente", e);
         }
     }
 
+    /** Versão atual da empresa, sem ler o resto da linha (If-None-Match). */
+    public OptionalLong versao(long id) {
+        try {
+            return ResultadoEscrita.versaoAtual(conexao, "TB_EMPRESA", "id_empresa", id);
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao consultar versão da empresa ID: " + id, e);
+            throw new RuntimeException("Erro ao consultar empresa", e);
+        }
+    }
+
     public boolean existePorId(long id) {
         String sql = "SELECT 1 FROM TB_EMPRESA WHERE id_empresa = ?";
 
@@ -210,51 +421,82 @@ public class EmpresaDAO implements AutoCloseable {
         }
     }
 
-    private boolean existeCnpj(String cnpj) {
-        String sql = "SELECT 1 FROM TB_EMPRESA WHERE cnpj = ?";
-        try (var stmt = conexao.prepareStatement(sql)) {
-            stmt.setString(1, cnpj);
-            try (var rs = stmt.executeQuery()) {
-                return rs.next();
-            }
-        } catch (SQLException e) {
-            LOGGER.log(Level.SEVERE, "Erro ao verificar CNPJ existente", e);
-            return false;
-        }
+    static MapeadorLinha<Empresa> mapeadorLista(IndiceColunas colunas) throws SQLException {
+        int idEmpresa = colunas.de("id_empresa");
+        int cnpj = colunas.de("cnpj");
+        int razaoSocial = colunas.de("razao_social");
+        int nomeFantasia = colunas.de("nome_fantasia");
+        int email = colunas.de("email");
+        int telefone = colunas.de("telefone");
+        int cidade = colunas.de("cidade");
+        int estado = colunas.de("estado");
+        int setorAtuacao = colunas.de("setor_atuacao");
+        int ativo = colunas.de("ativo");
+        return rs -> {
+            var empresa = new Empresa();
+            empresa.setIdEmpresa(rs.getLong(idEmpresa));
+            empresa.setCnpj(rs.getString(cnpj));
+            empresa.setRazaoSocial(rs.getString(razaoSocial));
+            empresa.setNomeFantasia(rs.getString(nomeFantasia));
+            empresa.setEmail(rs.getString(email));
+            empresa.setTelefone(rs.getString(telefone));
+            empresa.setCidade(rs.getString(cidade));
+            empresa.setEstado(rs.getString(estado));
+            empresa.setSetorAtuacao(rs.getString(setorAtuacao));
+            empresa.setAtivo(rs.getBoolean(ativo));
+            return empresa;
+        };
+    }
+
+    static MapeadorLinha<Empresa> mapeadorDetalhe(IndiceColunas colunas) throws SQLException {
+        MapeadorLinha<Empresa> lista = mapeadorLista(colunas);
+        int inscricaoEstadual = colunas.de("inscricao_estadual");
+        int inscricaoMunicipal = colunas.de("inscricao_municipal");
+        int endereco = colunas.de("endereco");
+        int numero = colunas.de("numero");
+        int complemento = colunas.de("complemento");
+        int bairro = colunas.de("bairro");
+        int cep = colunas.de("cep");
+        int quantidadeFuncionarios = colunas.de("quantidade_funcionarios");
+        int dataFundacao = colunas.de("data_fundacao");
+        int dataCadastro = colunas.de("data_cadastro");
+        int versao = colunas.de("versao");
+        return rs -> {
+            var empresa = lista.mapear(rs);
+            empresa.setVersao(rs.getLong(versao));
+            empresa.setInscricaoEstadual(rs.getString(inscricaoEstadual));
+            empresa.setInscricaoMunicipal(rs.getString(inscricaoMunicipal));
+            empresa.setEndereco(rs.getString(endereco));
+            empresa.setNumero(rs.getString(numero));
+            empresa.setComplemento(rs.getString(complemento));
+            empresa.setBairro(rs.getString(bairro));
+            empresa.setCep(rs.getString(cep));
+            Integer funcionarios = rs.getObject(quantidadeFuncionarios, Integer.class);
+            empresa.setQuantidadeFuncionarios(funcionarios != null ? funcionarios : 0);
+            empresa.setDataFundacao(IndiceColunas.data(rs, dataFundacao));
+            empresa.setDataCadastro(IndiceColunas.dataHora(rs, dataCadastro));
+            return empresa;
+        };
     }
 
-    private Empresa parseEmpresa(ResultSet rs) throws SQLException {
-        var empresa = new Empresa(
-                rs.getString("cnpj"),
-                rs.getString("razao_social"),
-                rs.getString("nome_fantasia"),
-                rs.getString("inscricao_estadual"),
-                rs.getString("inscricao_municipal"),
-                rs.getString("email"),
-                rs.getString("telefone"),
-                rs.getString("endereco"),
-                rs.getString("numero"),
-                rs.getString("complemento"),
-                rs.getString("bairro"),
-                rs.getString("cidade"),
-                rs.getString("estado"),
-                rs.getString("cep"),
-                rs.getObject("quantidade_funcionarios", Integer.class),
-                rs.getString("setor_atuacao"),
-                rs.getDate("data_fundacao") != null ?
-                        rs.getDate("data_fundacao").toLocalDate() : null
-        );
-
-        empresa.setIdEmpresa(rs.getLong("id_empresa"));
-        empresa.setDataCadastro(rs.getTimestamp("data_cadastro").toLocalDateTime());
-        empresa.setAtivo(rs.getBoolean("ativo"));
+    // O cache guarda e entrega cópias: quem altera a empresa lida não altera a que está no cache
+    private static Empresa copiar(Empresa origem) {
+        var empresa = new Empresa(origem.getCnpj(), origem.getRazaoSocial(), origem.getNomeFantasia(),
+                origem.getInscricaoEstadual(), origem.getInscricaoMunicipal(), origem.getEmail(),
+                origem.getTelefone(), origem.getEndereco(), origem.getNumero(), origem.getComplemento(),
+                origem.getBairro(), origem.getCidade(), origem.getEstado(), origem.getCep(),
+                origem.getQuantidadeFuncionarios(), origem.getSetorAtuacao(), origem.getDataFundacao());
+        empresa.setIdEmpresa(origem.getIdEmpresa());
+        empresa.setDataCadastro(origem.getDataCadastro());
+        empresa.setVersao(origem.getVersao());
+        empresa.setAtivo(origem.isAtivo());
         return empresa;
     }
 
     @Override
     public void close() {
         try {
-            if (conexao != null && !conexao.isClosed()) {
+            if (conexaoPropria && conexao != null && !conexao.isClosed()) {
                 conexao.close();
                 LOGGER.info("Conexão com o banco de dados fechada");
             }
@@ -0,0 +1,26 @@
+package br.com.fiap.dao;
+
+/**
+ * Formatos de arquivo da importação e da exportação em massa.
+ * CSV sempre com cabeçalho; NDJSON com um objeto JSON por linha.
+ */
+public enum FormatoArquivo {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String mediaType;
+    private final String extensao;
+
+    FormatoArquivo(String mediaType, String extensao) {
+        this.mediaType = mediaType;
+        this.extensao = extensao;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+}
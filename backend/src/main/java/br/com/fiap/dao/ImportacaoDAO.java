@@ -0,0 +1,266 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.factory.ConnectionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Importação em massa de empresas e clientes. As linhas entram por COPY numa tabela
+ * temporária de staging (ON COMMIT DROP) e são consolidadas nas tabelas definitivas com
+ * poucas instruções set-based; o que não entra fica marcado com o motivo na própria staging.
+ * Precisa de transação aberta (@Transactional), senão a staging some no autocommit do CREATE.
+ */
+public class ImportacaoDAO implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ImportacaoDAO.class.getName());
+
+    // Ordem das colunas no COPY; a linha de origem no arquivo vem sempre antes
+    public static final List<String> COLUNAS_EMPRESA = List.of(
+            "cnpj", "razao_social", "nome_fantasia", "inscricao_estadual", "inscricao_municipal",
+            "email", "telefone", "endereco", "numero", "complemento", "bairro", "cidade", "estado", "cep",
+            "quantidade_funcionarios", "setor_atuacao", "data_fundacao");
+    public static final List<String> COLUNAS_CLIENTE = List.of(
+            "id_empresa", "nome", "email", "telefone", "cpf", "data_nascimento", "cargo", "departamento",
+            "role", "senha");
+
+    // Texto livre vai como text na staging; limites de tamanho são checados antes, em Java
+    private static final String STAGING_EMPRESA = """
+            CREATE TEMP TABLE imp_empresa (
+                linha bigint, cnpj text, razao_social text, nome_fantasia text, inscricao_estadual text,
+                inscricao_municipal text, email text, telefone text, endereco text, numero text,
+                complemento text, bairro text, cidade text, estado text, cep text,
+                quantidade_funcionarios integer, setor_atuacao text, data_fundacao date, motivo text
+            ) ON COMMIT DROP
+            """;
+    private static final String STAGING_CLIENTE = """
+            CREATE TEMP TABLE imp_cliente (
+                linha bigint, id_empresa bigint, nome text, email text, telefone text, cpf text,
+                data_nascimento date, cargo text, departamento text, role text, senha text, motivo text
+            ) ON COMMIT DROP
+            """;
+
+    private static final String[] CONSOLIDAR_EMPRESAS = {
+            """
+            UPDATE imp_empresa s SET motivo = 'CNPJ repetido no arquivo (linha ' || d.primeira || ')'
+            FROM (SELECT linha, min(linha) OVER (PARTITION BY cnpj) AS primeira FROM imp_empresa) d
+            WHERE s.linha = d.linha AND d.linha <> d.primeira
+            """,
+            """
+            UPDATE imp_empresa s SET motivo = 'CNPJ já cadastrado'
+            WHERE s.motivo IS NULL AND EXISTS (SELECT 1 FROM TB_EMPRESA e WHERE e.cnpj = s.cnpj)
+            """,
+            // ON CONFLICT cobre quem cadastrou o mesmo CNPJ entre a checagem acima e o INSERT
+            """
+            WITH inseridas AS (
+                INSERT INTO TB_EMPRESA (%1$s)
+                SELECT %1$s FROM imp_empresa WHERE motivo IS NULL ORDER BY linha
+                ON CONFLICT (cnpj) DO NOTHING
+                RETURNING cnpj
+            )
+            UPDATE imp_empresa s SET motivo = 'CNPJ já cadastrado'
+            WHERE s.motivo IS NULL AND NOT EXISTS (SELECT 1 FROM inseridas i WHERE i.cnpj = s.cnpj)
+            """.formatted(String.join(", ", COLUNAS_EMPRESA))
+    };
+
+    private static final String[] CONSOLIDAR_CLIENTES = {
+            """
+            UPDATE imp_cliente SET motivo = 'Perfil inválido: ' || role
+            WHERE role NOT IN (SELECT unnest(enum_range(NULL::tipo_role))::text)
+            """,
+            """
+            UPDATE imp_cliente s SET motivo = 'Empresa ' || s.id_empresa || ' não encontrada'
+            WHERE s.motivo IS NULL AND NOT EXISTS (SELECT 1 FROM TB_EMPRESA e WHERE e.id_empresa = s.id_empresa)
+            """,
+            """
+            UPDATE imp_cliente s SET motivo = 'CPF repetido no arquivo (linha ' || d.primeira || ')'
+            FROM (SELECT linha, min(linha) OVER (PARTITION BY cpf) AS primeira
+                  FROM imp_cliente WHERE motivo IS NULL) d
+            WHERE s.linha = d.linha AND d.linha <> d.primeira
+            """,
+            """
+            UPDATE imp_cliente s SET motivo = 'E-mail repetido no arquivo (linha ' || d.primeira || ')'
+            FROM (SELECT linha, min(linha) OVER (PARTITION BY email) AS primeira
+                  FROM imp_cliente WHERE motivo IS NULL) d
+            WHERE s.linha = d.linha AND d.linha <> d.primeira
+            """,
+            """
+            UPDATE imp_cliente s SET motivo = CASE
+                    WHEN EXISTS (SELECT 1 FROM TB_CLIENTE c WHERE c.cpf = s.cpf) THEN 'CPF já cadastrado'
+                    ELSE 'E-mail já cadastrado' END
+            WHERE s.motivo IS NULL
+              AND (EXISTS (SELECT 1 FROM TB_CLIENTE c WHERE c.cpf = s.cpf)
+                   OR EXISTS (SELECT 1 FROM TB_CLIENTE c WHERE c.email = s.email))
+            """,
+            """
+            WITH inseridos AS (
+                INSERT INTO TB_CLIENTE (%s)
+                SELECT id_empresa, nome, email, telefone, cpf, data_nascimento, cargo, departamento,
+                       role::tipo_role, senha
+                FROM imp_cliente WHERE motivo IS NULL ORDER BY linha
+                ON CONFLICT DO NOTHING
+                RETURNING cpf
+            )
+            UPDATE imp_cliente s SET motivo = 'CPF ou e-mail já cadastrado'
+            WHERE s.motivo IS NULL AND NOT EXISTS (SELECT 1 FROM inseridos i WHERE i.cpf = s.cpf)
+            """.formatted(String.join(", ", COLUNAS_CLIENTE))
+    };
+
+    // Tamanho máximo das colunas varchar/char por tabela; o schema só muda com deploy
+    private static final Map<String, Map<String, Integer>> TAMANHOS = new ConcurrentHashMap<>();
+
+    private final Connection conexao;
+
+    public ImportacaoDAO() throws SQLException {
+        this.conexao = ConnectionFactory.getConnection();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        conexao.close();
+    }
+
+    public record Rejeicao(long linha, String motivo) {
+    }
+
+    public Map<String, Integer> tamanhosMaximos(String tabela) throws SQLException {
+        Map<String, Integer> tamanhos = TAMANHOS.get(tabela);
+        if (tamanhos != null) {
+            return tamanhos;
+        }
+        String sql = "SELECT column_name, character_maximum_length FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() AND table_name = ? AND character_maximum_length IS NOT NULL";
+        tamanhos = new HashMap<>();
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setString(1, tabela.toLowerCase());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    tamanhos.put(rs.getString(1), rs.getInt(2));
+                }
+            }
+        }
+        TAMANHOS.put(tabela, Map.copyOf(tamanhos));
+        return tamanhos;
+    }
+
+    public Copia iniciarEmpresas() throws SQLException {
+        return iniciar(STAGING_EMPRESA, "imp_empresa", COLUNAS_EMPRESA);
+    }
+
+    public Copia iniciarClientes() throws SQLException {
+        return iniciar(STAGING_CLIENTE, "imp_cliente", COLUNAS_CLIENTE);
+    }
+
+    public List<Rejeicao> consolidarEmpresas() throws SQLException {
+        List<Rejeicao> rejeicoes = consolidar("imp_empresa", CONSOLIDAR_EMPRESAS);
+        AlteracaoTabela.notificar(conexao, "TB_EMPRESA");
+        return rejeicoes;
+    }
+
+    public List<Rejeicao> consolidarClientes() throws SQLException {
+        List<Rejeicao> rejeicoes = consolidar("imp_cliente", CONSOLIDAR_CLIENTES);
+        AlteracaoTabela.notificar(conexao, "TB_CLIENTE");
+        return rejeicoes;
+    }
+
+    private Copia iniciar(String ddl, String staging, List<String> colunas) throws SQLException {
+        if (conexao.getAutoCommit()) {
+            throw new SQLException("Importação precisa rodar dentro de uma transação");
+        }
+        try (Statement stmt = conexao.createStatement()) {
+            stmt.execute(ddl);
+        }
+        String copy = "COPY " + staging + " (linha, " + String.join(", ", colunas) + ") FROM STDIN (FORMAT csv)";
+        return new Copia(conexao.unwrap(PGConnection.class).getCopyAPI().copyIn(copy));
+    }
+
+    private List<Rejeicao> consolidar(String staging, String[] instrucoes) throws SQLException {
+        try (Statement stmt = conexao.createStatement()) {
+            // Tabela temporária não tem estatísticas até alguém analisá-la
+            stmt.execute("ANALYZE " + staging);
+            for (String sql : instrucoes) {
+                int afetadas = stmt.executeUpdate(sql);
+                LOGGER.fine(() -> staging + ": " + afetadas + " linhas em " + sql.strip().lines().findFirst().orElse(""));
+            }
+            List<Rejeicao> rejeicoes = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT linha, motivo FROM " + staging + " WHERE motivo IS NOT NULL ORDER BY linha")) {
+                while (rs.next()) {
+                    rejeicoes.add(new Rejeicao(rs.getLong(1), rs.getString(2)));
+                }
+            }
+            return rejeicoes;
+        }
+    }
+
+    /**
+     * COPY aberto para a staging. As linhas são codificadas em CSV num buffer e enviadas
+     * em blocos; nada mais pode rodar na conexão até {@link #finalizar()} ou {@link #cancelar()}.
+     */
+    public static final class Copia {
+        private static final int TAMANHO_BLOCO = 64 * 1024;
+
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(TAMANHO_BLOCO + 1024);
+        private long linhas;
+
+        private Copia(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        public void escrever(long linha, Object[] valores) throws SQLException {
+            buffer.append(linha);
+            for (Object valor : valores) {
+                buffer.append(',');
+                // Vazio sem aspas é NULL no COPY csv; texto vai sempre entre aspas
+                if (valor instanceof String texto) {
+                    buffer.append('"').append(texto.replace("\"", "\"\"")).append('"');
+                } else if (valor != null) {
+                    buffer.append(valor);
+                }
+            }
+            buffer.append('\n');
+            linhas++;
+            if (buffer.length() >= TAMANHO_BLOCO) {
+                enviar();
+            }
+        }
+
+        public long finalizar() throws SQLException {
+            enviar();
+            copyIn.endCopy();
+            return linhas;
+        }
+
+        public void cancelar() {
+            try {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Erro ao cancelar COPY", e);
+            }
+        }
+
+        private void enviar() throws SQLException {
+            if (buffer.length() == 0) {
+                return;
+            }
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+    }
+}
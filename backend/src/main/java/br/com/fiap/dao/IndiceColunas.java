@@ -0,0 +1,58 @@
+package br.com.fiap.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Posição de cada coluna de um resultado, resolvida uma única vez a partir do ResultSetMetaData.
+ * Os mapeadores guardam os índices e leem as linhas por posição, sem busca por nome a cada linha.
+ */
+final class IndiceColunas {
+    private final Map<String, Integer> indices;
+
+    private IndiceColunas(Map<String, Integer> indices) {
+        this.indices = indices;
+    }
+
+    static IndiceColunas de(ResultSet rs) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int total = meta.getColumnCount();
+        Map<String, Integer> indices = new HashMap<>(total * 2);
+        for (int i = 1; i <= total; i++) {
+            // Como no findColumn do driver, vale a primeira ocorrência do rótulo
+            indices.putIfAbsent(meta.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new IndiceColunas(indices);
+    }
+
+    int de(String coluna) throws SQLException {
+        Integer indice = indices.get(coluna);
+        if (indice == null) {
+            throw new SQLException("Coluna ausente no resultado: " + coluna);
+        }
+        return indice;
+    }
+
+    static LocalDate data(ResultSet rs, int indice) throws SQLException {
+        return rs.getObject(indice, LocalDate.class);
+    }
+
+    // TIMESTAMP WITH TIME ZONE convertido para o fuso da aplicação, como nos modelos
+    static LocalDateTime dataHora(ResultSet rs, int indice) throws SQLException {
+        OffsetDateTime valor = rs.getObject(indice, OffsetDateTime.class);
+        return valor != null ? valor.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime() : null;
+    }
+
+    static Long longOuNulo(ResultSet rs, int indice) throws SQLException {
+        long valor = rs.getLong(indice);
+        return rs.wasNull() ? null : valor;
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.fiap.dao;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leituras idênticas simultâneas viram uma só: quem chega enquanto a mesma chave já está sendo lida
+ * espera e recebe o mesmo resultado (ou a mesma exceção), sem ir ao banco nem ocupar conexão do pool.
+ * <p>
+ * Só aproveita a leitura em andamento quem tem a mesma {@code geracao} (ver {@link CacheLimitado#geracao()})
+ * ou uma anterior: leitura que começou antes de uma escrita não serve para quem chegou depois dela.
+ * Cada instância se registra pelo nome para aparecer em {@code GET /metricas/leituras}.
+ */
+public final class LeiturasEmAndamento<K, V> {
+    private static final Map<String, LeiturasEmAndamento<?, ?>> REGISTRADAS = new ConcurrentSkipListMap<>();
+
+    private final Map<K, Leitura<V>> emAndamento = new ConcurrentHashMap<>();
+    private final LongAdder executadas = new LongAdder();
+    private final LongAdder compartilhadas = new LongAdder();
+
+    private record Leitura<V>(long geracao, CompletableFuture<V> resultado) {
+    }
+
+    @FunctionalInterface
+    public interface Leitor<V> {
+        V ler() throws Exception;
+    }
+
+    public LeiturasEmAndamento(String nome) {
+        REGISTRADAS.put(nome, this);
+    }
+
+    /** Resultado do leitor, executado aqui ou por quem já estava lendo a mesma chave. */
+    public V executar(K chave, long geracao, Leitor<V> leitor) throws Exception {
+        Leitura<V> minha = new Leitura<>(geracao, new CompletableFuture<>());
+        while (true) {
+            Leitura<V> atual = emAndamento.putIfAbsent(chave, minha);
+            if (atual == null) {
+                break;
+            }
+            if (atual.geracao() >= geracao) {
+                compartilhadas.increment();
+                return aguardar(atual.resultado());
+            }
+            // A leitura em andamento é anterior a uma escrita que esta requisição já viu: lê de novo
+            if (emAndamento.replace(chave, atual, minha)) {
+                break;
+            }
+        }
+        executadas.increment();
+        try {
+            V valor = leitor.ler();
+            minha.resultado().complete(valor);
+            return valor;
+        } catch (Exception | Error e) {
+            minha.resultado().completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, minha);
+        }
+    }
+
+    public Map<String, Object> estatisticas() {
+        long totalExecutadas = executadas.sum();
+        long totalCompartilhadas = compartilhadas.sum();
+        long pedidas = totalExecutadas + totalCompartilhadas;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("emAndamento", emAndamento.size());
+        // Leituras que de fato foram ao banco
+        stats.put("executadas", totalExecutadas);
+        // Requisições que aproveitaram a leitura de outra
+        stats.put("compartilhadas", totalCompartilhadas);
+        stats.put("taxaCompartilhada", pedidas == 0 ? 0.0 : Math.round(totalCompartilhadas * 1000.0 / pedidas) / 1000.0);
+        return stats;
+    }
+
+    /** Estatísticas de todas as instâncias criadas, pelo nome de cada uma. */
+    public static Map<String, Object> estatisticasDeTodas() {
+        Map<String, Object> todas = new LinkedHashMap<>();
+        REGISTRADAS.forEach((nome, leituras) -> todas.put(nome, leituras.estatisticas()));
+        return todas;
+    }
+
+    private static <V> V aguardar(CompletableFuture<V> resultado) throws Exception {
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception causa) {
+                throw causa;
+            }
+            throw (Error) e.getCause();
+        }
+    }
+}
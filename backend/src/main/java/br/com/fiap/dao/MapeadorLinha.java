@@ -0,0 +1,13 @@
+package br.com.fiap.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converte a linha corrente de um ResultSet em objeto. É criado uma vez por consulta,
+ * com os índices das colunas já resolvidos por {@link IndiceColunas}.
+ */
+@FunctionalInterface
+interface MapeadorLinha<T> {
+    T mapear(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,169 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.config.EnvConfig;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Escuta, numa conexão dedicada fora do pool, os avisos de invalidação publicados pelos DAOs de
+ * todas as instâncias da API (ver {@link AlteracaoTabela}) e limpa os caches deste processo.
+ * <p>
+ * O PostgreSQL não guarda avisos para quem não estava escutando: se a conexão cai, tudo o que foi
+ * publicado até o novo LISTEN se perde. Por isso os caches são esvaziados por inteiro ao perder a
+ * conexão e de novo a cada (re)conexão, antes de voltar a confiar nos avisos.
+ */
+public final class OuvinteInvalidacao {
+    private static final Logger LOGGER = Logger.getLogger(OuvinteInvalidacao.class.getName());
+    // Sem aviso nesse intervalo, confere se a conexão ainda responde (queda silenciosa de rede)
+    private static final int ESPERA_AVISO_MS = 10_000;
+    private static final int TIMEOUT_VALIDACAO_SEGUNDOS = 5;
+    private static final long RECONEXAO_INICIAL_MS = 500;
+    private static final long RECONEXAO_MAXIMA_MS = 30_000;
+
+    private static volatile OuvinteInvalidacao atual;
+
+    private volatile boolean ativo = true;
+    private volatile boolean conectado;
+    private volatile Connection conexao;
+    private final Thread thread;
+
+    private final LongAdder recebidos = new LongAdder();
+    private final LongAdder proprios = new LongAdder();
+    private final LongAdder invalidos = new LongAdder();
+    private final LongAdder ressincronizacoes = new LongAdder();
+    private final LongAdder quedas = new LongAdder();
+
+    private OuvinteInvalidacao() {
+        thread = new Thread(this::executar, "ouvinte-invalidacao-cache");
+        thread.setDaemon(true);
+    }
+
+    /** Começa a escutar em segundo plano; sem efeito se já estiver escutando ou se estiver desligado. */
+    public static synchronized void iniciar() {
+        if (atual != null || !EnvConfig.isCacheInvalidacaoEntreNos()) {
+            return;
+        }
+        atual = new OuvinteInvalidacao();
+        atual.thread.start();
+    }
+
+    public static synchronized void parar() {
+        OuvinteInvalidacao ouvinte = atual;
+        if (ouvinte == null) {
+            return;
+        }
+        atual = null;
+        ouvinte.ativo = false;
+        // Fechar a conexão desbloqueia a espera por avisos
+        fecharSilenciosamente(ouvinte.conexao);
+        ouvinte.thread.interrupt();
+    }
+
+    public static Map<String, Object> estatisticas() {
+        OuvinteInvalidacao ouvinte = atual;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ativo", ouvinte != null);
+        stats.put("no", AlteracaoTabela.NO);
+        stats.put("conectado", ouvinte != null && ouvinte.conectado);
+        stats.put("recebidos", ouvinte != null ? ouvinte.recebidos.sum() : 0L);
+        // Publicados por este mesmo processo, já aplicados na escrita
+        stats.put("proprios", ouvinte != null ? ouvinte.proprios.sum() : 0L);
+        stats.put("invalidos", ouvinte != null ? ouvinte.invalidos.sum() : 0L);
+        // Limpezas completas ao (re)conectar
+        stats.put("ressincronizacoes", ouvinte != null ? ouvinte.ressincronizacoes.sum() : 0L);
+        stats.put("quedas", ouvinte != null ? ouvinte.quedas.sum() : 0L);
+        return stats;
+    }
+
+    private void executar() {
+        long espera = RECONEXAO_INICIAL_MS;
+        while (ativo) {
+            try (Connection c = conectar()) {
+                conexao = c;
+                try (Statement stmt = c.createStatement()) {
+                    stmt.execute("LISTEN " + AlteracaoTabela.CANAL);
+                }
+                // Só a partir do LISTEN os avisos chegam; o que foi guardado antes pode estar velho
+                AlteracaoTabela.descartarTudo();
+                ressincronizacoes.increment();
+                conectado = true;
+                espera = RECONEXAO_INICIAL_MS;
+                LOGGER.info("Escutando avisos de invalidação de cache no canal " + AlteracaoTabela.CANAL);
+                escutar(c);
+            } catch (SQLException e) {
+                conectado = false;
+                if (!ativo) {
+                    break;
+                }
+                quedas.increment();
+                AlteracaoTabela.descartarTudo();
+                LOGGER.log(Level.WARNING, "Escuta de invalidação de cache interrompida; nova tentativa em "
+                        + espera + " ms", e);
+                try {
+                    Thread.sleep(espera);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                espera = Math.min(espera * 2, RECONEXAO_MAXIMA_MS);
+            } finally {
+                conexao = null;
+            }
+        }
+        conectado = false;
+    }
+
+    private void escutar(Connection c) throws SQLException {
+        PGConnection pg = c.unwrap(PGConnection.class);
+        while (ativo) {
+            PGNotification[] avisos = pg.getNotifications(ESPERA_AVISO_MS);
+            if (avisos == null || avisos.length == 0) {
+                if (ativo && !c.isValid(TIMEOUT_VALIDACAO_SEGUNDOS)) {
+                    throw new SQLException("Conexão de escuta não responde", "08006");
+                }
+                continue;
+            }
+            for (PGNotification aviso : avisos) {
+                recebidos.increment();
+                try {
+                    if (!AlteracaoTabela.receber(aviso.getParameter())) {
+                        proprios.increment();
+                    }
+                } catch (IllegalArgumentException e) {
+                    invalidos.increment();
+                    LOGGER.warning(e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static Connection conectar() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", EnvConfig.getDatabaseUser());
+        props.setProperty("password", EnvConfig.getDatabasePassword());
+        props.setProperty("ApplicationName", "inova-industria-invalidacao");
+        return DriverManager.getConnection(EnvConfig.getDatabaseUrl(), props);
+    }
+
+    private static void fecharSilenciosamente(Connection c) {
+        if (c == null) {
+            return;
+        }
+        try {
+            c.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Erro ao fechar a conexão de escuta", e);
+        }
+    }
+}
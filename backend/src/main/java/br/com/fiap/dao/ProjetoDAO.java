@@ -1,28 +1,180 @@
 package br.com.fiap.dao;
 
+import br.com.fiap.config.EnvConfig;
+import br.com.fiap.config.JacksonConfig;
+import br.com.fiap.dto.PaginaDTO;
 import br.com.fiap.factory.ConnectionFactory;
 import br.com.fiap.model.Projeto;
 import br.com.fiap.model.Projeto.PrioridadeProjeto;
 import br.com.fiap.model.Projeto.StatusProjeto;
 import br.com.fiap.model.Atividade;
 import br.com.fiap.model.SubAtividade;
+import com.fasterxml.jackson.core.JsonProcessingException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class ProjetoDAO implements AutoCloseable {
     private static final Logger LOGGER = Logger.getLogger(ProjetoDAO.class.getName());
+    // Linhas buscadas por ida ao banco ao percorrer a tabela com cursor
+    private static final int TAMANHO_LOTE_CURSOR = 500;
+    // Colunas que o mapeador de projeto lê; evita trafegar colunas novas da tabela que a API não expõe
+    private static final String COLUNAS_PROJETO = "p.id_projeto, p.id_empresa, p.id_gerente, p.titulo, p.descricao, "
+            + "p.data_inicio, p.data_termino_prevista, p.data_termino_real, p.orcamento, p.status, p.prioridade, p.data_cadastro, p.versao";
+    // Cada nível é um json_agg sobre linhas de uma subconsulta ordenada: o PostgreSQL serializa o
+    // registro inteiro de uma vez, mais barato que um json_build_object por linha. Os aliases são as
+    // chaves do Jackson; data_cadastro vai para o fuso da sessão, que o driver alinha ao da JVM.
+    private static final String SQL_ARVORE_JSON = """
+            SELECT row_to_json(arvore)::text, arvore."idEmpresa", arvore."idGerente",
+                   txid_current_if_assigned() IS NULL AS confirmada
+            FROM (
+                SELECT p.id_projeto AS "idProjeto", p.id_empresa AS "idEmpresa", p.id_gerente AS "idGerente",
+                       p.titulo, p.descricao, p.data_inicio AS "dataInicio",
+                       p.data_termino_prevista AS "dataTerminoPrevista", p.data_termino_real AS "dataTerminoReal",
+                       p.orcamento::float8 AS orcamento, p.status, p.prioridade,
+                       date_trunc('second', p.data_cadastro::timestamp)::text AS "dataCadastro",
+                       c.nome AS "clienteNome",
+                       COALESCE((
+                           SELECT json_agg(atv) FROM (
+                               SELECT a.id_atividade AS "idAtividade", a.id_projeto AS "idProjeto",
+                                      a.id_responsavel AS "idResponsavel", a.titulo, a.descricao,
+                                      a.data_inicio_prevista AS "dataInicioPrevista",
+                                      a.data_termino_prevista AS "dataTerminoPrevista",
+                                      a.data_termino_real AS "dataTerminoReal", a.status, a.prioridade,
+                                      date_trunc('second', a.data_cadastro::timestamp)::text AS "dataCadastro",
+                                      COALESCE((
+                                          SELECT json_agg(sub) FROM (
+                                              SELECT sa.id_subatividade AS "idSubAtividade", sa.id_atividade AS "idAtividade",
+                                                     sa.titulo, sa.descricao,
+                                                     sa.data_inicio_prevista AS "dataInicioPrevista",
+                                                     sa.data_termino_prevista AS "dataTerminoPrevista",
+                                                     sa.data_termino_real AS "dataTerminoReal", sa.status, sa.prioridade,
+                                                     date_trunc('second', sa.data_cadastro::timestamp)::text AS "dataCadastro"
+                                              FROM TB_SUBATIVIDADE sa
+                                              WHERE sa.id_atividade = a.id_atividade
+                                              ORDER BY sa.data_cadastro, sa.id_subatividade
+                                          ) sub
+                                      ), '[]'::json) AS subatividades
+                               FROM TB_ATIVIDADE a
+                               WHERE a.id_projeto = p.id_projeto
+                               ORDER BY a.data_cadastro, a.id_atividade
+                           ) atv
+                       ), '[]'::json) AS atividades
+                FROM TB_PROJETO p
+                LEFT JOIN TB_CLIENTE c ON p.id_gerente = c.id_cliente
+                WHERE p.id_projeto = ?
+            ) arvore
+            """;
+    // Tudo num só comando: os ids de atividades e subatividades são reservados na sequência antes dos
+    // INSERTs (CTEs com nextval são materializados uma vez), o que liga cada subatividade à sua
+    // atividade sem depender do RETURNING. As chaves de FK são checadas no fim do comando.
+    private static final String SQL_CADASTRO = """
+            WITH projeto AS (
+                INSERT INTO TB_PROJETO (id_empresa, id_gerente, titulo, descricao, data_inicio,
+                                        data_termino_prevista, data_termino_real, orcamento, status, prioridade)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+                RETURNING id_projeto, id_gerente
+            ),
+            vinculo AS (
+                INSERT INTO TB_PROJETO_CLIENTE (id_projeto, id_cliente, papel)
+                SELECT id_projeto, id_gerente, 'CLIENTE_PRINCIPAL' FROM projeto WHERE id_gerente IS NOT NULL
+            ),
+            atividades AS (
+                SELECT nextval(pg_get_serial_sequence('tb_atividade', 'id_atividade')) AS id_atividade, e.ordem, e.valor
+                FROM jsonb_array_elements(?::jsonb) WITH ORDINALITY AS e(valor, ordem)
+            ),
+            subatividades AS (
+                SELECT nextval(pg_get_serial_sequence('tb_subatividade', 'id_subatividade')) AS id_subatividade,
+                       a.id_atividade, a.ordem, s.ordem AS ordem_sub, s.valor
+                FROM atividades a,
+                     jsonb_array_elements(CASE jsonb_typeof(a.valor -> 'subatividades')
+                                              WHEN 'array' THEN a.valor -> 'subatividades'
+                                              ELSE '[]'::jsonb END) WITH ORDINALITY AS s(valor, ordem)
+            ),
+            novas_atividades AS (
+                INSERT INTO TB_ATIVIDADE (id_atividade, id_projeto, id_responsavel, titulo, descricao,
+                                          data_inicio_prevista, data_termino_prevista, data_termino_real,
+                                          status, prioridade)
+                SELECT a.id_atividade, p.id_projeto, (a.valor ->> 'idResponsavel')::integer, a.valor ->> 'titulo',
+                       a.valor ->> 'descricao', (a.valor ->> 'dataInicioPrevista')::date,
+                       (a.valor ->> 'dataTerminoPrevista')::date, (a.valor ->> 'dataTerminoReal')::date,
+                       COALESCE(a.valor ->> 'status', 'PENDENTE')::status_atividade,
+                       COALESCE(a.valor ->> 'prioridade', 'MEDIA')::prioridade_atividade
+                FROM projeto p, atividades a
+                ORDER BY a.ordem
+            ),
+            novas_subatividades AS (
+                INSERT INTO TB_SUBATIVIDADE (id_subatividade, id_atividade, titulo, descricao,
+                                             data_inicio_prevista, data_termino_prevista, data_termino_real,
+                                             status, prioridade)
+                SELECT s.id_subatividade, s.id_atividade, s.valor ->> 'titulo', s.valor ->> 'descricao',
+                       (s.valor ->> 'dataInicioPrevista')::date, (s.valor ->> 'dataTerminoPrevista')::date,
+                       (s.valor ->> 'dataTerminoReal')::date,
+                       COALESCE(s.valor ->> 'status', 'PENDENTE')::status_atividade,
+                       COALESCE(s.valor ->> 'prioridade', 'MEDIA')::prioridade_atividade
+                FROM subatividades s
+                ORDER BY s.ordem, s.ordem_sub
+            )
+            SELECT p.id_projeto,
+                   ARRAY(SELECT id_atividade FROM atividades ORDER BY ordem),
+                   ARRAY(SELECT id_subatividade FROM subatividades ORDER BY ordem, ordem_sub)
+            FROM projeto p
+            """;
+    // Mesmo formato da API (chaves do Jackson, data_cadastro até o segundo) para CSV e NDJSON
+    private static final String SQL_EXPORTACAO = """
+            SELECT p.id_projeto AS "idProjeto", p.id_empresa AS "idEmpresa", p.id_gerente AS "idGerente",
+                   p.titulo, p.descricao, p.data_inicio AS "dataInicio",
+                   p.data_termino_prevista AS "dataTerminoPrevista", p.data_termino_real AS "dataTerminoReal",
+                   p.orcamento, p.status, p.prioridade,
+                   date_trunc('second', p.data_cadastro::timestamp)::text AS "dataCadastro",
+                   c.nome AS "clienteNome"
+            FROM TB_PROJETO p
+            LEFT JOIN TB_CLIENTE c ON p.id_gerente = c.id_cliente
+            WHERE p.id_empresa = %d
+            ORDER BY p.id_projeto
+            """;
+    // Campos aceitos no PATCH; a empresa do projeto não muda
+    private static final AtualizacaoParcial PATCH = new AtualizacaoParcial("TB_PROJETO", "id_projeto")
+            .campo("idGerente", "id_gerente", "integer")
+            .obrigatorio("titulo", "titulo", "text")
+            .campo("descricao", "descricao", "text")
+            .obrigatorio("dataInicio", "data_inicio", "date")
+            .campo("dataTerminoPrevista", "data_termino_prevista", "date")
+            .campo("dataTerminoReal", "data_termino_real", "date")
+            .campo("orcamento", "orcamento", "numeric")
+            .obrigatorio("status", "status", "status_projeto")
+            .obrigatorio("prioridade", "prioridade", "prioridade_projeto");
+    // JSON de /projetos/{id}/completo por projeto, limitado pelo total de bytes. Sai do cache a cada
+    // escrita no projeto, nas atividades ou subatividades dele e no gerente (ver AlteracaoTabela)
+    static final CacheLimitado<Long, ArvoreJson> ARVORES = new CacheLimitado<>("arvoresProjeto",
+            EnvConfig.getCacheArvoresMaximoBytes(), EnvConfig.getCacheArvoresTtlMs(),
+            arvore -> arvore.json().length + 64);
+
+    /**
+     * JSON de /projetos/{id}/completo com a empresa e o gerente do projeto: o JSON também muda
+     * com escritas neles, e quem guarda a árvore precisa saber disso para invalidá-la.
+     */
+    public record ArvoreJson(byte[] json, long idEmpresa, Long idGerente) {
+    }
+
     private final Connection conexao;
+    private final boolean conexaoPropria;
 
     public ProjetoDAO() {
         try {
             // FIX: Use the ConnectionFactory to get a valid database connection
             this.conexao = ConnectionFactory.getConnection();
+            this.conexaoPropria = true;
             LOGGER.info("Conexão com o banco de dados estabelecida para ProjetoDAO");
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao conectar ao banco de dados para ProjetoDAO", e);
@@ -30,10 +182,16 @@ public class ProjetoDAO implements AutoCloseable {
         }
     }
 
+    // Reaproveita uma conexão já aberta; quem a forneceu continua responsável por fechá-la
+    public ProjetoDAO(Connection conexao) {
+        this.conexao = conexao;
+        this.conexaoPropria = false;
+    }
+
     @Override
     public void close() {
         try {
-            if (conexao != null && !conexao.isClosed()) {
+            if (conexaoPropria && conexao != null && !conexao.isClosed()) {
                 conexao.close();
                 LOGGER.info("Conexão com o banco de dados fechada para ProjetoDAO");
             }
@@ -42,13 +200,21 @@ public class ProjetoDAO implements AutoCloseable {
         }
     }
 
+    /**
+     * Cria o projeto, o vínculo do gerente em TB_PROJETO_CLIENTE e as atividades e subatividades
+     * iniciais (listas aninhadas do próprio projeto) numa única instrução: uma ida ao banco, e
+     * nada fica pela metade se algo falhar. Os ids gerados são preenchidos nos objetos recebidos.
+     */
     public Long cadastrar(Projeto projeto) throws SQLException {
-        String sql = "INSERT INTO TB_PROJETO (id_empresa, id_gerente, titulo, descricao, " +
-                "data_inicio, data_termino_prevista, data_termino_real, orcamento, status, prioridade) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
-                "RETURNING id_projeto";
+        String atividades;
+        try {
+            atividades = JacksonConfig.getObjectMapper().writeValueAsString(
+                    projeto.getAtividades() != null ? projeto.getAtividades() : List.of());
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Falha ao serializar as atividades do projeto", e);
+        }
 
-        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+        try (PreparedStatement stmt = conexao.prepareStatement(SQL_CADASTRO)) {
             stmt.setLong(1, projeto.getIdEmpresa());
             setLongOrNull(stmt, 2, projeto.getIdGerente());
             stmt.setString(3, projeto.getTitulo());
@@ -59,31 +225,39 @@ public class ProjetoDAO implements AutoCloseable {
             setDoubleOrNull(stmt, 8, projeto.getOrcamento());
             stmt.setObject(9, projeto.getStatus().name(), java.sql.Types.OTHER);
             stmt.setObject(10, projeto.getPrioridade().name(), java.sql.Types.OTHER);
+            stmt.setString(11, atividades);
 
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    Long projetoId = rs.getLong(1);
-                    
-                    // Se há um gerente/cliente definido, criar relacionamento na TB_PROJETO_CLIENTE
-                    if (projeto.getIdGerente() != null) {
-                        String sqlRelacionamento = "INSERT INTO TB_PROJETO_CLIENTE (id_projeto, id_cliente, papel) VALUES (?, ?, ?)";
-                        try (PreparedStatement stmtRel = conexao.prepareStatement(sqlRelacionamento)) {
-                            stmtRel.setLong(1, projetoId);
-                            stmtRel.setLong(2, projeto.getIdGerente());
-                            stmtRel.setString(3, "CLIENTE_PRINCIPAL");
-                            stmtRel.executeUpdate();
-                        }
-                    }
-                    
-                    return projetoId;
+                if (!rs.next()) {
+                    throw new SQLException("Falha ao obter o ID do projeto");
+                }
+                Long projetoId = rs.getLong(1);
+                projeto.setIdProjeto(projetoId);
+                preencherIds(projeto, (Long[]) rs.getArray(2).getArray(), (Long[]) rs.getArray(3).getArray());
+                return projetoId;
+            }
+        }
+    }
+
+    // Os arrays vêm na ordem das listas: atividades, e subatividades agrupadas por atividade
+    private static void preencherIds(Projeto projeto, Long[] idsAtividade, Long[] idsSubAtividade) {
+        int proximaSub = 0;
+        for (int i = 0; i < idsAtividade.length; i++) {
+            Atividade atividade = projeto.getAtividades().get(i);
+            atividade.setIdAtividade(idsAtividade[i]);
+            atividade.setIdProjeto(projeto.getIdProjeto());
+            if (atividade.getSubatividades() != null) {
+                for (SubAtividade subAtividade : atividade.getSubatividades()) {
+                    subAtividade.setIdSubAtividade(idsSubAtividade[proximaSub++]);
+                    subAtividade.setIdAtividade(idsAtividade[i]);
                 }
-                throw new SQLException("Falha ao obter o ID do projeto");
             }
         }
     }
 
+    /** Projeto com o nome do gerente; a versão do gerente vem junto porque o nome faz parte da ETag. */
     public Optional<Projeto> pesquisarPorId(Long id) throws SQLException {
-        String sql = "SELECT p.*, c.nome as cliente_nome " +
+        String sql = "SELECT " + COLUNAS_PROJETO + ", c.nome as cliente_nome, c.versao as versao_gerente " +
                     "FROM TB_PROJETO p " +
                     "LEFT JOIN TB_CLIENTE c ON p.id_gerente = c.id_cliente " +
                     "WHERE p.id_projeto = ?";
@@ -93,7 +267,10 @@ public class ProjetoDAO implements AutoCloseable {
 
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapearProjetoComCliente(rs));
+                    IndiceColunas colunas = IndiceColunas.de(rs);
+                    Projeto projeto = mapeador(colunas).mapear(rs);
+                    projeto.setVersaoGerente(IndiceColunas.longOuNulo(rs, colunas.de("versao_gerente")));
+                    return Optional.of(projeto);
                 }
                 return Optional.empty();
             }
@@ -101,31 +278,36 @@ public class ProjetoDAO implements AutoCloseable {
     }
 
     public List<Projeto> listarPorEmpresa(Long idEmpresa) throws SQLException {
-        String sql = "SELECT p.*, c.nome as cliente_nome " +
+        String sql = "SELECT " + COLUNAS_PROJETO + ", c.nome as cliente_nome " +
                     "FROM TB_PROJETO p " +
                     "LEFT JOIN TB_CLIENTE c ON p.id_gerente = c.id_cliente " +
                     "WHERE p.id_empresa = ? " +
-                    "ORDER BY p.data_inicio DESC";
+                    "ORDER BY p.data_inicio DESC, p.id_projeto DESC";
         List<Projeto> projetos = new ArrayList<>();
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, idEmpresa);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                MapeadorLinha<Projeto> mapeador = mapeador(IndiceColunas.de(rs));
                 while (rs.next()) {
-                    projetos.add(mapearProjetoComCliente(rs));
+                    projetos.add(mapeador.mapear(rs));
                 }
             }
         }
         return projetos;
     }
 
-    public void atualizar(Projeto projeto) throws SQLException {
+    /**
+     * Regrava todas as colunas editáveis do projeto. Com {@code versaoEsperada} (If-Match), só
+     * grava se a linha ainda estiver nessa versão.
+     */
+    public ResultadoEscrita atualizar(Projeto projeto, Long versaoEsperada) throws SQLException {
         String sql = "UPDATE TB_PROJETO SET " +
                 "id_gerente = ?, titulo = ?, descricao = ?, " +
                 "data_inicio = ?, data_termino_prevista = ?, data_termino_real = ?, " +
                 "orcamento = ?, status = ?, prioridade = ? " +
-                "WHERE id_projeto = ?";
+                "WHERE id_projeto = ?" + ResultadoEscrita.condicao(versaoEsperada) + " RETURNING versao";
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             setLongOrNull(stmt, 1, projeto.getIdGerente());
@@ -138,99 +320,223 @@ public class ProjetoDAO implements AutoCloseable {
             stmt.setObject(8, projeto.getStatus().name(), java.sql.Types.OTHER);
             stmt.setObject(9, projeto.getPrioridade().name(), java.sql.Types.OTHER);
             stmt.setLong(10, projeto.getIdProjeto());
+            if (versaoEsperada != null) {
+                stmt.setLong(11, versaoEsperada);
+            }
+            ResultadoEscrita resultado = ResultadoEscrita.executar(conexao, stmt, "TB_PROJETO", "id_projeto",
+                    projeto.getIdProjeto(), versaoEsperada);
+            if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                AlteracaoTabela.notificarProjeto(conexao, projeto.getIdProjeto());
+            }
+            return resultado;
+        }
+    }
 
-            stmt.executeUpdate();
+    /**
+     * Altera só os campos presentes no merge patch, sem ler o projeto antes.
+     * Campo desconhecido, null em campo obrigatório ou valor inválido gera IllegalArgumentException.
+     */
+    public ResultadoEscrita atualizarParcial(long id, Map<String, Object> patch, Long versaoEsperada)
+            throws SQLException {
+        try {
+            ResultadoEscrita resultado = PATCH.aplicar(conexao, id, patch, versaoEsperada);
+            if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                AlteracaoTabela.notificarProjeto(conexao, id);
+            }
+            return resultado;
+        } catch (SQLException e) {
+            if (AtualizacaoParcial.dadoInvalido(e)) {
+                throw new IllegalArgumentException("Dados inválidos para o projeto", e);
+            }
+            throw e;
         }
     }
 
-    public void remover(Long id) throws SQLException {
-        String sql = "DELETE FROM TB_PROJETO WHERE id_projeto = ?";
+    public ResultadoEscrita remover(Long id, Long versaoEsperada) throws SQLException {
+        String sql = "DELETE FROM TB_PROJETO WHERE id_projeto = ?" + ResultadoEscrita.condicao(versaoEsperada)
+                + " RETURNING versao";
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            stmt.executeUpdate();
+            if (versaoEsperada != null) {
+                stmt.setLong(2, versaoEsperada);
+            }
+            ResultadoEscrita resultado = ResultadoEscrita.executar(conexao, stmt, "TB_PROJETO", "id_projeto", id,
+                    versaoEsperada);
+            if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                AlteracaoTabela.notificarProjeto(conexao, id);
+            }
+            return resultado;
         }
     }
 
-    private Projeto mapearProjeto(ResultSet rs) throws SQLException {
-        Projeto projeto = new Projeto();
-        projeto.setIdProjeto(rs.getLong("id_projeto"));
-        projeto.setIdEmpresa(rs.getLong("id_empresa"));
-        // Fix PostgreSQL int4 to Long conversion
-        Object idGerenteObj = rs.getObject("id_gerente");
-        if (idGerenteObj != null) {
-            if (idGerenteObj instanceof Integer) {
-                projeto.setIdGerente(((Integer) idGerenteObj).longValue());
-            } else if (idGerenteObj instanceof Long) {
-                projeto.setIdGerente((Long) idGerenteObj);
+    /** Versões do projeto e do seu gerente (null sem gerente), sem ler o resto das linhas (If-None-Match). */
+    public Optional<VersoesProjeto> versoes(long id) throws SQLException {
+        String sql = "SELECT p.versao, c.versao FROM TB_PROJETO p " +
+                    "LEFT JOIN TB_CLIENTE c ON p.id_gerente = c.id_cliente " +
+                    "WHERE p.id_projeto = ?";
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next()
+                        ? Optional.of(new VersoesProjeto(rs.getLong(1), IndiceColunas.longOuNulo(rs, 2)))
+                        : Optional.empty();
             }
         }
-        projeto.setTitulo(rs.getString("titulo"));
-        projeto.setDescricao(rs.getString("descricao"));
-
-        // FIX: Safely handle nullable dates
-        Date dataInicio = rs.getDate("data_inicio");
-        if (dataInicio != null) {
-            projeto.setDataInicio(dataInicio.toLocalDate());
-        }
-
-        Date dataTerminoPrevista = rs.getDate("data_termino_prevista");
-        if (dataTerminoPrevista != null) {
-            projeto.setDataTerminoPrevista(dataTerminoPrevista.toLocalDate());
-        }
+    }
 
-        Date dataTerminoReal = rs.getDate("data_termino_real");
-        if (dataTerminoReal != null) {
-            projeto.setDataTerminoReal(dataTerminoReal.toLocalDate());
-        }
+    /** O que a ETag de GET /projetos/{id} cobre: a linha do projeto e a do gerente, de onde vem clienteNome. */
+    public record VersoesProjeto(long projeto, Long gerente) {
+    }
 
-        // Fix PostgreSQL numeric to Double conversion
-        Object orcamentoObj = rs.getObject("orcamento");
-        if (orcamentoObj != null) {
-            if (orcamentoObj instanceof java.math.BigDecimal) {
-                projeto.setOrcamento(((java.math.BigDecimal) orcamentoObj).doubleValue());
-            } else if (orcamentoObj instanceof Double) {
-                projeto.setOrcamento((Double) orcamentoObj);
+    static MapeadorLinha<Projeto> mapeador(IndiceColunas colunas) throws SQLException {
+        int idProjeto = colunas.de("id_projeto");
+        int idEmpresa = colunas.de("id_empresa");
+        int idGerente = colunas.de("id_gerente");
+        int titulo = colunas.de("titulo");
+        int descricao = colunas.de("descricao");
+        int dataInicio = colunas.de("data_inicio");
+        int dataTerminoPrevista = colunas.de("data_termino_prevista");
+        int dataTerminoReal = colunas.de("data_termino_real");
+        int orcamento = colunas.de("orcamento");
+        int status = colunas.de("status");
+        int prioridade = colunas.de("prioridade");
+        int dataCadastro = colunas.de("data_cadastro");
+        int clienteNome = colunas.de("cliente_nome");
+        int versao = colunas.de("versao");
+        return rs -> {
+            Projeto projeto = new Projeto();
+            projeto.setIdProjeto(rs.getLong(idProjeto));
+            projeto.setVersao(rs.getLong(versao));
+            projeto.setIdEmpresa(rs.getLong(idEmpresa));
+            projeto.setIdGerente(IndiceColunas.longOuNulo(rs, idGerente));
+            projeto.setTitulo(rs.getString(titulo));
+            projeto.setDescricao(rs.getString(descricao));
+            projeto.setDataInicio(IndiceColunas.data(rs, dataInicio));
+            projeto.setDataTerminoPrevista(IndiceColunas.data(rs, dataTerminoPrevista));
+            projeto.setDataTerminoReal(IndiceColunas.data(rs, dataTerminoReal));
+
+            // numeric chega como BigDecimal
+            BigDecimal valorOrcamento = rs.getBigDecimal(orcamento);
+            if (valorOrcamento != null) {
+                projeto.setOrcamento(valorOrcamento.doubleValue());
             }
-        }
-        projeto.setStatus(StatusProjeto.valueOf(rs.getString("status")));
-        projeto.setPrioridade(PrioridadeProjeto.valueOf(rs.getString("prioridade")));
+            projeto.setStatus(StatusProjeto.valueOf(rs.getString(status)));
+            projeto.setPrioridade(PrioridadeProjeto.valueOf(rs.getString(prioridade)));
 
-        Timestamp dataCadastro = rs.getTimestamp("data_cadastro");
-        if(dataCadastro != null) {
-            projeto.setDataCadastro(dataCadastro.toLocalDateTime());
-        }
+            LocalDateTime cadastro = IndiceColunas.dataHora(rs, dataCadastro);
+            if (cadastro != null) {
+                projeto.setDataCadastro(cadastro);
+            }
 
-        return projeto;
+            // Nome do gerente, quando houver
+            String nome = rs.getString(clienteNome);
+            if (nome != null) {
+                projeto.setClienteNome(nome);
+            }
+            return projeto;
+        };
     }
 
     public List<Projeto> listarTodos() throws SQLException {
-        String sql = "SELECT p.*, c.nome as cliente_nome " +
+        String sql = "SELECT " + COLUNAS_PROJETO + ", c.nome as cliente_nome " +
                     "FROM TB_PROJETO p " +
                     "LEFT JOIN TB_CLIENTE c ON p.id_gerente = c.id_cliente " +
-                    "ORDER BY p.data_inicio DESC";
+                    "ORDER BY p.data_inicio DESC, p.id_projeto DESC";
         List<Projeto> projetos = new ArrayList<>();
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql);
              ResultSet rs = stmt.executeQuery()) {
 
+            MapeadorLinha<Projeto> mapeador = mapeador(IndiceColunas.de(rs));
             while (rs.next()) {
-                projetos.add(mapearProjetoComCliente(rs));
+                projetos.add(mapeador.mapear(rs));
             }
         }
         return projetos;
     }
 
-    private Projeto mapearProjetoComCliente(ResultSet rs) throws SQLException {
-        Projeto projeto = mapearProjeto(rs);
-        
-        // Adicionar informações do cliente se disponível
-        String clienteNome = rs.getString("cliente_nome");
-        if (clienteNome != null) {
-            projeto.setClienteNome(clienteNome);
+    /**
+     * Paginação por keyset sobre (data_inicio, id_projeto): cada página parte do último item da anterior,
+     * então o custo não cresce com a profundidade. idEmpresa nulo lista todas as empresas.
+     */
+    public PaginaDTO<Projeto> listarPagina(Long idEmpresa, CursorProjeto cursor, int limite) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT " + COLUNAS_PROJETO + ", c.nome as cliente_nome " +
+                "FROM TB_PROJETO p " +
+                "LEFT JOIN TB_CLIENTE c ON p.id_gerente = c.id_cliente " +
+                "WHERE 1 = 1 ");
+        if (idEmpresa != null) {
+            sql.append("AND p.id_empresa = ? ");
+        }
+        if (cursor != null) {
+            sql.append("AND (p.data_inicio, p.id_projeto) < (?, ?) ");
+        }
+        sql.append("ORDER BY p.data_inicio DESC, p.id_projeto DESC LIMIT ?");
+
+        List<Projeto> projetos = new ArrayList<>();
+        try (PreparedStatement stmt = conexao.prepareStatement(sql.toString())) {
+            int paramIndex = 1;
+            if (idEmpresa != null) {
+                stmt.setLong(paramIndex++, idEmpresa);
+            }
+            if (cursor != null) {
+                stmt.setDate(paramIndex++, Date.valueOf(cursor.dataInicio()));
+                stmt.setLong(paramIndex++, cursor.idProjeto());
+            }
+            // Um item a mais só para saber se existe próxima página
+            stmt.setInt(paramIndex, limite + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeadorLinha<Projeto> mapeador = mapeador(IndiceColunas.de(rs));
+                while (rs.next()) {
+                    projetos.add(mapeador.mapear(rs));
+                }
+            }
+        }
+
+        String proximoCursor = null;
+        if (projetos.size() > limite) {
+            projetos.remove(limite);
+            Projeto ultimo = projetos.get(limite - 1);
+            proximoCursor = new CursorProjeto(ultimo.getDataInicio(), ultimo.getIdProjeto()).codificar();
+        }
+        return new PaginaDTO<>(projetos, proximoCursor);
+    }
+
+    /**
+     * Escreve todos os projetos da empresa em {@code saida} via COPY TO STDOUT, sem materializar linhas.
+     * Devolve quantos projetos foram exportados.
+     */
+    public long exportarPorEmpresa(long idEmpresa, FormatoArquivo formato, OutputStream saida)
+            throws SQLException, IOException {
+        return CopiaSaida.copiar(conexao, SQL_EXPORTACAO.formatted(idEmpresa), formato, saida);
+    }
+
+    /**
+     * Percorre todos os projetos com um cursor do servidor (fetch size + autocommit desligado),
+     * entregando um por vez ao consumidor. A memória usada não depende do tamanho da tabela.
+     */
+    public void percorrerTodos(ConsumidorLinha<Projeto> consumidor) throws SQLException, IOException {
+        String sql = "SELECT " + COLUNAS_PROJETO + ", c.nome as cliente_nome " +
+                    "FROM TB_PROJETO p " +
+                    "LEFT JOIN TB_CLIENTE c ON p.id_gerente = c.id_cliente " +
+                    "ORDER BY p.data_inicio DESC, p.id_projeto DESC";
+
+        // O driver do PostgreSQL só usa cursor dentro de uma transação
+        boolean autoCommit = conexao.getAutoCommit();
+        conexao.setAutoCommit(false);
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setFetchSize(TAMANHO_LOTE_CURSOR);
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeadorLinha<Projeto> mapeador = mapeador(IndiceColunas.de(rs));
+                while (rs.next()) {
+                    consumidor.aceitar(mapeador.mapear(rs));
+                }
+            }
+            conexao.commit();
+        } finally {
+            conexao.setAutoCommit(autoCommit);
         }
-        
-        return projeto;
     }
 
     private void setLongOrNull(PreparedStatement stmt, int parameterIndex, Long value) throws SQLException {
@@ -267,7 +573,8 @@ public class ProjetoDAO implements AutoCloseable {
         Projeto projeto = projetoOpt.get();
         
         // Busca as atividades do projeto
-        String sqlAtividades = "SELECT a.*, " +
+        String sqlAtividades = "SELECT a.id_atividade, a.id_projeto, a.id_responsavel, a.titulo, a.descricao, " +
+                "a.data_inicio_prevista, a.data_termino_prevista, a.data_termino_real, a.status, a.prioridade, a.data_cadastro, " +
                 "sa.id_subatividade, sa.titulo as sub_titulo, sa.descricao as sub_descricao, " +
                 "sa.data_inicio_prevista as sub_data_inicio, sa.data_termino_prevista as sub_data_termino, " +
                 "sa.data_termino_real as sub_data_termino_real, sa.status as sub_status, " +
@@ -283,9 +590,32 @@ public class ProjetoDAO implements AutoCloseable {
             try (ResultSet rs = stmt.executeQuery()) {
                 List<Atividade> atividades = new ArrayList<>();
                 Atividade atividadeAtual = null;
-                
+
+                // Índices resolvidos uma vez; cada coluna é lida uma única vez por linha
+                IndiceColunas colunas = IndiceColunas.de(rs);
+                int colIdAtividade = colunas.de("id_atividade");
+                int colIdProjeto = colunas.de("id_projeto");
+                int colIdResponsavel = colunas.de("id_responsavel");
+                int colTitulo = colunas.de("titulo");
+                int colDescricao = colunas.de("descricao");
+                int colInicio = colunas.de("data_inicio_prevista");
+                int colTermino = colunas.de("data_termino_prevista");
+                int colTerminoReal = colunas.de("data_termino_real");
+                int colStatus = colunas.de("status");
+                int colPrioridade = colunas.de("prioridade");
+                int colCadastro = colunas.de("data_cadastro");
+                int colIdSub = colunas.de("id_subatividade");
+                int colSubTitulo = colunas.de("sub_titulo");
+                int colSubDescricao = colunas.de("sub_descricao");
+                int colSubInicio = colunas.de("sub_data_inicio");
+                int colSubTermino = colunas.de("sub_data_termino");
+                int colSubTerminoReal = colunas.de("sub_data_termino_real");
+                int colSubStatus = colunas.de("sub_status");
+                int colSubPrioridade = colunas.de("sub_prioridade");
+                int colSubCadastro = colunas.de("sub_data_cadastro");
+
                 while (rs.next()) {
-                    Long idAtividade = rs.getLong("id_atividade");
+                    Long idAtividade = rs.getLong(colIdAtividade);
                     
                     // Se é uma nova atividade
                     if (atividadeAtual == null || !idAtividade.equals(atividadeAtual.getIdAtividade())) {
@@ -295,39 +625,33 @@ public class ProjetoDAO implements AutoCloseable {
                         
                         atividadeAtual = new Atividade();
                         atividadeAtual.setIdAtividade(idAtividade);
-                        atividadeAtual.setIdProjeto(rs.getLong("id_projeto"));
-                        atividadeAtual.setIdResponsavel(rs.getLong("id_responsavel"));
-                        atividadeAtual.setTitulo(rs.getString("titulo"));
-                        atividadeAtual.setDescricao(rs.getString("descricao"));
-                        atividadeAtual.setDataInicioPrevista(rs.getDate("data_inicio_prevista") != null ? 
-                                rs.getDate("data_inicio_prevista").toLocalDate() : null);
-                        atividadeAtual.setDataTerminoPrevista(rs.getDate("data_termino_prevista") != null ? 
-                                rs.getDate("data_termino_prevista").toLocalDate() : null);
-                        atividadeAtual.setDataTerminoReal(rs.getDate("data_termino_real") != null ? 
-                                rs.getDate("data_termino_real").toLocalDate() : null);
-                        atividadeAtual.setStatus(Atividade.StatusAtividade.valueOf(rs.getString("status")));
-                        atividadeAtual.setPrioridade(Atividade.PrioridadeAtividade.valueOf(rs.getString("prioridade")));
-                        atividadeAtual.setDataCadastro(rs.getTimestamp("data_cadastro").toLocalDateTime());
+                        atividadeAtual.setIdProjeto(rs.getLong(colIdProjeto));
+                        atividadeAtual.setIdResponsavel(IndiceColunas.longOuNulo(rs, colIdResponsavel));
+                        atividadeAtual.setTitulo(rs.getString(colTitulo));
+                        atividadeAtual.setDescricao(rs.getString(colDescricao));
+                        atividadeAtual.setDataInicioPrevista(IndiceColunas.data(rs, colInicio));
+                        atividadeAtual.setDataTerminoPrevista(IndiceColunas.data(rs, colTermino));
+                        atividadeAtual.setDataTerminoReal(IndiceColunas.data(rs, colTerminoReal));
+                        atividadeAtual.setStatus(Atividade.StatusAtividade.valueOf(rs.getString(colStatus)));
+                        atividadeAtual.setPrioridade(Atividade.PrioridadeAtividade.valueOf(rs.getString(colPrioridade)));
+                        atividadeAtual.setDataCadastro(IndiceColunas.dataHora(rs, colCadastro));
                         atividadeAtual.setSubatividades(new ArrayList<>());
                     }
                     
                     // Adiciona subatividade se existir
-                    Long idSubatividade = rs.getLong("id_subatividade");
-                    if (!rs.wasNull()) {
+                    Long idSubatividade = IndiceColunas.longOuNulo(rs, colIdSub);
+                    if (idSubatividade != null) {
                         SubAtividade subatividade = new SubAtividade();
                         subatividade.setIdSubAtividade(idSubatividade);
                         subatividade.setIdAtividade(idAtividade);
-                        subatividade.setTitulo(rs.getString("sub_titulo"));
-                        subatividade.setDescricao(rs.getString("sub_descricao"));
-                        subatividade.setDataInicioPrevista(rs.getDate("sub_data_inicio") != null ? 
-                                rs.getDate("sub_data_inicio").toLocalDate() : null);
-                        subatividade.setDataTerminoPrevista(rs.getDate("sub_data_termino") != null ? 
-                                rs.getDate("sub_data_termino").toLocalDate() : null);
-                        subatividade.setDataTerminoReal(rs.getDate("sub_data_termino_real") != null ? 
-                                rs.getDate("sub_data_termino_real").toLocalDate() : null);
-                        subatividade.setStatus(rs.getString("sub_status"));
-                        subatividade.setPrioridade(rs.getString("sub_prioridade"));
-                        subatividade.setDataCadastro(rs.getTimestamp("sub_data_cadastro").toLocalDateTime());
+                        subatividade.setTitulo(rs.getString(colSubTitulo));
+                        subatividade.setDescricao(rs.getString(colSubDescricao));
+                        subatividade.setDataInicioPrevista(IndiceColunas.data(rs, colSubInicio));
+                        subatividade.setDataTerminoPrevista(IndiceColunas.data(rs, colSubTermino));
+                        subatividade.setDataTerminoReal(IndiceColunas.data(rs, colSubTerminoReal));
+                        subatividade.setStatus(rs.getString(colSubStatus));
+                        subatividade.setPrioridade(rs.getString(colSubPrioridade));
+                        subatividade.setDataCadastro(IndiceColunas.dataHora(rs, colSubCadastro));
                         
                         atividadeAtual.getSubatividades().add(subatividade);
                     }
@@ -344,4 +668,39 @@ public class ProjetoDAO implements AutoCloseable {
         
         return Optional.of(projeto);
     }
-}
\ No newline at end of file
+
+    /**
+     * Mesma árvore de pesquisarPorIdComAtividades, mas montada pelo PostgreSQL com
+     * json_agg/row_to_json numa única consulta. Devolve o JSON já em bytes UTF-8,
+     * com as mesmas chaves e formatos que o Jackson gera para Projeto, Atividade e SubAtividade.
+     * Vem do cache quando nada no projeto mudou desde a última leitura; o array devolvido é o do
+     * cache e só deve ser escrito na resposta, nunca alterado.
+     */
+    public Optional<byte[]> pesquisarArvoreJson(Long id) throws SQLException {
+        return pesquisarArvore(id).map(ArvoreJson::json);
+    }
+
+    /** Como {@link #pesquisarArvoreJson}, junto com a empresa e o gerente do projeto. */
+    public Optional<ArvoreJson> pesquisarArvore(Long id) throws SQLException {
+        ArvoreJson emCache = ARVORES.buscar(id);
+        if (emCache != null) {
+            return Optional.of(emCache);
+        }
+        long geracao = ARVORES.geracao();
+        try (PreparedStatement stmt = conexao.prepareStatement(SQL_ARVORE_JSON)) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return Optional.empty();
+                }
+                // Coluna text: o driver entrega os bytes recebidos, sem decodificar para String
+                ArvoreJson arvore = new ArvoreJson(rs.getBytes(1), rs.getLong(2), IndiceColunas.longOuNulo(rs, 3));
+                // Transação com escrita pendente pode ver o que ainda vai ser desfeito: não entra no cache
+                if (rs.getBoolean(4)) {
+                    ARVORES.guardar(id, arvore, geracao);
+                }
+                return Optional.of(arvore);
+            }
+        }
+    }
+}
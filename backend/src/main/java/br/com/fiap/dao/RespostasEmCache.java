@@ -0,0 +1,103 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.config.EnvConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respostas GET já serializadas, para não passar pelo Jackson (nem pelo gzip) a cada leitura.
+ * Cada resposta declara de quais linhas ou tabelas depende ({@code "TB_EMPRESA"} para a tabela
+ * inteira, {@code "TB_PROJETO:7"} para uma linha) e sai do cache pelas mesmas escritas que
+ * limpam os caches dos DAOs (ver {@link AlteracaoTabela}). Fica neste pacote por isso; quem monta
+ * a chave e a resposta HTTP é a camada de recursos.
+ */
+public final class RespostasEmCache {
+    // Abaixo disso o gzip quase não reduz e não compensa a descompressão no cliente
+    private static final int MINIMO_GZIP = 1_024;
+
+    private static final CacheLimitado<String, Resposta> CACHE = new CacheLimitado<>("respostas",
+            EnvConfig.getCacheRespostasMaximoBytes(), EnvConfig.getCacheRespostasTtlMs(),
+            resposta -> resposta.json().length + (resposta.gzip() != null ? resposta.gzip().length : 0) + 256);
+
+    /**
+     * JSON pronto, a variante gzip (null quando pequeno demais para valer a pena), a ETag forte
+     * calculada sobre o JSON e os cabeçalhos da resposta original (X-Total-Count, por exemplo).
+     * Os arrays são compartilhados entre as requisições: só podem ser escritos na resposta.
+     */
+    public record Resposta(byte[] json, byte[] gzip, String etag, Map<String, String> cabecalhos,
+                           Set<String> dependencias) {
+    }
+
+    private RespostasEmCache() {
+    }
+
+    /** Dependência de uma única linha, como {@code "TB_PROJETO:7"}. */
+    public static String linha(String tabela, long id) {
+        return tabela + ":" + id;
+    }
+
+    public static Resposta buscar(String chave) {
+        return CACHE.buscar(chave);
+    }
+
+    /** Marca lida antes de consultar o banco; passada depois para {@link #guardar}. */
+    public static long geracao() {
+        return CACHE.geracao();
+    }
+
+    /**
+     * Monta a resposta (ETag e, se couber, gzip) e a guarda, a menos que alguma dependência tenha
+     * sido escrita desde {@code geracaoLida}. Devolve a resposta montada nos dois casos.
+     */
+    public static Resposta guardar(String chave, byte[] json, Map<String, String> cabecalhos,
+                                   Set<String> dependencias, long geracaoLida) {
+        Resposta resposta = new Resposta(json, json.length >= MINIMO_GZIP ? comprimir(json) : null, etag(json),
+                Map.copyOf(cabecalhos), Set.copyOf(dependencias));
+        CACHE.guardar(chave, resposta, geracaoLida);
+        return resposta;
+    }
+
+    // Chamado por AlteracaoTabela com a tabela ("TB_EMPRESA") ou a linha ("TB_EMPRESA:3") escrita
+    static void invalidar(String... dependencias) {
+        CACHE.removerSe(resposta -> {
+            for (String dependencia : dependencias) {
+                if (resposta.dependencias().contains(dependencia)) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+
+    static void limpar() {
+        CACHE.limpar();
+    }
+
+    private static byte[] comprimir(byte[] json) {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(saida)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return saida.toByteArray();
+    }
+
+    // Os primeiros 16 bytes do SHA-256: mesmo JSON, mesma ETag, em qualquer nó
+    private static String etag(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.fiap.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.OptionalLong;
+
+/**
+ * Resultado de uma escrita que pode ser condicionada à versão da linha (If-Match).
+ * A condição vai no próprio WHERE; só quando nenhuma linha é afetada uma consulta à versão
+ * separa "não existe" de "mudou desde que o cliente leu". Em GRAVADO, {@code versao} é a
+ * versão da linha depois da escrita (num DELETE, a que foi removida).
+ */
+public record ResultadoEscrita(Situacao situacao, long versao) {
+
+    public enum Situacao { GRAVADO, NAO_ENCONTRADO, VERSAO_DIFERENTE }
+
+    static ResultadoEscrita gravado(long versao) {
+        return new ResultadoEscrita(Situacao.GRAVADO, versao);
+    }
+
+    /** Condição de versão para o WHERE, vazia quando o cliente não mandou If-Match. */
+    static String condicao(Long versaoEsperada) {
+        return versaoEsperada != null ? " AND versao = ?" : "";
+    }
+
+    /**
+     * Executa um UPDATE/DELETE ... RETURNING versao já preparado e, se nenhuma linha voltar,
+     * descobre o motivo.
+     */
+    static ResultadoEscrita executar(Connection conexao, PreparedStatement stmt, String tabela, String chave,
+                                     long id, Long versaoEsperada) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return gravado(rs.getLong(1));
+            }
+        }
+        return semLinhaAfetada(conexao, tabela, chave, id, versaoEsperada);
+    }
+
+    /**
+     * Nenhuma linha afetada: o id não existe, a versão não confere ou (num UPDATE que só grava
+     * se algo muda) os valores já eram os enviados, caso em que a escrita conta como feita.
+     */
+    static ResultadoEscrita semLinhaAfetada(Connection conexao, String tabela, String chave, long id,
+                                            Long versaoEsperada) throws SQLException {
+        OptionalLong atual = versaoAtual(conexao, tabela, chave, id);
+        if (atual.isEmpty()) {
+            return new ResultadoEscrita(Situacao.NAO_ENCONTRADO, 0);
+        }
+        if (versaoEsperada != null && versaoEsperada != atual.getAsLong()) {
+            return new ResultadoEscrita(Situacao.VERSAO_DIFERENTE, atual.getAsLong());
+        }
+        return gravado(atual.getAsLong());
+    }
+
+    static OptionalLong versaoAtual(Connection conexao, String tabela, String chave, long id) throws SQLException {
+        try (PreparedStatement stmt = conexao.prepareStatement(
+                "SELECT versao FROM " + tabela + " WHERE " + chave + " = ?")) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? OptionalLong.of(rs.getLong(1)) : OptionalLong.empty();
+            }
+        }
+    }
+}
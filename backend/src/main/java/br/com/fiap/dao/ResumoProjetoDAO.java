@@ -0,0 +1,153 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.dto.ContagemStatusDTO;
+import br.com.fiap.dto.ResumoEmpresaDTO;
+import br.com.fiap.dto.ResumoProjetoDTO;
+import br.com.fiap.factory.ConnectionFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Painel de andamento dos projetos. Lê as contagens de TB_PROJETO_RESUMO e TB_PROJETO_PRAZO,
+ * mantidas pelos gatilhos da V9 a cada escrita em atividades e subatividades: o custo da leitura
+ * depende do número de projetos, não de quantas atividades eles têm.
+ */
+public class ResumoProjetoDAO implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ResumoProjetoDAO.class.getName());
+
+    // Colunas das contagens, na ordem esperada por lerContagens; o prefixo distingue a soma por empresa
+    private static final String COLUNAS_CONTAGEM = """
+            %1$s(r.atividades_pendentes) AS atividades_pendentes,
+            %1$s(r.atividades_em_andamento) AS atividades_em_andamento,
+            %1$s(r.atividades_concluidas) AS atividades_concluidas,
+            %1$s(r.atividades_canceladas) AS atividades_canceladas,
+            %1$s(z.atividades_atrasadas) AS atividades_atrasadas,
+            %1$s(r.subatividades_pendentes) AS subatividades_pendentes,
+            %1$s(r.subatividades_em_andamento) AS subatividades_em_andamento,
+            %1$s(r.subatividades_concluidas) AS subatividades_concluidas,
+            %1$s(r.subatividades_canceladas) AS subatividades_canceladas,
+            %1$s(z.subatividades_atrasadas) AS subatividades_atrasadas""";
+
+    // Atrasadas: abertas com prazo anterior a hoje, somadas pelo índice da chave (id_projeto, data)
+    private static final String JUNCAO_CONTAGEM = """
+            LEFT JOIN TB_PROJETO_RESUMO r ON r.id_projeto = p.id_projeto
+            LEFT JOIN LATERAL (
+                SELECT sum(atividades_abertas) AS atividades_atrasadas,
+                       sum(subatividades_abertas) AS subatividades_atrasadas
+                FROM TB_PROJETO_PRAZO
+                WHERE id_projeto = p.id_projeto AND data_termino_prevista < CURRENT_DATE
+            ) z ON true""";
+
+    private final Connection conexao;
+    private final boolean conexaoPropria;
+
+    public ResumoProjetoDAO() {
+        try {
+            this.conexao = ConnectionFactory.getConnection();
+            this.conexaoPropria = true;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao conectar ao banco de dados para ResumoProjetoDAO", e);
+            throw new RuntimeException("Falha ao conectar ao banco de dados", e);
+        }
+    }
+
+    // Reaproveita uma conexão já aberta; quem a forneceu continua responsável por fechá-la
+    public ResumoProjetoDAO(Connection conexao) {
+        this.conexao = conexao;
+        this.conexaoPropria = false;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (conexaoPropria && conexao != null && !conexao.isClosed()) {
+                conexao.close();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Erro ao fechar conexão", e);
+        }
+    }
+
+    /**
+     * Um resumo por projeto, dos mais recentes para os mais antigos. Com {@code idEmpresa}, só os
+     * da empresa; null lista todos (SUPER_ADMIN).
+     */
+    public List<ResumoProjetoDTO> listarResumos(Long idEmpresa) throws SQLException {
+        String sql = """
+                SELECT p.id_projeto, p.titulo, p.status,
+                %s
+                FROM TB_PROJETO p
+                %s
+                %s
+                ORDER BY p.data_inicio DESC, p.id_projeto DESC
+                """.formatted(COLUNAS_CONTAGEM.formatted(""), JUNCAO_CONTAGEM,
+                idEmpresa != null ? "WHERE p.id_empresa = ?" : "");
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            if (idEmpresa != null) {
+                stmt.setLong(1, idEmpresa);
+            }
+            List<ResumoProjetoDTO> resumos = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    ResumoProjetoDTO resumo = new ResumoProjetoDTO();
+                    resumo.setIdProjeto(rs.getLong("id_projeto"));
+                    resumo.setTitulo(rs.getString("titulo"));
+                    resumo.setStatus(rs.getString("status"));
+                    resumo.setAtividades(lerContagens(rs, "atividades_"));
+                    resumo.setSubatividades(lerContagens(rs, "subatividades_"));
+                    resumos.add(resumo);
+                }
+            }
+            return resumos;
+        }
+    }
+
+    /**
+     * Contagens somadas de todos os projetos da empresa, ou null se a empresa não existe.
+     */
+    public ResumoEmpresaDTO resumirEmpresa(long idEmpresa) throws SQLException {
+        String sql = """
+                SELECT e.id_empresa, count(p.id_projeto) AS projetos,
+                %s
+                FROM TB_EMPRESA e
+                LEFT JOIN TB_PROJETO p ON p.id_empresa = e.id_empresa
+                %s
+                WHERE e.id_empresa = ?
+                GROUP BY e.id_empresa
+                """.formatted(COLUNAS_CONTAGEM.formatted("sum"), JUNCAO_CONTAGEM);
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setLong(1, idEmpresa);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                ResumoEmpresaDTO resumo = new ResumoEmpresaDTO();
+                resumo.setIdEmpresa(rs.getLong("id_empresa"));
+                resumo.setProjetos(rs.getInt("projetos"));
+                resumo.setAtividades(lerContagens(rs, "atividades_"));
+                resumo.setSubatividades(lerContagens(rs, "subatividades_"));
+                return resumo;
+            }
+        }
+    }
+
+    // Projeto sem atividades não tem linha no resumo: getInt devolve 0 para NULL
+    private static ContagemStatusDTO lerContagens(ResultSet rs, String prefixo) throws SQLException {
+        ContagemStatusDTO contagem = new ContagemStatusDTO();
+        contagem.setPendentes(rs.getInt(prefixo + "pendentes"));
+        contagem.setEmAndamento(rs.getInt(prefixo + "em_andamento"));
+        contagem.setConcluidas(rs.getInt(prefixo + "concluidas"));
+        contagem.setCanceladas(rs.getInt(prefixo + "canceladas"));
+        contagem.setAtrasadas(rs.getInt(prefixo + "atrasadas"));
+        return contagem;
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.fiap.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Reserva ids de colunas SERIAL antes de um INSERT em lote.
+ * O pgjdbc só reescreve o lote em INSERTs multi-linha (reWriteBatchedInserts) quando não há
+ * chaves geradas a devolver; com os ids já reservados, o INSERT dispensa o RETURNING e a
+ * ordem dos ids é a mesma da entrada.
+ */
+final class SequenciaIds {
+
+    private SequenciaIds() {
+    }
+
+    static long[] reservar(Connection conexao, String tabela, String coluna, int quantidade) throws SQLException {
+        String sql = "SELECT nextval(pg_get_serial_sequence(?, ?)) AS id FROM generate_series(1, ?) ORDER BY 1";
+        long[] ids = new long[quantidade];
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setString(1, tabela.toLowerCase());
+            stmt.setString(2, coluna);
+            stmt.setInt(3, quantidade);
+            try (ResultSet rs = stmt.executeQuery()) {
+                for (int i = 0; i < quantidade; i++) {
+                    if (!rs.next()) {
+                        throw new SQLException("Sequência de " + tabela + " devolveu menos ids que o solicitado");
+                    }
+                    ids[i] = rs.getLong(1);
+                }
+            }
+        }
+        return ids;
+    }
+}
@@ -5,19 +5,31 @@ import br.com.fiap.model.SubAtividade;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class SubAtividadeDAO implements AutoCloseable {
     private static final Logger LOGGER = Logger.getLogger(SubAtividadeDAO.class.getName());
+    private static final String COLUNAS = "id_subatividade, id_atividade, titulo, descricao, data_inicio_prevista, "
+            + "data_termino_prevista, data_termino_real, status, prioridade, data_cadastro, versao";
+    // Projeto da subatividade escrita, devolvido junto no RETURNING para tirar a árvore dele do cache
+    private static final String PROJETO_DEVOLVIDO =
+            "(SELECT a.id_projeto FROM TB_ATIVIDADE a WHERE a.id_atividade = TB_SUBATIVIDADE.id_atividade)";
     private final Connection conexao;
+    private final boolean conexaoPropria;
 
     public SubAtividadeDAO() {
         try {
             this.conexao = ConnectionFactory.getConnection();
+            this.conexaoPropria = true;
             LOGGER.info("Conexão com o banco de dados estabelecida para SubAtividadeDAO");
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Erro ao conectar ao banco de dados para SubAtividadeDAO", e);
@@ -25,10 +37,16 @@ public class SubAtividadeDAO implements AutoCloseable {
         }
     }
 
+    // Reaproveita uma conexão já aberta; quem a forneceu continua responsável por fechá-la
+    public SubAtividadeDAO(Connection conexao) {
+        this.conexao = conexao;
+        this.conexaoPropria = false;
+    }
+
     @Override
     public void close() {
         try {
-            if (conexao != null && !conexao.isClosed()) {
+            if (conexaoPropria && conexao != null && !conexao.isClosed()) {
                 conexao.close();
                 LOGGER.info("Conexão com o banco de dados fechada para SubAtividadeDAO");
             }
@@ -41,7 +59,7 @@ public class SubAtividadeDAO implements AutoCloseable {
         String sql = "INSERT INTO TB_SUBATIVIDADE (id_atividade, titulo, descricao, " +
                      "data_inicio_prevista, data_termino_prevista, data_termino_real, " +
                      "status, prioridade, data_cadastro) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id_subatividade";
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) RETURNING id_subatividade, " + PROJETO_DEVOLVIDO;
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, subAtividade.getIdAtividade());
@@ -50,26 +68,91 @@ public class SubAtividadeDAO implements AutoCloseable {
             setDateOrNull(stmt, 4, subAtividade.getDataInicioPrevista());
             setDateOrNull(stmt, 5, subAtividade.getDataTerminoPrevista());
             setDateOrNull(stmt, 6, subAtividade.getDataTerminoReal());
-            stmt.setString(7, subAtividade.getStatus());
-            stmt.setString(8, subAtividade.getPrioridade());
+            stmt.setObject(7, subAtividade.getStatus(), Types.OTHER);
+            stmt.setObject(8, subAtividade.getPrioridade(), Types.OTHER);
             stmt.setTimestamp(9, Timestamp.valueOf(subAtividade.getDataCadastro()));
 
+            long id;
+            long idProjeto;
             try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
+                if (!rs.next()) {
+                    throw new SQLException("Falha ao obter o ID da SubAtividade");
+                }
+                id = rs.getLong(1);
+                idProjeto = rs.getLong(2);
+            }
+            AlteracaoTabela.notificarProjeto(conexao, idProjeto);
+            return id;
+        }
+    }
+
+    /**
+     * Insere as subatividades num único lote JDBC, reescrito pelo driver em INSERTs multi-linha.
+     * Os ids são reservados antes e atribuídos na ordem da lista, que também é a ordem devolvida.
+     * Deve rodar numa transação para que o lote seja tudo ou nada.
+     */
+    public List<Long> cadastrarEmLote(List<SubAtividade> subAtividades) throws SQLException {
+        if (subAtividades.isEmpty()) {
+            return List.of();
+        }
+        long[] ids = SequenciaIds.reservar(conexao, "TB_SUBATIVIDADE", "id_subatividade", subAtividades.size());
+
+        String sql = "INSERT INTO TB_SUBATIVIDADE (id_subatividade, id_atividade, titulo, descricao, " +
+                     "data_inicio_prevista, data_termino_prevista, data_termino_real, " +
+                     "status, prioridade, data_cadastro) " +
+                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            for (int i = 0; i < ids.length; i++) {
+                SubAtividade sub = subAtividades.get(i);
+                stmt.setLong(1, ids[i]);
+                stmt.setLong(2, sub.getIdAtividade());
+                stmt.setString(3, sub.getTitulo());
+                stmt.setString(4, sub.getDescricao());
+                setDateOrNull(stmt, 5, sub.getDataInicioPrevista());
+                setDateOrNull(stmt, 6, sub.getDataTerminoPrevista());
+                setDateOrNull(stmt, 7, sub.getDataTerminoReal());
+                stmt.setObject(8, sub.getStatus(), Types.OTHER);
+                stmt.setObject(9, sub.getPrioridade(), Types.OTHER);
+                stmt.setTimestamp(10, Timestamp.valueOf(sub.getDataCadastro()));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+        notificarProjetos(subAtividades.stream().map(SubAtividade::getIdAtividade).distinct().toList());
+
+        List<Long> gerados = new ArrayList<>(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            subAtividades.get(i).setIdSubAtividade(ids[i]);
+            gerados.add(ids[i]);
+        }
+        return gerados;
+    }
+
+    // Um lote pode cair em atividades de vários projetos: uma consulta descobre quais
+    private void notificarProjetos(List<Long> idsAtividade) throws SQLException {
+        Array ids = conexao.createArrayOf("bigint", idsAtividade.toArray());
+        List<Long> projetos = new ArrayList<>();
+        try (PreparedStatement stmt = conexao.prepareStatement(
+                "SELECT DISTINCT id_projeto FROM TB_ATIVIDADE WHERE id_atividade = ANY(?)")) {
+            stmt.setArray(1, ids);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    projetos.add(rs.getLong(1));
                 }
             }
+        } finally {
+            ids.free();
         }
-        throw new SQLException("Falha ao obter o ID da SubAtividade");
+        AlteracaoTabela.notificarProjetos(conexao, projetos);
     }
 
     public Optional<SubAtividade> pesquisarPorId(Long id) throws SQLException {
-        String sql = "SELECT * FROM TB_SUBATIVIDADE WHERE id_subatividade = ?";
+        String sql = "SELECT " + COLUNAS + " FROM TB_SUBATIVIDADE WHERE id_subatividade = ?";
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return Optional.of(mapearSubAtividade(rs));
+                    return Optional.of(mapeador(IndiceColunas.de(rs)).mapear(rs));
                 }
             }
         }
@@ -77,23 +160,53 @@ public class SubAtividadeDAO implements AutoCloseable {
     }
 
     public List<SubAtividade> listarPorAtividade(Long idAtividade) throws SQLException {
-        String sql = "SELECT * FROM TB_SUBATIVIDADE WHERE id_atividade = ? ORDER BY data_inicio_prevista";
+        String sql = "SELECT " + COLUNAS + " FROM TB_SUBATIVIDADE WHERE id_atividade = ? ORDER BY data_inicio_prevista";
         List<SubAtividade> subAtividades = new ArrayList<>();
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, idAtividade);
             try (ResultSet rs = stmt.executeQuery()) {
+                MapeadorLinha<SubAtividade> mapeador = mapeador(IndiceColunas.de(rs));
                 while (rs.next()) {
-                    subAtividades.add(mapearSubAtividade(rs));
+                    subAtividades.add(mapeador.mapear(rs));
                 }
             }
         }
         return subAtividades;
     }
 
-    public void atualizar(SubAtividade subAtividade) throws SQLException {
+    /**
+     * Carrega as subatividades de várias atividades com uma única consulta,
+     * agrupadas pelo id da atividade e mantendo a ordem por data de início prevista.
+     */
+    public Map<Long, List<SubAtividade>> listarPorAtividades(Collection<Long> idsAtividade) throws SQLException {
+        Map<Long, List<SubAtividade>> porAtividade = new HashMap<>();
+        if (idsAtividade.isEmpty()) {
+            return porAtividade;
+        }
+
+        String sql = "SELECT " + COLUNAS + " FROM TB_SUBATIVIDADE WHERE id_atividade = ANY(?) ORDER BY data_inicio_prevista";
+        Array ids = conexao.createArrayOf("bigint", idsAtividade.toArray());
+        try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
+            stmt.setArray(1, ids);
+            try (ResultSet rs = stmt.executeQuery()) {
+                MapeadorLinha<SubAtividade> mapeador = mapeador(IndiceColunas.de(rs));
+                while (rs.next()) {
+                    SubAtividade sub = mapeador.mapear(rs);
+                    porAtividade.computeIfAbsent(sub.getIdAtividade(), id -> new ArrayList<>()).add(sub);
+                }
+            }
+        } finally {
+            ids.free();
+        }
+        return porAtividade;
+    }
+
+    /** Com {@code versaoEsperada} (If-Match), só grava se a linha ainda estiver nessa versão. */
+    public ResultadoEscrita atualizar(SubAtividade subAtividade, Long versaoEsperada) throws SQLException {
         String sql = "UPDATE TB_SUBATIVIDADE SET titulo = ?, descricao = ?, " +
                      "data_inicio_prevista = ?, data_termino_prevista = ?, data_termino_real = ?, " +
-                     "status = ?, prioridade = ? WHERE id_subatividade = ?";
+                     "status = ?, prioridade = ? WHERE id_subatividade = ?" +
+                     ResultadoEscrita.condicao(versaoEsperada) + " RETURNING versao, " + PROJETO_DEVOLVIDO;
 
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setString(1, subAtividade.getTitulo());
@@ -101,35 +214,77 @@ public class SubAtividadeDAO implements AutoCloseable {
             setDateOrNull(stmt, 3, subAtividade.getDataInicioPrevista());
             setDateOrNull(stmt, 4, subAtividade.getDataTerminoPrevista());
             setDateOrNull(stmt, 5, subAtividade.getDataTerminoReal());
-            stmt.setString(6, subAtividade.getStatus());
-            stmt.setString(7, subAtividade.getPrioridade());
+            stmt.setObject(6, subAtividade.getStatus(), Types.OTHER);
+            stmt.setObject(7, subAtividade.getPrioridade(), Types.OTHER);
             stmt.setLong(8, subAtividade.getIdSubAtividade());
-            stmt.executeUpdate();
+            if (versaoEsperada != null) {
+                stmt.setLong(9, versaoEsperada);
+            }
+            return executarNoProjeto(stmt, subAtividade.getIdSubAtividade(), versaoEsperada);
         }
     }
 
-    public void remover(Long id) throws SQLException {
-        String sql = "DELETE FROM TB_SUBATIVIDADE WHERE id_subatividade = ?";
+    public ResultadoEscrita remover(Long id, Long versaoEsperada) throws SQLException {
+        String sql = "DELETE FROM TB_SUBATIVIDADE WHERE id_subatividade = ?" +
+                     ResultadoEscrita.condicao(versaoEsperada) + " RETURNING versao, " + PROJETO_DEVOLVIDO;
         try (PreparedStatement stmt = conexao.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            stmt.executeUpdate();
+            if (versaoEsperada != null) {
+                stmt.setLong(2, versaoEsperada);
+            }
+            return executarNoProjeto(stmt, id, versaoEsperada);
+        }
+    }
+
+    // Como ResultadoEscrita.executar, avisando o projeto da linha escrita (segunda coluna do RETURNING)
+    private ResultadoEscrita executarNoProjeto(PreparedStatement stmt, long id, Long versaoEsperada)
+            throws SQLException {
+        long versao;
+        long idProjeto;
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                return ResultadoEscrita.semLinhaAfetada(conexao, "TB_SUBATIVIDADE", "id_subatividade", id, versaoEsperada);
+            }
+            versao = rs.getLong(1);
+            idProjeto = rs.getLong(2);
         }
+        AlteracaoTabela.notificarProjeto(conexao, idProjeto);
+        return ResultadoEscrita.gravado(versao);
+    }
+
+    /** Versão atual da subatividade, sem ler o resto da linha (If-None-Match). */
+    public OptionalLong versao(long id) throws SQLException {
+        return ResultadoEscrita.versaoAtual(conexao, "TB_SUBATIVIDADE", "id_subatividade", id);
     }
 
-    private SubAtividade mapearSubAtividade(ResultSet rs) throws SQLException {
-        SubAtividade sub = new SubAtividade();
-        sub.setIdSubAtividade(rs.getLong("id_subatividade"));
-        sub.setIdAtividade(rs.getLong("id_atividade"));
-        sub.setTitulo(rs.getString("titulo"));
-        sub.setDescricao(rs.getString("descricao"));
-        setLocalDateFromResultSet(rs, "data_inicio_prevista", sub::setDataInicioPrevista);
-        setLocalDateFromResultSet(rs, "data_termino_prevista", sub::setDataTerminoPrevista);
-        setLocalDateFromResultSet(rs, "data_termino_real", sub::setDataTerminoReal);
-        sub.setStatus(rs.getString("status"));
-        sub.setPrioridade(rs.getString("prioridade"));
-        Timestamp ts = rs.getTimestamp("data_cadastro");
-        if (ts != null) sub.setDataCadastro(ts.toLocalDateTime());
-        return sub;
+    static MapeadorLinha<SubAtividade> mapeador(IndiceColunas colunas) throws SQLException {
+        int idSubAtividade = colunas.de("id_subatividade");
+        int idAtividade = colunas.de("id_atividade");
+        int titulo = colunas.de("titulo");
+        int descricao = colunas.de("descricao");
+        int dataInicioPrevista = colunas.de("data_inicio_prevista");
+        int dataTerminoPrevista = colunas.de("data_termino_prevista");
+        int dataTerminoReal = colunas.de("data_termino_real");
+        int status = colunas.de("status");
+        int prioridade = colunas.de("prioridade");
+        int dataCadastro = colunas.de("data_cadastro");
+        int versao = colunas.de("versao");
+        return rs -> {
+            SubAtividade sub = new SubAtividade();
+            sub.setVersao(rs.getLong(versao));
+            sub.setIdSubAtividade(rs.getLong(idSubAtividade));
+            sub.setIdAtividade(rs.getLong(idAtividade));
+            sub.setTitulo(rs.getString(titulo));
+            sub.setDescricao(rs.getString(descricao));
+            sub.setDataInicioPrevista(IndiceColunas.data(rs, dataInicioPrevista));
+            sub.setDataTerminoPrevista(IndiceColunas.data(rs, dataTerminoPrevista));
+            sub.setDataTerminoReal(IndiceColunas.data(rs, dataTerminoReal));
+            sub.setStatus(rs.getString(status));
+            sub.setPrioridade(rs.getString(prioridade));
+            LocalDateTime cadastro = IndiceColunas.dataHora(rs, dataCadastro);
+            if (cadastro != null) sub.setDataCadastro(cadastro);
+            return sub;
+        };
     }
 
     private void setDateOrNull(PreparedStatement stmt, int index, LocalDate date) throws SQLException {
@@ -139,9 +294,4 @@ public class SubAtividadeDAO implements AutoCloseable {
             stmt.setNull(index, Types.DATE);
         }
     }
-
-    private void setLocalDateFromResultSet(ResultSet rs, String column, java.util.function.Consumer<LocalDate> setter) throws SQLException {
-        Date date = rs.getDate(column);
-        if (date != null) setter.accept(date.toLocalDate());
-    }
 }
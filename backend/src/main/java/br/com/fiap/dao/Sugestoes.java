@@ -0,0 +1,193 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.dto.SugestaoDTO;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * Sugestões para campos de autocompletar: os nomes que contêm o termo (ou se parecem com ele,
+ * tolerando erro de digitação), com quem começa pelo termo primeiro. Atendido pelos índices de
+ * trigramas (pg_trgm); o resultado fica alguns segundos em cache porque cada tecla digitada
+ * repete os mesmos prefixos, e as escritas na tabela limpam o cache (ver {@link AlteracaoTabela}).
+ */
+final class Sugestoes {
+    private static final Logger LOGGER = Logger.getLogger(Sugestoes.class.getName());
+    private static final long TTL_MS = 10_000;
+    private static final int MAX_ENTRADAS = 1_000;
+    // Com menos que isso o termo não forma trigramas suficientes para o índice
+    private static final int TAMANHO_MINIMO = 2;
+    // Abaixo de um trigrama completo, só o prefixo é seletivo
+    private static final int TAMANHO_SEMELHANCA = 3;
+    // Sugestão que demora mais que isso já perdeu a vez para a próxima tecla
+    private static final int TIMEOUT_SEGUNDOS = 1;
+    // Corte de cada ramo, já na ordem final: com milhares de nomes casando ("emp"), o UNION e a
+    // ordenação de fora só veem essas linhas
+    private static final int MAX_CANDIDATOS = 200;
+    // SQLSTATE query_canceled, gerado pelo timeout
+    private static final String CANCELADA = "57014";
+
+    private static final Map<String, Entrada> CACHE = new ConcurrentHashMap<>();
+
+    private record Entrada(List<SugestaoDTO> itens, long expiraEm) {
+    }
+
+    private final String tabela;
+    private final String colunaId;
+    private final String colunaNome;
+    private final String colunaComplemento;
+    private final List<String> colunasBusca;
+    private final String colunaFiltro;
+    // Colunas lidas dos candidatos: as devolvidas e as usadas na ordenação
+    private final String colunasCandidatos;
+
+    /**
+     * @param colunasBusca colunas comparadas com o termo, cada uma com índice gin_trgm_ops
+     * @param colunaFiltro coluna que restringe as sugestões (ex.: empresa do cliente), ou null
+     */
+    Sugestoes(String tabela, String colunaId, String colunaNome, String colunaComplemento,
+              List<String> colunasBusca, String colunaFiltro) {
+        this.tabela = tabela;
+        this.colunaId = colunaId;
+        this.colunaNome = colunaNome;
+        this.colunaComplemento = colunaComplemento;
+        this.colunasBusca = colunasBusca;
+        this.colunaFiltro = colunaFiltro;
+        Set<String> colunas = new LinkedHashSet<>(List.of(colunaId, colunaNome, colunaComplemento));
+        colunas.addAll(colunasBusca);
+        this.colunasCandidatos = String.join(", ", colunas);
+    }
+
+    List<SugestaoDTO> buscar(Connection conexao, String termo, Long filtro, int limite) throws SQLException {
+        String normalizado = termo.trim().toLowerCase(Locale.ROOT);
+        if (normalizado.length() < TAMANHO_MINIMO) {
+            return List.of();
+        }
+        String chave = tabela + "|" + filtro + "|" + limite + "|" + normalizado;
+        long agora = System.currentTimeMillis();
+        Entrada entrada = CACHE.get(chave);
+        if (entrada != null && entrada.expiraEm() > agora) {
+            return entrada.itens();
+        }
+
+        List<SugestaoDTO> itens;
+        try {
+            itens = consultar(conexao, normalizado, filtro, limite);
+        } catch (SQLException e) {
+            if (!CANCELADA.equals(e.getSQLState())) {
+                throw e;
+            }
+            // Estourou o tempo: sem sugestões desta vez, e nada vai para o cache
+            LOGGER.warning("Sugestões de " + tabela + " para '" + normalizado + "' excederam " + TIMEOUT_SEGUNDOS + " s");
+            return List.of();
+        }
+        if (CACHE.size() >= MAX_ENTRADAS) {
+            CACHE.clear();
+        }
+        CACHE.put(chave, new Entrada(List.copyOf(itens), agora + TTL_MS));
+        return itens;
+    }
+
+    static void invalidar(String tabela) {
+        CACHE.keySet().removeIf(chave -> chave.startsWith(tabela + "|"));
+    }
+
+    static void limpar() {
+        CACHE.clear();
+    }
+
+    private List<SugestaoDTO> consultar(Connection conexao, String termo, Long filtro, int limite) throws SQLException {
+        boolean semelhanca = termo.length() >= TAMANHO_SEMELHANCA;
+        String contem = "%" + escaparLike(termo) + "%";
+        String prefixo = escaparLike(termo) + "%";
+        List<Object> params = new ArrayList<>();
+
+        // Candidatos em dois ramos, cada um limitado: quem contém o termo (termo curto: só quem
+        // começa por ele) e quem se parece com ele. Separados para que milhares de nomes
+        // parecidos não tirem da lista os que contêm o termo exatamente. Cada ramo corta já na
+        // ordem final, então os primeiros de cada um cobrem os primeiros do resultado
+        List<String> ramos = new ArrayList<>();
+        ramos.add(candidatos(false, semelhanca ? contem : prefixo, termo, filtro, params));
+        if (semelhanca) {
+            ramos.add(candidatos(true, termo, termo, filtro, params));
+        }
+        StringBuilder sql = new StringBuilder("SELECT ").append(colunaId).append(", ").append(colunaNome)
+                .append(", ").append(colunaComplemento).append(" FROM (")
+                .append(String.join(" UNION ", ramos)).append(") candidatos")
+                .append(ordem(termo, params)).append(" LIMIT ?");
+        params.add(limite);
+
+        try (PreparedStatement stmt = conexao.prepareStatement(sql.toString())) {
+            stmt.setQueryTimeout(TIMEOUT_SEGUNDOS);
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            List<SugestaoDTO> itens = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    itens.add(new SugestaoDTO(rs.getLong(1), rs.getString(2), rs.getString(3)));
+                }
+            }
+            return itens;
+        }
+    }
+
+    // (SELECT ... WHERE col1 ILIKE ? OR col2 ILIKE ? ... ORDER BY ... LIMIT ?), ou com "? <% col" quando por semelhança
+    private String candidatos(boolean semelhanca, String valor, String termo, Long filtro, List<Object> params) {
+        List<String> condicoes = new ArrayList<>();
+        for (String coluna : colunasBusca) {
+            condicoes.add(semelhanca ? "? <% " + coluna : coluna + " ILIKE ?");
+            params.add(valor);
+        }
+        StringBuilder ramo = new StringBuilder("(SELECT ").append(colunasCandidatos).append(" FROM ").append(tabela)
+                .append(" WHERE (").append(String.join(" OR ", condicoes)).append(")");
+        if (colunaFiltro != null && filtro != null) {
+            ramo.append(" AND ").append(colunaFiltro).append(" = ?");
+            params.add(filtro);
+        }
+        ramo.append(ordem(termo, params));
+        params.add(MAX_CANDIDATOS);
+        return ramo.append(" LIMIT ?)").toString();
+    }
+
+    // Quem começa pelo termo, depois quem o contém, depois os mais parecidos; nome e id desempatam
+    private String ordem(String termo, List<Object> params) {
+        String contem = "%" + escaparLike(termo) + "%";
+        String prefixo = escaparLike(termo) + "%";
+        List<String> prefixos = new ArrayList<>();
+        List<String> contidos = new ArrayList<>();
+        List<String> semelhancas = new ArrayList<>();
+        for (String coluna : colunasBusca) {
+            prefixos.add(coluna + " ILIKE ?");
+            params.add(prefixo);
+        }
+        for (String coluna : colunasBusca) {
+            contidos.add(coluna + " ILIKE ?");
+            params.add(contem);
+        }
+        for (String coluna : colunasBusca) {
+            semelhancas.add("word_similarity(?, coalesce(" + coluna + ", ''))");
+            params.add(termo);
+        }
+        // Coluna nula faz o OR dar NULL em vez de false; NULLS LAST não deixa essas linhas passarem à frente
+        return " ORDER BY (" + String.join(" OR ", prefixos) + ") DESC NULLS LAST, ("
+                + String.join(" OR ", contidos) + ") DESC NULLS LAST, "
+                + (semelhancas.size() == 1 ? semelhancas.get(0) : "GREATEST(" + String.join(", ", semelhancas) + ")")
+                + " DESC, " + colunaNome + ", " + colunaId;
+    }
+
+    // %, _ e \ digitados pelo usuário são texto, não curingas
+    static String escaparLike(String termo) {
+        return termo.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
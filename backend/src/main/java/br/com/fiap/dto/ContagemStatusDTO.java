@@ -0,0 +1,60 @@
+package br.com.fiap.dto;
+
+public class ContagemStatusDTO {
+    private int pendentes;
+    private int emAndamento;
+    private int concluidas;
+    private int canceladas;
+    // Pendentes ou em andamento com data de término prevista anterior a hoje
+    private int atrasadas;
+
+    public int getPendentes() {
+        return pendentes;
+    }
+
+    public void setPendentes(int pendentes) {
+        this.pendentes = pendentes;
+    }
+
+    public int getEmAndamento() {
+        return emAndamento;
+    }
+
+    public void setEmAndamento(int emAndamento) {
+        this.emAndamento = emAndamento;
+    }
+
+    public int getConcluidas() {
+        return concluidas;
+    }
+
+    public void setConcluidas(int concluidas) {
+        this.concluidas = concluidas;
+    }
+
+    public int getCanceladas() {
+        return canceladas;
+    }
+
+    public void setCanceladas(int canceladas) {
+        this.canceladas = canceladas;
+    }
+
+    public int getAtrasadas() {
+        return atrasadas;
+    }
+
+    public void setAtrasadas(int atrasadas) {
+        this.atrasadas = atrasadas;
+    }
+
+    public int getTotal() {
+        return pendentes + emAndamento + concluidas + canceladas;
+    }
+
+    // Concluídas sobre o total sem as canceladas, de 0 a 100; sem nada a fazer, 0
+    public double getPercentualConcluido() {
+        int considerado = getTotal() - canceladas;
+        return considerado == 0 ? 0 : Math.round(concluidas * 1000.0 / considerado) / 10.0;
+    }
+}
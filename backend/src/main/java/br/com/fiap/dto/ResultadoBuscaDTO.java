@@ -0,0 +1,70 @@
+package br.com.fiap.dto;
+
+public class ResultadoBuscaDTO {
+    // "projeto", "atividade" ou "subatividade"
+    private String tipo;
+    private Long id;
+    private Long idProjeto;
+    // Só em subatividades: a atividade a que pertencem
+    private Long idAtividade;
+    private String titulo;
+    // Título e descrição em HTML escapado, com os termos encontrados entre <mark> e </mark>
+    private String trecho;
+    private double relevancia;
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getIdProjeto() {
+        return idProjeto;
+    }
+
+    public void setIdProjeto(Long idProjeto) {
+        this.idProjeto = idProjeto;
+    }
+
+    public Long getIdAtividade() {
+        return idAtividade;
+    }
+
+    public void setIdAtividade(Long idAtividade) {
+        this.idAtividade = idAtividade;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getTrecho() {
+        return trecho;
+    }
+
+    public void setTrecho(String trecho) {
+        this.trecho = trecho;
+    }
+
+    public double getRelevancia() {
+        return relevancia;
+    }
+
+    public void setRelevancia(double relevancia) {
+        this.relevancia = relevancia;
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.fiap.dto;
+
+import java.util.List;
+
+public class ResultadoImportacaoDTO {
+    private long recebidas;
+    private long importadas;
+    // Linhas que não entraram, em ordem, com o número da linha no arquivo
+    private List<Rejeicao> rejeitadas;
+
+    public record Rejeicao(long linha, String motivo) {
+    }
+
+    public ResultadoImportacaoDTO() {
+    }
+
+    public ResultadoImportacaoDTO(long recebidas, long importadas, List<Rejeicao> rejeitadas) {
+        this.recebidas = recebidas;
+        this.importadas = importadas;
+        this.rejeitadas = rejeitadas;
+    }
+
+    public long getRecebidas() {
+        return recebidas;
+    }
+
+    public void setRecebidas(long recebidas) {
+        this.recebidas = recebidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public void setImportadas(long importadas) {
+        this.importadas = importadas;
+    }
+
+    public List<Rejeicao> getRejeitadas() {
+        return rejeitadas;
+    }
+
+    public void setRejeitadas(List<Rejeicao> rejeitadas) {
+        this.rejeitadas = rejeitadas;
+    }
+}
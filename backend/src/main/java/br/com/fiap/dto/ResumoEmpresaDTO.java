@@ -0,0 +1,41 @@
+package br.com.fiap.dto;
+
+public class ResumoEmpresaDTO {
+    private Long idEmpresa;
+    private int projetos;
+    // Somas das contagens de todos os projetos da empresa
+    private ContagemStatusDTO atividades;
+    private ContagemStatusDTO subatividades;
+
+    public Long getIdEmpresa() {
+        return idEmpresa;
+    }
+
+    public void setIdEmpresa(Long idEmpresa) {
+        this.idEmpresa = idEmpresa;
+    }
+
+    public int getProjetos() {
+        return projetos;
+    }
+
+    public void setProjetos(int projetos) {
+        this.projetos = projetos;
+    }
+
+    public ContagemStatusDTO getAtividades() {
+        return atividades;
+    }
+
+    public void setAtividades(ContagemStatusDTO atividades) {
+        this.atividades = atividades;
+    }
+
+    public ContagemStatusDTO getSubatividades() {
+        return subatividades;
+    }
+
+    public void setSubatividades(ContagemStatusDTO subatividades) {
+        this.subatividades = subatividades;
+    }
+}
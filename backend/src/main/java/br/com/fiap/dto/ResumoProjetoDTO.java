@@ -0,0 +1,49 @@
+package br.com.fiap.dto;
+
+public class ResumoProjetoDTO {
+    private Long idProjeto;
+    private String titulo;
+    private String status;
+    private ContagemStatusDTO atividades;
+    private ContagemStatusDTO subatividades;
+
+    public Long getIdProjeto() {
+        return idProjeto;
+    }
+
+    public void setIdProjeto(Long idProjeto) {
+        this.idProjeto = idProjeto;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public ContagemStatusDTO getAtividades() {
+        return atividades;
+    }
+
+    public void setAtividades(ContagemStatusDTO atividades) {
+        this.atividades = atividades;
+    }
+
+    public ContagemStatusDTO getSubatividades() {
+        return subatividades;
+    }
+
+    public void setSubatividades(ContagemStatusDTO subatividades) {
+        this.subatividades = subatividades;
+    }
+}
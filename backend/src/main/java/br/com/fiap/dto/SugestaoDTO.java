@@ -0,0 +1,41 @@
+package br.com.fiap.dto;
+
+public class SugestaoDTO {
+    private Long id;
+    private String nome;
+    // Texto secundário do item: nome fantasia da empresa ou e-mail do cliente
+    private String complemento;
+
+    public SugestaoDTO() {
+    }
+
+    public SugestaoDTO(Long id, String nome, String complemento) {
+        this.id = id;
+        this.nome = nome;
+        this.complemento = complemento;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public void setNome(String nome) {
+        this.nome = nome;
+    }
+
+    public String getComplemento() {
+        return complemento;
+    }
+
+    public void setComplemento(String complemento) {
+        this.complemento = complemento;
+    }
+}
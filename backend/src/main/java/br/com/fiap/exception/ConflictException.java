@@ -0,0 +1,15 @@
+package br.com.fiap.exception;
+
+/**
+ * Registro que viola uma chave única (CNPJ, CPF, e-mail). Os resources respondem 409.
+ */
+public class ConflictException extends BusinessException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+
+    public ConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
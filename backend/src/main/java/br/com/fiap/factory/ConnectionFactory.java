@@ -1,20 +1,40 @@
 package br.com.fiap.factory;
 
 import br.com.fiap.config.EnvConfig;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Fornece conexões a partir de um pool limitado (HikariCP).
+ * Fechar a conexão obtida aqui a devolve ao pool em vez de encerrar o socket.
+ */
 public class ConnectionFactory {
 
     private static final String URL = EnvConfig.getDatabaseUrl();
     private static final String USER = EnvConfig.getDatabaseUser();
     private static final String PASSWORD = EnvConfig.getDatabasePassword();
+    private static final String POOL_NAME = "inova-industria-pool";
+
+    private static volatile HikariDataSource dataSource;
+
+    // Contadores de utilização mantidos pela aplicação (o Hikari só expõe o estado atual)
+    private static final AtomicLong EMPRESTIMOS = new AtomicLong();
+    private static final AtomicLong TIMEOUTS = new AtomicLong();
 
     static {
         // Log das configurações carregadas (sem expor senhas)
         EnvConfig.printLoadedConfig();
-        
+
         // Validar se senha foi definida
         if (PASSWORD == null || PASSWORD.trim().isEmpty()) {
             System.err.println("❌ ERRO: Senha do banco não foi definida!");
@@ -22,9 +42,24 @@ public class ConnectionFactory {
         }
     }
 
+    /**
+     * Dentro de uma {@link UnitOfWork} aberta devolve a conexão compartilhada da unidade;
+     * fora dela, empresta uma conexão do pool.
+     */
     public static Connection getConnection() throws SQLException {
+        Optional<UnitOfWork> uow = UnitOfWork.current();
+        if (uow.isPresent()) {
+            return uow.get().getConnection();
+        }
         try {
-            return DriverManager.getConnection(URL, USER, PASSWORD);
+            Connection conexao = getDataSource().getConnection();
+            EMPRESTIMOS.incrementAndGet();
+            return conexao;
+        } catch (SQLTransientConnectionException e) {
+            TIMEOUTS.incrementAndGet();
+            System.err.println("❌ Tempo esgotado aguardando conexão livre no pool:");
+            System.err.println("   " + getEstatisticasPool());
+            throw e;
         } catch (SQLException e) {
             System.err.println("❌ Erro ao conectar com o banco de dados:");
             System.err.println("   URL: " + URL);
@@ -34,4 +69,79 @@ public class ConnectionFactory {
         }
     }
 
+    public static DataSource getDataSource() throws SQLException {
+        HikariDataSource ds = dataSource;
+        if (ds == null) {
+            synchronized (ConnectionFactory.class) {
+                ds = dataSource;
+                if (ds == null) {
+                    try {
+                        ds = new HikariDataSource(criarConfiguracao());
+                    } catch (RuntimeException e) {
+                        // Hikari falha rápido se o banco estiver fora; a próxima chamada tenta de novo
+                        throw new SQLException("Falha ao inicializar o pool de conexões", "08001", e);
+                    }
+                    dataSource = ds;
+                }
+            }
+        }
+        return ds;
+    }
+
+    private static HikariConfig criarConfiguracao() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(POOL_NAME);
+        config.setJdbcUrl(URL);
+        config.setUsername(USER);
+        config.setPassword(PASSWORD);
+        config.setMinimumIdle(EnvConfig.getPoolMinIdle());
+        config.setMaximumPoolSize(EnvConfig.getPoolMaxSize());
+        config.setConnectionTimeout(EnvConfig.getPoolAcquireTimeoutMs());
+        config.setIdleTimeout(EnvConfig.getPoolIdleTimeoutMs());
+        config.setMaxLifetime(EnvConfig.getPoolMaxLifetimeMs());
+        config.setLeakDetectionThreshold(EnvConfig.getPoolLeakDetectionMs());
+        // Lotes de INSERT (addBatch/executeBatch) viram INSERTs multi-linha no driver
+        config.addDataSourceProperty("reWriteBatchedInserts", "true");
+        return config;
+    }
+
+    /**
+     * Retorna um retrato da utilização do pool.
+     * Antes da primeira conexão o pool ainda não existe e apenas os limites configurados são informados.
+     */
+    public static Map<String, Object> getEstatisticasPool() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tamanhoMinimo", EnvConfig.getPoolMinIdle());
+        stats.put("tamanhoMaximo", EnvConfig.getPoolMaxSize());
+
+        HikariDataSource ds = dataSource;
+        HikariPoolMXBean pool = ds != null ? ds.getHikariPoolMXBean() : null;
+        stats.put("ativas", pool != null ? pool.getActiveConnections() : 0);
+        stats.put("ociosas", pool != null ? pool.getIdleConnections() : 0);
+        stats.put("total", pool != null ? pool.getTotalConnections() : 0);
+        stats.put("aguardando", pool != null ? pool.getThreadsAwaitingConnection() : 0);
+        stats.put("emprestimos", EMPRESTIMOS.get());
+        stats.put("timeouts", TIMEOUTS.get());
+        return stats;
+    }
+
+    /** Para testes: troca o banco por outro DataSource, mantendo o pool do Hikari na frente dele. */
+    static void usarDataSource(DataSource fonte) {
+        synchronized (ConnectionFactory.class) {
+            fecharPool();
+            HikariConfig config = criarConfiguracao();
+            config.setDataSource(fonte);
+            dataSource = new HikariDataSource(config);
+        }
+    }
+
+    public static void fecharPool() {
+        synchronized (ConnectionFactory.class) {
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
+            }
+        }
+    }
+
 }
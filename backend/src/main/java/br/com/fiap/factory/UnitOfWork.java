@@ -0,0 +1,167 @@
+package br.com.fiap.factory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Unidade de trabalho vinculada à thread da requisição.
+ * Enquanto estiver aberta, {@link ConnectionFactory#getConnection()} devolve a mesma conexão
+ * a todos os DAOs, e o commit ou rollback acontece uma única vez, no final.
+ * Chamadas aninhadas a {@link #begin()} participam da unidade já aberta.
+ * Ações registradas em {@link #depoisDoCommit(Runnable)} rodam só se a transação confirmar.
+ */
+public final class UnitOfWork implements AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(UnitOfWork.class.getName());
+    private static final ThreadLocal<UnitOfWork> ATUAL = new ThreadLocal<>();
+
+    private final Connection conexao;
+    private final Connection compartilhada;
+    private final List<Runnable> depoisDoCommit = new ArrayList<>();
+    private int participantes = 1;
+    private boolean somenteRollback;
+    private boolean concluida;
+
+    private UnitOfWork(Connection conexao) {
+        this.conexao = conexao;
+        this.compartilhada = criarConexaoCompartilhada(conexao);
+    }
+
+    public static UnitOfWork begin() throws SQLException {
+        Optional<UnitOfWork> atual = current();
+        if (atual.isPresent()) {
+            atual.get().participantes++;
+            return atual.get();
+        }
+
+        Connection conexao = ConnectionFactory.getConnection();
+        try {
+            conexao.setAutoCommit(false);
+        } catch (SQLException e) {
+            conexao.close();
+            throw e;
+        }
+        UnitOfWork uow = new UnitOfWork(conexao);
+        ATUAL.set(uow);
+        return uow;
+    }
+
+    public static Optional<UnitOfWork> current() {
+        UnitOfWork atual = ATUAL.get();
+        if (atual != null && atual.participantes <= 0) {
+            // Fechada a partir de outra thread (fim de requisição): a conexão já voltou ao pool
+            ATUAL.remove();
+            return Optional.empty();
+        }
+        return Optional.ofNullable(atual);
+    }
+
+    /**
+     * Conexão compartilhada pelos DAOs. close(), commit(), rollback() e setAutoCommit()
+     * são ignorados nela, pois quem decide o fim da transação é a unidade de trabalho.
+     */
+    public Connection getConnection() {
+        return compartilhada;
+    }
+
+    /**
+     * Executa {@code acao} logo depois do commit da unidade (a mais externa, com participantes
+     * aninhados); se a transação for desfeita, a ação é descartada.
+     */
+    public void depoisDoCommit(Runnable acao) {
+        depoisDoCommit.add(acao);
+    }
+
+    public void commit() throws SQLException {
+        if (participantes > 1 || concluida) {
+            return;
+        }
+        if (somenteRollback) {
+            rollback();
+            throw new SQLException("Transação marcada para rollback por um participante");
+        }
+        try {
+            conexao.commit();
+        } finally {
+            // Com erro no commit não dá para saber se a escrita ficou; executar a mais é o lado seguro
+            executarDepoisDoCommit();
+        }
+        concluida = true;
+    }
+
+    public void rollback() {
+        if (participantes > 1) {
+            somenteRollback = true;
+            return;
+        }
+        if (concluida) {
+            return;
+        }
+        depoisDoCommit.clear();
+        try {
+            conexao.rollback();
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Erro ao desfazer transação", e);
+        }
+        concluida = true;
+    }
+
+    @Override
+    public void close() {
+        if (--participantes > 0) {
+            return;
+        }
+        try {
+            if (!concluida) {
+                rollback();
+            }
+        } finally {
+            if (ATUAL.get() == this) {
+                ATUAL.remove();
+            }
+            try {
+                conexao.setAutoCommit(true);
+                conexao.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Erro ao devolver conexão ao pool", e);
+            }
+        }
+    }
+
+    private void executarDepoisDoCommit() {
+        List<Runnable> acoes = new ArrayList<>(depoisDoCommit);
+        depoisDoCommit.clear();
+        for (Runnable acao : acoes) {
+            try {
+                acao.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Erro em ação posterior ao commit", e);
+            }
+        }
+    }
+
+    private static Connection criarConexaoCompartilhada(Connection conexao) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    String nome = method.getName();
+                    // rollback(Savepoint) continua permitido; só o rollback total é da unidade de trabalho
+                    if (nome.equals("close") || nome.equals("commit") || nome.equals("setAutoCommit")
+                            || (nome.equals("rollback") && args == null)) {
+                        return null;
+                    }
+                    try {
+                        return method.invoke(conexao, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
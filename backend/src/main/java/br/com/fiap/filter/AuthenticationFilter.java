@@ -65,11 +65,12 @@ public class AuthenticationFilter implements ContainerRequestFilter {
             DecodedJWT decodedJWT = validateToken(token);
 
             // Set the security context with the authenticated user
-            final String subject = decodedJWT.getSubject();
+            final UsuarioAutenticado usuario = new UsuarioAutenticado(decodedJWT.getSubject(),
+                    decodedJWT.getClaim("empresaId").asLong());
             requestContext.setSecurityContext(new SecurityContext() {
                 @Override
                 public Principal getUserPrincipal() {
-                    return () -> subject;
+                    return usuario;
                 }
 
                 @Override
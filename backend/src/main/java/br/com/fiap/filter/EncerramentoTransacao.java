@@ -0,0 +1,33 @@
+package br.com.fiap.filter;
+
+import jakarta.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Garante que a {@link br.com.fiap.factory.UnitOfWork} aberta pelo {@link TransactionFilter} seja
+ * encerrada (com rollback) mesmo quando a resposta não passa por ele: uma exceção que o Jersey não
+ * consegue transformar em resposta, ou lançada por outro filtro de resposta, interrompe a cadeia, e
+ * a unidade ficaria presa à thread do Grizzly com a conexão do pool. FINISHED chega em toda
+ * requisição, com ou sem erro.
+ */
+@Provider
+public class EncerramentoTransacao implements ApplicationEventListener {
+
+    private static final RequestEventListener AO_TERMINAR = evento -> {
+        if (evento.getType() == RequestEvent.Type.FINISHED) {
+            TransactionFilter.descartar(evento.getContainerRequest());
+        }
+    };
+
+    @Override
+    public void onEvent(ApplicationEvent evento) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent evento) {
+        return AO_TERMINAR;
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.fiap.filter;
+
+import br.com.fiap.factory.UnitOfWork;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.Response;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Abre uma {@link UnitOfWork} antes do método do recurso e a encerra na resposta:
+ * commit para status 2xx/3xx, rollback para qualquer erro.
+ * Registrado apenas nos métodos anotados com @Transactional (ver {@link TransactionalFeature}).
+ * Se um erro interromper a cadeia de filtros de resposta antes deste, quem encerra a unidade é o
+ * {@link EncerramentoTransacao}, no fim da requisição.
+ */
+public class TransactionFilter implements ContainerRequestFilter, ContainerResponseFilter {
+    private static final Logger LOGGER = Logger.getLogger(TransactionFilter.class.getName());
+    private static final String PROPRIEDADE_UOW = TransactionFilter.class.getName() + ".uow";
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        // Uma unidade esquecida por uma requisição anterior nesta thread não pode vazar para esta
+        UnitOfWork.current().ifPresent(antiga -> {
+            LOGGER.warning("Descartando unidade de trabalho não encerrada de requisição anterior");
+            antiga.rollback();
+            antiga.close();
+        });
+
+        try {
+            requestContext.setProperty(PROPRIEDADE_UOW, UnitOfWork.begin());
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao iniciar transação", e);
+            requestContext.abortWith(Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                    .entity("{\"erro\":\"Banco de dados indisponível\"}")
+                    .build());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) throws IOException {
+        UnitOfWork uow = retirar(requestContext);
+        if (uow == null) {
+            return;
+        }
+
+        try (uow) {
+            if (responseContext.getStatus() < 400) {
+                uow.commit();
+            } else {
+                uow.rollback();
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao confirmar transação", e);
+            responseContext.setStatus(Response.Status.INTERNAL_SERVER_ERROR.getStatusCode());
+            responseContext.setEntity("{\"erro\":\"Erro ao confirmar transação\"}");
+        }
+    }
+
+    /** Desfaz e fecha a unidade que a resposta não chegou a encerrar; nada a fazer se ela já foi encerrada. */
+    static void descartar(ContainerRequestContext requestContext) {
+        UnitOfWork uow = retirar(requestContext);
+        if (uow != null) {
+            LOGGER.warning("Requisição terminou com exceção não tratada; desfazendo a transação");
+            try (uow) {
+                uow.rollback();
+            }
+        }
+    }
+
+    private static UnitOfWork retirar(ContainerRequestContext requestContext) {
+        if (!(requestContext.getProperty(PROPRIEDADE_UOW) instanceof UnitOfWork uow)) {
+            return null;
+        }
+        requestContext.removeProperty(PROPRIEDADE_UOW);
+        return uow;
+    }
+}
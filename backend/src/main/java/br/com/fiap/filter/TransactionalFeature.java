@@ -0,0 +1,26 @@
+package br.com.fiap.filter;
+
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.DynamicFeature;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.FeatureContext;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Faz a anotação @Transactional (que não é @NameBinding) ter efeito nos recursos JAX-RS,
+ * registrando o {@link TransactionFilter} nos métodos ou classes anotados.
+ */
+@Provider
+public class TransactionalFeature implements DynamicFeature {
+
+    @Override
+    public void configure(ResourceInfo resourceInfo, FeatureContext context) {
+        boolean transacional = resourceInfo.getResourceMethod().isAnnotationPresent(Transactional.class)
+                || resourceInfo.getResourceClass().isAnnotationPresent(Transactional.class);
+        if (transacional) {
+            // Depois da autenticação: requisições rejeitadas não chegam a pegar conexão
+            context.register(TransactionFilter.class, Priorities.USER);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.fiap.filter;
+
+import java.security.Principal;
+
+/**
+ * Quem fez a requisição, lido do token: o id do cliente (subject) e a empresa dele,
+ * que fica null para SUPER_ADMIN.
+ */
+public record UsuarioAutenticado(String idCliente, Long empresaId) implements Principal {
+
+    @Override
+    public String getName() {
+        return idCliente;
+    }
+}
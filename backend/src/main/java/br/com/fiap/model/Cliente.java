@@ -21,6 +21,9 @@ public class Cliente {
     private String senha;
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime dataCadastro;
+    // Versão da linha: vai no cabeçalho ETag, não no corpo
+    @JsonIgnore
+    private Long versao;
     private boolean ativo;
 
     // Construtor vazio
@@ -141,6 +144,14 @@ public class Cliente {
         this.dataCadastro = dataCadastro;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
     public boolean isAtivo() {
         return ativo;
     }
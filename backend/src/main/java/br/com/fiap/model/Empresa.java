@@ -3,6 +3,7 @@ package br.com.fiap.model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class Empresa {
     private Long idEmpresa;
@@ -26,6 +27,9 @@ public class Empresa {
     private LocalDate dataFundacao;
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime dataCadastro;
+    // Versão da linha: vai no cabeçalho ETag, não no corpo
+    @JsonIgnore
+    private Long versao;
     private boolean ativo;
 
     // Construtor vazio
@@ -221,6 +225,14 @@ public class Empresa {
         this.dataCadastro = dataCadastro;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
     public boolean isAtivo() {
         return ativo;
     }
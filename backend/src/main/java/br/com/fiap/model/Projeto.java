@@ -1,6 +1,7 @@
 package br.com.fiap.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -23,6 +24,12 @@ public class Projeto {
     private PrioridadeProjeto prioridade;
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime dataCadastro;
+    // Versão da linha: vai no cabeçalho ETag, não no corpo
+    @JsonIgnore
+    private Long versao;
+    // Versão do gerente cujo nome vai em clienteNome: entra na ETag junto com a do projeto
+    @JsonIgnore
+    private Long versaoGerente;
     
     // Campo transiente para informações do cliente
     private String clienteNome;
@@ -148,6 +155,22 @@ public class Projeto {
         this.dataCadastro = dataCadastro;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
+    public Long getVersaoGerente() {
+        return versaoGerente;
+    }
+
+    public void setVersaoGerente(Long versaoGerente) {
+        this.versaoGerente = versaoGerente;
+    }
+
     public String getClienteNome() {
         return clienteNome;
     }
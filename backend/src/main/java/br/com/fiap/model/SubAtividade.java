@@ -3,6 +3,7 @@ package br.com.fiap.model;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 public class SubAtividade {
     private Long idSubAtividade;
@@ -19,6 +20,9 @@ public class SubAtividade {
     private String prioridade;    // Reaproveitando prioridade_atividade
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime dataCadastro;
+    // Versão da linha: vai no cabeçalho ETag, não no corpo
+    @JsonIgnore
+    private Long versao;
 
     // Construtor vazio
     public SubAtividade() {
@@ -123,6 +127,14 @@ public class SubAtividade {
         this.dataCadastro = dataCadastro;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
     @Override
     public String toString() {
         return "SubAtividade{" +
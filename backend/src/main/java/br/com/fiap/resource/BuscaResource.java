@@ -0,0 +1,86 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.annotation.Secured;
+import br.com.fiap.dao.BuscaDAO;
+import br.com.fiap.filter.UsuarioAutenticado;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+
+import java.sql.SQLException;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Busca textual em títulos e descrições de projetos, atividades e subatividades, ordenada por
+ * relevância e com o trecho encontrado destacado. Usuários comuns buscam só na empresa do token.
+ */
+@Path("/busca")
+@Produces(MediaType.APPLICATION_JSON)
+@Secured
+public class BuscaResource {
+    private static final Logger LOGGER = Logger.getLogger(BuscaResource.class.getName());
+    private static final int LIMITE_PADRAO = 20;
+    private static final int LIMITE_MAXIMO = 100;
+    private static final int TAMANHO_MAXIMO_TERMOS = 200;
+
+    @GET
+    public Response buscar(@QueryParam("q") String termos,
+                           @QueryParam("empresa") Long empresaId,
+                           @QueryParam("tipo") String tipoParam,
+                           @QueryParam("limit") Integer limit,
+                           @Context SecurityContext securityContext) {
+        // A empresa vem do token; ?empresa= só escolhe uma para quem não tem (SUPER_ADMIN)
+        if (!(securityContext.getUserPrincipal() instanceof UsuarioAutenticado usuario)) {
+            return error(Response.Status.UNAUTHORIZED, "Usuário não autenticado");
+        }
+        Long empresa = usuario.empresaId() != null ? usuario.empresaId() : empresaId;
+        if (empresaId != null && !empresaId.equals(empresa)) {
+            return error(Response.Status.FORBIDDEN, "Sem acesso aos dados de outra empresa");
+        }
+        if (termos == null || termos.isBlank()) {
+            return error(Response.Status.BAD_REQUEST, "Informe o que buscar no parâmetro q");
+        }
+        if (termos.length() > TAMANHO_MAXIMO_TERMOS) {
+            return error(Response.Status.BAD_REQUEST, "Busca limitada a " + TAMANHO_MAXIMO_TERMOS + " caracteres");
+        }
+        int limite = limit != null ? limit : LIMITE_PADRAO;
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            return error(Response.Status.BAD_REQUEST, "limit deve estar entre 1 e " + LIMITE_MAXIMO);
+        }
+        Set<BuscaDAO.Tipo> tipos = EnumSet.allOf(BuscaDAO.Tipo.class);
+        if (tipoParam != null && !tipoParam.isBlank()) {
+            tipos = EnumSet.noneOf(BuscaDAO.Tipo.class);
+            for (String tipo : tipoParam.split(",")) {
+                try {
+                    tipos.add(BuscaDAO.Tipo.valueOf(tipo.trim().toUpperCase()));
+                } catch (IllegalArgumentException e) {
+                    return error(Response.Status.BAD_REQUEST,
+                            "Tipo inválido: " + tipo.trim() + " (use projeto, atividade ou subatividade)");
+                }
+            }
+            if (tipos.isEmpty()) {
+                return error(Response.Status.BAD_REQUEST, "Informe ao menos um tipo");
+            }
+        }
+
+        try (BuscaDAO dao = new BuscaDAO()) {
+            return Response.ok(dao.buscar(termos.trim(), empresa, tipos, limite)).build();
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Erro ao buscar \"" + termos + "\"", e);
+            return error(Response.Status.INTERNAL_SERVER_ERROR, "Erro ao buscar");
+        }
+    }
+
+    private static Response error(Response.Status status, String mensagem) {
+        return Response.status(status)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(Map.of("erro", mensagem))
+                .build();
+    }
+}
@@ -3,7 +3,7 @@ package br.com.fiap.resource;
 import br.com.fiap.dto.ChatIARequestDTO;
 import br.com.fiap.dao.ProjetoDAO;
 import br.com.fiap.dao.ClienteDAO;
-import br.com.fiap.factory.ConnectionFactory;
+import br.com.fiap.factory.UnitOfWork;
 import br.com.fiap.model.Projeto;
 import br.com.fiap.model.Cliente;
 import br.com.fiap.model.Empresa;
@@ -52,12 +52,14 @@ public class ChatIAResource {
         List<Projeto> projetos = Collections.emptyList();
         Map<Long, Cliente> clientesMap = new HashMap<>();
         Map<Long, Empresa> empresasMap = new HashMap<>();
-        try (ProjetoDAO projetoDAO = new ProjetoDAO();
+        // Os três DAOs compartilham a mesma conexão da unidade de trabalho
+        try (UnitOfWork uow = UnitOfWork.begin();
+             ProjetoDAO projetoDAO = new ProjetoDAO();
              ClienteDAO clienteDAO = new ClienteDAO();
              EmpresaDAO empresaDAO = new EmpresaDAO()) {
             projetos = projetoDAO.listarTodos();
             List<Cliente> clientes = clienteDAO.listarTodos();
-            List<Empresa> empresas = empresaDAO.listarTodos();
+            List<Empresa> empresas = empresaDAO.listarTodosDetalhados();
             for (Cliente c : clientes) {
                 clientesMap.put(c.getIdCliente(), c);
             }
@@ -90,6 +92,7 @@ public class ChatIAResource {
                     sb.append("\n");
                 }
             }
+            uow.commit();
         } catch (Exception e) {
             sb.append("[WARN] Falha ao buscar dados desnormalizados: ").append(e.getMessage()).append("\n");
         }
@@ -1,16 +1,26 @@
 package br.com.fiap.resource;
 
+import br.com.fiap.config.JacksonConfig;
 import br.com.fiap.dao.ClienteDAO;
+import br.com.fiap.dao.ResultadoEscrita;
 import br.com.fiap.dto.CadastroClienteDTO;
 import br.com.fiap.dto.ClienteResponseDTO;
+import br.com.fiap.exception.ConflictException;
 import br.com.fiap.model.Cliente;
 import br.com.fiap.security.PasswordHasher;
 import jakarta.ws.rs.*;
 import jakarta.transaction.Transactional;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import com.fasterxml.jackson.core.JsonGenerator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -21,6 +31,12 @@ import java.util.stream.Collectors;
 @Consumes(MediaType.APPLICATION_JSON)
 public class ClienteResource {
     private static final Logger LOGGER = Logger.getLogger(ClienteResource.class.getName());
+    private static final int LIMITE_PADRAO = 50;
+    private static final int LIMITE_MAXIMO = 200;
+    private static final int LIMITE_SUGESTOES = 10;
+    private static final int LIMITE_MAXIMO_SUGESTOES = 50;
+    // Valores do enum tipo_role; outro valor no filtro quebraria o cast no banco
+    private static final List<String> ROLES = List.of("GERENTE", "CLIENTE", "ACOMPANHANTE", "ADMIN", "SUPER_ADMIN");
 
     @POST
     @Transactional
@@ -36,13 +52,8 @@ public class ClienteResource {
         }
 
         try (var dao = new ClienteDAO()) {
-            // Verifica se já existe cliente com o mesmo CPF ou e-mail
+            // Duplicidade de CPF/e-mail é detectada pelo próprio INSERT (índices únicos)
             String cpfLimpo = dto.getCpf().replaceAll("[^0-9]", "");
-            if (dao.pesquisarPorCpf(cpfLimpo).isPresent()) {
-                LOGGER.warning("Tentativa de cadastrar CPF duplicado: " + cpfLimpo);
-                return error(Response.Status.CONFLICT,
-                        "Já existe um cliente cadastrado com este CPF");
-            }
 
             // Cria e salva o cliente
             var cliente = new Cliente(
@@ -59,12 +70,7 @@ public class ClienteResource {
                     dto.getSenha() == null ? null : PasswordHasher.hash(dto.getSenha().toCharArray())
             );
 
-            long id = dao.cadastrar(cliente);
-            cliente = dao.pesquisarPorId(id)
-                    .orElseThrow(() -> new WebApplicationException(
-                            "Erro ao recuperar cliente cadastrado",
-                            Response.Status.INTERNAL_SERVER_ERROR
-                    ));
+            cliente = dao.cadastrar(cliente);
 
             // Nunca exponha a senha em respostas (já não está no DTO), mas garanta que não vazará via logs
             cliente.setSenha(null);
@@ -74,6 +80,9 @@ public class ClienteResource {
                     .entity(toDto(cliente))
                     .build();
 
+        } catch (ConflictException e) {
+            LOGGER.warning("Tentativa de cadastro duplicado: " + e.getMessage());
+            return error(Response.Status.CONFLICT, e.getMessage());
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Erro ao processar requisição", e);
             return error(Response.Status.INTERNAL_SERVER_ERROR,
@@ -81,16 +90,50 @@ public class ClienteResource {
         }
     }
 
+    /**
+     * Autocompletar: até {@code limit} clientes cujo nome contém ou lembra {@code q}, opcionalmente
+     * só os da {@code empresa}. Termos com menos de 2 caracteres devolvem lista vazia.
+     */
+    @GET
+    @Path("/sugestoes")
+    public Response sugerir(@QueryParam("q") String termo,
+                            @QueryParam("empresa") Long idEmpresa,
+                            @QueryParam("limit") Integer limit) {
+        int limite = limit != null ? limit : LIMITE_SUGESTOES;
+        if (termo == null || limite < 1 || limite > LIMITE_MAXIMO_SUGESTOES) {
+            return error(Response.Status.BAD_REQUEST, "Informe q e limit entre 1 e " + LIMITE_MAXIMO_SUGESTOES);
+        }
+        try (var dao = new ClienteDAO()) {
+            return Response.ok(dao.sugerir(termo, idEmpresa, limite))
+                    .header("Cache-Control", "private, max-age=10")
+                    .build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Erro ao sugerir clientes", e);
+            return error(Response.Status.INTERNAL_SERVER_ERROR, "Erro ao sugerir clientes");
+        }
+    }
+
     @GET
     @Path("/{id}")
-    public Response buscarPorId(@PathParam("id") long id) {
+    public Response buscarPorId(@PathParam("id") long id, @Context Request request, @Context HttpHeaders headers) {
         LOGGER.log(Level.INFO, "Buscando cliente ID: {0}", id);
 
         try (var dao = new ClienteDAO()) {
+            // Com If-None-Match, só a versão é lida; se o cliente já tem essa, responde 304
+            if (headers.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null) {
+                OptionalLong versao = dao.versao(id);
+                if (versao.isEmpty()) {
+                    return error(Response.Status.NOT_FOUND, "Cliente não encontrado: " + id);
+                }
+                Response naoModificado = Versoes.naoModificado(request, versao.getAsLong());
+                if (naoModificado != null) {
+                    return naoModificado;
+                }
+            }
             return dao.pesquisarPorId(id)
                     .map(cliente -> {
                         LOGGER.info("Cliente encontrado: " + cliente.getNome());
-                        return Response.ok(toDto(cliente)).build();
+                        return Response.ok(toDto(cliente)).tag(Versoes.etag(cliente.getVersao())).build();
                     })
                     .orElseGet(() -> {
                         LOGGER.warning("Cliente não encontrado com ID: " + id);
@@ -105,7 +148,14 @@ public class ClienteResource {
     }
 
     @GET
-    public Response listarTodos() {
+    public Response listarTodos(@QueryParam("page") Integer page,
+                                @QueryParam("limit") Integer limit,
+                                @QueryParam("empresa") Long empresa,
+                                @QueryParam("role") String role,
+                                @QueryParam("ativo") Boolean ativo) {
+        if (page != null || limit != null || empresa != null || role != null || ativo != null) {
+            return listarPagina(page, limit, empresa, role, ativo);
+        }
         LOGGER.info("Listando todos os clientes");
 
         try (var dao = new ClienteDAO()) {
@@ -123,12 +173,61 @@ public class ClienteResource {
         }
     }
 
+    /**
+     * Exporta todos os clientes como um array JSON escrito linha a linha conforme o cursor avança,
+     * sem montar a lista em memória.
+     */
+    @GET
+    @Path("/stream")
+    public Response streamTodos() {
+        LOGGER.info("Exportando todos os clientes em streaming");
+
+        StreamingOutput saida = output -> {
+            try (var dao = new ClienteDAO();
+                 JsonGenerator gerador = JacksonConfig.criarGeradorStream(output)) {
+                gerador.writeStartArray();
+                dao.percorrerTodos(cliente -> JacksonConfig.getWriterStream().writeValue(gerador, toDto(cliente)));
+                gerador.writeEndArray();
+            }
+        };
+        return Response.ok(saida, MediaType.APPLICATION_JSON).build();
+    }
+
+    // Listagem paginada e filtrada; o total vai no cabeçalho X-Total-Count
+    private Response listarPagina(Integer page, Integer limit, Long empresa, String role, Boolean ativo) {
+        int pagina = page != null ? page : 1;
+        int limite = limit != null ? limit : LIMITE_PADRAO;
+        if (pagina < 1 || limite < 1 || limite > LIMITE_MAXIMO) {
+            return error(Response.Status.BAD_REQUEST,
+                    "page deve ser >= 1 e limit entre 1 e " + LIMITE_MAXIMO);
+        }
+        if (role != null && !ROLES.contains(role)) {
+            return error(Response.Status.BAD_REQUEST, "role deve ser um de: " + String.join(", ", ROLES));
+        }
+        LOGGER.log(Level.INFO, "Listando clientes - página {0}, limite {1}", new Object[]{pagina, limite});
+
+        try (var dao = new ClienteDAO()) {
+            List<ClienteResponseDTO> clientes = dao.listarPagina(empresa, role, ativo, pagina, limite).stream()
+                    .map(this::toDto)
+                    .collect(Collectors.toList());
+
+            return Response.ok(clientes)
+                    .header("X-Total-Count", dao.contar(empresa, role, ativo))
+                    .build();
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Erro ao listar clientes", e);
+            return error(Response.Status.INTERNAL_SERVER_ERROR,
+                    "Erro ao listar clientes");
+        }
+    }
+
     @PUT
     @Path("/{id}")
     @Transactional
     public Response atualizarCliente(
             @PathParam("id") long id,
-            CadastroClienteDTO dto) {
+            CadastroClienteDTO dto,
+            @Context HttpHeaders headers) {
 
         LOGGER.log(Level.INFO, "Atualizando cliente ID: {0}", id);
 
@@ -142,6 +241,11 @@ public class ClienteResource {
                                 Response.Status.NOT_FOUND
                         );
                     });
+            // If-Match: recusa já aqui se a versão lida não é a que o cliente tem; o UPDATE confere de novo
+            Long versaoEsperada = Versoes.esperada(headers);
+            if (versaoEsperada != null && versaoEsperada != cliente.getVersao().longValue()) {
+                return Versoes.precondicaoFalhou(cliente.getVersao());
+            }
 
             // Atualiza os dados do cliente com os valores do DTO
             // Verifique se os campos não são nulos antes de atualizar
@@ -206,11 +310,13 @@ public class ClienteResource {
             }
 
             // Salva as alterações
-            dao.atualizar(cliente);
-            LOGGER.info("Cliente atualizado com sucesso: " + id);
+            ResultadoEscrita resultado = dao.atualizar(cliente, versaoEsperada);
+            if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                LOGGER.info("Cliente atualizado com sucesso: " + id);
+            }
 
             cliente.setSenha(null); // por segurança
-            return Response.ok(toDto(cliente)).build();
+            return Versoes.escrita(resultado, "Cliente não encontrado: " + id, () -> Response.ok(toDto(cliente)));
 
         } catch (WebApplicationException e) {
             throw e;
@@ -221,23 +327,57 @@ public class ClienteResource {
         }
     }
 
+    /**
+     * JSON merge patch: grava só os campos enviados, sem ler o cliente antes.
+     * Senha recebe hash e CPF fica só com dígitos, como no cadastro.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({ProjetoResource.MERGE_PATCH, MediaType.APPLICATION_JSON})
+    @Transactional
+    public Response atualizarParcial(@PathParam("id") long id, Map<String, Object> patch,
+                                     @Context HttpHeaders headers) {
+        LOGGER.log(Level.INFO, "Atualizando parcialmente cliente ID: {0}", id);
+        if (patch == null) {
+            return error(Response.Status.BAD_REQUEST, "Informe os campos a alterar");
+        }
+        if (patch.get("senha") instanceof String senha) {
+            if (senha.trim().isEmpty()) {
+                return error(Response.Status.BAD_REQUEST, "Senha não pode ser vazia");
+            }
+            patch.put("senha", PasswordHasher.hash(senha.toCharArray()));
+        }
+        if (patch.get("cpf") instanceof String cpf) {
+            patch.put("cpf", cpf.replaceAll("[^0-9]", ""));
+        }
+
+        try (var dao = new ClienteDAO()) {
+            return Versoes.escrita(dao.atualizarParcial(id, patch, Versoes.esperada(headers)),
+                    "Cliente não encontrado: " + id, Response::noContent);
+        } catch (ConflictException e) {
+            return error(Response.Status.CONFLICT, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return error(Response.Status.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Erro ao atualizar cliente", e);
+            return error(Response.Status.INTERNAL_SERVER_ERROR, "Erro ao atualizar cliente");
+        }
+    }
+
     @DELETE
     @Path("/{id}")
     @Transactional
-    public Response removerCliente(@PathParam("id") long id) {
+    public Response removerCliente(@PathParam("id") long id, @Context HttpHeaders headers) {
         LOGGER.log(Level.INFO, "Removendo permanentemente cliente ID: {0}", id);
 
         try (var dao = new ClienteDAO()) {
-            if (!dao.existePorId(id)) {
+            ResultadoEscrita resultado = dao.remover(id, Versoes.esperada(headers));
+            if (resultado.situacao() == ResultadoEscrita.Situacao.NAO_ENCONTRADO) {
                 LOGGER.warning("Tentativa de remover cliente inexistente: " + id);
-                return error(Response.Status.NOT_FOUND,
-                        "Cliente não encontrado: " + id);
+            } else if (resultado.situacao() == ResultadoEscrita.Situacao.GRAVADO) {
+                LOGGER.info("Cliente removido permanentemente com sucesso: " + id);
             }
-
-            // Realiza a exclusão
-            dao.remover(id);
-            LOGGER.info("Cliente removido permanentemente com sucesso: " + id);
-            return Response.noContent().build();
+            return Versoes.remocao(resultado, "Cliente não encontrado: " + id, Response::noContent);
 
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Erro ao remover cliente", e);
@@ -282,8 +422,8 @@ public class ClienteResource {
     public Response options() {
         return Response.ok()
                 .header("Access-Control-Allow-Origin", "*")
-                .header("Access-Control-Allow-Methods", "GET,POST,PUT,DELETE,OPTIONS,HEAD")
-                .header("Access-Control-Allow-Headers", "Content-Type,Authorization")
+                .header("Access-Control-Allow-Methods", "GET,POST,PUT,PATCH,DELETE,OPTIONS,HEAD")
+                .header("Access-Control-Allow-Headers", "Content-Type,Authorization,If-Match,If-None-Match")
                 .build();
     }
 }
\ No newline at end of file
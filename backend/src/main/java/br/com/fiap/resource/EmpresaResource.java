@@ -2,14 +2,23 @@ package br.com.fiap.resource;
 
 import br.com.fiap.annotation.Secured;
 import br.com.fiap.dao.EmpresaDAO;
+import br.com.fiap.dao.ResumoProjetoDAO;
+import br.com.fiap.dto.ResumoEmpresaDTO;
+import br.com.fiap.exception.ConflictException;
 import br.com.fiap.model.Empresa;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
 
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
 
 @Path("/empresas")
 @Produces(MediaType.APPLICATION_JSON)
@@ -17,14 +26,65 @@ import java.util.List;
 // @Secured // Temporarily disabled for testing
 public class EmpresaResource {
 
+    private static final String TABELA = "TB_EMPRESA";
+    private static final int LIMITE_PADRAO = 50;
+    private static final int LIMITE_MAXIMO = 200;
+    private static final int LIMITE_SUGESTOES = 10;
+    private static final int LIMITE_MAXIMO_SUGESTOES = 50;
+
+    // Listagens servidas do cache de respostas até a próxima escrita em TB_EMPRESA
     @GET
-    public Response listarEmpresas() {
+    public Response listarEmpresas(@QueryParam("page") Integer page,
+                                   @QueryParam("limit") Integer limit,
+                                   @QueryParam("estado") String estado,
+                                   @QueryParam("cidade") String cidade,
+                                   @QueryParam("setorAtuacao") String setorAtuacao,
+                                   @QueryParam("ativo") Boolean ativo,
+                                   @Context UriInfo uriInfo, @Context Request request, @Context HttpHeaders headers,
+                                   @Context SecurityContext securityContext) {
+        String chave = RespostasSerializadas.chave(uriInfo, securityContext);
+        if (page != null || limit != null || estado != null || cidade != null || setorAtuacao != null || ativo != null) {
+            return listarPagina(page, limit, estado, cidade, setorAtuacao, ativo, chave, request, headers);
+        }
         System.out.println("Endpoint /api/empresas acessado"); // Log temporário
-        try (EmpresaDAO dao = new EmpresaDAO()) {
-            // Temporarily return all companies for testing (without authentication)
-            List<Empresa> empresas = dao.listarTodos();
-            System.out.println("Número de empresas encontradas: " + empresas.size()); // Log temporário
-            return Response.ok(empresas).build();
+        try {
+            return RespostasSerializadas.servir(chave, request, headers, () -> {
+                try (EmpresaDAO dao = new EmpresaDAO()) {
+                    // Temporarily return all companies for testing (without authentication)
+                    List<Empresa> empresas = dao.listarTodos();
+                    System.out.println("Número de empresas encontradas: " + empresas.size()); // Log temporário
+                    return RespostasSerializadas.Conteudo.de(empresas, Map.of(), Set.of(TABELA));
+                }
+            });
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"erro\":\"Erro ao listar empresas\"}")
+                    .build();
+        }
+    }
+
+    // Listagem paginada e filtrada; o total vai no cabeçalho X-Total-Count
+    private Response listarPagina(Integer page, Integer limit, String estado, String cidade,
+                                  String setorAtuacao, Boolean ativo, String chave, Request request,
+                                  HttpHeaders headers) {
+        int pagina = page != null ? page : 1;
+        int limite = limit != null ? limit : LIMITE_PADRAO;
+        if (pagina < 1 || limite < 1 || limite > LIMITE_MAXIMO) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"page deve ser >= 1 e limit entre 1 e " + LIMITE_MAXIMO + "\"}")
+                    .build();
+        }
+
+        try {
+            return RespostasSerializadas.servir(chave, request, headers, () -> {
+                try (EmpresaDAO dao = new EmpresaDAO()) {
+                    List<Empresa> empresas = dao.listarPagina(estado, cidade, setorAtuacao, ativo, pagina, limite);
+                    long total = dao.contar(estado, cidade, setorAtuacao, ativo);
+                    return RespostasSerializadas.Conteudo.de(empresas,
+                            Map.of("X-Total-Count", String.valueOf(total)), Set.of(TABELA));
+                }
+            });
         } catch (Exception e) {
             e.printStackTrace();
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -33,12 +93,41 @@ public class EmpresaResource {
         }
     }
 
+    /**
+     * Autocompletar: até {@code limit} empresas cuja razão social ou nome fantasia contém ou lembra
+     * {@code q}. Termos com menos de 2 caracteres devolvem lista vazia.
+     */
+    @GET
+    @Path("/sugestoes")
+    public Response sugerir(@QueryParam("q") String termo, @QueryParam("limit") Integer limit) {
+        int limite = limit != null ? limit : LIMITE_SUGESTOES;
+        if (termo == null || limite < 1 || limite > LIMITE_MAXIMO_SUGESTOES) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"Informe q e limit entre 1 e " + LIMITE_MAXIMO_SUGESTOES + "\"}")
+                    .build();
+        }
+        try (EmpresaDAO dao = new EmpresaDAO()) {
+            return Response.ok(dao.sugerir(termo, limite))
+                    .header("Cache-Control", "private, max-age=10")
+                    .build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"erro\":\"Erro ao sugerir empresas\"}")
+                    .build();
+        }
+    }
+
     @POST
     public Response cadastrar(Empresa empresa, @Context SecurityContext securityContext) {
         try (EmpresaDAO dao = new EmpresaDAO()) {
-            long id = dao.cadastrar(empresa);
+            Empresa criada = dao.cadastrar(empresa);
             return Response.status(Response.Status.CREATED)
-                    .entity("{\"id\":" + id + "}")
+                    .entity(criada)
+                    .build();
+        } catch (ConflictException e) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("{\"erro\":\"" + e.getMessage() + "\"}")
                     .build();
         } catch (Exception e) {
             e.printStackTrace();
@@ -50,10 +139,22 @@ public class EmpresaResource {
 
     @GET
     @Path("/{id}")
-    public Response buscarPorId(@PathParam("id") Long id, @Context SecurityContext securityContext) {
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request, @Context HttpHeaders headers,
+                                @Context SecurityContext securityContext) {
         try (EmpresaDAO dao = new EmpresaDAO()) {
+            // Com If-None-Match, só a versão é lida; se o cliente já tem essa, responde 304 sem montar a empresa
+            if (headers.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null) {
+                OptionalLong versao = dao.versao(id);
+                if (versao.isEmpty()) {
+                    return Response.status(Response.Status.NOT_FOUND).build();
+                }
+                Response naoModificado = Versoes.naoModificado(request, versao.getAsLong());
+                if (naoModificado != null) {
+                    return naoModificado;
+                }
+            }
             return dao.pesquisarPorId(id)
-                    .map(empresa -> Response.ok(empresa).build())
+                    .map(empresa -> Response.ok(empresa).tag(Versoes.etag(empresa.getVersao())).build())
                     .orElse(Response.status(Response.Status.NOT_FOUND).build());
         } catch (Exception e) {
             e.printStackTrace();
@@ -63,13 +164,61 @@ public class EmpresaResource {
         }
     }
 
+    /**
+     * Totais de atividades e subatividades por status, atrasadas e percentual concluído somando
+     * todos os projetos da empresa.
+     */
+    @GET
+    @Path("/{id}/resumo")
+    public Response resumir(@PathParam("id") Long id) {
+        try (ResumoProjetoDAO dao = new ResumoProjetoDAO()) {
+            ResumoEmpresaDTO resumo = dao.resumirEmpresa(id);
+            if (resumo == null) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            return Response.ok(resumo).build();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"erro\":\"Erro ao resumir empresa\"}")
+                    .build();
+        }
+    }
+
     @PUT
     @Path("/{id}")
-    public Response atualizar(@PathParam("id") Long id, Empresa empresa, @Context SecurityContext securityContext) {
+    public Response atualizar(@PathParam("id") Long id, Empresa empresa, @Context HttpHeaders headers,
+                              @Context SecurityContext securityContext) {
         try (EmpresaDAO dao = new EmpresaDAO()) {
             empresa.setIdEmpresa(id);
-            dao.atualizar(empresa);
-            return Response.ok().build();
+            return Versoes.escrita(dao.atualizar(empresa, Versoes.esperada(headers)),
+                    "Empresa não encontrada", Response::ok);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"erro\":\"Erro ao atualizar empresa\"}")
+                    .build();
+        }
+    }
+
+    /**
+     * JSON merge patch: grava só os campos enviados (null limpa o campo), sem ler a empresa antes.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({ProjetoResource.MERGE_PATCH, MediaType.APPLICATION_JSON})
+    public Response atualizarParcial(@PathParam("id") Long id, Map<String, Object> patch,
+                                     @Context HttpHeaders headers, @Context SecurityContext securityContext) {
+        if (patch == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"Informe os campos a alterar\"}")
+                    .build();
+        }
+        try (EmpresaDAO dao = new EmpresaDAO()) {
+            return Versoes.escrita(dao.atualizarParcial(id, patch, Versoes.esperada(headers)),
+                    "Empresa não encontrada", Response::noContent);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(Map.of("erro", e.getMessage())).build();
         } catch (Exception e) {
             e.printStackTrace();
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -80,10 +229,11 @@ public class EmpresaResource {
 
     @DELETE
     @Path("/{id}")
-    public Response remover(@PathParam("id") Long id, @Context SecurityContext securityContext) {
+    public Response remover(@PathParam("id") Long id, @Context HttpHeaders headers,
+                            @Context SecurityContext securityContext) {
         try (EmpresaDAO dao = new EmpresaDAO()) {
-            dao.remover(id);
-            return Response.ok().build();
+            return Versoes.remocao(dao.remover(id, Versoes.esperada(headers)),
+                    "Empresa não encontrada", Response::ok);
         } catch (Exception e) {
             e.printStackTrace();
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -96,8 +246,8 @@ public class EmpresaResource {
     public Response options() {
         return Response.ok()
                 .header("Access-Control-Allow-Origin", "http://localhost:5173")
-                .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
-                .header("Access-Control-Allow-Headers", "Content-Type, Authorization, Accept, Origin")
+                .header("Access-Control-Allow-Methods", "GET, POST, PUT, PATCH, DELETE, OPTIONS")
+                .header("Access-Control-Allow-Headers", "Content-Type, Authorization, Accept, Origin, If-Match, If-None-Match")
                 .header("Access-Control-Allow-Credentials", "true")
                 .build();
     }
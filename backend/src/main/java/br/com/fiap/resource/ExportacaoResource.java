@@ -0,0 +1,142 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.annotation.Secured;
+import br.com.fiap.dao.AtividadeDAO;
+import br.com.fiap.dao.EmpresaDAO;
+import br.com.fiap.dao.FormatoArquivo;
+import br.com.fiap.dao.ProjetoDAO;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.glassfish.grizzly.http.server.Request;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação dos projetos, atividades ou subatividades de uma empresa em CSV ou NDJSON.
+ * As linhas saem do COPY TO STDOUT direto para a resposta (comprimida com gzip quando o
+ * cliente aceita), então o volume exportado não pesa na memória do servidor.
+ */
+@Path("/exportacao")
+@Produces(MediaType.APPLICATION_JSON)
+@Secured
+public class ExportacaoResource {
+    private static final Logger LOGGER = Logger.getLogger(ExportacaoResource.class.getName());
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    @FunctionalInterface
+    private interface Exportador {
+        long exportar(long idEmpresa, FormatoArquivo formato, OutputStream saida) throws SQLException, IOException;
+    }
+
+    @GET
+    @Path("/{entidade}")
+    @Produces({"text/csv", "application/x-ndjson", MediaType.APPLICATION_JSON})
+    public Response exportar(@PathParam("entidade") String entidade,
+                             @QueryParam("empresa") Long idEmpresa,
+                             @QueryParam("formato") @DefaultValue("csv") String formatoParam,
+                             @Context HttpHeaders headers,
+                             @Context SecurityContext securityContext,
+                             @Context Request requisicao) {
+        if (!securityContext.isUserInRole("SUPER_ADMIN") && !securityContext.isUserInRole("ADMIN")) {
+            return error(Response.Status.FORBIDDEN, "Sem permissão para exportar dados");
+        }
+        Exportador exportador = switch (entidade) {
+            case "projetos" -> (id, formato, saida) -> {
+                try (ProjetoDAO dao = new ProjetoDAO()) {
+                    return dao.exportarPorEmpresa(id, formato, saida);
+                }
+            };
+            case "atividades" -> (id, formato, saida) -> {
+                try (AtividadeDAO dao = new AtividadeDAO()) {
+                    return dao.exportarPorEmpresa(id, formato, saida);
+                }
+            };
+            case "subatividades" -> (id, formato, saida) -> {
+                try (AtividadeDAO dao = new AtividadeDAO()) {
+                    return dao.exportarSubatividadesPorEmpresa(id, formato, saida);
+                }
+            };
+            default -> null;
+        };
+        if (exportador == null) {
+            return error(Response.Status.NOT_FOUND, "Entidade não exportável: " + entidade);
+        }
+        if (idEmpresa == null) {
+            return error(Response.Status.BAD_REQUEST, "Parâmetro empresa é obrigatório");
+        }
+        FormatoArquivo formato;
+        try {
+            formato = FormatoArquivo.valueOf(formatoParam.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return error(Response.Status.BAD_REQUEST, "Formato inválido: use csv ou ndjson");
+        }
+        // Depois do primeiro byte o status já foi enviado; a empresa é conferida antes
+        try (EmpresaDAO empresaDAO = new EmpresaDAO()) {
+            if (empresaDAO.pesquisarPorId(idEmpresa).isEmpty()) {
+                return error(Response.Status.NOT_FOUND, "Empresa não encontrada");
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Erro ao verificar empresa " + idEmpresa, e);
+            return error(Response.Status.INTERNAL_SERVER_ERROR, "Erro ao exportar dados");
+        }
+
+        boolean gzip = RespostasSerializadas.aceitaGzip(headers);
+        long empresa = idEmpresa;
+        StreamingOutput corpo = output -> {
+            OutputStream destino = gzip ? new GZIPOutputStream(output, TAMANHO_BUFFER) : output;
+            // O COPY entrega uma linha por chamada; o buffer junta as escritas pequenas
+            OutputStream saida = new BufferedOutputStream(destino, TAMANHO_BUFFER);
+            long linhas;
+            try {
+                linhas = exportador.exportar(empresa, formato, saida);
+            } catch (SQLException | IOException | RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Erro ao exportar " + entidade, e);
+                interromper(requisicao);
+                throw new IOException("Erro ao exportar " + entidade, e);
+            }
+            // Só aqui o gzip escreve o trailer: arquivo completo
+            saida.close();
+            LOGGER.fine(() -> "Exportação de " + entidade + " da empresa " + empresa + ": " + linhas + " linhas");
+        };
+        String tipo = formato == FormatoArquivo.CSV ? formato.getMediaType() + "; charset=UTF-8" : formato.getMediaType();
+        Response.ResponseBuilder resposta = Response.ok(corpo, tipo)
+                .header("Content-Disposition", "attachment; filename=\"" + entidade + "-empresa-" + empresa
+                        + "." + formato.getExtensao() + (gzip ? ".gz\"" : "\""))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            resposta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return resposta.build();
+    }
+
+    /**
+     * Antes do primeiro envio a exceção ainda vira um 500. Depois, o status 200 já saiu e o Grizzly
+     * encerraria o corpo chunked normalmente: um CSV cortado chegaria com cara de arquivo completo.
+     * Sem fechar o gzip (que escreveria o trailer) e derrubando a conexão, o cliente vê a
+     * transferência interrompida.
+     */
+    private static void interromper(Request requisicao) {
+        if (requisicao.getResponse().isCommitted()) {
+            requisicao.getContext().getConnection().closeSilently();
+        }
+    }
+
+    private static Response error(Response.Status status, String mensagem) {
+        return Response.status(status)
+                .type(MediaType.APPLICATION_JSON)
+                .entity(Map.of("erro", mensagem))
+                .build();
+    }
+}
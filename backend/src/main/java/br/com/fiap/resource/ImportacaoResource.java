@@ -0,0 +1,84 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.annotation.Secured;
+import br.com.fiap.dao.FormatoArquivo;
+import br.com.fiap.dto.ResultadoImportacaoDTO;
+import br.com.fiap.service.ImportacaoService;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Carga em massa de empresas e clientes (CSV com cabeçalho ou NDJSON).
+ * Cada requisição é uma transação: as linhas válidas entram juntas e as rejeitadas
+ * voltam listadas na resposta, sem impedir as demais.
+ */
+@Path("/importacao")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes({ImportacaoResource.TEXT_CSV, ImportacaoResource.APPLICATION_NDJSON})
+@Secured
+public class ImportacaoResource {
+    private static final Logger LOGGER = Logger.getLogger(ImportacaoResource.class.getName());
+    static final String TEXT_CSV = "text/csv";
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private final ImportacaoService service = new ImportacaoService();
+
+    @POST
+    @Path("/empresas")
+    @Transactional
+    public Response importarEmpresas(InputStream entrada, @Context HttpHeaders headers,
+                                     @Context SecurityContext securityContext) {
+        if (!securityContext.isUserInRole("SUPER_ADMIN")) {
+            return error(Response.Status.FORBIDDEN, "Apenas SUPER_ADMIN pode importar empresas");
+        }
+        try {
+            ResultadoImportacaoDTO resultado = service.importarEmpresas(entrada, formato(headers));
+            return Response.ok(resultado).build();
+        } catch (IllegalArgumentException e) {
+            return error(Response.Status.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Erro ao importar empresas", e);
+            return error(Response.Status.INTERNAL_SERVER_ERROR, "Erro ao importar empresas");
+        }
+    }
+
+    @POST
+    @Path("/clientes")
+    @Transactional
+    public Response importarClientes(InputStream entrada, @Context HttpHeaders headers,
+                                     @Context SecurityContext securityContext) {
+        if (!securityContext.isUserInRole("SUPER_ADMIN") && !securityContext.isUserInRole("ADMIN")) {
+            return error(Response.Status.FORBIDDEN, "Sem permissão para importar clientes");
+        }
+        try {
+            ResultadoImportacaoDTO resultado = service.importarClientes(entrada, formato(headers));
+            return Response.ok(resultado).build();
+        } catch (IllegalArgumentException e) {
+            return error(Response.Status.BAD_REQUEST, e.getMessage());
+        } catch (Exception e) {
+            LOGGER.log(Level.SEVERE, "Erro ao importar clientes", e);
+            return error(Response.Status.INTERNAL_SERVER_ERROR, "Erro ao importar clientes");
+        }
+    }
+
+    private static FormatoArquivo formato(HttpHeaders headers) {
+        MediaType tipo = headers.getMediaType();
+        return tipo != null && tipo.isCompatible(MediaType.valueOf(TEXT_CSV)) ? FormatoArquivo.CSV : FormatoArquivo.NDJSON;
+    }
+
+    private static Response error(Response.Status status, String mensagem) {
+        return Response.status(status)
+                .entity(Map.of("erro", mensagem))
+                .build();
+    }
+}
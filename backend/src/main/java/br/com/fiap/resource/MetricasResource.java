@@ -0,0 +1,39 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.dao.CacheLimitado;
+import br.com.fiap.dao.LeiturasEmAndamento;
+import br.com.fiap.dao.OuvinteInvalidacao;
+import br.com.fiap.factory.ConnectionFactory;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+
+@Path("/metricas")
+@Produces(MediaType.APPLICATION_JSON)
+public class MetricasResource {
+
+    @GET
+    @Path("/pool")
+    public Response pool() {
+        return Response.ok(ConnectionFactory.getEstatisticasPool()).build();
+    }
+
+    @GET
+    @Path("/cache")
+    public Response cache() {
+        Map<String, Object> stats = CacheLimitado.estatisticasDeTodos();
+        stats.put("invalidacaoEntreNos", OuvinteInvalidacao.estatisticas());
+        return Response.ok(stats).build();
+    }
+
+    // Leituras idênticas simultâneas atendidas por uma só ida ao banco
+    @GET
+    @Path("/leituras")
+    public Response leituras() {
+        return Response.ok(LeiturasEmAndamento.estatisticasDeTodas()).build();
+    }
+}
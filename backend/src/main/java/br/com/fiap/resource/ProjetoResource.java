@@ -1,16 +1,38 @@
 package br.com.fiap.resource;
 
 import br.com.fiap.annotation.Secured;
+import br.com.fiap.config.JacksonConfig;
+import br.com.fiap.dao.AtividadeDAO;
+import br.com.fiap.dao.CursorProjeto;
 import br.com.fiap.dao.ProjetoDAO;
+import br.com.fiap.dao.RespostasEmCache;
+import br.com.fiap.dao.ResumoProjetoDAO;
+import br.com.fiap.dao.SubAtividadeDAO;
+import br.com.fiap.dto.CadastroAtividadeDTO;
+import br.com.fiap.dto.CadastroSubAtividadeDTO;
+import br.com.fiap.model.Atividade;
 import br.com.fiap.model.Projeto;
+import br.com.fiap.model.SubAtividade;
+import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.StreamingOutput;
+import jakarta.ws.rs.core.UriInfo;
+import com.fasterxml.jackson.core.JsonGenerator;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Path("/projetos")
 @Produces(MediaType.APPLICATION_JSON)
@@ -18,19 +40,32 @@ import java.util.List;
 @Secured
 public class ProjetoResource {
 
+    private static final int LIMITE_PADRAO = 20;
+    private static final int LIMITE_MAXIMO = 100;
+    // Itens aceitos por requisição nos endpoints :batch
+    private static final int LIMITE_LOTE = 1000;
+    // Media type do JSON merge patch (RFC 7396), aceito também pelos PATCH de empresas e clientes
+    static final String MERGE_PATCH = "application/merge-patch+json";
+
     @OPTIONS
     public Response options() {
         return Response.ok()
                 .header("Access-Control-Allow-Origin", "http://localhost:5173")
-                .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS")
-                .header("Access-Control-Allow-Headers", "Content-Type, Authorization, Accept, Origin")
+                .header("Access-Control-Allow-Methods", "GET, POST, PUT, PATCH, DELETE, OPTIONS")
+                .header("Access-Control-Allow-Headers", "Content-Type, Authorization, Accept, Origin, If-Match, If-None-Match")
                 .header("Access-Control-Allow-Credentials", "true")
                 .build();
     }
 
     @GET
-    public Response listarPorEmpresa(@QueryParam("empresa") Long empresaId, @Context SecurityContext securityContext) {
+    public Response listarPorEmpresa(@QueryParam("empresa") Long empresaId,
+                                     @QueryParam("cursor") String cursor,
+                                     @QueryParam("limit") Integer limit,
+                                     @Context SecurityContext securityContext) {
         System.out.println("📋 GET /projetos - Listando projetos para empresa: " + empresaId);
+        if (cursor != null || limit != null) {
+            return listarPagina(empresaId, cursor, limit, securityContext);
+        }
         try (ProjetoDAO dao = new ProjetoDAO()) {
             List<Projeto> projetos;
 
@@ -59,6 +94,66 @@ public class ProjetoResource {
         }
     }
 
+    // Listagem paginada por cursor: ativa quando o cliente envia 'cursor' e/ou 'limit'
+    private Response listarPagina(Long empresaId, String cursor, Integer limit, SecurityContext securityContext) {
+        boolean superAdmin = securityContext.isUserInRole("SUPER_ADMIN");
+        if (!superAdmin && empresaId == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"ID da empresa é obrigatório\"}")
+                    .build();
+        }
+        if (limit != null && (limit < 1 || limit > LIMITE_MAXIMO)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"limit deve estar entre 1 e " + LIMITE_MAXIMO + "\"}")
+                    .build();
+        }
+
+        try (ProjetoDAO dao = new ProjetoDAO()) {
+            CursorProjeto posicao = cursor != null ? CursorProjeto.decodificar(cursor) : null;
+            // SUPER_ADMIN sem 'empresa' pagina sobre todas as empresas
+            return Response.ok(dao.listarPagina(empresaId, posicao, limit != null ? limit : LIMITE_PADRAO)).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"Cursor inválido\"}")
+                    .build();
+        } catch (SQLException e) {
+            System.err.println("❌ Erro SQL ao paginar projetos: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"erro\":\"Erro ao listar projetos\"}")
+                    .build();
+        }
+    }
+
+    /**
+     * Exporta todos os projetos como um array JSON escrito linha a linha conforme o cursor avança,
+     * sem montar a lista em memória.
+     */
+    @GET
+    @Path("/stream")
+    public Response streamTodos(@Context SecurityContext securityContext) {
+        System.out.println("📤 GET /projetos/stream - Exportando todos os projetos");
+        if (!securityContext.isUserInRole("SUPER_ADMIN")) {
+            return Response.status(Response.Status.FORBIDDEN)
+                    .entity("{\"erro\":\"Apenas SUPER_ADMIN pode exportar todos os projetos\"}")
+                    .build();
+        }
+
+        StreamingOutput saida = output -> {
+            try (ProjetoDAO dao = new ProjetoDAO();
+                 JsonGenerator gerador = JacksonConfig.criarGeradorStream(output)) {
+                gerador.writeStartArray();
+                dao.percorrerTodos(projeto -> JacksonConfig.getWriterStream().writeValue(gerador, projeto));
+                gerador.writeEndArray();
+            } catch (SQLException e) {
+                // O status 200 já foi enviado: o array fica sem o "]" e o cliente recebe um JSON inválido
+                System.err.println("❌ Erro SQL ao exportar projetos: " + e.getMessage());
+                throw new IOException("Erro ao exportar projetos", e);
+            }
+        };
+        return Response.ok(saida, MediaType.APPLICATION_JSON).build();
+    }
+
     @POST
     public Response cadastrar(Projeto projeto, @Context SecurityContext securityContext) {
         System.out.println("🚀 POST /projetos - Cadastrando novo projeto");
@@ -93,6 +188,11 @@ public class ProjetoResource {
                         .build();
             }
 
+            Response atividadesInvalidas = validarAtividadesIniciais(projeto);
+            if (atividadesInvalidas != null) {
+                return atividadesInvalidas;
+            }
+
             System.out.println("📊 Criando DAO...");
             try (ProjetoDAO dao = new ProjetoDAO()) {
                 if (!securityContext.isUserInRole("SUPER_ADMIN")) {
@@ -109,11 +209,23 @@ public class ProjetoResource {
                 Long id = dao.cadastrar(projeto);
                 System.out.println("✅ Projeto criado com ID: " + id);
 
+                if (projeto.getAtividades() == null || projeto.getAtividades().isEmpty()) {
+                    return Response.status(Response.Status.CREATED)
+                            .entity("{\"id\":" + id + "}")
+                            .build();
+                }
                 return Response.status(Response.Status.CREATED)
-                        .entity("{\"id\":" + id + "}")
+                        .entity(Map.of("id", id, "atividades", projeto.getAtividades()))
                         .build();
             }
         } catch (SQLException e) {
+            String estado = e.getSQLState() != null ? e.getSQLState() : "";
+            if (estado.startsWith("22") || estado.equals("23503")) {
+                // Status/prioridade inválidos, data malformada ou responsável/gerente inexistente
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"erro\":\"Dados inválidos no projeto ou em suas atividades\"}")
+                        .build();
+            }
             System.err.println("❌ Erro SQL ao cadastrar projeto: " + e.getMessage());
             System.err.println("❌ SQL State: " + e.getSQLState());
             System.err.println("❌ Error Code: " + e.getErrorCode());
@@ -131,13 +243,53 @@ public class ProjetoResource {
         }
     }
 
+    /**
+     * Painel de andamento: contagens de atividades e subatividades por status, atrasadas e
+     * percentual concluído de cada projeto, lidas do resumo mantido pelo banco a cada escrita.
+     */
+    @GET
+    @Path("/resumo")
+    public Response listarResumos(@QueryParam("empresa") Long empresaId, @Context SecurityContext securityContext) {
+        System.out.println("📊 GET /projetos/resumo - Resumo dos projetos da empresa: " + empresaId);
+        if (!securityContext.isUserInRole("SUPER_ADMIN") && empresaId == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"ID da empresa é obrigatório\"}")
+                    .build();
+        }
+        try (ResumoProjetoDAO dao = new ResumoProjetoDAO()) {
+            return Response.ok(dao.listarResumos(empresaId)).build();
+        } catch (SQLException e) {
+            System.err.println("❌ Erro SQL ao resumir projetos: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"erro\":\"Erro ao resumir projetos\"}")
+                    .build();
+        }
+    }
+
     @GET
     @Path("/{id}")
-    public Response buscarPorId(@PathParam("id") Long id) {
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request, @Context HttpHeaders headers) {
         System.out.println("🔍 GET /projetos/" + id + " - Buscando projeto por ID");
         try (ProjetoDAO dao = new ProjetoDAO()) {
+            // Com If-None-Match, só as versões são lidas; se o cliente já tem essas, responde 304 sem o resto.
+            // O corpo traz o nome do gerente, então a versão dele também entra na ETag
+            if (headers.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null) {
+                Optional<ProjetoDAO.VersoesProjeto> versoes = dao.versoes(id);
+                if (versoes.isEmpty()) {
+                    return Response.status(Response.Status.NOT_FOUND)
+                            .entity("{\"erro\":\"Projeto não encontrado\"}")
+                            .build();
+                }
+                Response naoModificado = Versoes.naoModificado(request,
+                        Versoes.etag(versoes.get().projeto(), versoes.get().gerente()));
+                if (naoModificado != null) {
+                    return naoModificado;
+                }
+            }
             return dao.pesquisarPorId(id)
-                    .map(projeto -> Response.ok(projeto).build())
+                    .map(projeto -> Response.ok(projeto)
+                            .tag(Versoes.etag(projeto.getVersao(), projeto.getVersaoGerente())).build())
                     .orElse(Response.status(Response.Status.NOT_FOUND)
                             .entity("{\"erro\":\"Projeto não encontrado\"}")
                             .build());
@@ -151,15 +303,20 @@ public class ProjetoResource {
     
     @GET
     @Path("/{id}/completo")
-    public Response buscarProjetoCompleto(@PathParam("id") Long id) {
+    public Response buscarProjetoCompleto(@PathParam("id") Long id,
+                                          @QueryParam("montagem") @DefaultValue("java") String montagem,
+                                          @Context UriInfo uriInfo, @Context Request request,
+                                          @Context HttpHeaders headers, @Context SecurityContext securityContext) {
         System.out.println("🔍 GET /projetos/" + id + "/completo - Buscando projeto com atividades e subatividades");
-        try (ProjetoDAO dao = new ProjetoDAO()) {
-            return dao.pesquisarPorIdComAtividades(id)
-                    .map(projeto -> Response.ok(projeto).build())
-                    .orElse(Response.status(Response.Status.NOT_FOUND)
-                            .entity("{\"erro\":\"Projeto não encontrado\"}")
-                            .build());
-        } catch (SQLException e) {
+        // A montagem pelo PostgreSQL aloca menos na JVM, mas mediu mais lenta (ProjetoCompletoBenchmark); só a pedido
+        RespostasSerializadas.Leitura leitura = "banco".equals(montagem) ? () -> lerArvoreDoBanco(id) : () -> lerArvore(id);
+        try {
+            Response resposta = RespostasSerializadas.servir(RespostasSerializadas.chave(uriInfo, securityContext),
+                    request, headers, leitura);
+            return resposta != null ? resposta : Response.status(Response.Status.NOT_FOUND)
+                    .entity("{\"erro\":\"Projeto não encontrado\"}")
+                    .build();
+        } catch (Exception e) {
             e.printStackTrace();
             return Response.serverError()
                     .entity("{\"erro\":\"Erro ao buscar projeto com atividades: " + e.getMessage() + "\"}")
@@ -167,17 +324,241 @@ public class ProjetoResource {
         }
     }
 
+    // Árvore montada em Java e serializada uma vez; os bytes ficam no cache de respostas com a variante gzip
+    // e a ETag. Quem abre o mesmo projeto ao mesmo tempo espera pela mesma leitura
+    private static RespostasSerializadas.Conteudo lerArvore(Long id) throws Exception {
+        try (ProjetoDAO dao = new ProjetoDAO()) {
+            Optional<Projeto> projeto = dao.pesquisarPorIdComAtividades(id);
+            if (projeto.isEmpty()) {
+                return null;
+            }
+            return RespostasSerializadas.Conteudo.de(projeto.get(), Map.of(),
+                    dependenciasArvore(id, projeto.get().getIdEmpresa(), projeto.get().getIdGerente()));
+        }
+    }
+
+    // JSON montado pelo PostgreSQL (?montagem=banco): os bytes vão direto para a resposta, sem mapear nem serializar
+    private static RespostasSerializadas.Conteudo lerArvoreDoBanco(Long id) throws Exception {
+        try (ProjetoDAO dao = new ProjetoDAO()) {
+            return dao.pesquisarArvore(id)
+                    .map(arvore -> new RespostasSerializadas.Conteudo(arvore.json(), Map.of(),
+                            dependenciasArvore(id, arvore.idEmpresa(), arvore.idGerente())))
+                    .orElse(null);
+        }
+    }
+
+    // O projeto (e suas atividades e subatividades), a empresa e o gerente, cujo nome vai no JSON.
+    // Remover um responsável de atividade conta como escrita no projeto (ver ClienteDAO.remover)
+    private static Set<String> dependenciasArvore(long idProjeto, long idEmpresa, Long idGerente) {
+        Set<String> dependencias = new HashSet<>();
+        dependencias.add(RespostasEmCache.linha("TB_PROJETO", idProjeto));
+        dependencias.add(RespostasEmCache.linha("TB_EMPRESA", idEmpresa));
+        if (idGerente != null) {
+            dependencias.add(RespostasEmCache.linha("TB_CLIENTE", idGerente));
+        }
+        return dependencias;
+    }
+
+    /**
+     * Cria várias atividades do projeto numa transação, com um único lote de INSERT.
+     * Devolve os ids gerados na mesma ordem da lista recebida.
+     */
+    @POST
+    @Path("/{id}/atividades:batch")
+    @Transactional
+    public Response cadastrarAtividadesEmLote(@PathParam("id") Long id, List<CadastroAtividadeDTO> dtos) {
+        System.out.println("📦 POST /projetos/" + id + "/atividades:batch - " + (dtos != null ? dtos.size() : 0) + " atividades");
+        Response invalido = validarLote(dtos);
+        if (invalido != null) {
+            return invalido;
+        }
+
+        List<Atividade> atividades = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            CadastroAtividadeDTO dto = dtos.get(i);
+            if (dto == null || dto.getTitulo() == null || dto.getTitulo().trim().isEmpty()) {
+                return erroLote(i, "título é obrigatório");
+            }
+            Atividade atividade = new Atividade();
+            atividade.setIdProjeto(id);
+            atividade.setIdResponsavel(dto.getIdResponsavel());
+            atividade.setTitulo(dto.getTitulo());
+            atividade.setDescricao(dto.getDescricao());
+            atividade.setDataInicioPrevista(dto.getDataInicioPrevista());
+            atividade.setDataTerminoPrevista(dto.getDataTerminoPrevista());
+            if (dto.getStatus() != null) atividade.setStatus(dto.getStatus());
+            if (dto.getPrioridade() != null) atividade.setPrioridade(dto.getPrioridade());
+            atividades.add(atividade);
+        }
+
+        try (ProjetoDAO projetoDAO = new ProjetoDAO(); AtividadeDAO dao = new AtividadeDAO()) {
+            if (projetoDAO.pesquisarPorId(id).isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("{\"erro\":\"Projeto não encontrado\"}")
+                        .build();
+            }
+            List<Long> ids = dao.cadastrarEmLote(atividades);
+            System.out.println("✅ " + ids.size() + " atividades criadas");
+            return Response.status(Response.Status.CREATED).entity(Map.of("ids", ids)).build();
+        } catch (SQLException e) {
+            return erroSqlLote("atividades", e);
+        }
+    }
+
+    /**
+     * Cria várias subatividades de atividades deste projeto numa transação, com um único lote de INSERT.
+     * Devolve os ids gerados na mesma ordem da lista recebida.
+     */
+    @POST
+    @Path("/{id}/subatividades:batch")
+    @Transactional
+    public Response cadastrarSubAtividadesEmLote(@PathParam("id") Long id, List<CadastroSubAtividadeDTO> dtos) {
+        System.out.println("📦 POST /projetos/" + id + "/subatividades:batch - " + (dtos != null ? dtos.size() : 0) + " subatividades");
+        Response invalido = validarLote(dtos);
+        if (invalido != null) {
+            return invalido;
+        }
+
+        List<SubAtividade> subAtividades = new ArrayList<>(dtos.size());
+        Set<Long> idsAtividade = new HashSet<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            CadastroSubAtividadeDTO dto = dtos.get(i);
+            if (dto == null || dto.getTitulo() == null || dto.getTitulo().trim().isEmpty()) {
+                return erroLote(i, "título é obrigatório");
+            }
+            if (dto.getIdAtividade() == null) {
+                return erroLote(i, "ID da atividade é obrigatório");
+            }
+            idsAtividade.add(dto.getIdAtividade());
+            subAtividades.add(new SubAtividade(dto.getIdAtividade(), dto.getTitulo(), dto.getDescricao(),
+                    dto.getDataInicioPrevista(), dto.getDataTerminoPrevista(), dto.getDataTerminoReal(),
+                    dto.getStatus(), dto.getPrioridade()));
+        }
+
+        try (AtividadeDAO atividadeDAO = new AtividadeDAO(); SubAtividadeDAO dao = new SubAtividadeDAO()) {
+            if (atividadeDAO.contarDoProjeto(id, idsAtividade) != idsAtividade.size()) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"erro\":\"Há atividades que não existem ou não pertencem ao projeto\"}")
+                        .build();
+            }
+            List<Long> ids = dao.cadastrarEmLote(subAtividades);
+            System.out.println("✅ " + ids.size() + " subatividades criadas");
+            return Response.status(Response.Status.CREATED).entity(Map.of("ids", ids)).build();
+        } catch (SQLException e) {
+            return erroSqlLote("subatividades", e);
+        }
+    }
+
+    // Atividades e subatividades enviadas junto com o projeto novo; o total segue o limite dos lotes
+    private static Response validarAtividadesIniciais(Projeto projeto) {
+        List<Atividade> atividades = projeto.getAtividades();
+        if (atividades == null) {
+            return null;
+        }
+        int total = 0;
+        for (int i = 0; i < atividades.size(); i++) {
+            Atividade atividade = atividades.get(i);
+            if (atividade == null || atividade.getTitulo() == null || atividade.getTitulo().trim().isEmpty()) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("{\"erro\":\"Atividade " + i + ": título é obrigatório\"}")
+                        .build();
+            }
+            total++;
+            List<SubAtividade> subAtividades = atividade.getSubatividades();
+            if (subAtividades == null) {
+                continue;
+            }
+            for (int j = 0; j < subAtividades.size(); j++) {
+                SubAtividade subAtividade = subAtividades.get(j);
+                if (subAtividade == null || subAtividade.getTitulo() == null || subAtividade.getTitulo().trim().isEmpty()) {
+                    return Response.status(Response.Status.BAD_REQUEST)
+                            .entity("{\"erro\":\"Atividade " + i + ", subatividade " + j + ": título é obrigatório\"}")
+                            .build();
+                }
+                total++;
+            }
+        }
+        if (total > LIMITE_LOTE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"Máximo de " + LIMITE_LOTE + " atividades e subatividades por projeto novo\"}")
+                    .build();
+        }
+        return null;
+    }
+
+    private static Response validarLote(List<?> itens) {
+        if (itens == null || itens.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"Informe ao menos um item\"}")
+                    .build();
+        }
+        if (itens.size() > LIMITE_LOTE) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"Máximo de " + LIMITE_LOTE + " itens por lote\"}")
+                    .build();
+        }
+        return null;
+    }
+
+    private static Response erroLote(int indice, String mensagem) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity("{\"erro\":\"Item " + indice + ": " + mensagem + "\"}")
+                .build();
+    }
+
+    // Valor inválido (enum, data) ou referência inexistente é erro do cliente; o resto é 500
+    private static Response erroSqlLote(String entidade, SQLException e) {
+        String estado = e.getSQLState() != null ? e.getSQLState() : "";
+        if (estado.startsWith("22") || estado.equals("23503")) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"Dados inválidos no lote de " + entidade + "\"}")
+                    .build();
+        }
+        System.err.println("❌ Erro SQL ao cadastrar lote de " + entidade + ": " + e.getMessage());
+        e.printStackTrace();
+        return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                .entity("{\"erro\":\"Erro ao cadastrar " + entidade + "\"}")
+                .build();
+    }
+
     @PUT
     @Path("/{id}")
-    public Response atualizar(@PathParam("id") Long id, Projeto projeto) {
+    public Response atualizar(@PathParam("id") Long id, Projeto projeto, @Context HttpHeaders headers) {
         System.out.println("🔄 PUT /projetos/" + id + " - Atualizando projeto");
         System.out.println("📋 Novos dados: " + projeto);
 
         try (ProjetoDAO dao = new ProjetoDAO()) {
             projeto.setIdProjeto(id);
-            dao.atualizar(projeto);
-            System.out.println("✅ Projeto atualizado com sucesso");
-            return Response.ok().build();
+            return Versoes.escrita(dao.atualizar(projeto, Versoes.esperada(headers)),
+                    "Projeto não encontrado", Response::ok);
+        } catch (SQLException e) {
+            System.err.println("❌ Erro SQL ao atualizar projeto: " + e.getMessage());
+            e.printStackTrace();
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("{\"erro\":\"Erro ao atualizar projeto\"}")
+                    .build();
+        }
+    }
+
+    /**
+     * JSON merge patch: grava só os campos enviados (null limpa o campo), sem ler o projeto antes.
+     */
+    @PATCH
+    @Path("/{id}")
+    @Consumes({MERGE_PATCH, MediaType.APPLICATION_JSON})
+    public Response atualizarParcial(@PathParam("id") Long id, Map<String, Object> patch,
+                                     @Context HttpHeaders headers) {
+        System.out.println("🩹 PATCH /projetos/" + id + " - Campos: " + (patch != null ? patch.keySet() : "nenhum"));
+        if (patch == null) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("{\"erro\":\"Informe os campos a alterar\"}")
+                    .build();
+        }
+        try (ProjetoDAO dao = new ProjetoDAO()) {
+            return Versoes.escrita(dao.atualizarParcial(id, patch, Versoes.esperada(headers)),
+                    "Projeto não encontrado", Response::noContent);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(Map.of("erro", e.getMessage())).build();
         } catch (SQLException e) {
             System.err.println("❌ Erro SQL ao atualizar projeto: " + e.getMessage());
             e.printStackTrace();
@@ -189,12 +570,11 @@ public class ProjetoResource {
 
     @DELETE
     @Path("/{id}")
-    public Response remover(@PathParam("id") Long id) {
+    public Response remover(@PathParam("id") Long id, @Context HttpHeaders headers) {
         System.out.println("🗑️ DELETE /projetos/" + id + " - Removendo projeto");
         try (ProjetoDAO dao = new ProjetoDAO()) {
-            dao.remover(id);
-            System.out.println("✅ Projeto removido com sucesso");
-            return Response.ok().build();
+            return Versoes.remocao(dao.remover(id, Versoes.esperada(headers)),
+                    "Projeto não encontrado", Response::ok);
         } catch (SQLException e) {
             System.err.println("❌ Erro SQL ao remover projeto: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,106 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.config.JacksonConfig;
+import br.com.fiap.dao.LeiturasEmAndamento;
+import br.com.fiap.dao.RespostasEmCache;
+import br.com.fiap.dao.RespostasEmCache.Resposta;
+import br.com.fiap.filter.UsuarioAutenticado;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Leituras GET respondidas com os bytes guardados em {@link RespostasEmCache}, sem passar pelo Jackson.
+ * A chave é caminho + query + empresa de quem chama. A resposta leva ETag forte calculada sobre o JSON
+ * (If-None-Match responde 304) e sai comprimida com gzip quando o cliente aceita.
+ * Na falta do cache, requisições com a mesma chave ao mesmo tempo dividem uma única leitura.
+ */
+final class RespostasSerializadas {
+    // Quantas requisições aproveitaram a leitura de outra aparece em GET /metricas/leituras
+    private static final LeiturasEmAndamento<String, Resposta> EM_ANDAMENTO = new LeiturasEmAndamento<>("respostas");
+
+    /** JSON lido, cabeçalhos que acompanham a resposta e as linhas ou tabelas de que ela depende. */
+    record Conteudo(byte[] json, Map<String, String> cabecalhos, Set<String> dependencias) {
+
+        /** Serializa a entidade uma vez, com o mesmo ObjectMapper do provider JAX-RS. */
+        static Conteudo de(Object entidade, Map<String, String> cabecalhos, Set<String> dependencias)
+                throws JsonProcessingException {
+            return new Conteudo(JacksonConfig.getObjectMapper().writeValueAsBytes(entidade), cabecalhos, dependencias);
+        }
+    }
+
+    @FunctionalInterface
+    interface Leitura {
+        /** Consulta o banco; null quando não encontra nada. */
+        Conteudo ler() throws Exception;
+    }
+
+    private RespostasSerializadas() {
+    }
+
+    /** Caminho, parâmetros em ordem alfabética (a ordem na URL não muda a resposta) e empresa do token. */
+    static String chave(UriInfo uriInfo, SecurityContext securityContext) {
+        Long empresa = securityContext.getUserPrincipal() instanceof UsuarioAutenticado usuario
+                ? usuario.empresaId() : null;
+        return (empresa != null ? empresa : "-") + " " + uriInfo.getPath()
+                + "?" + new TreeMap<>(uriInfo.getQueryParameters());
+    }
+
+    /**
+     * Resposta (200 ou 304) do cache ou, na falta dele, da leitura, que fica guardada para as próximas.
+     * Quem chega com a mesma chave enquanto a leitura está em andamento espera por ela em vez de
+     * repetir a consulta. Devolve null quando a leitura não encontra nada.
+     */
+    static Response servir(String chave, Request request, HttpHeaders headers, Leitura leitura) throws Exception {
+        Resposta resposta = RespostasEmCache.buscar(chave);
+        if (resposta == null) {
+            long geracao = RespostasEmCache.geracao();
+            resposta = EM_ANDAMENTO.executar(chave, geracao, () -> {
+                Conteudo conteudo = leitura.ler();
+                return conteudo == null ? null : RespostasEmCache.guardar(chave, conteudo.json(),
+                        conteudo.cabecalhos(), conteudo.dependencias(), geracao);
+            });
+        }
+        return resposta != null ? responder(resposta, request, headers) : null;
+    }
+
+    static boolean aceitaGzip(HttpHeaders headers) {
+        String aceitas = headers.getHeaderString(HttpHeaders.ACCEPT_ENCODING);
+        if (aceitas == null) {
+            return false;
+        }
+        for (String codificacao : aceitas.split(",")) {
+            String[] partes = codificacao.trim().split(";");
+            if (partes[0].trim().equalsIgnoreCase("gzip")) {
+                // "gzip;q=0" recusa explicitamente
+                return partes.length == 1 || !partes[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static Response responder(Resposta resposta, Request request, HttpHeaders headers) {
+        boolean gzip = resposta.gzip() != null && aceitaGzip(headers);
+        // Representações diferentes não podem dividir uma ETag forte
+        EntityTag etag = new EntityTag(gzip ? resposta.etag() + "-gz" : resposta.etag());
+        Response.ResponseBuilder naoModificado = request.evaluatePreconditions(etag);
+        Response.ResponseBuilder builder = naoModificado != null
+                ? naoModificado
+                : Response.ok(gzip ? resposta.gzip() : resposta.json(), MediaType.APPLICATION_JSON_TYPE);
+        builder.tag(etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip && naoModificado == null) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        resposta.cabecalhos().forEach(builder::header);
+        return builder.build();
+    }
+}
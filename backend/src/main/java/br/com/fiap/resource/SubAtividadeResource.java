@@ -6,10 +6,14 @@ import br.com.fiap.dto.SubAtividadeResponseDTO;
 import br.com.fiap.model.SubAtividade;
 
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 
 @Path("/subatividades")
@@ -45,11 +49,21 @@ public class SubAtividadeResource {
 
     @GET
     @Path("/{id}")
-    public Response buscarPorId(@PathParam("id") Long id) {
+    public Response buscarPorId(@PathParam("id") Long id, @Context Request request, @Context HttpHeaders headers) {
         try (SubAtividadeDAO dao = new SubAtividadeDAO()) {
+            if (headers.getHeaderString(HttpHeaders.IF_NONE_MATCH) != null) {
+                OptionalLong versao = dao.versao(id);
+                if (versao.isEmpty()) {
+                    throw new NotFoundException("Subatividade não encontrada");
+                }
+                Response naoModificado = Versoes.naoModificado(request, versao.getAsLong());
+                if (naoModificado != null) {
+                    return naoModificado;
+                }
+            }
             SubAtividade sub = dao.pesquisarPorId(id)
                     .orElseThrow(() -> new NotFoundException("Subatividade não encontrada"));
-            return Response.ok(toDTO(sub)).build();
+            return Response.ok(toDTO(sub)).tag(Versoes.etag(sub.getVersao())).build();
         } catch (SQLException e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Erro ao buscar subatividade: " + e.getMessage())
@@ -75,10 +89,14 @@ public class SubAtividadeResource {
 
     @PUT
     @Path("/{id}")
-    public Response atualizar(@PathParam("id") Long id, CadastroSubAtividadeDTO dto) {
+    public Response atualizar(@PathParam("id") Long id, CadastroSubAtividadeDTO dto, @Context HttpHeaders headers) {
         try (SubAtividadeDAO dao = new SubAtividadeDAO()) {
             SubAtividade sub = dao.pesquisarPorId(id)
                     .orElseThrow(() -> new NotFoundException("Subatividade não encontrada"));
+            Long versaoEsperada = Versoes.esperada(headers);
+            if (versaoEsperada != null && versaoEsperada != sub.getVersao().longValue()) {
+                return Versoes.precondicaoFalhou(sub.getVersao());
+            }
 
             sub.setTitulo(dto.getTitulo());
             sub.setDescricao(dto.getDescricao());
@@ -88,8 +106,8 @@ public class SubAtividadeResource {
             sub.setStatus(dto.getStatus());
             sub.setPrioridade(dto.getPrioridade());
 
-            dao.atualizar(sub);
-            return Response.ok(toDTO(sub)).build();
+            return Versoes.escrita(dao.atualizar(sub, versaoEsperada), "Subatividade não encontrada",
+                    () -> Response.ok(toDTO(sub)));
         } catch (SQLException e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Erro ao atualizar subatividade: " + e.getMessage())
@@ -99,10 +117,10 @@ public class SubAtividadeResource {
 
     @DELETE
     @Path("/{id}")
-    public Response remover(@PathParam("id") Long id) {
+    public Response remover(@PathParam("id") Long id, @Context HttpHeaders headers) {
         try (SubAtividadeDAO dao = new SubAtividadeDAO()) {
-            dao.remover(id);
-            return Response.noContent().build();
+            return Versoes.remocao(dao.remover(id, Versoes.esperada(headers)), "Subatividade não encontrada",
+                    Response::noContent);
         } catch (SQLException e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
                     .entity("Erro ao remover subatividade: " + e.getMessage())
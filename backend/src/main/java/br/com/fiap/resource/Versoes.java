@@ -0,0 +1,103 @@
+package br.com.fiap.resource;
+
+import br.com.fiap.dao.ResultadoEscrita;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * ETag forte a partir da coluna versao e as pré-condições HTTP em cima dela:
+ * If-None-Match nas leituras (304) e If-Match nas escritas (412).
+ */
+final class Versoes {
+
+    private Versoes() {
+    }
+
+    static EntityTag etag(long versao) {
+        return new EntityTag(String.valueOf(versao));
+    }
+
+    /**
+     * ETag de uma representação que também traz dados de outra linha: "versao-versaoRelacionada",
+     * para que alterar só a outra linha também troque a tag. Sem a outra linha, a tag é a da versão.
+     */
+    static EntityTag etag(long versao, Long versaoRelacionada) {
+        return versaoRelacionada == null ? etag(versao) : new EntityTag(versao + "-" + versaoRelacionada);
+    }
+
+    /**
+     * Versão exigida pelo If-Match, ou null quando o cabeçalho falta ou é "*". De uma ETag composta
+     * ("versao-versaoRelacionada") vale a primeira parte: a escrita só grava a própria linha.
+     * ETag fraca, malformada ou lista de várias vira -1, que nenhuma linha tem: a escrita
+     * responde 412 em vez de gravar por cima sem conferir.
+     */
+    static Long esperada(HttpHeaders headers) {
+        String valor = headers.getHeaderString(HttpHeaders.IF_MATCH);
+        if (valor == null || valor.isBlank() || valor.trim().equals("*")) {
+            return null;
+        }
+        String tag = valor.trim();
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return -1L;
+        }
+        String versao = tag.substring(1, tag.length() - 1);
+        int separador = versao.indexOf('-', 1);
+        try {
+            return Long.parseLong(separador > 0 ? versao.substring(0, separador) : versao);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /** 304 quando o If-None-Match da leitura já cobre a versão atual; null para seguir com a leitura. */
+    static Response naoModificado(Request request, long versao) {
+        return naoModificado(request, etag(versao));
+    }
+
+    static Response naoModificado(Request request, EntityTag etag) {
+        Response.ResponseBuilder resposta = request.evaluatePreconditions(etag);
+        return resposta != null ? resposta.tag(etag).build() : null;
+    }
+
+    /**
+     * Traduz o resultado de uma escrita condicionada: 404, 412 com a ETag atual, ou a resposta de
+     * sucesso com a ETag da nova versão.
+     */
+    static Response escrita(ResultadoEscrita resultado, String naoEncontrado,
+                            Supplier<Response.ResponseBuilder> sucesso) {
+        return resposta(resultado, naoEncontrado, () -> sucesso.get().tag(etag(resultado.versao())));
+    }
+
+    /** Como {@link #escrita}, mas sem ETag no sucesso: a linha deixou de existir. */
+    static Response remocao(ResultadoEscrita resultado, String naoEncontrado,
+                            Supplier<Response.ResponseBuilder> sucesso) {
+        return resposta(resultado, naoEncontrado, sucesso);
+    }
+
+    private static Response resposta(ResultadoEscrita resultado, String naoEncontrado,
+                                     Supplier<Response.ResponseBuilder> sucesso) {
+        return switch (resultado.situacao()) {
+            case NAO_ENCONTRADO -> Response.status(Response.Status.NOT_FOUND)
+                    .type(MediaType.APPLICATION_JSON)
+                    .entity(Map.of("erro", naoEncontrado))
+                    .build();
+            case VERSAO_DIFERENTE -> precondicaoFalhou(resultado.versao());
+            case GRAVADO -> sucesso.get().build();
+        };
+    }
+
+    /** 412 com a ETag da versão atual, para o cliente saber que precisa ler de novo. */
+    static Response precondicaoFalhou(long versaoAtual) {
+        return Response.status(Response.Status.PRECONDITION_FAILED)
+                .type(MediaType.APPLICATION_JSON)
+                .tag(etag(versaoAtual))
+                .entity(Map.of("erro", "O registro foi alterado por outra requisição; leia-o de novo antes de gravar"))
+                .build();
+    }
+}
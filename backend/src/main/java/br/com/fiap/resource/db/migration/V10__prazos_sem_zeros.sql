@@ -0,0 +1,65 @@
+-- V10__prazos_sem_zeros.sql
+-- TB_PROJETO_PRAZO (V9) guardava as datas cujas contagens de abertas chegavam a zero, e o painel
+-- somava essas linhas a cada leitura. Os gatilhos passam a remover a linha quando as duas contagens
+-- zeram, e as que já estão zeradas são apagadas aqui
+
+-- Mesma função de V9, com a remoção ao final
+CREATE OR REPLACE FUNCTION fn_resumo_aplicar(p_mudancas resumo_mudanca[]) RETURNS void AS $$
+    WITH mudancas AS (
+        SELECT m.*
+        FROM unnest(p_mudancas) m
+        JOIN TB_PROJETO p ON p.id_projeto = m.id_projeto
+    ),
+    contagens AS (
+        SELECT id_projeto,
+               coalesce(sum(delta) FILTER (WHERE NOT subatividade AND status = 'PENDENTE'), 0) AS ap,
+               coalesce(sum(delta) FILTER (WHERE NOT subatividade AND status = 'EM_ANDAMENTO'), 0) AS ae,
+               coalesce(sum(delta) FILTER (WHERE NOT subatividade AND status = 'CONCLUIDA'), 0) AS ac,
+               coalesce(sum(delta) FILTER (WHERE NOT subatividade AND status = 'CANCELADA'), 0) AS ax,
+               coalesce(sum(delta) FILTER (WHERE subatividade AND status = 'PENDENTE'), 0) AS sp,
+               coalesce(sum(delta) FILTER (WHERE subatividade AND status = 'EM_ANDAMENTO'), 0) AS se,
+               coalesce(sum(delta) FILTER (WHERE subatividade AND status = 'CONCLUIDA'), 0) AS sc,
+               coalesce(sum(delta) FILTER (WHERE subatividade AND status = 'CANCELADA'), 0) AS sx
+        FROM mudancas
+        GROUP BY id_projeto
+    ),
+    resumo AS (
+        INSERT INTO TB_PROJETO_RESUMO AS r (id_projeto, atividades_pendentes, atividades_em_andamento,
+                                            atividades_concluidas, atividades_canceladas, subatividades_pendentes,
+                                            subatividades_em_andamento, subatividades_concluidas, subatividades_canceladas)
+        SELECT id_projeto, ap, ae, ac, ax, sp, se, sc, sx
+        FROM contagens
+        -- UPDATE que não muda status nem prazo gera +1 e -1 que se anulam
+        WHERE (ap, ae, ac, ax, sp, se, sc, sx) <> (0, 0, 0, 0, 0, 0, 0, 0)
+        ON CONFLICT (id_projeto) DO UPDATE SET
+            atividades_pendentes = r.atividades_pendentes + EXCLUDED.atividades_pendentes,
+            atividades_em_andamento = r.atividades_em_andamento + EXCLUDED.atividades_em_andamento,
+            atividades_concluidas = r.atividades_concluidas + EXCLUDED.atividades_concluidas,
+            atividades_canceladas = r.atividades_canceladas + EXCLUDED.atividades_canceladas,
+            subatividades_pendentes = r.subatividades_pendentes + EXCLUDED.subatividades_pendentes,
+            subatividades_em_andamento = r.subatividades_em_andamento + EXCLUDED.subatividades_em_andamento,
+            subatividades_concluidas = r.subatividades_concluidas + EXCLUDED.subatividades_concluidas,
+            subatividades_canceladas = r.subatividades_canceladas + EXCLUDED.subatividades_canceladas
+    )
+    INSERT INTO TB_PROJETO_PRAZO AS z (id_projeto, data_termino_prevista, atividades_abertas, subatividades_abertas)
+    SELECT id_projeto, data_termino_prevista,
+           coalesce(sum(delta) FILTER (WHERE NOT subatividade), 0),
+           coalesce(sum(delta) FILTER (WHERE subatividade), 0)
+    FROM mudancas
+    WHERE status IN ('PENDENTE', 'EM_ANDAMENTO') AND data_termino_prevista IS NOT NULL
+    GROUP BY id_projeto, data_termino_prevista
+    HAVING coalesce(sum(delta) FILTER (WHERE NOT subatividade), 0) <> 0
+        OR coalesce(sum(delta) FILTER (WHERE subatividade), 0) <> 0
+    ON CONFLICT (id_projeto, data_termino_prevista) DO UPDATE SET
+        atividades_abertas = z.atividades_abertas + EXCLUDED.atividades_abertas,
+        subatividades_abertas = z.subatividades_abertas + EXCLUDED.subatividades_abertas;
+    -- Prazo que ficou sem nenhuma aberta sai da tabela: senão cada data já usada fica para sempre e a
+    -- soma das atrasadas percorre todo o histórico do projeto. Em instrução separada: dentro da
+    -- anterior, um DELETE ainda veria as contagens de antes da soma
+    DELETE FROM TB_PROJETO_PRAZO z
+    USING (SELECT DISTINCT id_projeto, data_termino_prevista FROM unnest(p_mudancas)) m
+    WHERE z.id_projeto = m.id_projeto AND z.data_termino_prevista = m.data_termino_prevista
+      AND z.atividades_abertas = 0 AND z.subatividades_abertas = 0;
+$$ LANGUAGE sql;
+
+DELETE FROM TB_PROJETO_PRAZO WHERE atividades_abertas = 0 AND subatividades_abertas = 0;
@@ -0,0 +1,10 @@
+-- V3__indices_paginacao_projeto.sql
+-- Índices compostos para a paginação por keyset de /projetos, ordenada por (data_inicio DESC, id_projeto DESC)
+
+-- Listagem geral (SUPER_ADMIN)
+CREATE INDEX IF NOT EXISTS idx_projeto_inicio_id
+    ON TB_PROJETO (data_inicio DESC, id_projeto DESC);
+
+-- Listagem por empresa
+CREATE INDEX IF NOT EXISTS idx_projeto_empresa_inicio_id
+    ON TB_PROJETO (id_empresa, data_inicio DESC, id_projeto DESC);
@@ -0,0 +1,15 @@
+-- V4__indices_listagem_clientes_empresas.sql
+-- Índices que atendem os filtros e a ordenação das listagens paginadas de /clientes e /empresas
+
+-- TB_CLIENTE: ordenação por nome, com ou sem filtro de empresa
+CREATE INDEX IF NOT EXISTS idx_cliente_nome ON TB_CLIENTE (nome, id_cliente);
+CREATE INDEX IF NOT EXISTS idx_cliente_empresa_nome ON TB_CLIENTE (id_empresa, nome, id_cliente);
+CREATE INDEX IF NOT EXISTS idx_cliente_role_nome ON TB_CLIENTE (role, nome, id_cliente);
+
+-- O índice composto acima cobre as buscas só por empresa
+DROP INDEX IF EXISTS idx_cliente_empresa;
+
+-- TB_EMPRESA: ordenação por razão social, com filtros de localização e setor
+CREATE INDEX IF NOT EXISTS idx_empresa_razao_social ON TB_EMPRESA (razao_social, id_empresa);
+CREATE INDEX IF NOT EXISTS idx_empresa_estado_cidade ON TB_EMPRESA (estado, cidade, razao_social);
+CREATE INDEX IF NOT EXISTS idx_empresa_setor ON TB_EMPRESA (setor_atuacao, razao_social);
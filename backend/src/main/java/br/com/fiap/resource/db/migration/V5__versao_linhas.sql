@@ -0,0 +1,28 @@
+-- V5__versao_linhas.sql
+-- Versão de cada linha, exposta como ETag: If-Match nas escritas (412 se mudou) e If-None-Match nas leituras (304)
+
+-- Coluna com DEFAULT constante não reescreve a tabela
+ALTER TABLE TB_EMPRESA ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE TB_CLIENTE ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE TB_PROJETO ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE TB_ATIVIDADE ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 1;
+ALTER TABLE TB_SUBATIVIDADE ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 1;
+
+-- Todo UPDATE incrementa a versão, venha de PUT, PATCH, importação ou SQL manual
+CREATE OR REPLACE FUNCTION fn_incrementar_versao() RETURNS trigger AS $$
+BEGIN
+    NEW.versao := OLD.versao + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_empresa_versao BEFORE UPDATE ON TB_EMPRESA
+    FOR EACH ROW EXECUTE FUNCTION fn_incrementar_versao();
+CREATE TRIGGER trg_cliente_versao BEFORE UPDATE ON TB_CLIENTE
+    FOR EACH ROW EXECUTE FUNCTION fn_incrementar_versao();
+CREATE TRIGGER trg_projeto_versao BEFORE UPDATE ON TB_PROJETO
+    FOR EACH ROW EXECUTE FUNCTION fn_incrementar_versao();
+CREATE TRIGGER trg_atividade_versao BEFORE UPDATE ON TB_ATIVIDADE
+    FOR EACH ROW EXECUTE FUNCTION fn_incrementar_versao();
+CREATE TRIGGER trg_subatividade_versao BEFORE UPDATE ON TB_SUBATIVIDADE
+    FOR EACH ROW EXECUTE FUNCTION fn_incrementar_versao();
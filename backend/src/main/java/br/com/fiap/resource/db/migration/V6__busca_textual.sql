@@ -0,0 +1,26 @@
+-- V6__busca_textual.sql
+-- Busca textual de /busca: vetor de termos em português de título (peso A) e descrição (peso B),
+-- gerado pelo próprio banco a cada INSERT/UPDATE e indexado com GIN
+
+-- Coluna gerada reescreve a tabela uma vez; depois o PostgreSQL a mantém sozinho
+ALTER TABLE TB_PROJETO ADD COLUMN IF NOT EXISTS busca tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese', coalesce(titulo, '')), 'A') ||
+        setweight(to_tsvector('portuguese', coalesce(descricao, '')), 'B')
+    ) STORED;
+
+ALTER TABLE TB_ATIVIDADE ADD COLUMN IF NOT EXISTS busca tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese', coalesce(titulo, '')), 'A') ||
+        setweight(to_tsvector('portuguese', coalesce(descricao, '')), 'B')
+    ) STORED;
+
+ALTER TABLE TB_SUBATIVIDADE ADD COLUMN IF NOT EXISTS busca tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('portuguese', coalesce(titulo, '')), 'A') ||
+        setweight(to_tsvector('portuguese', coalesce(descricao, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_projeto_busca ON TB_PROJETO USING GIN (busca);
+CREATE INDEX IF NOT EXISTS idx_atividade_busca ON TB_ATIVIDADE USING GIN (busca);
+CREATE INDEX IF NOT EXISTS idx_subatividade_busca ON TB_SUBATIVIDADE USING GIN (busca);
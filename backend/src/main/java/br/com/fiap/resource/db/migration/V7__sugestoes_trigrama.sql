@@ -0,0 +1,9 @@
+-- V7__sugestoes_trigrama.sql
+-- Índices de trigramas para /empresas/sugestoes e /clientes/sugestoes: atendem ILIKE '%termo%'
+-- e a semelhança por palavra (<%) sem varrer a tabela
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_empresa_razao_social_trgm ON TB_EMPRESA USING GIN (razao_social gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_empresa_nome_fantasia_trgm ON TB_EMPRESA USING GIN (nome_fantasia gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_cliente_nome_trgm ON TB_CLIENTE USING GIN (nome gin_trgm_ops);
@@ -0,0 +1,5 @@
+-- V8__indice_email_minusculo.sql
+-- Login e busca por e-mail comparam LOWER(email) = LOWER(?); o índice único de V1 é sobre email
+-- puro e não atende essa condição, o que levava a um Seq Scan em TB_CLIENTE a cada login.
+-- Não é UNIQUE: bases antigas podem ter o mesmo e-mail com caixas diferentes.
+CREATE INDEX IF NOT EXISTS idx_cliente_email_minusculo ON TB_CLIENTE (LOWER(email));
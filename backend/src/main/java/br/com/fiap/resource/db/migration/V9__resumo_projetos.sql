@@ -0,0 +1,198 @@
+-- V9__resumo_projetos.sql
+-- Resumo de andamento por projeto para o painel (/projetos/resumo e /empresas/{id}/resumo):
+-- contagens de atividades e subatividades por status, mantidas por gatilhos a cada escrita
+-- (DAOs, cadastro do projeto com atividades, importação ou SQL manual), em vez de recalculadas a cada consulta
+
+-- Uma linha por projeto com atividades ou subatividades; projeto sem nenhuma não tem linha (contagens zero)
+CREATE TABLE TB_PROJETO_RESUMO (
+    id_projeto INTEGER PRIMARY KEY REFERENCES TB_PROJETO(id_projeto) ON DELETE CASCADE,
+    atividades_pendentes INTEGER NOT NULL DEFAULT 0,
+    atividades_em_andamento INTEGER NOT NULL DEFAULT 0,
+    atividades_concluidas INTEGER NOT NULL DEFAULT 0,
+    atividades_canceladas INTEGER NOT NULL DEFAULT 0,
+    subatividades_pendentes INTEGER NOT NULL DEFAULT 0,
+    subatividades_em_andamento INTEGER NOT NULL DEFAULT 0,
+    subatividades_concluidas INTEGER NOT NULL DEFAULT 0,
+    subatividades_canceladas INTEGER NOT NULL DEFAULT 0
+);
+
+-- Atraso depende da data de hoje, não de uma escrita: guarda-se quantas atividades e subatividades
+-- ainda abertas (PENDENTE ou EM_ANDAMENTO) vencem em cada data, e as atrasadas são a soma das datas
+-- anteriores a hoje. Uma linha por data de término distinta do projeto
+CREATE TABLE TB_PROJETO_PRAZO (
+    id_projeto INTEGER NOT NULL REFERENCES TB_PROJETO(id_projeto) ON DELETE CASCADE,
+    data_termino_prevista DATE NOT NULL,
+    atividades_abertas INTEGER NOT NULL DEFAULT 0,
+    subatividades_abertas INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (id_projeto, data_termino_prevista)
+);
+
+-- Uma mudança a aplicar: +1 ou -1 de uma atividade ou subatividade num status e prazo
+CREATE TYPE resumo_mudanca AS (
+    id_projeto INTEGER,
+    subatividade BOOLEAN,
+    status status_atividade,
+    data_termino_prevista DATE,
+    delta INTEGER
+);
+
+-- Soma as mudanças de uma instrução, agrupadas por projeto, às contagens já guardadas.
+-- Projeto removido na mesma instrução (exclusão em cascata) é ignorado: a linha dele some junto
+CREATE OR REPLACE FUNCTION fn_resumo_aplicar(p_mudancas resumo_mudanca[]) RETURNS void AS $$
+    WITH mudancas AS (
+        SELECT m.*
+        FROM unnest(p_mudancas) m
+        JOIN TB_PROJETO p ON p.id_projeto = m.id_projeto
+    ),
+    contagens AS (
+        SELECT id_projeto,
+               coalesce(sum(delta) FILTER (WHERE NOT subatividade AND status = 'PENDENTE'), 0) AS ap,
+               coalesce(sum(delta) FILTER (WHERE NOT subatividade AND status = 'EM_ANDAMENTO'), 0) AS ae,
+               coalesce(sum(delta) FILTER (WHERE NOT subatividade AND status = 'CONCLUIDA'), 0) AS ac,
+               coalesce(sum(delta) FILTER (WHERE NOT subatividade AND status = 'CANCELADA'), 0) AS ax,
+               coalesce(sum(delta) FILTER (WHERE subatividade AND status = 'PENDENTE'), 0) AS sp,
+               coalesce(sum(delta) FILTER (WHERE subatividade AND status = 'EM_ANDAMENTO'), 0) AS se,
+               coalesce(sum(delta) FILTER (WHERE subatividade AND status = 'CONCLUIDA'), 0) AS sc,
+               coalesce(sum(delta) FILTER (WHERE subatividade AND status = 'CANCELADA'), 0) AS sx
+        FROM mudancas
+        GROUP BY id_projeto
+    ),
+    resumo AS (
+        INSERT INTO TB_PROJETO_RESUMO AS r (id_projeto, atividades_pendentes, atividades_em_andamento,
+                                            atividades_concluidas, atividades_canceladas, subatividades_pendentes,
+                                            subatividades_em_andamento, subatividades_concluidas, subatividades_canceladas)
+        SELECT id_projeto, ap, ae, ac, ax, sp, se, sc, sx
+        FROM contagens
+        -- UPDATE que não muda status nem prazo gera +1 e -1 que se anulam
+        WHERE (ap, ae, ac, ax, sp, se, sc, sx) <> (0, 0, 0, 0, 0, 0, 0, 0)
+        ON CONFLICT (id_projeto) DO UPDATE SET
+            atividades_pendentes = r.atividades_pendentes + EXCLUDED.atividades_pendentes,
+            atividades_em_andamento = r.atividades_em_andamento + EXCLUDED.atividades_em_andamento,
+            atividades_concluidas = r.atividades_concluidas + EXCLUDED.atividades_concluidas,
+            atividades_canceladas = r.atividades_canceladas + EXCLUDED.atividades_canceladas,
+            subatividades_pendentes = r.subatividades_pendentes + EXCLUDED.subatividades_pendentes,
+            subatividades_em_andamento = r.subatividades_em_andamento + EXCLUDED.subatividades_em_andamento,
+            subatividades_concluidas = r.subatividades_concluidas + EXCLUDED.subatividades_concluidas,
+            subatividades_canceladas = r.subatividades_canceladas + EXCLUDED.subatividades_canceladas
+    )
+    INSERT INTO TB_PROJETO_PRAZO AS z (id_projeto, data_termino_prevista, atividades_abertas, subatividades_abertas)
+    SELECT id_projeto, data_termino_prevista,
+           coalesce(sum(delta) FILTER (WHERE NOT subatividade), 0),
+           coalesce(sum(delta) FILTER (WHERE subatividade), 0)
+    FROM mudancas
+    WHERE status IN ('PENDENTE', 'EM_ANDAMENTO') AND data_termino_prevista IS NOT NULL
+    GROUP BY id_projeto, data_termino_prevista
+    HAVING coalesce(sum(delta) FILTER (WHERE NOT subatividade), 0) <> 0
+        OR coalesce(sum(delta) FILTER (WHERE subatividade), 0) <> 0
+    ON CONFLICT (id_projeto, data_termino_prevista) DO UPDATE SET
+        atividades_abertas = z.atividades_abertas + EXCLUDED.atividades_abertas,
+        subatividades_abertas = z.subatividades_abertas + EXCLUDED.subatividades_abertas;
+$$ LANGUAGE sql;
+
+-- Atividades: um gatilho por instrução, com as linhas afetadas nas tabelas de transição;
+-- um lote de mil atividades vira uma atualização por projeto, não mil
+CREATE OR REPLACE FUNCTION fn_resumo_atividade() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM fn_resumo_aplicar(ARRAY(
+            SELECT ROW(id_projeto, false, status, data_termino_prevista, 1)::resumo_mudanca FROM novas));
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM fn_resumo_aplicar(ARRAY(
+            SELECT ROW(id_projeto, false, status, data_termino_prevista, -1)::resumo_mudanca FROM antigas));
+    ELSE
+        PERFORM fn_resumo_aplicar(ARRAY(
+            SELECT ROW(id_projeto, false, status, data_termino_prevista, 1)::resumo_mudanca FROM novas
+            UNION ALL
+            SELECT ROW(id_projeto, false, status, data_termino_prevista, -1)::resumo_mudanca FROM antigas
+            -- Atividade trocada de projeto leva as subatividades junto
+            UNION ALL
+            SELECT ROW(m.id_projeto, true, s.status, s.data_termino_prevista, m.delta)::resumo_mudanca
+            FROM (SELECT n.id_atividade, n.id_projeto, 1 AS delta
+                  FROM novas n JOIN antigas o ON o.id_atividade = n.id_atividade
+                  WHERE o.id_projeto <> n.id_projeto
+                  UNION ALL
+                  SELECT o.id_atividade, o.id_projeto, -1
+                  FROM novas n JOIN antigas o ON o.id_atividade = n.id_atividade
+                  WHERE o.id_projeto <> n.id_projeto) m
+            JOIN TB_SUBATIVIDADE s ON s.id_atividade = m.id_atividade));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Subatividades chegam ao projeto pela atividade. Quando a atividade é removida, a cascada apaga as
+-- subatividades depois dela, já sem atividade para consultar; por isso quem as desconta é o gatilho
+-- BEFORE DELETE da atividade, e aqui elas ficam de fora pelo JOIN
+CREATE OR REPLACE FUNCTION fn_resumo_subatividade() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM fn_resumo_aplicar(ARRAY(
+            SELECT ROW(a.id_projeto, true, s.status, s.data_termino_prevista, 1)::resumo_mudanca
+            FROM novas s JOIN TB_ATIVIDADE a ON a.id_atividade = s.id_atividade));
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM fn_resumo_aplicar(ARRAY(
+            SELECT ROW(a.id_projeto, true, s.status, s.data_termino_prevista, -1)::resumo_mudanca
+            FROM antigas s JOIN TB_ATIVIDADE a ON a.id_atividade = s.id_atividade));
+    ELSE
+        PERFORM fn_resumo_aplicar(ARRAY(
+            SELECT ROW(a.id_projeto, true, s.status, s.data_termino_prevista, 1)::resumo_mudanca
+            FROM novas s JOIN TB_ATIVIDADE a ON a.id_atividade = s.id_atividade
+            UNION ALL
+            SELECT ROW(a.id_projeto, true, s.status, s.data_termino_prevista, -1)::resumo_mudanca
+            FROM antigas s JOIN TB_ATIVIDADE a ON a.id_atividade = s.id_atividade));
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION fn_resumo_atividade_remocao() RETURNS trigger AS $$
+BEGIN
+    PERFORM fn_resumo_aplicar(ARRAY(
+        SELECT ROW(OLD.id_projeto, true, s.status, s.data_termino_prevista, -1)::resumo_mudanca
+        FROM TB_SUBATIVIDADE s WHERE s.id_atividade = OLD.id_atividade));
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_resumo_atividade_insercao AFTER INSERT ON TB_ATIVIDADE
+    REFERENCING NEW TABLE AS novas FOR EACH STATEMENT EXECUTE FUNCTION fn_resumo_atividade();
+CREATE TRIGGER trg_resumo_atividade_alteracao AFTER UPDATE ON TB_ATIVIDADE
+    REFERENCING NEW TABLE AS novas OLD TABLE AS antigas FOR EACH STATEMENT EXECUTE FUNCTION fn_resumo_atividade();
+CREATE TRIGGER trg_resumo_atividade_exclusao AFTER DELETE ON TB_ATIVIDADE
+    REFERENCING OLD TABLE AS antigas FOR EACH STATEMENT EXECUTE FUNCTION fn_resumo_atividade();
+CREATE TRIGGER trg_resumo_atividade_remocao BEFORE DELETE ON TB_ATIVIDADE
+    FOR EACH ROW EXECUTE FUNCTION fn_resumo_atividade_remocao();
+
+CREATE TRIGGER trg_resumo_subatividade_insercao AFTER INSERT ON TB_SUBATIVIDADE
+    REFERENCING NEW TABLE AS novas FOR EACH STATEMENT EXECUTE FUNCTION fn_resumo_subatividade();
+CREATE TRIGGER trg_resumo_subatividade_alteracao AFTER UPDATE ON TB_SUBATIVIDADE
+    REFERENCING NEW TABLE AS novas OLD TABLE AS antigas FOR EACH STATEMENT EXECUTE FUNCTION fn_resumo_subatividade();
+CREATE TRIGGER trg_resumo_subatividade_exclusao AFTER DELETE ON TB_SUBATIVIDADE
+    REFERENCING OLD TABLE AS antigas FOR EACH STATEMENT EXECUTE FUNCTION fn_resumo_subatividade();
+
+-- Carga inicial a partir do que já existe; daqui em diante só os gatilhos mexem nessas tabelas
+INSERT INTO TB_PROJETO_RESUMO (id_projeto, atividades_pendentes, atividades_em_andamento, atividades_concluidas,
+                               atividades_canceladas, subatividades_pendentes, subatividades_em_andamento,
+                               subatividades_concluidas, subatividades_canceladas)
+SELECT id_projeto,
+       count(*) FILTER (WHERE NOT subatividade AND status = 'PENDENTE'),
+       count(*) FILTER (WHERE NOT subatividade AND status = 'EM_ANDAMENTO'),
+       count(*) FILTER (WHERE NOT subatividade AND status = 'CONCLUIDA'),
+       count(*) FILTER (WHERE NOT subatividade AND status = 'CANCELADA'),
+       count(*) FILTER (WHERE subatividade AND status = 'PENDENTE'),
+       count(*) FILTER (WHERE subatividade AND status = 'EM_ANDAMENTO'),
+       count(*) FILTER (WHERE subatividade AND status = 'CONCLUIDA'),
+       count(*) FILTER (WHERE subatividade AND status = 'CANCELADA')
+FROM (SELECT id_projeto, false AS subatividade, status FROM TB_ATIVIDADE
+      UNION ALL
+      SELECT a.id_projeto, true, s.status FROM TB_SUBATIVIDADE s JOIN TB_ATIVIDADE a ON a.id_atividade = s.id_atividade) itens
+GROUP BY id_projeto;
+
+INSERT INTO TB_PROJETO_PRAZO (id_projeto, data_termino_prevista, atividades_abertas, subatividades_abertas)
+SELECT id_projeto, data_termino_prevista, count(*) FILTER (WHERE NOT subatividade), count(*) FILTER (WHERE subatividade)
+FROM (SELECT id_projeto, false AS subatividade, status, data_termino_prevista FROM TB_ATIVIDADE
+      UNION ALL
+      SELECT a.id_projeto, true, s.status, s.data_termino_prevista
+      FROM TB_SUBATIVIDADE s JOIN TB_ATIVIDADE a ON a.id_atividade = s.id_atividade) itens
+WHERE status IN ('PENDENTE', 'EM_ANDAMENTO') AND data_termino_prevista IS NOT NULL
+GROUP BY id_projeto, data_termino_prevista;
@@ -0,0 +1,325 @@
+package br.com.fiap.service;
+
+import br.com.fiap.config.JacksonConfig;
+import br.com.fiap.dao.FormatoArquivo;
+import br.com.fiap.dao.ImportacaoDAO;
+import br.com.fiap.dao.ImportacaoDAO.Rejeicao;
+import br.com.fiap.dto.CadastroClienteDTO;
+import br.com.fiap.dto.CadastroEmpresaDTO;
+import br.com.fiap.dto.ResultadoImportacaoDTO;
+import br.com.fiap.security.PasswordHasher;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+/**
+ * Importação de empresas e clientes a partir de CSV (com cabeçalho) ou NDJSON (um objeto por linha).
+ * Os nomes dos campos são os mesmos do cadastro individual (CadastroEmpresaDTO/CadastroClienteDTO).
+ * O arquivo é lido em blocos: cada bloco é validado, tem as senhas com hash em paralelo e segue
+ * para o COPY da staging; a consolidação acontece uma vez, no fim. Linhas inválidas não abortam
+ * a importação, voltam em {@code rejeitadas} com o número da linha no arquivo.
+ */
+public class ImportacaoService {
+    private static final Logger LOGGER = Logger.getLogger(ImportacaoService.class.getName());
+    private static final int TAMANHO_BLOCO = 500;
+    private static final String ROLE_PADRAO = "CLIENTE";
+
+    // Argon2 é caro de propósito: um hash por núcleo, fora do pool comum
+    private static final ExecutorService HASHES = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), tarefa -> {
+                Thread thread = new Thread(tarefa, "importacao-hash");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private static final ObjectMapper MAPPER = JacksonConfig.getObjectMapper();
+    private static final ObjectReader LEITOR_NDJSON = MAPPER.readerFor(new TypeReference<Map<String, Object>>() {
+    });
+
+    // Registro lido do arquivo; erro preenchido quando a linha nem chegou a virar um mapa de campos
+    private record Registro(long linha, Map<String, Object> campos, String erro) {
+    }
+
+    private record Valida<T>(long linha, T dto) {
+    }
+
+    public ResultadoImportacaoDTO importarEmpresas(InputStream entrada, FormatoArquivo formato) throws SQLException, IOException {
+        try (ImportacaoDAO dao = new ImportacaoDAO()) {
+            Map<String, Integer> tamanhos = dao.tamanhosMaximos("TB_EMPRESA");
+            List<Rejeicao> rejeicoes = new ArrayList<>();
+            long recebidas;
+
+            ImportacaoDAO.Copia copia = dao.iniciarEmpresas();
+            try {
+                Fonte fonte = abrir(entrada, formato);
+                while (!fonte.fim) {
+                    for (Valida<CadastroEmpresaDTO> item : lerBloco(fonte, CadastroEmpresaDTO.class, rejeicoes)) {
+                        Object[] valores = valoresEmpresa(item.dto());
+                        String motivo = validar(item.dto().getCnpj(), "cnpj", item.dto().getRazaoSocial(), "razaoSocial");
+                        if (motivo == null) {
+                            motivo = excedeTamanho(ImportacaoDAO.COLUNAS_EMPRESA, valores, tamanhos);
+                        }
+                        if (motivo != null) {
+                            rejeicoes.add(new Rejeicao(item.linha(), motivo));
+                        } else {
+                            copia.escrever(item.linha(), valores);
+                        }
+                    }
+                }
+                recebidas = fonte.registros;
+                copia.finalizar();
+            } catch (SQLException | IOException | RuntimeException e) {
+                copia.cancelar();
+                throw e;
+            }
+
+            rejeicoes.addAll(dao.consolidarEmpresas());
+            return resultado("empresas", recebidas, rejeicoes);
+        }
+    }
+
+    public ResultadoImportacaoDTO importarClientes(InputStream entrada, FormatoArquivo formato) throws SQLException, IOException {
+        try (ImportacaoDAO dao = new ImportacaoDAO()) {
+            Map<String, Integer> tamanhos = dao.tamanhosMaximos("TB_CLIENTE");
+            List<Rejeicao> rejeicoes = new ArrayList<>();
+            long recebidas;
+
+            ImportacaoDAO.Copia copia = dao.iniciarClientes();
+            try {
+                Fonte fonte = abrir(entrada, formato);
+                while (!fonte.fim) {
+                    List<Valida<CadastroClienteDTO>> bloco = lerBloco(fonte, CadastroClienteDTO.class, rejeicoes);
+                    List<Valida<CadastroClienteDTO>> aceitos = new ArrayList<>(bloco.size());
+                    for (Valida<CadastroClienteDTO> item : bloco) {
+                        CadastroClienteDTO dto = item.dto();
+                        String motivo = dto.getIdEmpresa() == null ? "Campo idEmpresa é obrigatório"
+                                : validar(dto.getNome(), "nome", dto.getEmail(), "email", dto.getCpf(), "cpf",
+                                dto.getSenha(), "senha");
+                        if (motivo == null) {
+                            // A senha ainda é texto puro aqui; o limite da coluna vale para o hash
+                            motivo = excedeTamanho(ImportacaoDAO.COLUNAS_CLIENTE, valoresCliente(dto, null), tamanhos);
+                        }
+                        if (motivo != null) {
+                            rejeicoes.add(new Rejeicao(item.linha(), motivo));
+                        } else {
+                            aceitos.add(item);
+                        }
+                    }
+
+                    List<String> hashes = hashEmParalelo(aceitos);
+                    for (int i = 0; i < aceitos.size(); i++) {
+                        copia.escrever(aceitos.get(i).linha(), valoresCliente(aceitos.get(i).dto(), hashes.get(i)));
+                    }
+                }
+                recebidas = fonte.registros;
+                copia.finalizar();
+            } catch (SQLException | IOException | RuntimeException e) {
+                copia.cancelar();
+                throw e;
+            }
+
+            rejeicoes.addAll(dao.consolidarClientes());
+            return resultado("clientes", recebidas, rejeicoes);
+        }
+    }
+
+    private static List<String> hashEmParalelo(List<Valida<CadastroClienteDTO>> itens) throws IOException {
+        List<Future<String>> futuros = new ArrayList<>(itens.size());
+        for (Valida<CadastroClienteDTO> item : itens) {
+            String senha = item.dto().getSenha();
+            futuros.add(HASHES.submit(() -> PasswordHasher.hash(senha.toCharArray())));
+        }
+        List<String> hashes = new ArrayList<>(itens.size());
+        try {
+            for (Future<String> futuro : futuros) {
+                hashes.add(futuro.get());
+            }
+        } catch (InterruptedException e) {
+            futuros.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IOException("Importação interrompida", e);
+        } catch (ExecutionException e) {
+            futuros.forEach(f -> f.cancel(true));
+            throw new IllegalStateException("Falha ao gerar hash de senha", e.getCause());
+        }
+        return hashes;
+    }
+
+    private static Object[] valoresEmpresa(CadastroEmpresaDTO dto) {
+        return new Object[]{
+                somenteDigitos(dto.getCnpj()), dto.getRazaoSocial(), dto.getNomeFantasia(), dto.getInscricaoEstadual(),
+                dto.getInscricaoMunicipal(), dto.getEmail(), dto.getTelefone(), dto.getEndereco(), dto.getNumero(),
+                dto.getComplemento(), dto.getBairro(), dto.getCidade(), dto.getEstado(), dto.getCep(),
+                dto.getQuantidadeFuncionarios(), dto.getSetorAtuacao(), dto.getDataFundacao()
+        };
+    }
+
+    private static Object[] valoresCliente(CadastroClienteDTO dto, String hashSenha) {
+        String role = dto.getRole() == null || dto.getRole().isBlank() ? ROLE_PADRAO : dto.getRole().trim().toUpperCase();
+        return new Object[]{
+                dto.getIdEmpresa(), dto.getNome(), dto.getEmail(), dto.getTelefone(), somenteDigitos(dto.getCpf()),
+                dto.getDataNascimento(), dto.getCargo(), dto.getDepartamento(), role, hashSenha
+        };
+    }
+
+    // Pares (valor, nome do campo); devolve o motivo da primeira ausência
+    private static String validar(String... valoresENomes) {
+        for (int i = 0; i < valoresENomes.length; i += 2) {
+            String valor = valoresENomes[i];
+            if (valor == null || valor.isBlank()) {
+                return "Campo " + valoresENomes[i + 1] + " é obrigatório";
+            }
+        }
+        return null;
+    }
+
+    private static String excedeTamanho(List<String> colunas, Object[] valores, Map<String, Integer> tamanhos) {
+        for (int i = 0; i < colunas.size(); i++) {
+            Integer maximo = tamanhos.get(colunas.get(i));
+            if (maximo != null && valores[i] instanceof String texto && texto.length() > maximo) {
+                return "Campo " + colunas.get(i) + " excede " + maximo + " caracteres";
+            }
+        }
+        return null;
+    }
+
+    private static String somenteDigitos(String valor) {
+        return valor == null ? null : valor.replaceAll("[^0-9]", "");
+    }
+
+    private static ResultadoImportacaoDTO resultado(String entidade, long recebidas, List<Rejeicao> rejeicoes) {
+        rejeicoes.sort(Comparator.comparingLong(Rejeicao::linha));
+        List<ResultadoImportacaoDTO.Rejeicao> lista = rejeicoes.stream()
+                .map(r -> new ResultadoImportacaoDTO.Rejeicao(r.linha(), r.motivo()))
+                .toList();
+        long importadas = recebidas - lista.size();
+        LOGGER.info("Importação de " + entidade + ": " + importadas + " de " + recebidas + " linhas importadas");
+        return new ResultadoImportacaoDTO(recebidas, importadas, lista);
+    }
+
+    // ---- leitura do arquivo ----
+
+    private <T> List<Valida<T>> lerBloco(Fonte fonte, Class<T> tipo, List<Rejeicao> rejeicoes) throws IOException {
+        List<Valida<T>> bloco = new ArrayList<>(TAMANHO_BLOCO);
+        while (bloco.size() < TAMANHO_BLOCO) {
+            Registro registro = fonte.proximo();
+            if (registro == null) {
+                break;
+            }
+            fonte.registros++;
+            if (registro.erro() != null) {
+                rejeicoes.add(new Rejeicao(registro.linha(), registro.erro()));
+                continue;
+            }
+            try {
+                bloco.add(new Valida<>(registro.linha(), MAPPER.convertValue(registro.campos(), tipo)));
+            } catch (IllegalArgumentException e) {
+                rejeicoes.add(new Rejeicao(registro.linha(), motivo(e)));
+            }
+        }
+        return bloco;
+    }
+
+    private static String motivo(IllegalArgumentException e) {
+        if (e.getCause() instanceof UnrecognizedPropertyException campo) {
+            return "Campo desconhecido: " + campo.getPropertyName();
+        }
+        if (e.getCause() instanceof JsonMappingException mapeamento && !mapeamento.getPath().isEmpty()) {
+            return "Valor inválido no campo " + mapeamento.getPath().get(0).getFieldName();
+        }
+        return "Valor inválido";
+    }
+
+    private static Fonte abrir(InputStream entrada, FormatoArquivo formato) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        return formato == FormatoArquivo.CSV ? new FonteCsv(reader) : new FonteNdjson(reader);
+    }
+
+    private abstract static class Fonte {
+        long linha;
+        long registros;
+        boolean fim;
+
+        abstract Registro proximo() throws IOException;
+    }
+
+    private static final class FonteNdjson extends Fonte {
+        private final BufferedReader reader;
+
+        FonteNdjson(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        Registro proximo() throws IOException {
+            String texto;
+            do {
+                texto = reader.readLine();
+                if (texto == null) {
+                    fim = true;
+                    return null;
+                }
+                linha++;
+            } while (texto.isBlank());
+            try {
+                return new Registro(linha, LEITOR_NDJSON.readValue(texto), null);
+            } catch (JsonProcessingException e) {
+                return new Registro(linha, null, "JSON inválido: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class FonteCsv extends Fonte {
+        private final LeitorCsv leitor;
+        private final List<String> cabecalho;
+
+        FonteCsv(BufferedReader reader) throws IOException {
+            this.leitor = new LeitorCsv(reader);
+            List<String> nomes = leitor.proximo();
+            if (nomes == null) {
+                throw new IllegalArgumentException("Arquivo CSV vazio: o cabeçalho com os nomes dos campos é obrigatório");
+            }
+            this.cabecalho = nomes.stream().map(String::trim).toList();
+        }
+
+        @Override
+        Registro proximo() throws IOException {
+            List<String> valores = leitor.proximo();
+            if (valores == null) {
+                fim = true;
+                return null;
+            }
+            linha = leitor.linhaRegistro();
+            if (valores.size() != cabecalho.size()) {
+                return new Registro(linha, null, "Esperados " + cabecalho.size() + " campos, encontrados " + valores.size());
+            }
+            Map<String, Object> campos = new HashMap<>();
+            for (int i = 0; i < valores.size(); i++) {
+                // Célula vazia é ausência de valor, não texto vazio
+                String valor = valores.get(i);
+                campos.put(cabecalho.get(i), valor.isEmpty() ? null : valor);
+            }
+            return new Registro(linha, campos, null);
+        }
+    }
+}
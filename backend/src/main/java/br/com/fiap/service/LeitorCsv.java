@@ -0,0 +1,124 @@
+package br.com.fiap.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV (RFC 4180) que consome o Reader aos poucos, um registro por vez.
+ * Aceita campos entre aspas com vírgulas, aspas duplicadas e quebras de linha.
+ * O separador é ',' ou ';' (planilhas em português), decidido pelo cabeçalho.
+ * Arquivo malformado (aspas sem fechamento) gera IllegalArgumentException.
+ */
+final class LeitorCsv {
+    private final Reader reader;
+    private char separador = ',';
+    private boolean separadorDefinido;
+    private int pendente = -2;
+    private long linhaAtual = 1;
+    private long linhaRegistro;
+
+    LeitorCsv(Reader reader) {
+        this.reader = reader;
+    }
+
+    /** Linha do arquivo (a partir de 1) em que começa o último registro lido. */
+    long linhaRegistro() {
+        return linhaRegistro;
+    }
+
+    /** Próximo registro, ou null no fim do arquivo. Linhas em branco são ignoradas. */
+    List<String> proximo() throws IOException {
+        while (true) {
+            int c = ler();
+            if (c == -1) {
+                return null;
+            }
+            if (c == '\r' || c == '\n') {
+                consumirQuebra(c);
+                continue;
+            }
+            devolver(c);
+            linhaRegistro = linhaAtual;
+            List<String> campos = lerRegistro();
+            separadorDefinido = true;
+            return campos;
+        }
+    }
+
+    private List<String> lerRegistro() throws IOException {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+        boolean campoComAspas = false;
+        while (true) {
+            int c = ler();
+            if (entreAspas) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("Aspas não fechadas no registro iniciado na linha " + linhaRegistro);
+                }
+                if (c == '"') {
+                    int seguinte = ler();
+                    if (seguinte == '"') {
+                        campo.append('"');
+                    } else {
+                        entreAspas = false;
+                        devolver(seguinte);
+                    }
+                } else {
+                    if (c == '\n') {
+                        linhaAtual++;
+                    }
+                    campo.append((char) c);
+                }
+                continue;
+            }
+            if (c == '"' && campo.isEmpty() && !campoComAspas) {
+                entreAspas = true;
+                campoComAspas = true;
+            } else if (!separadorDefinido && (c == ',' || c == ';')) {
+                separador = (char) c;
+                separadorDefinido = true;
+                campos.add(campo.toString());
+                campo.setLength(0);
+                campoComAspas = false;
+            } else if (c == separador) {
+                campos.add(campo.toString());
+                campo.setLength(0);
+                campoComAspas = false;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c != -1) {
+                    consumirQuebra(c);
+                }
+                campos.add(campo.toString());
+                return campos;
+            } else {
+                campo.append((char) c);
+            }
+        }
+    }
+
+    private void consumirQuebra(int c) throws IOException {
+        if (c == '\r') {
+            int seguinte = ler();
+            if (seguinte != '\n') {
+                devolver(seguinte);
+            }
+        }
+        linhaAtual++;
+    }
+
+    private int ler() throws IOException {
+        if (pendente != -2) {
+            int c = pendente;
+            pendente = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void devolver(int c) {
+        pendente = c;
+    }
+}
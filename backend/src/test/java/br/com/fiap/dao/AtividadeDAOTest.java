@@ -0,0 +1,121 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.factory.ConnectionFactory;
+import br.com.fiap.model.Atividade;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AtividadeDAOTest {
+
+    private static final int ATIVIDADES = 300;
+    private static final int SUBS_POR_ATIVIDADE = 2;
+
+    @Test
+    void listarPorProjetoUsaUmaConexaoEDuasConsultas() throws Exception {
+        JdbcFake jdbc = new JdbcFake(sql -> sql.contains("TB_SUBATIVIDADE") ? subatividades() : atividades());
+
+        List<Atividade> atividades;
+        try (AtividadeDAO dao = new AtividadeDAO(jdbc.conexao())) {
+            atividades = dao.listarPorProjeto(1L);
+        }
+
+        // Nenhuma conexão extra emprestada do pool e nenhuma consulta por linha
+        assertEquals(0L, ConnectionFactory.getEstatisticasPool().get("emprestimos"));
+        assertEquals(2, jdbc.sqlPreparados.size());
+        assertTrue(jdbc.sqlPreparados.get(1).contains("ANY(?)"));
+
+        Object[] idsConsultados = (Object[]) ((java.sql.Array) jdbc.parametros.get(1)[1]).getArray();
+        assertEquals(ATIVIDADES, idsConsultados.length);
+
+        assertEquals(ATIVIDADES, atividades.size());
+        for (Atividade a : atividades) {
+            assertEquals(SUBS_POR_ATIVIDADE, a.getSubatividades().size());
+            a.getSubatividades().forEach(s -> assertEquals(a.getIdAtividade(), s.getIdAtividade()));
+        }
+    }
+
+    @Test
+    void projetoSemAtividadesNaoConsultaSubatividades() throws Exception {
+        JdbcFake jdbc = new JdbcFake(sql -> List.of());
+
+        try (AtividadeDAO dao = new AtividadeDAO(jdbc.conexao())) {
+            assertTrue(dao.listarPorProjeto(1L).isEmpty());
+        }
+        assertEquals(1, jdbc.sqlPreparados.size());
+    }
+
+    @Test
+    void cadastrarEmLoteReservaIdsNaOrdemEExecutaUmUnicoLote() throws Exception {
+        // Sequência devolvendo ids não contíguos, como acontece com inserções concorrentes
+        JdbcFake jdbc = new JdbcFake(sql -> List.of(Map.of("id", 40L), Map.of("id", 41L), Map.of("id", 57L)));
+
+        List<Atividade> atividades = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Atividade a = new Atividade();
+            a.setIdProjeto(7L);
+            a.setTitulo("Atividade " + i);
+            atividades.add(a);
+        }
+
+        List<Long> ids;
+        try (AtividadeDAO dao = new AtividadeDAO(jdbc.conexao())) {
+            ids = dao.cadastrarEmLote(atividades);
+        }
+
+        assertEquals(List.of(40L, 41L, 57L), ids);
+        assertEquals(57L, atividades.get(2).getIdAtividade());
+        // Uma consulta para reservar os ids, um INSERT sem RETURNING executado como lote
+        // e um único aviso de invalidação para o projeto
+        assertEquals(3, jdbc.sqlPreparados.size());
+        assertFalse(jdbc.sqlPreparados.get(1).contains("RETURNING"));
+        assertTrue(jdbc.sqlPreparados.get(2).contains("pg_notify"));
+        assertTrue(((String) jdbc.parametros.get(2)[2]).endsWith("|TB_PROJETO|7"));
+        assertEquals(1, jdbc.lotesExecutados);
+        assertEquals(3, jdbc.linhasLote.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ids.get(i), jdbc.linhasLote.get(i)[1]);
+            assertEquals("Atividade " + i, jdbc.linhasLote.get(i)[4]);
+        }
+    }
+
+    private static List<Map<String, Object>> atividades() {
+        List<Map<String, Object>> linhas = new ArrayList<>();
+        for (long id = 1; id <= ATIVIDADES; id++) {
+            Map<String, Object> linha = new HashMap<>();
+            linha.put("id_atividade", id);
+            linha.put("id_projeto", 1L);
+            linha.put("titulo", "Atividade " + id);
+            linha.put("data_inicio_prevista", LocalDate.of(2025, 1, 1));
+            linha.put("status", "PENDENTE");
+            linha.put("prioridade", "MEDIA");
+            linha.put("data_cadastro", LocalDateTime.of(2025, 1, 1, 8, 0));
+            linhas.add(linha);
+        }
+        return linhas;
+    }
+
+    private static List<Map<String, Object>> subatividades() {
+        List<Map<String, Object>> linhas = new ArrayList<>();
+        long idSub = 1;
+        for (int i = 0; i < SUBS_POR_ATIVIDADE; i++) {
+            for (long idAtividade = 1; idAtividade <= ATIVIDADES; idAtividade++) {
+                Map<String, Object> linha = new HashMap<>();
+                linha.put("id_subatividade", idSub++);
+                linha.put("id_atividade", idAtividade);
+                linha.put("titulo", "Sub " + idSub);
+                linha.put("status", "PENDENTE");
+                linha.put("prioridade", "MEDIA");
+                linhas.add(linha);
+            }
+        }
+        return linhas;
+    }
+}
@@ -0,0 +1,79 @@
+package br.com.fiap.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AtualizacaoParcialTest {
+
+    private static final AtualizacaoParcial PATCH = new AtualizacaoParcial("TB_PROJETO", "id_projeto")
+            .obrigatorio("titulo", "titulo", "text")
+            .campo("descricao", "descricao", "text")
+            .campo("orcamento", "orcamento", "numeric")
+            .obrigatorio("status", "status", "status_projeto");
+
+    @Test
+    void atualizaSoAsColunasEnviadasSemLerALinha() throws Exception {
+        JdbcFake jdbc = new JdbcFake(sql -> List.of(Map.of("versao", 4L)));
+        Map<String, Object> patch = new LinkedHashMap<>();
+        patch.put("descricao", null);
+        patch.put("orcamento", 10.5);
+
+        assertEquals(ResultadoEscrita.gravado(4), PATCH.aplicar(jdbc.conexao(), 7L, patch, null));
+
+        assertEquals(1, jdbc.sqlPreparados.size());
+        String sql = jdbc.sqlPreparados.get(0);
+        assertTrue(sql.startsWith("UPDATE TB_PROJETO SET descricao = ?::text, orcamento = ?::numeric WHERE id_projeto = ?"), sql);
+        assertTrue(sql.contains("ROW(descricao, orcamento) IS DISTINCT FROM ROW(?::text, ?::numeric)"), sql);
+        assertTrue(sql.endsWith("RETURNING versao"), sql);
+        assertFalse(sql.contains("titulo") || sql.contains("status") || sql.contains("versao = ?"), sql);
+
+        Object[] params = jdbc.parametros.get(0);
+        assertEquals("10.5", params[2]);
+        assertEquals(7L, params[3]);
+        assertEquals("10.5", params[5]);
+    }
+
+    @Test
+    void semLinhaAlteradaConfereSeOIdExiste() throws Exception {
+        JdbcFake jdbc = new JdbcFake(sql -> List.of());
+
+        ResultadoEscrita resultado = PATCH.aplicar(jdbc.conexao(), 7L, Map.of("titulo", "Igual"), null);
+        assertEquals(ResultadoEscrita.Situacao.NAO_ENCONTRADO, resultado.situacao());
+        assertEquals(2, jdbc.sqlPreparados.size());
+        assertTrue(jdbc.sqlPreparados.get(1).startsWith("SELECT versao FROM TB_PROJETO"));
+    }
+
+    @Test
+    void versaoEsperadaVaiNoWhereESeparaConflitoDeInexistente() throws Exception {
+        // O UPDATE condicionado não devolve linha; a consulta da versão mostra que a linha está na 5
+        JdbcFake jdbc = new JdbcFake(sql -> sql.startsWith("SELECT") ? List.of(Map.of("versao", 5L)) : List.of());
+
+        ResultadoEscrita resultado = PATCH.aplicar(jdbc.conexao(), 7L, Map.of("titulo", "Novo"), 3L);
+
+        assertEquals(new ResultadoEscrita(ResultadoEscrita.Situacao.VERSAO_DIFERENTE, 5), resultado);
+        String sql = jdbc.sqlPreparados.get(0);
+        assertTrue(sql.contains("WHERE id_projeto = ? AND versao = ? AND ROW(titulo)"), sql);
+        Object[] params = jdbc.parametros.get(0);
+        assertEquals(7L, params[2]);
+        assertEquals(3L, params[3]);
+        assertEquals("Novo", params[4]);
+    }
+
+    @Test
+    void recusaCampoDesconhecidoOuNuloObrigatorioAntesDoBanco() {
+        JdbcFake jdbc = new JdbcFake(sql -> List.of());
+        Map<String, Object> nulo = new HashMap<>();
+        nulo.put("status", null);
+
+        assertThrows(IllegalArgumentException.class, () -> PATCH.aplicar(jdbc.conexao(), 1L, Map.of("idEmpresa", 2), null));
+        assertThrows(IllegalArgumentException.class, () -> PATCH.aplicar(jdbc.conexao(), 1L, nulo, null));
+        assertThrows(IllegalArgumentException.class, () -> PATCH.aplicar(jdbc.conexao(), 1L, Map.of("titulo", List.of("a")), null));
+        assertTrue(jdbc.sqlPreparados.isEmpty());
+    }
+}
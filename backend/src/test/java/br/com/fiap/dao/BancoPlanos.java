@@ -0,0 +1,380 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.config.EnvConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Banco do teste de planos: um esquema próprio, criado pelas migrations do projeto e preenchido
+ * com volume parecido com o de produção, para que o planejador escolha os caminhos que escolheria lá.
+ * A conexão entregue aos DAOs ({@link #conexaoGravada()}) guarda cada SQL executado com os seus
+ * parâmetros, que depois são repassados a um EXPLAIN.
+ */
+final class BancoPlanos implements AutoCloseable {
+
+    static final String ESQUEMA = "planos_consulta";
+    private static final Path MIGRATIONS = Path.of("src/main/java/br/com/fiap/resource/db/migration");
+    private static final Pattern VERSAO = Pattern.compile("V(\\d+)_.*\\.sql");
+    // Dados de exemplo e consultas soltas das migrations; o volume do teste vem de popular()
+    private static final Pattern INSTRUCAO_DE_DADOS = Pattern.compile("(?is)^(INSERT|SELECT|DO)\\b.*");
+    // V1 adiciona o mesmo valor de enum duas vezes
+    private static final String OBJETO_DUPLICADO = "42710";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    static final int EMPRESAS = 20_000;
+    static final int CLIENTES_POR_EMPRESA = 5;
+    static final int PROJETOS_POR_EMPRESA = 2;
+    static final int ATIVIDADES_POR_PROJETO = 4;
+    static final int SUBATIVIDADES_POR_ATIVIDADE = 2;
+
+    record Execucao(String sql, Map<Integer, Vinculo> parametros) {
+    }
+
+    record Vinculo(Method metodo, Object[] argumentos) {
+    }
+
+    private final Connection conexao;
+    final List<Execucao> execucoes = new ArrayList<>();
+
+    private BancoPlanos(Connection conexao) {
+        this.conexao = conexao;
+    }
+
+    /**
+     * Recria o esquema, aplica as migrations e popula as tabelas. A conexão fica numa transação
+     * aberta; cada consulta do teste roda num savepoint desfeito em seguida.
+     */
+    static BancoPlanos criar() throws SQLException, IOException {
+        Connection conexao = DriverManager.getConnection(
+                EnvConfig.getDatabaseUrl(), EnvConfig.getDatabaseUser(), EnvConfig.getDatabasePassword());
+        try (Statement stmt = conexao.createStatement()) {
+            stmt.execute("DROP SCHEMA IF EXISTS " + ESQUEMA + " CASCADE");
+            stmt.execute("CREATE SCHEMA " + ESQUEMA);
+            // public continua no caminho para extensões já instaladas lá (pg_trgm)
+            stmt.execute("SET search_path TO " + ESQUEMA + ", public");
+        }
+        BancoPlanos banco = new BancoPlanos(conexao);
+        banco.migrar();
+        banco.popular();
+        conexao.setAutoCommit(false);
+        return banco;
+    }
+
+    private void migrar() throws SQLException, IOException {
+        List<Path> arquivos;
+        try (Stream<Path> lista = Files.list(MIGRATIONS)) {
+            arquivos = lista.filter(p -> VERSAO.matcher(p.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingInt(BancoPlanos::versao))
+                    .toList();
+        }
+        for (Path arquivo : arquivos) {
+            for (String instrucao : instrucoes(Files.readString(arquivo))) {
+                if (INSTRUCAO_DE_DADOS.matcher(instrucao).matches()) {
+                    continue;
+                }
+                try (Statement stmt = conexao.createStatement()) {
+                    stmt.execute(instrucao);
+                } catch (SQLException e) {
+                    if (!OBJETO_DUPLICADO.equals(e.getSQLState())) {
+                        throw new SQLException(arquivo.getFileName() + ": " + e.getMessage(), e.getSQLState(), e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int versao(Path arquivo) {
+        Matcher m = VERSAO.matcher(arquivo.getFileName().toString());
+        m.matches();
+        return Integer.parseInt(m.group(1));
+    }
+
+    /**
+     * Separa o script em instruções no ';', respeitando strings, corpos $$ e comentários.
+     * Comentários são descartados.
+     */
+    static List<String> instrucoes(String script) {
+        List<String> instrucoes = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        int i = 0;
+        while (i < script.length()) {
+            char c = script.charAt(i);
+            if (c == '-' && script.startsWith("--", i)) {
+                int fim = script.indexOf('\n', i);
+                i = fim < 0 ? script.length() : fim;
+            } else if (c == '/' && script.startsWith("/*", i)) {
+                int fim = script.indexOf("*/", i + 2);
+                i = fim < 0 ? script.length() : fim + 2;
+            } else if (c == '\'') {
+                int fim = i + 1;
+                while (fim < script.length()) {
+                    if (script.charAt(fim) == '\'') {
+                        if (fim + 1 < script.length() && script.charAt(fim + 1) == '\'') {
+                            fim += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    fim++;
+                }
+                atual.append(script, i, Math.min(fim + 1, script.length()));
+                i = fim + 1;
+            } else if (c == '$' && delimitadorDolar(script, i) != null) {
+                String delimitador = delimitadorDolar(script, i);
+                int fim = script.indexOf(delimitador, i + delimitador.length());
+                fim = fim < 0 ? script.length() : fim + delimitador.length();
+                atual.append(script, i, fim);
+                i = fim;
+            } else if (c == ';') {
+                adicionar(instrucoes, atual);
+                i++;
+            } else {
+                atual.append(c);
+                i++;
+            }
+        }
+        adicionar(instrucoes, atual);
+        return instrucoes;
+    }
+
+    // $$ ou $rotulo$ a partir de i, ou null se o $ não abre um corpo
+    private static String delimitadorDolar(String script, int i) {
+        int fim = i + 1;
+        while (fim < script.length() && (Character.isLetterOrDigit(script.charAt(fim)) || script.charAt(fim) == '_')) {
+            fim++;
+        }
+        return fim < script.length() && script.charAt(fim) == '$' ? script.substring(i, fim + 1) : null;
+    }
+
+    private static void adicionar(List<String> instrucoes, StringBuilder atual) {
+        String instrucao = atual.toString().strip();
+        if (!instrucao.isEmpty()) {
+            instrucoes.add(instrucao);
+        }
+        atual.setLength(0);
+    }
+
+    private void popular() throws SQLException {
+        String[] instrucoes = {
+                """
+                INSERT INTO TB_EMPRESA (cnpj, razao_social, nome_fantasia, email, telefone, cidade, estado,
+                                        setor_atuacao, ativo, quantidade_funcionarios, data_fundacao)
+                SELECT lpad(g::text, 14, '0'),
+                       (ARRAY['Metalúrgica', 'Indústria', 'Comércio', 'Tecnologia', 'Logística', 'Alimentos',
+                              'Química', 'Transportes', 'Construtora', 'Têxtil'])[g %% 10 + 1]
+                           || ' ' || (ARRAY['Paulista', 'Carioca', 'Mineira', 'Gaúcha', 'Baiana', 'Nordeste', 'Central',
+                              'do Vale', 'Horizonte', 'Atlântico', 'Serrana', 'Litoral', 'Pioneira', 'União', 'Aliança',
+                              'Progresso', 'Norte', 'Sul', 'Leste', 'Oeste', 'Brasil', 'Nacional', 'Global', 'Moderna',
+                              'Estrela'])[(g / 10) %% 25 + 1]
+                           || ' ' || g || ' Ltda',
+                       'Fantasia ' || g,
+                       'contato' || g || '@empresa.com',
+                       '11' || lpad(g::text, 9, '0'),
+                       'Cidade ' || (g %% 400),
+                       (ARRAY['SP', 'RJ', 'MG', 'PR', 'RS', 'SC', 'BA', 'PE', 'GO', 'AM'])[g %% 10 + 1],
+                       (ARRAY['Metalurgia', 'Alimentos', 'Têxtil', 'Química', 'Automotivo', 'Eletrônicos'])[g %% 6 + 1],
+                       g %% 10 <> 0,
+                       g %% 500,
+                       DATE '1980-01-01' + (g %% 15000)
+                FROM generate_series(1, %d) g
+                """.formatted(EMPRESAS),
+                """
+                INSERT INTO TB_CLIENTE (id_empresa, nome, email, telefone, cpf, cargo, departamento, role, senha, ativo)
+                SELECT (g - 1) / %d + 1,
+                       (ARRAY['Ana', 'Bruno', 'Carla', 'Diego', 'Eduarda', 'Felipe', 'Mariana', 'Paulo'])[g %% 8 + 1]
+                           || ' ' || md5(g::text),
+                       'Cliente' || g || '@Empresa.com',
+                       '11' || lpad(g::text, 9, '0'),
+                       lpad(g::text, 11, '0'),
+                       'Cargo ' || (g %% 30),
+                       'Departamento ' || (g %% 12),
+                       (CASE WHEN g %% 50 = 0 THEN 'ADMIN' WHEN g %% 10 = 0 THEN 'GERENTE' ELSE 'CLIENTE' END)::tipo_role,
+                       'hash-' || g,
+                       g %% 20 <> 0
+                FROM generate_series(1, %d) g
+                """.formatted(CLIENTES_POR_EMPRESA, EMPRESAS * CLIENTES_POR_EMPRESA),
+                """
+                INSERT INTO TB_PROJETO (id_empresa, id_gerente, titulo, descricao, data_inicio, data_termino_prevista,
+                                        orcamento, status, prioridade)
+                SELECT (g - 1) / %d + 1,
+                       ((g - 1) / %d) * %d + 1,
+                       'Projeto ' || g || ' de ' || (ARRAY['automação', 'sensores', 'manutenção', 'logística'])[g %% 4 + 1],
+                       'Descrição do projeto ' || g || ' com metas de produtividade e redução de custos',
+                       DATE '2020-01-01' + (g %% 2000),
+                       DATE '2020-01-01' + (g %% 2000) + 180,
+                       (g %% 1000) * 1000,
+                       (ARRAY['PLANEJAMENTO', 'EM_ANDAMENTO', 'PAUSADO', 'CONCLUIDO', 'CANCELADO'])[g %% 5 + 1]::status_projeto,
+                       (ARRAY['BAIXA', 'MEDIA', 'ALTA', 'URGENTE'])[g %% 4 + 1]::prioridade_projeto
+                FROM generate_series(1, %d) g
+                """.formatted(PROJETOS_POR_EMPRESA, PROJETOS_POR_EMPRESA, CLIENTES_POR_EMPRESA,
+                        EMPRESAS * PROJETOS_POR_EMPRESA),
+                """
+                INSERT INTO TB_PROJETO_CLIENTE (id_projeto, id_cliente, papel)
+                SELECT id_projeto, id_gerente, 'GERENTE' FROM TB_PROJETO
+                """,
+                """
+                INSERT INTO TB_ATIVIDADE (id_projeto, titulo, descricao, data_inicio_prevista, data_termino_prevista,
+                                          status, prioridade)
+                SELECT (g - 1) / %d + 1,
+                       'Atividade ' || g,
+                       'Comprar sensores, calibrar equipamentos e registrar a etapa ' || g,
+                       DATE '2020-01-01' + (g %% 2000),
+                       DATE '2020-01-01' + (g %% 2000) + 30,
+                       (ARRAY['PENDENTE', 'EM_ANDAMENTO', 'CONCLUIDA'])[g %% 3 + 1]::status_atividade,
+                       (ARRAY['BAIXA', 'MEDIA', 'ALTA'])[g %% 3 + 1]::prioridade_atividade
+                FROM generate_series(1, %d) g
+                """.formatted(ATIVIDADES_POR_PROJETO, EMPRESAS * PROJETOS_POR_EMPRESA * ATIVIDADES_POR_PROJETO),
+                """
+                INSERT INTO TB_SUBATIVIDADE (id_atividade, titulo, descricao, data_inicio_prevista, status, prioridade)
+                SELECT (g - 1) / %d + 1,
+                       'Subatividade ' || g,
+                       'Cotação com fornecedores ' || g,
+                       DATE '2020-01-01' + (g %% 2000),
+                       'PENDENTE'::status_atividade,
+                       'MEDIA'::prioridade_atividade
+                FROM generate_series(1, %d) g
+                """.formatted(SUBATIVIDADES_POR_ATIVIDADE,
+                        EMPRESAS * PROJETOS_POR_EMPRESA * ATIVIDADES_POR_PROJETO * SUBATIVIDADES_POR_ATIVIDADE),
+                // Como o autovacuum deixaria: estatísticas e mapa de visibilidade (index-only scan)
+                "VACUUM ANALYZE"
+        };
+        try (Statement stmt = conexao.createStatement()) {
+            for (String instrucao : instrucoes) {
+                stmt.execute(instrucao);
+            }
+        }
+    }
+
+    // Linhas estimadas de cada tabela do esquema, pelo nome em minúsculas que o EXPLAIN usa
+    Map<String, Long> linhasPorTabela() throws SQLException {
+        Map<String, Long> linhas = new HashMap<>();
+        try (PreparedStatement stmt = conexao.prepareStatement(
+                "SELECT relname, reltuples::bigint FROM pg_class WHERE relkind = 'r' AND relnamespace = ?::regnamespace")) {
+            stmt.setString(1, ESQUEMA);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    linhas.put(rs.getString(1), rs.getLong(2));
+                }
+            }
+        }
+        return linhas;
+    }
+
+    /**
+     * Conexão para os DAOs: repassa tudo à conexão real, registrando em {@link #execucoes} cada
+     * PreparedStatement executado. Fechar, confirmar ou desfazer é ignorado, como na conexão
+     * compartilhada da UnitOfWork; quem controla a transação é o teste.
+     */
+    Connection conexaoGravada() {
+        return proxy(Connection.class, (metodo, args) -> switch (metodo.getName()) {
+            case "prepareStatement" -> gravador((PreparedStatement) invocar(metodo, conexao, args), (String) args[0]);
+            case "close", "commit", "rollback", "setAutoCommit" -> null;
+            case "isClosed" -> false;
+            default -> invocar(metodo, conexao, args);
+        });
+    }
+
+    private PreparedStatement gravador(PreparedStatement real, String sql) {
+        Map<Integer, Vinculo> parametros = new TreeMap<>();
+        List<Map<Integer, Vinculo>> lote = new ArrayList<>();
+        return proxy(PreparedStatement.class, (metodo, args) -> {
+            String nome = metodo.getName();
+            if (nome.equals("setArray") && args[1] instanceof Array array) {
+                // O DAO pode liberar o array (free()) depois de executar; o EXPLAIN usa uma cópia
+                Object[] copia = args.clone();
+                copia[1] = conexao.createArrayOf(array.getBaseTypeName(), (Object[]) array.getArray());
+                parametros.put((Integer) args[0], new Vinculo(metodo, copia));
+            } else if (nome.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer indice) {
+                parametros.put(indice, new Vinculo(metodo, args));
+            } else if (nome.equals("clearParameters")) {
+                parametros.clear();
+            } else if (nome.equals("addBatch") && args == null) {
+                lote.add(new TreeMap<>(parametros));
+            } else if (nome.equals("executeBatch")) {
+                execucoes.add(new Execucao(sql, lote.isEmpty() ? Map.of() : lote.get(lote.size() - 1)));
+            } else if (nome.startsWith("execute") && args == null) {
+                execucoes.add(new Execucao(sql, new TreeMap<>(parametros)));
+            }
+            return invocar(metodo, real, args);
+        });
+    }
+
+    // Plano estimado (sem executar) da instrução com os mesmos parâmetros: o nó "Plan" do EXPLAIN em JSON
+    JsonNode planejar(Execucao execucao) throws SQLException, IOException {
+        try (PreparedStatement stmt = conexao.prepareStatement("EXPLAIN (FORMAT JSON) " + execucao.sql())) {
+            for (Vinculo vinculo : execucao.parametros().values()) {
+                invocar(vinculo.metodo(), stmt, vinculo.argumentos());
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return JSON.readTree(rs.getString(1)).get(0).get("Plan");
+            }
+        }
+    }
+
+    Savepoint marcar() throws SQLException {
+        return conexao.setSavepoint();
+    }
+
+    void desfazer(Savepoint savepoint) throws SQLException {
+        conexao.rollback(savepoint);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (Statement stmt = conexao.createStatement()) {
+            conexao.rollback();
+            conexao.setAutoCommit(true);
+            stmt.execute("DROP SCHEMA IF EXISTS " + ESQUEMA + " CASCADE");
+        } finally {
+            conexao.close();
+        }
+    }
+
+    private interface Resposta {
+        Object responder(Method metodo, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, Resposta resposta) {
+        return (T) Proxy.newProxyInstance(BancoPlanos.class.getClassLoader(), new Class<?>[]{tipo},
+                (p, metodo, args) -> resposta.responder(metodo, args));
+    }
+
+    private static Object invocar(Method metodo, Object alvo, Object[] args) throws SQLException {
+        try {
+            return metodo.invoke(alvo, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
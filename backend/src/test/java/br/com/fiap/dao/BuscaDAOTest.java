@@ -0,0 +1,18 @@
+package br.com.fiap.dao;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BuscaDAOTest {
+
+    @Test
+    void trechoEscapaOHtmlDoUsuarioEMantemSoOsDestaquesDoBanco() {
+        // Como o ts_headline devolve: marcas de uso privado em volta do termo, o resto como o usuário digitou
+        String trecho = "<mark>falso</mark> <img src=x onerror=\"alert('x')\"> \uE000integração\uE001 & cia";
+
+        assertEquals("&lt;mark&gt;falso&lt;/mark&gt; &lt;img src=x onerror=&quot;alert(&#39;x&#39;)&quot;&gt; "
+                + "<mark>integração</mark> &amp; cia", BuscaDAO.destacar(trecho));
+        assertNull(BuscaDAO.destacar(null));
+    }
+}
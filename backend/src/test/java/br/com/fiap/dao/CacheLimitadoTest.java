@@ -0,0 +1,94 @@
+package br.com.fiap.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheLimitadoTest {
+
+    private final AtomicLong agora = new AtomicLong();
+
+    private <V> CacheLimitado<String, V> cache(String nome, long pesoMaximo, java.util.function.ToIntFunction<V> peso) {
+        return new CacheLimitado<>(nome, pesoMaximo, 1_000, peso, agora::get);
+    }
+
+    @Test
+    void removeAUsadaHaMaisTempoQuandoPassaDoLimite() {
+        CacheLimitado<String, String> cache = cache("teste-limite", 2, valor -> 1);
+        cache.guardar("a", "A", cache.geracao());
+        cache.guardar("b", "B", cache.geracao());
+        assertEquals("A", cache.buscar("a"));
+
+        cache.guardar("c", "C", cache.geracao());
+
+        assertEquals("A", cache.buscar("a"));
+        assertNull(cache.buscar("b"));
+        assertEquals("C", cache.buscar("c"));
+        Map<String, Object> stats = cache.estatisticas();
+        assertEquals(1L, stats.get("remocoes"));
+        assertEquals(3L, stats.get("acertos"));
+        assertEquals(1L, stats.get("faltas"));
+    }
+
+    @Test
+    void expiraDepoisDoTtl() {
+        CacheLimitado<String, String> cache = cache("teste-ttl", 10, valor -> 1);
+        cache.guardar("a", "A", cache.geracao());
+
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assertEquals("A", cache.buscar("a"));
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assertNull(cache.buscar("a"));
+
+        assertEquals(1L, cache.estatisticas().get("expiradas"));
+        assertEquals(0, cache.estatisticas().get("entradas"));
+    }
+
+    @Test
+    void leituraAnteriorAInvalidacaoNaoEntraNoCache() {
+        CacheLimitado<String, String> cache = cache("teste-geracao", 10, valor -> 1);
+        long geracao = cache.geracao();
+        // Uma escrita invalida a chave enquanto a leitura ainda estava no banco
+        cache.remover("a");
+
+        cache.guardar("a", "antigo", geracao);
+
+        assertNull(cache.buscar("a"));
+        cache.guardar("a", "novo", cache.geracao());
+        assertEquals("novo", cache.buscar("a"));
+    }
+
+    @Test
+    void removeSePeloValorQuandoAInvalidacaoNaoConheceAChave() {
+        CacheLimitado<String, List<Integer>> cache = cache("teste-condicao", 10, List::size);
+        cache.guardar("a", List.of(1, 2), cache.geracao());
+        cache.guardar("b", List.of(3), cache.geracao());
+
+        cache.removerSe(valor -> valor.contains(2));
+
+        assertNull(cache.buscar("a"));
+        assertEquals(List.of(3), cache.buscar("b"));
+        assertEquals(1L, cache.estatisticas().get("peso"));
+        assertEquals(1L, cache.estatisticas().get("invalidacoes"));
+    }
+
+    @Test
+    void pesoPorValorLimitaOTotalENaoGuardaOQueNaoCabe() {
+        CacheLimitado<String, List<Integer>> cache = cache("teste-peso", 5, List::size);
+        cache.guardar("grande", List.of(1, 2, 3, 4, 5, 6), cache.geracao());
+        assertNull(cache.buscar("grande"));
+
+        cache.guardar("a", List.of(1, 2, 3), cache.geracao());
+        cache.guardar("b", List.of(1, 2, 3), cache.geracao());
+
+        assertNull(cache.buscar("a"));
+        assertNotNull(cache.buscar("b"));
+        assertEquals(3L, cache.estatisticas().get("peso"));
+        assertTrue(CacheLimitado.estatisticasDeTodos().containsKey("teste-peso"));
+    }
+}
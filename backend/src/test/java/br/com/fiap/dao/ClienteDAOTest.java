@@ -0,0 +1,71 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.model.Cliente;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClienteDAOTest {
+
+    @Test
+    void removerTiraDoCacheAsArvoresOndeEleEraResponsavel() {
+        byte[] json = "{}".getBytes(StandardCharsets.UTF_8);
+        // O cliente 5 não é gerente de nenhum dos projetos, só responsável por atividades do 701 e do 703
+        for (long projeto = 701; projeto <= 703; projeto++) {
+            ProjetoDAO.ARVORES.guardar(projeto, new ProjetoDAO.ArvoreJson(json, 1, 2L), ProjetoDAO.ARVORES.geracao());
+            RespostasEmCache.guardar("teste-arvore-" + projeto, json, Map.of(),
+                    Set.of(RespostasEmCache.linha("TB_PROJETO", projeto)), RespostasEmCache.geracao());
+        }
+        JdbcFake jdbc = new JdbcFake(sql -> sql.startsWith("DELETE")
+                ? List.of(Map.of("versao", 3L, "projetos", new Long[]{701L, 703L}))
+                : List.of());
+
+        ResultadoEscrita resultado;
+        try (ClienteDAO dao = new ClienteDAO(jdbc.conexao())) {
+            resultado = dao.remover(5, null);
+        }
+
+        assertEquals(ResultadoEscrita.gravado(3), resultado);
+        assertNull(ProjetoDAO.ARVORES.buscar(701L));
+        assertNotNull(ProjetoDAO.ARVORES.buscar(702L));
+        assertNull(ProjetoDAO.ARVORES.buscar(703L));
+        assertNull(RespostasEmCache.buscar("teste-arvore-701"));
+        assertNotNull(RespostasEmCache.buscar("teste-arvore-702"));
+        // Outros nós recebem os mesmos projetos no aviso
+        assertTrue(((String) jdbc.parametros.get(jdbc.parametros.size() - 1)[2]).endsWith("|TB_PROJETO|701,703"));
+    }
+
+    @Test
+    void loginLeSoAsColunasDeAutenticacao() {
+        JdbcFake jdbc = new JdbcFake(sql -> List.of(Map.of("id_cliente", 5L, "id_empresa", 1L, "nome", "Ana",
+                "email", "ana@empresa.com", "role", "ADMIN", "senha", "hash", "ativo", true)));
+
+        Cliente cliente;
+        try (ClienteDAO dao = new ClienteDAO(jdbc.conexao())) {
+            cliente = dao.buscarPorEmail("ana@empresa.com").orElseThrow();
+        }
+
+        // A projeção de login não traz data_cadastro; o mapeador não pode exigir a coluna
+        assertEquals("hash", cliente.getSenha());
+        assertTrue(cliente.isAtivo());
+    }
+
+    @Test
+    void escritaRecusadaNaoAvisaOsCaches() {
+        // Nenhuma linha afetada e nenhuma versão encontrada: o cliente não existe
+        JdbcFake jdbc = new JdbcFake(sql -> List.of());
+
+        ResultadoEscrita resultado;
+        try (ClienteDAO dao = new ClienteDAO(jdbc.conexao())) {
+            resultado = dao.atualizarParcial(404, Map.of("cargo", "Analista"), null);
+        }
+
+        assertEquals(ResultadoEscrita.Situacao.NAO_ENCONTRADO, resultado.situacao());
+        assertTrue(jdbc.sqlPreparados.stream().noneMatch(sql -> sql.contains("pg_notify")));
+    }
+}
@@ -0,0 +1,158 @@
+package br.com.fiap.dao;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Conexão JDBC em memória para testes de DAO sem banco.
+ * Cada SQL preparado é respondido pela função informada e contabilizado.
+ */
+class JdbcFake {
+
+    final List<String> sqlPreparados = new ArrayList<>();
+    final List<Object[]> parametros = new ArrayList<>();
+    // Parâmetros de cada addBatch, na ordem, e quantas vezes executeBatch foi chamado
+    final List<Object[]> linhasLote = new ArrayList<>();
+    int lotesExecutados;
+    private final Function<String, List<Map<String, Object>>> respostas;
+
+    JdbcFake(Function<String, List<Map<String, Object>>> respostas) {
+        this.respostas = respostas;
+    }
+
+    Connection conexao() {
+        return proxy(Connection.class, (nome, args) -> switch (nome) {
+            case "prepareStatement" -> statement((String) args[0]);
+            case "createArrayOf" -> array((Object[]) args[1]);
+            case "isClosed" -> false;
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException("Connection." + nome);
+        });
+    }
+
+    private PreparedStatement statement(String sql) {
+        sqlPreparados.add(sql);
+        Object[] params = new Object[16];
+        parametros.add(params);
+        return proxy(PreparedStatement.class, (nome, args) -> switch (nome) {
+            case "setLong", "setInt", "setString", "setObject", "setArray", "setDate", "setNull", "setTimestamp" -> {
+                params[(int) args[0]] = args[1];
+                yield null;
+            }
+            case "executeQuery" -> resultSet(colunas(sql), respostas.apply(sql));
+            case "executeUpdate" -> 1;
+            case "execute" -> true;
+            case "addBatch" -> {
+                linhasLote.add(params.clone());
+                yield null;
+            }
+            case "executeBatch" -> {
+                lotesExecutados++;
+                yield new int[0];
+            }
+            case "close" -> null;
+            default -> throw new UnsupportedOperationException("PreparedStatement." + nome);
+        });
+    }
+
+    private static Array array(Object[] elementos) {
+        return proxy(Array.class, (nome, args) -> switch (nome) {
+            case "getArray" -> elementos;
+            case "free" -> null;
+            default -> throw new UnsupportedOperationException("Array." + nome);
+        });
+    }
+
+    // Rótulos na ordem da lista do SELECT (ou do RETURNING de um UPDATE/DELETE):
+    // o alias ou o nome da coluna sem o prefixo da tabela
+    static List<String> colunas(String sql) {
+        String lista = sql.startsWith("UPDATE") || sql.startsWith("DELETE")
+                ? sql.substring(sql.lastIndexOf(" RETURNING ") + " RETURNING ".length())
+                : sql.substring(sql.indexOf("SELECT") + "SELECT".length(), sql.indexOf(" FROM "));
+        List<String> rotulos = new ArrayList<>();
+        // Vírgulas dentro de parênteses são argumentos de função, não separadores da lista
+        for (String item : lista.split(",(?![^()]*\\))")) {
+            String[] partes = item.trim().split("\\s+");
+            String ultimo = partes[partes.length - 1];
+            rotulos.add(ultimo.substring(ultimo.indexOf('.') + 1).toLowerCase());
+        }
+        return rotulos;
+    }
+
+    static ResultSet resultSet(List<String> colunas, List<Map<String, Object>> linhas) {
+        int[] cursor = {-1};
+        Object[] ultimo = {null};
+        ResultSetMetaData meta = proxy(ResultSetMetaData.class, (nome, args) -> switch (nome) {
+            case "getColumnCount" -> colunas.size();
+            case "getColumnLabel", "getColumnName" -> colunas.get((int) args[0] - 1);
+            default -> throw new UnsupportedOperationException("ResultSetMetaData." + nome);
+        });
+        return proxy(ResultSet.class, (nome, args) -> {
+            if (nome.equals("next")) {
+                return ++cursor[0] < linhas.size();
+            }
+            if (nome.equals("close")) {
+                return null;
+            }
+            if (nome.equals("wasNull")) {
+                return ultimo[0] == null;
+            }
+            if (nome.equals("getMetaData")) {
+                return meta;
+            }
+            String coluna = args[0] instanceof Integer indice ? colunas.get(indice - 1) : (String) args[0];
+            Object valor = linhas.get(cursor[0]).get(coluna);
+            ultimo[0] = valor;
+            return switch (nome) {
+                case "getObject" -> args.length == 2 ? converter(valor, (Class<?>) args[1]) : valor;
+                case "getString" -> valor == null ? null : valor.toString();
+                case "getLong" -> valor == null ? 0L : ((Number) valor).longValue();
+                case "getInt" -> valor == null ? 0 : ((Number) valor).intValue();
+                case "getBoolean" -> valor != null && (Boolean) valor;
+                case "getBigDecimal" -> valor == null ? null : new BigDecimal(valor.toString());
+                case "getDate" -> valor == null ? null : Date.valueOf((LocalDate) valor);
+                case "getTimestamp" -> valor == null ? null : Timestamp.valueOf((LocalDateTime) valor);
+                case "getArray" -> valor == null ? null : array((Object[]) valor);
+                default -> throw new UnsupportedOperationException("ResultSet." + nome);
+            };
+        });
+    }
+
+    // Como o driver: timestamptz lido como OffsetDateTime
+    private static Object converter(Object valor, Class<?> tipo) {
+        if (valor instanceof LocalDateTime dataHora && tipo == OffsetDateTime.class) {
+            return dataHora.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+        }
+        return tipo.cast(valor);
+    }
+
+    private interface Handler {
+        Object invoke(String nome, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, Handler handler) {
+        return (T) Proxy.newProxyInstance(JdbcFake.class.getClassLoader(), new Class<?>[]{tipo},
+                (p, m, args) -> {
+                    if (m.getDeclaringClass() == Object.class) {
+                        return m.getName().equals("toString") ? tipo.getSimpleName() + "Fake" : m.invoke(handler, args);
+                    }
+                    return handler.invoke(m.getName(), args);
+                });
+    }
+}
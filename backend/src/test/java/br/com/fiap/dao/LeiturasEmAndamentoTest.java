@@ -0,0 +1,106 @@
+package br.com.fiap.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeiturasEmAndamentoTest {
+
+    private static final int REQUISICOES = 8;
+
+    @Test
+    void requisicoesSimultaneasDividemUmaLeitura() throws Exception {
+        LeiturasEmAndamento<String, String> leituras = new LeiturasEmAndamento<>("teste-simultaneas");
+        AtomicInteger idasAoBanco = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(REQUISICOES);
+        try {
+            List<Future<String>> respostas = new ArrayList<>();
+            for (int i = 0; i < REQUISICOES; i++) {
+                respostas.add(threads.submit(() -> leituras.executar("projeto-1", 0, () -> {
+                    idasAoBanco.incrementAndGet();
+                    liberar.await();
+                    return "arvore";
+                })));
+            }
+            // Espera todas entrarem antes de deixar a primeira leitura terminar
+            while (!leituras.estatisticas().get("compartilhadas").equals((long) REQUISICOES - 1)) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+            for (Future<String> resposta : respostas) {
+                assertEquals("arvore", resposta.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertEquals(1, idasAoBanco.get());
+        assertEquals(1L, leituras.estatisticas().get("executadas"));
+        assertEquals(0, leituras.estatisticas().get("emAndamento"));
+    }
+
+    @Test
+    void quemEsperaRecebeAMesmaExcecao() throws Exception {
+        LeiturasEmAndamento<String, String> leituras = new LeiturasEmAndamento<>("teste-excecao");
+        CountDownLatch lendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> primeira = threads.submit(() -> leituras.executar("k", 0, () -> {
+                lendo.countDown();
+                liberar.await();
+                throw new SQLException("banco fora");
+            }));
+            lendo.await();
+            Future<String> segunda = threads.submit(() -> leituras.executar("k", 0, () -> "nunca"));
+            while (!leituras.estatisticas().get("compartilhadas").equals(1L)) {
+                Thread.sleep(5);
+            }
+            liberar.countDown();
+
+            for (Future<String> resposta : List.of(primeira, segunda)) {
+                Exception e = assertThrows(Exception.class, () -> resposta.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(SQLException.class, e.getCause());
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void leituraAnteriorAUmaEscritaNaoEAproveitada() throws Exception {
+        LeiturasEmAndamento<String, String> leituras = new LeiturasEmAndamento<>("teste-geracao");
+        CountDownLatch lendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ExecutorService threads = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> antiga = threads.submit(() -> leituras.executar("k", 0, () -> {
+                lendo.countDown();
+                liberar.await();
+                return "antes da escrita";
+            }));
+            lendo.await();
+
+            // Chegou depois de uma escrita (geração 1): lê de novo em vez de esperar a leitura antiga
+            assertEquals("depois da escrita", leituras.executar("k", 1, () -> "depois da escrita"));
+
+            liberar.countDown();
+            assertEquals("antes da escrita", antiga.get(5, TimeUnit.SECONDS));
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(2L, leituras.estatisticas().get("executadas"));
+        assertEquals(0L, leituras.estatisticas().get("compartilhadas"));
+    }
+}
@@ -0,0 +1,237 @@
+package br.com.fiap.dao;
+
+import br.com.fiap.model.Atividade;
+import br.com.fiap.model.Cliente;
+import br.com.fiap.model.Empresa;
+import br.com.fiap.model.Projeto;
+import br.com.fiap.model.SubAtividade;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+import static br.com.fiap.dao.BancoPlanos.ATIVIDADES_POR_PROJETO;
+import static br.com.fiap.dao.BancoPlanos.CLIENTES_POR_EMPRESA;
+import static br.com.fiap.dao.BancoPlanos.PROJETOS_POR_EMPRESA;
+import static br.com.fiap.dao.BancoPlanos.SUBATIVIDADES_POR_ATIVIDADE;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regressão de planos: cada consulta registrada abaixo roda pelo DAO de verdade contra o banco de
+ * {@link BancoPlanos}, e o SQL que ele executou passa por EXPLAIN. Falha se alguma instrução varrer
+ * sequencialmente uma tabela grande ou passar do custo estimado permitido.
+ * <p>
+ * Precisa de um PostgreSQL (DB_URL, DB_USER, DB_PASSWORD); o esquema de teste é criado e apagado
+ * pelo próprio teste. Fora da execução padrão: {@code mvn -Pplanos test}.
+ */
+@Tag("planos")
+class PlanosConsultaTest {
+
+    // Acima disso um Seq Scan deixa de ser barato e passa a crescer com a tabela
+    private static final long LIMITE_LINHAS_SEQ_SCAN = 10_000;
+    // Custo estimado (unidades do planejador) de uma leitura ou escrita por chave ou página
+    private static final double CUSTO_MAXIMO = 1_000;
+
+    private static final long ID_EMPRESA = 7_777;
+    private static final long ID_CLIENTE = (ID_EMPRESA - 1) * CLIENTES_POR_EMPRESA + 1;
+    private static final long ID_PROJETO = (ID_EMPRESA - 1) * PROJETOS_POR_EMPRESA + 1;
+    private static final long ID_ATIVIDADE = (ID_PROJETO - 1) * ATIVIDADES_POR_PROJETO + 1;
+    private static final long ID_SUBATIVIDADE = (ID_ATIVIDADE - 1) * SUBATIVIDADES_POR_ATIVIDADE + 1;
+
+    private interface Chamada {
+        void executar(Connection conexao) throws Exception;
+    }
+
+    private record Consulta(String nome, double custoMaximo, Chamada chamada) {
+    }
+
+    private static Consulta consulta(String nome, Chamada chamada) {
+        return new Consulta(nome, CUSTO_MAXIMO, chamada);
+    }
+
+    // Orçamento próprio: busca textual (ranqueia todos os documentos que casam) e instruções com
+    // jsonb_array_elements, que o planejador sempre estima em 100 linhas por chamada
+    private static Consulta consulta(String nome, double custoMaximo, Chamada chamada) {
+        return new Consulta(nome, custoMaximo, chamada);
+    }
+
+    /**
+     * Toda consulta de DAO usada pelos endpoints. Listagens completas e exportações (que leem a
+     * tabela inteira por definição, ou usam COPY) ficam de fora.
+     */
+    private static List<Consulta> consultas() {
+        return List.of(
+                consulta("EmpresaDAO.cadastrar", c -> {
+                    EmpresaDAO dao = new EmpresaDAO(c);
+                    Empresa empresa = dao.pesquisarPorId(ID_EMPRESA).orElseThrow();
+                    empresa.setCnpj("99999999000199");
+                    dao.cadastrar(empresa);
+                }),
+                consulta("EmpresaDAO.pesquisarPorId", c -> new EmpresaDAO(c).pesquisarPorId(ID_EMPRESA)),
+                consulta("EmpresaDAO.pesquisarPorCnpj", c -> new EmpresaDAO(c).pesquisarPorCnpj(String.format("%014d", ID_EMPRESA))),
+                consulta("EmpresaDAO.listarPagina", c -> new EmpresaDAO(c).listarPagina(null, null, null, null, 3, 50)),
+                consulta("EmpresaDAO.listarPagina(estado, cidade)", c -> new EmpresaDAO(c).listarPagina("SP", "Cidade 17", null, true, 1, 50)),
+                consulta("EmpresaDAO.listarPagina(setor)", c -> new EmpresaDAO(c).listarPagina(null, null, "Química", null, 1, 50)),
+                consulta("EmpresaDAO.contar(estado)", c -> new EmpresaDAO(c).contar("RJ", null, null, null)),
+                consulta("EmpresaDAO.sugerir", c -> new EmpresaDAO(c).sugerir("metalurgica paulista", 10)),
+                consulta("EmpresaDAO.atualizar", c -> {
+                    EmpresaDAO dao = new EmpresaDAO(c);
+                    dao.atualizar(dao.pesquisarPorId(ID_EMPRESA).orElseThrow(), 1L);
+                }),
+                consulta("EmpresaDAO.atualizarParcial", c -> new EmpresaDAO(c).atualizarParcial(ID_EMPRESA, Map.of("telefone", "1130000000"), null)),
+                consulta("EmpresaDAO.remover", c -> new EmpresaDAO(c).remover(ID_EMPRESA, null)),
+                consulta("EmpresaDAO.versao", c -> new EmpresaDAO(c).versao(ID_EMPRESA)),
+                consulta("EmpresaDAO.existePorId", c -> new EmpresaDAO(c).existePorId(ID_EMPRESA)),
+
+                consulta("ClienteDAO.cadastrar", c -> {
+                    ClienteDAO dao = new ClienteDAO(c);
+                    Cliente cliente = dao.pesquisarPorId(ID_CLIENTE).orElseThrow();
+                    cliente.setCpf("99999999999");
+                    cliente.setEmail("novo.cliente@empresa.com");
+                    cliente.setSenha("hash");
+                    dao.cadastrar(cliente);
+                }),
+                consulta("ClienteDAO.pesquisarPorId", c -> new ClienteDAO(c).pesquisarPorId(ID_CLIENTE)),
+                consulta("ClienteDAO.pesquisarPorCpf", c -> new ClienteDAO(c).pesquisarPorCpf(String.format("%011d", ID_CLIENTE))),
+                consulta("ClienteDAO.buscarPorEmail", c -> new ClienteDAO(c).buscarPorEmail("cliente" + ID_CLIENTE + "@empresa.com")),
+                consulta("ClienteDAO.listarPagina", c -> new ClienteDAO(c).listarPagina(null, null, null, 3, 50)),
+                consulta("ClienteDAO.listarPagina(empresa)", c -> new ClienteDAO(c).listarPagina(ID_EMPRESA, null, true, 1, 50)),
+                consulta("ClienteDAO.listarPagina(role)", c -> new ClienteDAO(c).listarPagina(null, "ADMIN", null, 1, 50)),
+                consulta("ClienteDAO.contar(empresa)", c -> new ClienteDAO(c).contar(ID_EMPRESA, null, null)),
+                consulta("ClienteDAO.contar(role)", c -> new ClienteDAO(c).contar(null, "ADMIN", null)),
+                consulta("ClienteDAO.sugerir", c -> new ClienteDAO(c).sugerir("mariana", ID_EMPRESA, 10)),
+                consulta("ClienteDAO.atualizar", c -> {
+                    ClienteDAO dao = new ClienteDAO(c);
+                    dao.atualizar(dao.pesquisarPorId(ID_CLIENTE).orElseThrow(), 1L);
+                }),
+                consulta("ClienteDAO.atualizarParcial", c -> new ClienteDAO(c).atualizarParcial(ID_CLIENTE, Map.of("cargo", "Analista"), null)),
+                consulta("ClienteDAO.remover", c -> new ClienteDAO(c).remover(ID_CLIENTE, null)),
+                consulta("ClienteDAO.versao", c -> new ClienteDAO(c).versao(ID_CLIENTE)),
+                consulta("ClienteDAO.existePorId", c -> new ClienteDAO(c).existePorId(ID_CLIENTE)),
+
+                consulta("ProjetoDAO.cadastrar", 5_000, c -> {
+                    ProjetoDAO dao = new ProjetoDAO(c);
+                    Projeto projeto = dao.pesquisarPorId(ID_PROJETO).orElseThrow();
+                    Atividade atividade = new Atividade();
+                    atividade.setTitulo("Atividade inicial");
+                    projeto.setAtividades(List.of(atividade));
+                    dao.cadastrar(projeto);
+                }),
+                consulta("ProjetoDAO.pesquisarPorId", c -> new ProjetoDAO(c).pesquisarPorId(ID_PROJETO)),
+                consulta("ProjetoDAO.listarPorEmpresa", c -> new ProjetoDAO(c).listarPorEmpresa(ID_EMPRESA)),
+                consulta("ProjetoDAO.listarPagina", c -> new ProjetoDAO(c).listarPagina(null, new CursorProjeto(LocalDate.of(2023, 6, 1), 20_000), 20)),
+                consulta("ProjetoDAO.listarPagina(empresa)", c -> new ProjetoDAO(c).listarPagina(ID_EMPRESA, null, 20)),
+                consulta("ProjetoDAO.pesquisarPorIdComAtividades", c -> new ProjetoDAO(c).pesquisarPorIdComAtividades(ID_PROJETO)),
+                consulta("ProjetoDAO.pesquisarArvoreJson", c -> new ProjetoDAO(c).pesquisarArvoreJson(ID_PROJETO)),
+                consulta("ProjetoDAO.atualizar", c -> {
+                    ProjetoDAO dao = new ProjetoDAO(c);
+                    dao.atualizar(dao.pesquisarPorId(ID_PROJETO).orElseThrow(), 1L);
+                }),
+                consulta("ProjetoDAO.atualizarParcial", c -> new ProjetoDAO(c).atualizarParcial(ID_PROJETO, Map.of("titulo", "Novo título"), null)),
+                consulta("ProjetoDAO.remover", c -> new ProjetoDAO(c).remover(ID_PROJETO, null)),
+                consulta("ProjetoDAO.versoes", c -> new ProjetoDAO(c).versoes(ID_PROJETO)),
+
+                consulta("AtividadeDAO.cadastrar", c -> {
+                    Atividade atividade = new Atividade();
+                    atividade.setIdProjeto(ID_PROJETO);
+                    atividade.setTitulo("Nova atividade");
+                    new AtividadeDAO(c).cadastrar(atividade);
+                }),
+                consulta("AtividadeDAO.cadastrarEmLote", c -> {
+                    List<Atividade> atividades = new ArrayList<>();
+                    for (int i = 0; i < 3; i++) {
+                        Atividade atividade = new Atividade();
+                        atividade.setIdProjeto(ID_PROJETO);
+                        atividade.setTitulo("Atividade " + i);
+                        atividades.add(atividade);
+                    }
+                    new AtividadeDAO(c).cadastrarEmLote(atividades);
+                }),
+                consulta("AtividadeDAO.contarDoProjeto", c -> new AtividadeDAO(c).contarDoProjeto(ID_PROJETO, List.of(ID_ATIVIDADE, ID_ATIVIDADE + 1))),
+                consulta("AtividadeDAO.listarPorProjeto", c -> new AtividadeDAO(c).listarPorProjeto(ID_PROJETO)),
+
+                consulta("SubAtividadeDAO.cadastrar", c -> {
+                    SubAtividadeDAO dao = new SubAtividadeDAO(c);
+                    SubAtividade subAtividade = dao.pesquisarPorId(ID_SUBATIVIDADE).orElseThrow();
+                    dao.cadastrar(subAtividade);
+                }),
+                consulta("SubAtividadeDAO.pesquisarPorId", c -> new SubAtividadeDAO(c).pesquisarPorId(ID_SUBATIVIDADE)),
+                consulta("SubAtividadeDAO.listarPorAtividade", c -> new SubAtividadeDAO(c).listarPorAtividade(ID_ATIVIDADE)),
+                consulta("SubAtividadeDAO.listarPorAtividades", c -> new SubAtividadeDAO(c).listarPorAtividades(List.of(ID_ATIVIDADE, ID_ATIVIDADE + 1))),
+                consulta("SubAtividadeDAO.atualizar", c -> {
+                    SubAtividadeDAO dao = new SubAtividadeDAO(c);
+                    dao.atualizar(dao.pesquisarPorId(ID_SUBATIVIDADE).orElseThrow(), 1L);
+                }),
+                consulta("SubAtividadeDAO.remover", c -> new SubAtividadeDAO(c).remover(ID_SUBATIVIDADE, null)),
+                consulta("SubAtividadeDAO.versao", c -> new SubAtividadeDAO(c).versao(ID_SUBATIVIDADE)),
+
+                consulta("BuscaDAO.buscar(empresa)", c -> new BuscaDAO(c).buscar("sensores", ID_EMPRESA, EnumSet.allOf(BuscaDAO.Tipo.class), 20)),
+                consulta("BuscaDAO.buscar", 5_000, c -> new BuscaDAO(c).buscar("automação", null, EnumSet.of(BuscaDAO.Tipo.PROJETO), 20)),
+
+                consulta("ResumoProjetoDAO.listarResumos(empresa)", c -> new ResumoProjetoDAO(c).listarResumos(ID_EMPRESA)),
+                consulta("ResumoProjetoDAO.resumirEmpresa", c -> new ResumoProjetoDAO(c).resumirEmpresa(ID_EMPRESA))
+        );
+    }
+
+    @Test
+    void consultasDosDaosUsamIndicesEFicamNoOrcamento() throws Exception {
+        List<String> violacoes = new ArrayList<>();
+        try (BancoPlanos banco = BancoPlanos.criar()) {
+            Map<String, Long> linhas = banco.linhasPorTabela();
+            Connection conexao = banco.conexaoGravada();
+
+            for (Consulta consulta : consultas()) {
+                banco.execucoes.clear();
+                // O que importa é o plano da consulta ao banco, não uma resposta vinda de cache
+                CacheLimitado.limparTodos();
+                Savepoint savepoint = banco.marcar();
+                try {
+                    consulta.chamada().executar(conexao);
+                } catch (Exception e) {
+                    violacoes.add(consulta.nome() + ": falhou ao executar: " + e);
+                    continue;
+                } finally {
+                    banco.desfazer(savepoint);
+                }
+
+                for (BancoPlanos.Execucao execucao : banco.execucoes) {
+                    JsonNode plano = banco.planejar(execucao);
+                    List<String> problemas = new ArrayList<>();
+                    procurarVarreduras(plano, linhas, problemas);
+                    double custo = plano.get("Total Cost").asDouble();
+                    if (custo > consulta.custoMaximo()) {
+                        problemas.add("custo acima do orçamento");
+                    }
+                    if (!problemas.isEmpty()) {
+                        violacoes.add(String.format("%s (custo estimado %.1f, orçamento %.0f): ", consulta.nome(), custo,
+                                consulta.custoMaximo()) + String.join("; ", problemas)
+                                + "\n  SQL: " + execucao.sql().strip().replaceAll("\\s+", " ")
+                                + "\n  Plano: " + plano.toPrettyString().replace("\n", "\n  "));
+                    }
+                }
+            }
+        }
+        assertTrue(violacoes.isEmpty(), violacoes.size() + " consulta(s) fora do plano esperado:\n\n"
+                + String.join("\n\n", violacoes));
+    }
+
+    private static void procurarVarreduras(JsonNode no, Map<String, Long> linhas, List<String> problemas) {
+        if ("Seq Scan".equals(no.path("Node Type").asText())) {
+            String tabela = no.path("Relation Name").asText();
+            long total = linhas.getOrDefault(tabela, 0L);
+            if (total > LIMITE_LINHAS_SEQ_SCAN) {
+                problemas.add("Seq Scan em " + tabela + " (" + total + " linhas)");
+            }
+        }
+        for (JsonNode filho : no.path("Plans")) {
+            procurarVarreduras(filho, linhas, problemas);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.fiap.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RespostasEmCacheTest {
+
+    @Test
+    void comprimeSoRespostaGrandeEAEtagDependeDoConteudo() throws Exception {
+        byte[] grande = ("[" + "{\"titulo\":\"Atividade\"},".repeat(100) + "{}]").getBytes(StandardCharsets.UTF_8);
+        RespostasEmCache.Resposta resposta = RespostasEmCache.guardar("teste-grande", grande, Map.of(), Set.of(),
+                RespostasEmCache.geracao());
+        RespostasEmCache.Resposta pequena = RespostasEmCache.guardar("teste-pequena", "[]".getBytes(StandardCharsets.UTF_8),
+                Map.of(), Set.of(), RespostasEmCache.geracao());
+
+        assertNull(pequena.gzip());
+        assertArrayEquals(grande, new GZIPInputStream(new ByteArrayInputStream(resposta.gzip())).readAllBytes());
+        assertEquals(resposta.etag(), RespostasEmCache.guardar("teste-copia", grande.clone(), Map.of(), Set.of(),
+                RespostasEmCache.geracao()).etag());
+        assertNotEquals(resposta.etag(), pequena.etag());
+    }
+
+    @Test
+    void escritaTiraSoAsRespostasQueDependemDaTabelaOuDaLinha() {
+        byte[] json = "[]".getBytes(StandardCharsets.UTF_8);
+        RespostasEmCache.guardar("teste-lista", json, Map.of(), Set.of("TB_TESTE"), RespostasEmCache.geracao());
+        RespostasEmCache.guardar("teste-linha-1", json, Map.of(), Set.of(RespostasEmCache.linha("TB_TESTE", 1)),
+                RespostasEmCache.geracao());
+        RespostasEmCache.guardar("teste-linha-2", json, Map.of(), Set.of(RespostasEmCache.linha("TB_TESTE", 2)),
+                RespostasEmCache.geracao());
+
+        // Como AlteracaoTabela faz numa escrita na linha 1
+        RespostasEmCache.invalidar("TB_TESTE", RespostasEmCache.linha("TB_TESTE", 1));
+
+        assertNull(RespostasEmCache.buscar("teste-lista"));
+        assertNull(RespostasEmCache.buscar("teste-linha-1"));
+        assertNotNull(RespostasEmCache.buscar("teste-linha-2"));
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.fiap.factory;
+
+import br.com.fiap.filter.EncerramentoTransacao;
+import br.com.fiap.filter.TransactionalFeature;
+import jakarta.annotation.Priority;
+import jakarta.transaction.Transactional;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TransacaoComExcecaoTest {
+
+    private static final URI BASE = URI.create("http://localhost:18089/");
+
+    private final AtomicInteger commits = new AtomicInteger();
+    private final AtomicInteger rollbacks = new AtomicInteger();
+    private final HttpClient http = HttpClient.newHttpClient();
+    private HttpServer servidor;
+
+    @Path("teste")
+    public static class RecursoTeste {
+
+        @POST
+        @Path("falha")
+        @Transactional
+        public String falhar() throws SQLException {
+            ConnectionFactory.getConnection();
+            throw new IllegalStateException("erro fora do try do recurso");
+        }
+
+        @POST
+        @Path("filtro-falha")
+        @Transactional
+        public String gravar() throws SQLException {
+            ConnectionFactory.getConnection();
+            return "gravado";
+        }
+
+        @GET
+        @Path("unidade")
+        public String unidadeAberta() {
+            return Boolean.toString(UnitOfWork.current().isPresent());
+        }
+    }
+
+    // Filtros de resposta rodam em ordem decrescente de prioridade: este roda antes do TransactionFilter
+    @Priority(Priorities.USER + 1000)
+    public static class FiltroQueFalha implements ContainerResponseFilter {
+
+        @Override
+        public void filter(ContainerRequestContext requisicao, ContainerResponseContext resposta) {
+            if (requisicao.getUriInfo().getPath().endsWith("filtro-falha")) {
+                throw new IllegalStateException("erro num filtro de resposta");
+            }
+        }
+    }
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        ConnectionFactory.usarDataSource(dataSourceFake());
+        servidor = GrizzlyHttpServerFactory.createHttpServer(BASE, new ResourceConfig()
+                .register(RecursoTeste.class)
+                .register(FiltroQueFalha.class)
+                .register(TransactionalFeature.class)
+                .register(EncerramentoTransacao.class), false);
+        // Uma única thread de trabalho: a requisição seguinte cai na mesma thread da que falhou
+        servidor.getListener("grizzly").getTransport().getWorkerThreadPoolConfig()
+                .setCorePoolSize(1).setMaxPoolSize(1);
+        servidor.start();
+    }
+
+    @AfterEach
+    void parar() {
+        servidor.shutdownNow();
+        ConnectionFactory.fecharPool();
+    }
+
+    @Test
+    void excecaoNoRecursoDesfazEDevolveAConexao() throws Exception {
+        assertEquals(500, post("teste/falha"));
+        assertTransacaoDesfeitaESemUnidadeNaThread();
+    }
+
+    @Test
+    void excecaoNumFiltroDeRespostaDesfazEDevolveAConexao() throws Exception {
+        // A cadeia de filtros para no erro e o TransactionFilter não chega a ver a resposta
+        assertEquals(500, post("teste/filtro-falha"));
+        assertTransacaoDesfeitaESemUnidadeNaThread();
+    }
+
+    private int post(String caminho) throws Exception {
+        return http.send(HttpRequest.newBuilder(BASE.resolve(caminho)).POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private void assertTransacaoDesfeitaESemUnidadeNaThread() throws Exception {
+        HttpResponse<String> seguinte = http.send(HttpRequest.newBuilder(BASE.resolve("teste/unidade")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals("false", seguinte.body());
+        assertEquals(1, rollbacks.get());
+        assertEquals(0, commits.get());
+        assertEquals(0, ConnectionFactory.getEstatisticasPool().get("ativas"));
+    }
+
+    // Só o que o Hikari e a unidade de trabalho chamam; o resto devolve o valor padrão do tipo
+    private DataSource dataSourceFake() {
+        Connection conexao = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{Connection.class}, (p, m, args) -> switch (m.getName()) {
+                    case "commit" -> {
+                        commits.incrementAndGet();
+                        yield null;
+                    }
+                    case "rollback" -> {
+                        rollbacks.incrementAndGet();
+                        yield null;
+                    }
+                    case "isValid", "getAutoCommit" -> true;
+                    case "hashCode" -> System.identityHashCode(p);
+                    case "equals" -> p == args[0];
+                    default -> padrao(m.getReturnType());
+                });
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                (p, m, args) -> m.getName().equals("getConnection") ? conexao : padrao(m.getReturnType()));
+    }
+
+    private static Object padrao(Class<?> tipo) {
+        if (tipo == boolean.class) {
+            return false;
+        }
+        return tipo == int.class ? 0 : null;
+    }
+}
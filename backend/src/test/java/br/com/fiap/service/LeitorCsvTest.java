@@ -0,0 +1,43 @@
+package br.com.fiap.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LeitorCsvTest {
+
+    @Test
+    void leCamposEntreAspasComSeparadorAspasEQuebraDeLinha() throws Exception {
+        LeitorCsv leitor = new LeitorCsv(new StringReader(
+                "cnpj;razaoSocial\r\n1;\"Alfa; Ltda\"\r\n\r\n2;\"Beta \"\"B\"\"\nsegunda linha\"\n3;"));
+
+        assertEquals(List.of("cnpj", "razaoSocial"), leitor.proximo());
+        assertEquals(List.of("1", "Alfa; Ltda"), leitor.proximo());
+        assertEquals(2, leitor.linhaRegistro());
+        assertEquals(List.of("2", "Beta \"B\"\nsegunda linha"), leitor.proximo());
+        assertEquals(4, leitor.linhaRegistro());
+        // A quebra dentro das aspas conta como linha do arquivo
+        assertEquals(List.of("3", ""), leitor.proximo());
+        assertEquals(6, leitor.linhaRegistro());
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    void separadorDefinidoPeloCabecalhoNaoQuebraVirgulaDosDados() throws Exception {
+        LeitorCsv leitor = new LeitorCsv(new StringReader("nome;cidade\nSilva, João;Recife\n"));
+
+        leitor.proximo();
+        assertEquals(List.of("Silva, João", "Recife"), leitor.proximo());
+    }
+
+    @Test
+    void aspasSemFechamentoSaoRejeitadas() throws Exception {
+        LeitorCsv leitor = new LeitorCsv(new StringReader("a,b\n1,\"aberta\n"));
+
+        leitor.proximo();
+        assertThrows(IllegalArgumentException.class, leitor::proximo);
+    }
+}